@@ -53,6 +53,7 @@ import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.ProfileStep;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.HaltedTraverserStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.verification.ComputerVerificationStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.ConcurrentTraverserSet;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.IndexedTraverserSet;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserSet;
 import org.apache.tinkerpop.gremlin.process.traversal.util.DefaultTraversal;
@@ -232,10 +233,12 @@ public final class TraversalVertexProgram implements VertexProgram<TraverserSet<
             assert this.haltedTraversers.isEmpty();
             final IndexedTraverserSet<Object,Vertex> remoteActiveTraversers = new IndexedTraverserSet.VertexIndexedTraverserSet();
             MasterExecutor.processTraversers(this.traversal, this.traversalMatrix, toProcessTraversers, remoteActiveTraversers, this.haltedTraversers, this.haltedTraverserStrategy);
-            memory.set(HALTED_TRAVERSERS, this.haltedTraversers);
+            final TraverserSet<Object> haltedTraversers = new ConcurrentTraverserSet<>();
+            haltedTraversers.addAll(this.haltedTraversers);
+            memory.set(HALTED_TRAVERSERS, haltedTraversers);
             memory.set(ACTIVE_TRAVERSERS, remoteActiveTraversers);
         } else {
-            memory.set(HALTED_TRAVERSERS, new TraverserSet<>());
+            memory.set(HALTED_TRAVERSERS, new ConcurrentTraverserSet<>());
             memory.set(ACTIVE_TRAVERSERS, new IndexedTraverserSet.VertexIndexedTraverserSet());
         }
         // local variable will no longer be used so null it for GC
@@ -295,7 +298,7 @@ public final class TraversalVertexProgram implements VertexProgram<TraverserSet<
                 graphStep.forEachRemaining(traverser -> {
                     if (traverser.isHalted()) {
                         if (this.returnHaltedTraversers)
-                            memory.add(HALTED_TRAVERSERS, new TraverserSet<>(this.haltedTraverserStrategy.halt(traverser)));
+                            memory.add(HALTED_TRAVERSERS, new ConcurrentTraverserSet<>(this.haltedTraverserStrategy.halt(traverser)));
                         else
                             haltedTraversers.add((Traverser.Admin) traverser.detach());
                     } else
@@ -172,6 +172,23 @@ public interface Step<S, E> extends Iterator<Traverser.Admin<E>>, Serializable,
         return Collections.emptySet();
     }
 
+    /**
+     * Fills the array with the next {@link Traverser.Admin} objects of the step from the offset onward. The provided
+     * default takes them one at a time with {@link #hasNext()} and {@link #next()} while steps that execute in
+     * batches override it to hand over a whole batch at once.
+     *
+     * @param batch  the array to fill
+     * @param offset the index of the array to start filling from
+     * @return the index after the last traverser added, which is only equal to the offset if there are no more
+     */
+    public default int nextBatch(final Traverser.Admin<E>[] batch, final int offset) {
+        int size = offset;
+        while (size < batch.length && this.hasNext()) {
+            batch[size++] = this.next();
+        }
+        return size;
+    }
+
     /**
      * Compare the current step with another step.
      *
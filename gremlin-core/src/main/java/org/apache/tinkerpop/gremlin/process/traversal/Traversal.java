@@ -181,8 +181,9 @@ public interface Traversal<S, E> extends Iterator<E>, Serializable, Cloneable, A
             // use the end step so the results are bulked
             final Step<?, E> endStep = this.asAdmin().getEndStep();
             while (true) {
-                final Traverser<E> traverser = endStep.next();
+                final Traverser.Admin<E> traverser = endStep.next();
                 TraversalHelper.addToCollection(collection, traverser.get(), traverser.bulk());
+                traverser.recycle();
             }
         } catch (final NoSuchElementException ignored) {
         } finally {
@@ -207,7 +208,7 @@ public interface Traversal<S, E> extends Iterator<E>, Serializable, Cloneable, A
             // use the end step so the results are bulked
             final Step<?, E> endStep = this.asAdmin().getEndStep();
             while (true) {
-                endStep.next();
+                endStep.next().recycle();
             }
         } catch (final NoSuchElementException ignored) {
         } finally {
@@ -334,5 +334,13 @@ public interface Traverser<T> extends Serializable, Comparable<Traverser<T>>, Cl
         public default Set<String> getLoopNames() {
             return Collections.emptySet();
         }
+
+        /**
+         * Signals that the traversal holds no more references to the traverser, which is called where a step drops
+         * one, like a filter that rejects it or a map that has split it. Traversers generated in a recyclable mode
+         * return themselves to a pool to be reused by a later split, while the provided default does nothing.
+         */
+        public default void recycle() {
+        }
     }
 }
@@ -36,21 +36,49 @@ public abstract class FilterStep<S> extends AbstractStep<S, S> {
     @Override
     protected Traverser.Admin<S> processNextStart() {
         while (true) {
-            try {
-                final Traverser.Admin<S> traverser = this.starts.next();
-                if (this.filter(traverser))
-                    return traverser;
-            } catch (GremlinTypeErrorException ex) {
-                if (this instanceof BinaryReductionStep || getTraversal().isRoot()) {
-                    /*
-                     * Either we are at a known reduction point (TraversalFilterStep, WhereTraversalStep), or we
-                     * are at the top level of the query. In either of these cases we do a binary reduction from
-                     * ERROR -> FALSE and filter the solution quietly.
-                     */
-                } else {
-                    // not a ternary -> binary reducer, pass the ERROR on
-                    throw ex;
-                }
+            final Traverser.Admin<S> traverser = this.starts.next();
+            if (this.test(traverser))
+                return traverser;
+            traverser.recycle();
+        }
+    }
+
+    /**
+     * Filters a batch of starts in place in the array, taking another batch if none of them pass. Starts with a bulk
+     * of zero are left out without being tested.
+     */
+    @Override
+    protected int processNextBatch(final Traverser.Admin<S>[] ends, final int offset) {
+        int size = offset;
+        while (size == offset) {
+            final int length = this.starts.nextBatch(ends, offset);
+            if (length == offset) break;
+            for (int i = offset; i < length; i++) {
+                final Traverser.Admin<S> traverser = ends[i];
+                ends[i] = null;
+                if (traverser.bulk() > 0 && this.test(traverser))
+                    ends[size++] = traverser;
+                else
+                    traverser.recycle();
+            }
+        }
+        return size;
+    }
+
+    private boolean test(final Traverser.Admin<S> traverser) {
+        try {
+            return this.filter(traverser);
+        } catch (GremlinTypeErrorException ex) {
+            if (this instanceof BinaryReductionStep || getTraversal().isRoot()) {
+                /*
+                 * Either we are at a known reduction point (TraversalFilterStep, WhereTraversalStep), or we
+                 * are at the top level of the query. In either of these cases we do a binary reduction from
+                 * ERROR -> FALSE and filter the solution quietly.
+                 */
+                return false;
+            } else {
+                // not a ternary -> binary reducer, pass the ERROR on
+                throw ex;
             }
         }
     }
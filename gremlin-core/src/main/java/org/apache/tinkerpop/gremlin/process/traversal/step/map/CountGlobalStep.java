@@ -44,7 +44,9 @@ public final class CountGlobalStep<S> extends ReducingBarrierStep<S, Long> {
 
     @Override
     public Long projectTraverser(final Traverser.Admin<S> traverser) {
-        return traverser.bulk();
+        final long bulk = traverser.bulk();
+        traverser.recycle();
+        return bulk;
     }
 
     @Override
@@ -33,6 +33,9 @@ public abstract class FlatMapStep<S, E> extends AbstractStep<S, E> {
 
     private Traverser.Admin<S> head = null;
     private Iterator<E> iterator = EmptyIterator.instance();
+    private Traverser.Admin<S>[] heads = null;
+    private int headIndex = 0;
+    private int headLength = 0;
 
     public FlatMapStep(final Traversal.Admin traversal) {
         super(traversal);
@@ -45,12 +48,41 @@ public abstract class FlatMapStep<S, E> extends AbstractStep<S, E> {
                 return this.head.split(this.iterator.next(), this);
             } else {
                 closeIterator();
+                this.recycleHead();
                 this.head = this.starts.next();
                 this.iterator = this.flatMap(this.head);
             }
         }
     }
 
+    /**
+     * Takes a batch of starts at a time and drains the iterator of each into the array, keeping the starts and the
+     * iterator that do not fit for the next batch. Starts with a bulk of zero are skipped without being expanded.
+     */
+    @Override
+    protected int processNextBatch(final Traverser.Admin<E>[] ends, final int offset) {
+        int size = offset;
+        while (size < ends.length) {
+            if (this.iterator.hasNext()) {
+                ends[size++] = this.head.split(this.iterator.next(), this);
+            } else {
+                closeIterator();
+                this.recycleHead();
+                if (this.headIndex == this.headLength) {
+                    if (null == this.heads)
+                        this.heads = new Traverser.Admin[ends.length];
+                    this.headIndex = 0;
+                    this.headLength = this.starts.nextBatch(this.heads, 0);
+                    if (0 == this.headLength) break;
+                }
+                this.head = this.heads[this.headIndex];
+                this.heads[this.headIndex++] = null;
+                this.iterator = this.head.bulk() > 0 ? this.flatMap(this.head) : EmptyIterator.instance();
+            }
+        }
+        return size;
+    }
+
     protected abstract Iterator<E> flatMap(final Traverser.Admin<S> traverser);
 
     @Override
@@ -58,6 +90,20 @@ public abstract class FlatMapStep<S, E> extends AbstractStep<S, E> {
         super.reset();
         closeIterator();
         this.iterator = EmptyIterator.instance();
+        this.head = null;
+        this.heads = null;
+        this.headIndex = 0;
+        this.headLength = 0;
+    }
+
+    /**
+     * Recycles the start whose iterator is drained as every traverser it produced was split from it.
+     */
+    private void recycleHead() {
+        if (null != this.head) {
+            this.head.recycle();
+            this.head = null;
+        }
     }
 
     protected void closeIterator() {
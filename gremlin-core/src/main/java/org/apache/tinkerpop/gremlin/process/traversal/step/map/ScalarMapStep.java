@@ -37,7 +37,31 @@ public abstract class ScalarMapStep<S, E> extends MapStep<S,E> {
     @Override
     protected Traverser.Admin<E> processNextStart() {
         final Traverser.Admin<S> traverser = this.starts.next();
-        return traverser.split(this.map(traverser), this);
+        final Traverser.Admin<E> split = traverser.split(this.map(traverser), this);
+        traverser.recycle();
+        return split;
+    }
+
+    /**
+     * Maps a batch of starts in place in the array, leaving out starts with a bulk of zero and taking another batch if
+     * all of them have one.
+     */
+    @Override
+    protected int processNextBatch(final Traverser.Admin<E>[] ends, final int offset) {
+        final Traverser.Admin[] starts = ends;
+        int size = offset;
+        while (size == offset) {
+            final int length = this.starts.nextBatch(starts, offset);
+            if (length == offset) break;
+            for (int i = offset; i < length; i++) {
+                final Traverser.Admin<S> traverser = starts[i];
+                starts[i] = null;
+                if (traverser.bulk() > 0)
+                    ends[size++] = traverser.split(this.map(traverser), this);
+                traverser.recycle();
+            }
+        }
+        return size;
     }
 
     protected abstract E map(final Traverser.Admin<S> traverser);
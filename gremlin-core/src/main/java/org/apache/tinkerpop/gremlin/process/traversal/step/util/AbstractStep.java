@@ -21,9 +21,11 @@ package org.apache.tinkerpop.gremlin.process.traversal.step.util;
 import org.apache.tinkerpop.gremlin.process.traversal.Step;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Batchable;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.EmptyTraverser;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserSet;
 import org.apache.tinkerpop.gremlin.process.traversal.util.EmptyTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalInterruptedException;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 
@@ -45,6 +47,10 @@ public abstract class AbstractStep<S, E> implements Step<S, E> {
     protected ExpandableStepIterator<S> starts;
     protected Traverser.Admin<E> nextEnd = EmptyTraverser.instance();
     protected boolean traverserStepIdAndLabelsSetByChild = false;
+    protected int batchSize = 0;
+    private Traverser.Admin<E>[] batch = null;
+    private int batchIndex = 0;
+    private int batchLength = 0;
 
     protected Step<?, S> previousStep = EmptyStep.instance();
     protected Step<E, ?> nextStep = EmptyStep.instance();
@@ -84,6 +90,9 @@ public abstract class AbstractStep<S, E> implements Step<S, E> {
     public void reset() {
         this.starts.clear();
         this.nextEnd = EmptyTraverser.instance();
+        this.batch = null;
+        this.batchIndex = 0;
+        this.batchLength = 0;
     }
 
     @Override
@@ -129,6 +138,12 @@ public abstract class AbstractStep<S, E> implements Step<S, E> {
             } finally {
                 this.nextEnd = EmptyTraverser.instance();
             }
+        } else if (this.batchSize > 0) {
+            if (this.batchIndex == this.batchLength && !this.fillBatch())
+                throw FastNoSuchElementException.instance();
+            final Traverser.Admin<E> traverser = this.batch[this.batchIndex];
+            this.batch[this.batchIndex++] = null;
+            return traverser;
         } else {
             while (true) {
                 if (Thread.interrupted()) throw new TraversalInterruptedException();
@@ -143,6 +158,8 @@ public abstract class AbstractStep<S, E> implements Step<S, E> {
     public boolean hasNext() {
         if (EmptyTraverser.instance() != this.nextEnd)
             return true;
+        else if (this.batchSize > 0)
+            return this.batchIndex < this.batchLength || this.fillBatch();
         else {
             try {
                 while (true) {
@@ -169,8 +186,80 @@ public abstract class AbstractStep<S, E> implements Step<S, E> {
         this.traversal = traversal;
     }
 
+    @Override
+    public int nextBatch(final Traverser.Admin<E>[] ends, final int offset) {
+        if (this.batchSize <= 0)
+            return Step.super.nextBatch(ends, offset);
+
+        int size = offset;
+        while (size < ends.length && this.batchIndex < this.batchLength) {
+            ends[size++] = this.batch[this.batchIndex];
+            this.batch[this.batchIndex++] = null;
+        }
+        if (size < ends.length) {
+            if (Thread.interrupted()) throw new TraversalInterruptedException();
+            final int filled = this.processNextBatch(ends, size);
+            for (; size < filled; size++) {
+                this.prepareTraversalForNextStep(ends[size]);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Sets the number of traversers the step processes at a time, where a number greater than zero has the step
+     * fill a buffer of that many traversers with {@link #processNextBatch} whenever it runs out rather than calling
+     * {@link #processNextStart()} per traverser. Only steps that are {@link Batchable} can execute in batches.
+     */
+    public void setBatchSize(final int batchSize) {
+        if (batchSize > 0 && !(this instanceof Batchable))
+            throw new IllegalStateException("The step cannot process its starts in batches: " + this);
+        this.batchSize = Math.max(0, batchSize);
+        this.batch = null;
+        this.batchIndex = 0;
+        this.batchLength = 0;
+    }
+
+    public int getBatchSize() {
+        return this.batchSize;
+    }
+
     protected abstract Traverser.Admin<E> processNextStart() throws NoSuchElementException;
 
+    /**
+     * Fills the array with the traversers the step emits from the offset onward, leaving out any with a bulk of zero.
+     * The provided default calls {@link #processNextStart()} until the array is full while {@link Batchable} steps
+     * override it to take a batch of starts with {@link ExpandableStepIterator#nextBatch} and process them in a
+     * single loop.
+     *
+     * @return the index after the last traverser added, which is only equal to the offset if there are no more
+     */
+    protected int processNextBatch(final Traverser.Admin<E>[] ends, final int offset) {
+        int size = offset;
+        try {
+            while (size < ends.length) {
+                final Traverser.Admin<E> traverser = this.processNextStart();
+                if (traverser.bulk() > 0)
+                    ends[size++] = traverser;
+            }
+        } catch (final NoSuchElementException e) {
+            // no more starts so return what has been processed
+        }
+        return size;
+    }
+
+    private boolean fillBatch() {
+        if (Thread.interrupted()) throw new TraversalInterruptedException();
+        if (null == this.batch)
+            this.batch = new Traverser.Admin[this.batchSize];
+        this.batchIndex = 0;
+        this.batchLength = this.processNextBatch(this.batch, 0);
+        for (int i = 0; i < this.batchLength; i++) {
+            this.prepareTraversalForNextStep(this.batch[i]);
+        }
+        return this.batchLength > 0;
+    }
+
     @Override
     public String toString() {
         return StringFactory.stepString(this);
@@ -185,6 +274,7 @@ public abstract class AbstractStep<S, E> implements Step<S, E> {
             clone.previousStep = EmptyStep.instance();
             clone.nextStep = EmptyStep.instance();
             clone.nextEnd = EmptyTraverser.instance();
+            clone.batch = null;
             clone.traversal = EmptyTraversal.instance();
             clone.labels = new LinkedHashSet<>(this.labels);
             clone.reset();
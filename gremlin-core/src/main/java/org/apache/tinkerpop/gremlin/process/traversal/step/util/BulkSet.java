@@ -18,29 +18,52 @@
  */
 package org.apache.tinkerpop.gremlin.process.traversal.step.util;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.AbstractMap;
 import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
 import java.util.Spliterator;
 import java.util.function.BiConsumer;
-import java.util.stream.Collectors;
 
 /**
  * BulkSet is a weighted set (i.e. a multi-set). Objects are added along with a bulk counter the denotes how many times the object was added to the set.
  * Given that count-based compression (vs. enumeration) can yield large sets, methods exist that are long-based (2^64).
+ * <p/>
+ * The objects are held in insertion order in an array alongside an array of their primitive bulks, with an open
+ * addressing hash table of their positions, so adding to the bulk of an object does not box a {@code Long}.
  *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 public final class BulkSet<S> extends AbstractSet<S> implements Set<S>, Serializable {
-    private final Map<S, Long> map = new LinkedHashMap<>();
+
+    private static final int INITIAL_CAPACITY = 8;
+    private static final int EMPTY = -1;
+    /**
+     * Marks the position of a removed object, as {@code null} may be an object of the set.
+     */
+    private static final Object REMOVED = new Object();
+
+    private transient Object[] objects = null;
+    private transient long[] bulks = null;
+    private transient int[] hashes = null;
+    /**
+     * The positions of the objects in the arrays by their hash codes with linear probing, which is twice the size of
+     * the arrays to keep it at most half full.
+     */
+    private transient int[] table = null;
+    private transient int tail = 0;
+    private transient int uniqueSize = 0;
 
     @Override
     public int size() {
@@ -48,21 +71,26 @@ public final class BulkSet<S> extends AbstractSet<S> implements Set<S>, Serializ
     }
 
     public int uniqueSize() {
-        return this.map.size();
+        return this.uniqueSize;
     }
 
     public long longSize() {
-        return this.map.values().stream().collect(Collectors.summingLong(Long::longValue));
+        long size = 0L;
+        for (int i = 0; i < this.tail; i++) {
+            if (REMOVED != this.objects[i])
+                size = size + this.bulks[i];
+        }
+        return size;
     }
 
     @Override
     public boolean isEmpty() {
-        return this.map.isEmpty();
+        return 0 == this.uniqueSize;
     }
 
     @Override
     public boolean contains(final Object s) {
-        return this.map.containsKey(s);
+        return EMPTY != this.position(s, hash(s));
     }
 
     @Override
@@ -73,7 +101,11 @@ public final class BulkSet<S> extends AbstractSet<S> implements Set<S>, Serializ
     @Override
     public boolean addAll(final Collection<? extends S> collection) {
         if (collection instanceof BulkSet) {
-            ((BulkSet<S>) collection).map.forEach(this::add);
+            final BulkSet<S> bulkSet = (BulkSet<S>) collection;
+            for (int i = 0; i < bulkSet.tail; i++) {
+                if (REMOVED != bulkSet.objects[i])
+                    this.add((S) bulkSet.objects[i], bulkSet.hashes[i], bulkSet.bulks[i]);
+            }
         } else {
             collection.iterator().forEachRemaining(this::add);
         }
@@ -81,37 +113,42 @@ public final class BulkSet<S> extends AbstractSet<S> implements Set<S>, Serializ
     }
 
     public void forEach(final BiConsumer<S, Long> consumer) {
-        this.map.forEach(consumer);
+        for (int i = 0; i < this.tail; i++) {
+            if (REMOVED != this.objects[i])
+                consumer.accept((S) this.objects[i], this.bulks[i]);
+        }
     }
 
     public Map<S, Long> asBulk() {
-        return Collections.unmodifiableMap(map);
+        return new BulkMap();
     }
 
     public boolean add(final S s, final long bulk) {
-        final Long current = this.map.get(s);
-        if (current != null) {
-            this.map.put(s, current + bulk);
-            return false;
-        } else {
-            this.map.put(s, bulk);
-            return true;
-        }
+        return this.add(s, hash(s), bulk);
     }
 
     public long get(final S s) {
-        final Long bulk = this.map.get(s);
-        return null == bulk ? 0 : bulk;
+        final int position = this.position(s, hash(s));
+        return EMPTY == position ? 0 : this.bulks[position];
     }
 
     @Override
     public boolean remove(final Object s) {
-        return this.map.remove(s) != null;
+        final int position = this.position(s, hash(s));
+        if (EMPTY == position)
+            return false;
+        this.delete(position);
+        return true;
     }
 
     @Override
     public void clear() {
-        this.map.clear();
+        if (null != this.objects) {
+            Arrays.fill(this.objects, 0, this.tail, null);
+            Arrays.fill(this.table, EMPTY);
+        }
+        this.tail = 0;
+        this.uniqueSize = 0;
     }
 
     @Override
@@ -124,7 +161,7 @@ public final class BulkSet<S> extends AbstractSet<S> implements Set<S>, Serializ
         Objects.requireNonNull(collection);
         boolean modified = false;
         for (final Object object : collection) {
-            if (null != this.map.remove(object))
+            if (this.remove(object))
                 modified = true;
         }
         return modified;
@@ -132,22 +169,40 @@ public final class BulkSet<S> extends AbstractSet<S> implements Set<S>, Serializ
 
     @Override
     public int hashCode() {
-        return this.map.hashCode();
+        // the same as the hash code of a map of the objects to their bulks
+        int hashCode = 0;
+        for (int i = 0; i < this.tail; i++) {
+            if (REMOVED != this.objects[i])
+                hashCode = hashCode + (Objects.hashCode(this.objects[i]) ^ Long.hashCode(this.bulks[i]));
+        }
+        return hashCode;
     }
 
     @Override
     public boolean equals(final Object object) {
-        return object instanceof BulkSet && this.map.equals(((BulkSet) object).map);
+        if (this == object)
+            return true;
+        if (!(object instanceof BulkSet) || ((BulkSet) object).uniqueSize != this.uniqueSize)
+            return false;
+        final BulkSet<?> other = (BulkSet<?>) object;
+        for (int i = 0; i < this.tail; i++) {
+            if (REMOVED != this.objects[i]) {
+                final int position = other.position(this.objects[i], this.hashes[i]);
+                if (EMPTY == position || other.bulks[position] != this.bulks[i])
+                    return false;
+            }
+        }
+        return true;
     }
 
     @Override
     public String toString() {
-        return this.map.toString();
+        return this.asBulk().toString();
     }
 
     private List<S> toList() {
         final List<S> list = new ArrayList<>();
-        this.map.forEach((k, v) -> {
+        this.forEach((k, v) -> {
             for (long i = 0; i < v; i++) {
                 list.add(k);
             }
@@ -158,12 +213,12 @@ public final class BulkSet<S> extends AbstractSet<S> implements Set<S>, Serializ
     @Override
     public Iterator<S> iterator() {
         return new Iterator<S>() {
-            final Iterator<Map.Entry<S, Long>> entryIterator = map.entrySet().iterator();
+            int position = 0;
             S lastObject = null;
             long lastCount = 0l;
 
             public boolean hasNext() {
-                return this.lastCount > 0l || this.entryIterator.hasNext();
+                return this.lastCount > 0l || nextPosition(this.position) < tail;
             }
 
             @Override
@@ -172,15 +227,235 @@ public final class BulkSet<S> extends AbstractSet<S> implements Set<S>, Serializ
                     this.lastCount--;
                     return this.lastObject;
                 }
-                final Map.Entry<S, Long> entry = entryIterator.next();
-                if (entry.getValue() == 1) {
-                    return entry.getKey();
-                } else {
-                    this.lastObject = entry.getKey();
-                    this.lastCount = entry.getValue() - 1;
-                    return this.lastObject;
-                }
+                this.position = nextPosition(this.position);
+                if (this.position >= tail)
+                    throw new NoSuchElementException();
+                this.lastObject = (S) objects[this.position];
+                this.lastCount = bulks[this.position++] - 1;
+                return this.lastObject;
             }
         };
     }
+
+    /**
+     * Gets the first position from the one given that holds an object, or the tail if there is none.
+     */
+    private int nextPosition(int position) {
+        while (position < this.tail && REMOVED == this.objects[position]) {
+            position++;
+        }
+        return position;
+    }
+
+    private boolean add(final S s, final int hash, final long bulk) {
+        final int position = this.position(s, hash);
+        if (EMPTY != position) {
+            this.bulks[position] = this.bulks[position] + bulk;
+            return false;
+        }
+
+        if (null == this.objects)
+            this.allocate(INITIAL_CAPACITY);
+        else if (this.tail == this.objects.length)
+            this.allocate(this.uniqueSize < this.objects.length / 2 ? this.objects.length : this.objects.length * 2);
+        this.objects[this.tail] = s;
+        this.bulks[this.tail] = bulk;
+        this.hashes[this.tail] = hash;
+        this.table[this.free(hash)] = this.tail++;
+        this.uniqueSize++;
+        return true;
+    }
+
+    /**
+     * Gets the position of the equal object in the arrays, or {@link #EMPTY} if there is none.
+     */
+    private int position(final Object s, final int hash) {
+        if (0 == this.uniqueSize)
+            return EMPTY;
+        final int mask = this.table.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            final int position = this.table[slot];
+            if (EMPTY == position)
+                return EMPTY;
+            if (this.hashes[position] == hash && Objects.equals(this.objects[position], s))
+                return position;
+        }
+    }
+
+    /**
+     * Gets the first empty slot of the table for the hash.
+     */
+    private int free(final int hash) {
+        final int mask = this.table.length - 1;
+        int slot = hash & mask;
+        while (EMPTY != this.table[slot]) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Removes the object at the position of the arrays, shifting back the positions in the table that follow its
+     * slot so that no probe sequence is broken by the empty slot.
+     */
+    private void delete(final int position) {
+        final int mask = this.table.length - 1;
+        int slot = this.hashes[position] & mask;
+        while (this.table[slot] != position) {
+            slot = (slot + 1) & mask;
+        }
+        int next = (slot + 1) & mask;
+        while (EMPTY != this.table[next]) {
+            final int home = this.hashes[this.table[next]] & mask;
+            // the position at next can move back to slot unless its home lies cyclically within (slot, next]
+            if (slot <= next ? (home <= slot || home > next) : (home <= slot && home > next)) {
+                this.table[slot] = this.table[next];
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+        this.table[slot] = EMPTY;
+
+        this.objects[position] = REMOVED;
+        this.uniqueSize--;
+        if (0 == this.uniqueSize)
+            this.clear();
+    }
+
+    /**
+     * Moves the objects to the front of arrays of the capacity and rebuilds the table of their positions.
+     */
+    private void allocate(final int capacity) {
+        final Object[] objects = new Object[capacity];
+        final long[] bulks = new long[capacity];
+        final int[] hashes = new int[capacity];
+        int count = 0;
+        for (int i = 0; i < this.tail; i++) {
+            if (REMOVED != this.objects[i]) {
+                objects[count] = this.objects[i];
+                bulks[count] = this.bulks[i];
+                hashes[count++] = this.hashes[i];
+            }
+        }
+        this.objects = objects;
+        this.bulks = bulks;
+        this.hashes = hashes;
+        this.table = new int[capacity * 2];
+        Arrays.fill(this.table, EMPTY);
+        for (int i = 0; i < count; i++) {
+            this.table[this.free(hashes[i])] = i;
+        }
+        this.tail = count;
+    }
+
+    private static int hash(final Object s) {
+        final int hash = Objects.hashCode(s) * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private void writeObject(final ObjectOutputStream outputStream) throws IOException {
+        outputStream.defaultWriteObject();
+        outputStream.writeInt(this.uniqueSize);
+        for (int i = 0; i < this.tail; i++) {
+            if (REMOVED != this.objects[i]) {
+                outputStream.writeObject(this.objects[i]);
+                outputStream.writeLong(this.bulks[i]);
+            }
+        }
+    }
+
+    private void readObject(final ObjectInputStream inputStream) throws IOException, ClassNotFoundException {
+        inputStream.defaultReadObject();
+        final int uniqueSize = inputStream.readInt();
+        for (int i = 0; i < uniqueSize; i++) {
+            this.add((S) inputStream.readObject(), inputStream.readLong());
+        }
+    }
+
+    /**
+     * An unmodifiable view of the objects of the set and their bulks that only boxes a bulk when it is read.
+     */
+    private final class BulkMap extends AbstractMap<S, Long> {
+
+        @Override
+        public int size() {
+            return uniqueSize;
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return BulkSet.this.contains(key);
+        }
+
+        @Override
+        public Long get(final Object key) {
+            final int position = position(key, hash(key));
+            return EMPTY == position ? null : bulks[position];
+        }
+
+        @Override
+        public Set<S> keySet() {
+            return new AbstractSet<S>() {
+                @Override
+                public int size() {
+                    return uniqueSize;
+                }
+
+                @Override
+                public boolean contains(final Object key) {
+                    return BulkSet.this.contains(key);
+                }
+
+                @Override
+                public Iterator<S> iterator() {
+                    return new PositionIterator<S>() {
+                        @Override
+                        protected S get(final int position) {
+                            return (S) objects[position];
+                        }
+                    };
+                }
+            };
+        }
+
+        @Override
+        public Set<Entry<S, Long>> entrySet() {
+            return new AbstractSet<Entry<S, Long>>() {
+                @Override
+                public int size() {
+                    return uniqueSize;
+                }
+
+                @Override
+                public Iterator<Entry<S, Long>> iterator() {
+                    return new PositionIterator<Entry<S, Long>>() {
+                        @Override
+                        protected Entry<S, Long> get(final int position) {
+                            return new SimpleImmutableEntry<>((S) objects[position], bulks[position]);
+                        }
+                    };
+                }
+            };
+        }
+    }
+
+    private abstract class PositionIterator<T> implements Iterator<T> {
+
+        private int position = 0;
+
+        @Override
+        public boolean hasNext() {
+            this.position = BulkSet.this.nextPosition(this.position);
+            return this.position < tail;
+        }
+
+        @Override
+        public T next() {
+            if (!this.hasNext())
+                throw new NoSuchElementException();
+            return this.get(this.position++);
+        }
+
+        protected abstract T get(final int position);
+    }
 }
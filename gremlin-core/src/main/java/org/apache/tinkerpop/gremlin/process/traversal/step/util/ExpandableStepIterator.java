@@ -58,6 +58,25 @@ public final class ExpandableStepIterator<S> implements Iterator<Traverser.Admin
         return this.traverserSet.remove();
     }
 
+    /**
+     * Fills the array from the offset onward with the traversers added to the step and then with those of the
+     * previous step, which it hands over as a batch if it executes in batches.
+     *
+     * @return the index after the last traverser added, which is only equal to the offset if there are no more
+     */
+    public int nextBatch(final Traverser.Admin<S>[] batch, final int offset) {
+        int size = offset;
+        while (size < batch.length) {
+            if (!this.traverserSet.isEmpty())
+                batch[size++] = this.traverserSet.remove();
+            else if (this.hostStep.getPreviousStep().hasNext())
+                size = this.hostStep.getPreviousStep().nextBatch(batch, size);
+            else
+                break;
+        }
+        return size;
+    }
+
     public void add(final Iterator<Traverser.Admin<S>> iterator) {
         iterator.forEachRemaining(this.traverserSet::add);
     }
@@ -20,31 +20,65 @@ package org.apache.tinkerpop.gremlin.process.traversal.step.util;
 
 import org.apache.tinkerpop.gremlin.process.traversal.Path;
 import org.apache.tinkerpop.gremlin.process.traversal.Pop;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.util.DefaultTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
 /**
+ * A {@link Path} that is never changed, so that extending it shares the path as the prefix of the new one. The labels
+ * of each object are a set interned by the {@link PathLabelTable} that all sections of a path share, which tests for a
+ * label with a bit, and the size and hash code of a path are computed from those of its prefix when it is extended.
+ * Two paths of the same table only compare the sections that are not shared.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 public class ImmutablePath implements Path, Serializable, Cloneable {
 
     private static final Object END = EmptyPath.instance();
-    private static final ImmutablePath TAIL_PATH = new ImmutablePath(null, END, null);
 
-    private ImmutablePath previousPath;
-    private Object currentObject;
-    private Set<String> currentLabels;
+    /**
+     * The table of the paths made without a traversal, which can be shared as a table is safe to share among threads
+     * and only grows, so that making such a path does not allocate a table.
+     */
+    private static final PathLabelTable SHARED_LABEL_TABLE = new PathLabelTable();
+
+    private final ImmutablePath previousPath;
+    private final Object currentObject;
+    private final PathLabelTable.Labels currentLabels;
+    private final int size;
+    private final int hashCode;
 
+    /**
+     * Makes an empty path whose labels are interned by the table shared by every path made without a traversal.
+     */
     public static Path make() {
-        return TAIL_PATH;
+        return SHARED_LABEL_TABLE.emptyPath();
+    }
+
+    /**
+     * Makes an empty path that shares the label table of the root of the traversal with the other paths of the
+     * traversal.
+     */
+    public static Path make(final Traversal.Admin<?, ?> traversal) {
+        final Traversal.Admin<?, ?> root = TraversalHelper.getRootTraversal(traversal);
+        return root instanceof DefaultTraversal ? ((DefaultTraversal<?, ?>) root).getPathLabelTable().emptyPath() : make();
+    }
+
+    /**
+     * Makes an empty path that shares the label table of the path if it is an {@code ImmutablePath}.
+     */
+    public static Path make(final Path path) {
+        return path instanceof ImmutablePath ? ((ImmutablePath) path).currentLabels.getTable().emptyPath() : make();
     }
 
     @SuppressWarnings("CloneDoesntCallSuperClone,CloneDoesntDeclareCloneNotSupportedException")
@@ -53,14 +87,37 @@ public class ImmutablePath implements Path, Serializable, Cloneable {
         return this;
     }
 
-    private ImmutablePath(final ImmutablePath previousPath, final Object currentObject, final Set<String> currentLabels) {
+    ImmutablePath(final PathLabelTable.Labels noLabels) {
+        this.previousPath = null;
+        this.currentObject = END;
+        this.currentLabels = noLabels;
+        this.size = 0;
+        this.hashCode = 1;
+    }
+
+    private ImmutablePath(final ImmutablePath previousPath, final Object currentObject, final PathLabelTable.Labels currentLabels) {
         this.previousPath = previousPath;
         this.currentObject = currentObject;
         this.currentLabels = currentLabels;
+        this.size = previousPath.size + 1;
+        // hashCode algorithm from AbstractList
+        this.hashCode = previousPath.hashCode * 31 + Objects.hashCode(currentObject);
+    }
+
+    private ImmutablePath(final ImmutablePath path, final PathLabelTable.Labels currentLabels) {
+        this.previousPath = path.previousPath;
+        this.currentObject = path.currentObject;
+        this.currentLabels = currentLabels;
+        this.size = path.size;
+        this.hashCode = path.hashCode;
     }
 
     private final boolean isTail() {
-        return END.equals(this.currentObject);
+        return 0 == this.size;
+    }
+
+    private PathLabelTable labelTable() {
+        return this.currentLabels.getTable();
     }
 
     @Override
@@ -70,13 +127,7 @@ public class ImmutablePath implements Path, Serializable, Cloneable {
 
     @Override
     public int size() {
-        int counter = 0;
-        ImmutablePath currentPath = this;
-        while (true) {
-            if (currentPath.isTail()) return counter;
-            counter++;
-            currentPath = currentPath.previousPath;
-        }
+        return this.size;
     }
 
     @Override
@@ -86,55 +137,68 @@ public class ImmutablePath implements Path, Serializable, Cloneable {
 
     @Override
     public Path extend(final Object object, final Set<String> labels) {
-        return new ImmutablePath(this, object, labels);
+        return new ImmutablePath(this, object, this.labelTable().labels(labels));
     }
 
     @Override
     public Path extend(final Set<String> labels) {
-        if (labels.isEmpty() || this.currentLabels.containsAll(labels))
+        if (labels.isEmpty())
             return this;
-        else {
-            final Set<String> newLabels = new LinkedHashSet<>();
-            newLabels.addAll(this.currentLabels);
-            newLabels.addAll(labels);
-            return new ImmutablePath(this.previousPath, this.currentObject, newLabels);
-        }
+        final PathLabelTable.Labels newLabels = this.currentLabels.with(labels);
+        return newLabels == this.currentLabels ? this : new ImmutablePath(this, newLabels);
     }
 
     @Override
     public Path retract(final Set<String> labels) {
-        if (labels.isEmpty())
+        if (labels.isEmpty() || this.isTail())
             return this;
 
-        // get all the immutable path sections
-        final List<ImmutablePath> immutablePaths = new ArrayList<>();
+        final PathLabelTable labelTable = this.labelTable();
+        long bits = 0L;
+        for (final String label : labels) {
+            final int index = labelTable.find(label);
+            if (index >= 0 && index < PathLabelTable.BITS)
+                bits |= 1L << index;
+        }
+
+        // find the section closest to the start of the path that holds a label to retract or has no labels, as
+        // neither is kept, so that the sections before it are shared by the retracted path
+        int retracted = 0;
+        int counter = 0;
         ImmutablePath currentPath = this;
-        while (true) {
-            if (currentPath.isTail())
-                break;
-            immutablePaths.add(0, currentPath);
+        while (!currentPath.isTail()) {
+            counter++;
+            if (currentPath.currentLabels.isEmpty() || currentPath.currentLabels.containsAny(bits, labels))
+                retracted = counter;
+            currentPath = currentPath.previousPath;
+        }
+        if (0 == retracted)
+            return this;
+
+        // rebuild the sections from there on without the retracted labels
+        final ImmutablePath[] sections = new ImmutablePath[retracted];
+        currentPath = this;
+        for (int i = retracted - 1; i >= 0; i--) {
+            sections[i] = currentPath;
             currentPath = currentPath.previousPath;
         }
-        // build a new immutable path using the respective path sections that are not to be retracted
-        Path newPath = TAIL_PATH;
-        for (final ImmutablePath immutablePath : immutablePaths) {
-            final Set<String> temp = new LinkedHashSet<>(immutablePath.currentLabels);
-            temp.removeAll(labels);
-            if (!temp.isEmpty())
-                newPath = newPath.extend(immutablePath.currentObject, temp);
+        for (final ImmutablePath section : sections) {
+            final PathLabelTable.Labels sectionLabels = section.currentLabels.without(labels);
+            if (!sectionLabels.isEmpty())
+                currentPath = new ImmutablePath(currentPath, section.currentObject, sectionLabels);
         }
-        return newPath;
+        return currentPath;
     }
 
     @Override
     public <A> A get(final int index) {
-        int counter = this.size();
+        if (index < 0 || index >= this.size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
         ImmutablePath currentPath = this;
-        while (true) {
-            if (index == --counter)
-                return (A) currentPath.currentObject;
+        for (int i = this.size - 1; i > index; i--) {
             currentPath = currentPath.previousPath;
         }
+        return (A) currentPath.currentObject;
     }
 
     @Override
@@ -144,32 +208,35 @@ public class ImmutablePath implements Path, Serializable, Cloneable {
         } else if (Pop.all == pop) {
             // Recursively build the list to avoid building objects/labels collections.
             final List<Object> list = new ArrayList<>();
+            final int index = this.labelTable().find(label);
             ImmutablePath currentPath = this;
             while (true) {
                 if (currentPath.isTail())
                     break;
-                else if (currentPath.currentLabels.contains(label))
+                else if (currentPath.currentLabels.contains(index, label))
                     list.add(0, currentPath.currentObject);
                 currentPath = currentPath.previousPath;
             }
             return (A) list;
         } else if (Pop.last == pop) {
+            final int index = this.labelTable().find(label);
             ImmutablePath currentPath = this;
             while (true) {
                 if (currentPath.isTail())
                     throw Path.Exceptions.stepWithProvidedLabelDoesNotExist(label);
-                else if (currentPath.currentLabels.contains(label))
+                else if (currentPath.currentLabels.contains(index, label))
                     return (A) currentPath.currentObject;
                 else
                     currentPath = currentPath.previousPath;
             }
         } else { // Pop.first
             A found = null;
+            final int index = this.labelTable().find(label);
             ImmutablePath currentPath = this;
             while (true) {
                 if (currentPath.isTail())
                     break;
-                else if (currentPath.currentLabels.contains(label))
+                else if (currentPath.currentLabels.contains(index, label))
                     found = (A) currentPath.currentObject;
                 currentPath = currentPath.previousPath;
             }
@@ -180,11 +247,14 @@ public class ImmutablePath implements Path, Serializable, Cloneable {
 
     @Override
     public boolean hasLabel(final String label) {
+        final int index = this.labelTable().find(label);
+        if (index < 0)
+            return false;
         ImmutablePath currentPath = this;
         while (true) {
             if (currentPath.isTail())
                 return false;
-            else if (currentPath.currentLabels.contains(label))
+            else if (currentPath.currentLabels.contains(index, label))
                 return true;
             else
                 currentPath = currentPath.previousPath;
@@ -193,28 +263,24 @@ public class ImmutablePath implements Path, Serializable, Cloneable {
 
     @Override
     public List<Object> objects() {
-        final List<Object> objects = new ArrayList<>();
+        final Object[] objects = new Object[this.size];
         ImmutablePath currentPath = this;
-        while (true) {
-            if (currentPath.isTail())
-                break;
-            objects.add(0, currentPath.currentObject);
+        for (int i = this.size - 1; i >= 0; i--) {
+            objects[i] = currentPath.currentObject;
             currentPath = currentPath.previousPath;
         }
-        return Collections.unmodifiableList(objects);
+        return Collections.unmodifiableList(Arrays.asList(objects));
     }
 
     @Override
     public List<Set<String>> labels() {
-        final List<Set<String>> labels = new ArrayList<>();
+        final Set<String>[] labels = new Set[this.size];
         ImmutablePath currentPath = this;
-        while (true) {
-            if (currentPath.isTail())
-                break;
-            labels.add(0, currentPath.currentLabels);
+        for (int i = this.size - 1; i >= 0; i--) {
+            labels[i] = currentPath.currentLabels.toSet();
             currentPath = currentPath.previousPath;
         }
-        return Collections.unmodifiableList(labels);
+        return Collections.unmodifiableList(Arrays.asList(labels));
     }
 
     @Override
@@ -224,49 +290,50 @@ public class ImmutablePath implements Path, Serializable, Cloneable {
 
     @Override
     public int hashCode() {
-        // hashCode algorithm from AbstractList
-        int[] hashCodes = new int[this.size()];
-        int index = hashCodes.length - 1;
-        ImmutablePath currentPath = this;
-        while (true) {
-            if (currentPath.isTail())
-                break;
-            hashCodes[index] = Objects.hashCode(currentPath.currentObject);
-            currentPath = currentPath.previousPath;
-            index--;
-        }
-        int hashCode = 1;
-        for (final int hash : hashCodes) {
-            hashCode = hashCode * 31 + hash;
-        }
-        return hashCode;
+        return this.hashCode;
     }
 
     @Override
     public boolean equals(final Object other) {
+        if (this == other)
+            return true;
+        if (other instanceof ImmutablePath)
+            return this.equals((ImmutablePath) other);
         if (!(other instanceof Path))
             return false;
         final Path otherPath = (Path) other;
-        int size = this.size();
-        if (otherPath.size() != size)
+        if (otherPath.size() != this.size)
             return false;
-        if (size > 0) {
+        if (this.size > 0) {
             ImmutablePath currentPath = this;
             final List<Object> otherObjects = otherPath.objects();
             final List<Set<String>> otherLabels = otherPath.labels();
-            for (int i = otherLabels.size() - 1; i >= 0; i--) {
-                if (currentPath.isTail())
-                    return true;
-                else if ((!(currentPath.currentObject == null && otherObjects.get(i) == null) && (currentPath.currentObject != null && !currentPath.currentObject.equals(otherObjects.get(i)))) ||
-                        !currentPath.currentLabels.equals(otherLabels.get(i)))
+            for (int i = this.size - 1; i >= 0; i--) {
+                if (!Objects.equals(currentPath.currentObject, otherObjects.get(i)) ||
+                        !currentPath.currentLabels.toSet().equals(otherLabels.get(i)))
                     return false;
-                else
-                    currentPath = currentPath.previousPath;
+                currentPath = currentPath.previousPath;
             }
         }
         return true;
     }
 
+    private boolean equals(final ImmutablePath other) {
+        if (this.size != other.size || this.hashCode != other.hashCode)
+            return false;
+        ImmutablePath currentPath = this;
+        ImmutablePath otherPath = other;
+        // the sections are only compared up to the prefix that the paths share
+        while (currentPath != otherPath && !currentPath.isTail()) {
+            if (!Objects.equals(currentPath.currentObject, otherPath.currentObject) ||
+                    !currentPath.currentLabels.sameAs(otherPath.currentLabels))
+                return false;
+            currentPath = currentPath.previousPath;
+            otherPath = otherPath.previousPath;
+        }
+        return true;
+    }
+
     @Override
     public boolean popEquals(final Pop pop, final Object other) {
         if (!(other instanceof Path))
@@ -276,7 +343,7 @@ public class ImmutablePath implements Path, Serializable, Cloneable {
         while (true) {
             if (currentPath.isTail())
                 break;
-            for (final String label : currentPath.currentLabels) {
+            for (final String label : currentPath.currentLabels.toSet()) {
                 if (!otherPath.hasLabel(label)) return false;
 
                 final Object o1 = this.get(pop, label);
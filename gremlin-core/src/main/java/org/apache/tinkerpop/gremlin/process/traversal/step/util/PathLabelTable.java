@@ -0,0 +1,266 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.step.util;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Numbers the step labels of a traversal and interns the sets of labels given to the objects of its paths, so that an
+ * {@link ImmutablePath} shares one {@link Labels} among all the objects with the same labels and checks for a label
+ * by testing a bit. A label keeps the index it is first given and the table only grows, so the label sets of the paths
+ * that share a table compare by comparing bits. The table is safe to share among the threads executing clones of a
+ * traversal.
+ */
+public final class PathLabelTable implements Serializable {
+
+    /**
+     * The number of labels that are held as bits, a label with a greater index is looked for among the labels.
+     */
+    public static final int BITS = Long.SIZE;
+
+    private final Map<String, Integer> indices = new ConcurrentHashMap<>();
+    private volatile String[] labels = new String[0];
+    // label sets that iterate in the order of the indices of their labels, which are most of them
+    private final Map<Long, Labels> labelsByBits = new ConcurrentHashMap<>();
+    private final Map<List<String>, Labels> labelsByList = new ConcurrentHashMap<>();
+    private final Labels noLabels = new Labels(this, new String[0]);
+    private transient volatile ImmutablePath emptyPath;
+
+    /**
+     * Gets the index of the label, giving it the next index if the table does not hold it yet.
+     */
+    public int indexOf(final String label) {
+        final Integer index = this.indices.get(label);
+        return null == index ? this.add(label) : index;
+    }
+
+    /**
+     * Gets the index of the label without adding it to the table.
+     *
+     * @return the index of the label or {@code -1} if the table does not hold it
+     */
+    public int find(final String label) {
+        final Integer index = this.indices.get(label);
+        return null == index ? -1 : index;
+    }
+
+    public String get(final int index) {
+        return this.labels[index];
+    }
+
+    public int size() {
+        return this.labels.length;
+    }
+
+    /**
+     * Gets the interned set of the labels, which keeps their order.
+     */
+    public Labels labels(final Collection<String> labels) {
+        if (labels.isEmpty())
+            return this.noLabels;
+
+        long bits = 0L;
+        int previous = -1;
+        for (final String label : labels) {
+            final int index = this.indexOf(label);
+            if (index <= previous || index >= BITS) {
+                final List<String> key = new ArrayList<>(labels);
+                final Labels interned = this.labelsByList.get(key);
+                return null == interned ?
+                        this.labelsByList.computeIfAbsent(key, k -> new Labels(this, k.toArray(new String[k.size()]))) :
+                        interned;
+            }
+            bits |= 1L << index;
+            previous = index;
+        }
+        final Labels interned = this.labelsByBits.get(bits);
+        return null == interned ?
+                this.labelsByBits.computeIfAbsent(bits, k -> new Labels(this, labels.toArray(new String[labels.size()]))) :
+                interned;
+    }
+
+    /**
+     * Gets the path without objects whose labels are interned by this table, which every path of the table extends.
+     */
+    public ImmutablePath emptyPath() {
+        ImmutablePath path = this.emptyPath;
+        if (null == path)
+            this.emptyPath = path = new ImmutablePath(this.noLabels);
+        return path;
+    }
+
+    private synchronized int add(final String label) {
+        final Integer index = this.indices.get(label);
+        if (null != index)
+            return index;
+        final String[] labels = Arrays.copyOf(this.labels, this.labels.length + 1);
+        labels[labels.length - 1] = label;
+        this.labels = labels;
+        this.indices.put(label, labels.length - 1);
+        return labels.length - 1;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(this.labels);
+    }
+
+    /**
+     * An ordered set of labels interned by a {@link PathLabelTable}, with the labels numbered below
+     * {@link PathLabelTable#BITS} held as bits.
+     */
+    public static final class Labels implements Serializable {
+
+        private final PathLabelTable table;
+        private final String[] labels;
+        private final long bits;
+        private final boolean overflow;
+        private transient Set<String> set;
+
+        private Labels(final PathLabelTable table, final String[] labels) {
+            this.table = table;
+            this.labels = labels;
+            long bits = 0L;
+            boolean overflow = false;
+            for (final String label : labels) {
+                final int index = table.indexOf(label);
+                if (index < BITS)
+                    bits |= 1L << index;
+                else
+                    overflow = true;
+            }
+            this.bits = bits;
+            this.overflow = overflow;
+        }
+
+        public PathLabelTable getTable() {
+            return this.table;
+        }
+
+        public boolean isEmpty() {
+            return 0 == this.labels.length;
+        }
+
+        public int size() {
+            return this.labels.length;
+        }
+
+        /**
+         * Determines if the set holds the label, given its index in the table.
+         */
+        public boolean contains(final int index, final String label) {
+            if (index < 0)
+                return false;
+            else if (index < BITS)
+                return 0L != (this.bits & (1L << index));
+            else {
+                for (final String other : this.labels) {
+                    if (other.equals(label)) return true;
+                }
+                return false;
+            }
+        }
+
+        public boolean contains(final String label) {
+            return this.contains(this.table.find(label), label);
+        }
+
+        /**
+         * Determines if the set holds any of the labels, whose indices below {@link PathLabelTable#BITS} are given as
+         * bits.
+         */
+        public boolean containsAny(final long bits, final Set<String> labels) {
+            if (0L != (this.bits & bits))
+                return true;
+            if (this.overflow) {
+                for (final String label : this.labels) {
+                    if (labels.contains(label)) return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Gets the interned set of these labels followed by those of the given labels not in this set.
+         */
+        public Labels with(final Set<String> labels) {
+            List<String> union = null;
+            for (final String label : labels) {
+                if (!this.contains(this.table.indexOf(label), label)) {
+                    if (null == union) union = new ArrayList<>(Arrays.asList(this.labels));
+                    union.add(label);
+                }
+            }
+            return null == union ? this : this.table.labels(union);
+        }
+
+        /**
+         * Gets the interned set of these labels without the given labels.
+         */
+        public Labels without(final Set<String> labels) {
+            final List<String> difference = new ArrayList<>(this.labels.length);
+            for (final String label : this.labels) {
+                if (!labels.contains(label)) difference.add(label);
+            }
+            return difference.size() == this.labels.length ? this : this.table.labels(difference);
+        }
+
+        /**
+         * Determines if the sets hold the same labels, in any order.
+         */
+        public boolean sameAs(final Labels other) {
+            if (this == other)
+                return true;
+            if (this.labels.length != other.labels.length)
+                return false;
+            if (this.table == other.table && !this.overflow && !other.overflow)
+                return this.bits == other.bits;
+            for (final String label : this.labels) {
+                if (!other.contains(label)) return false;
+            }
+            return true;
+        }
+
+        /**
+         * Gets the labels as an unmodifiable set, which is only made once.
+         */
+        public Set<String> toSet() {
+            Set<String> set = this.set;
+            if (null == set)
+                this.set = set = 0 == this.labels.length ?
+                        Collections.emptySet() :
+                        Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(this.labels)));
+            return set;
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.toString(this.labels);
+        }
+    }
+}
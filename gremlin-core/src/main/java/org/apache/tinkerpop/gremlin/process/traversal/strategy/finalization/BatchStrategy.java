@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization;
+
+import org.apache.commons.configuration2.Configuration;
+import org.apache.commons.configuration2.MapConfiguration;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Batchable;
+import org.apache.tinkerpop.gremlin.process.traversal.step.LambdaHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Mutating;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Scoping;
+import org.apache.tinkerpop.gremlin.process.traversal.step.SideEffectCapable;
+import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.SackStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.ProfileSideEffectStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.SackValueStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.SideEffectCapStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.SideEffectStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ProfileStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * A strategy that has the {@link Batchable} steps of a traversal, like {@code has()}, {@code out()} and
+ * {@code values()}, process their starts in batches of the configured size rather than one at a time. Each of them
+ * takes a batch of traversers from the step before it and handles all of them in a single loop, which saves the calls
+ * through the chain of steps that are otherwise made for every traverser at every step. Steps that are not
+ * {@link Batchable} still process one traverser at a time and hand their results to a batch one by one.
+ * <p/>
+ * As a step works ahead on a whole batch, the steps before it are iterated further than a lazy traversal would
+ * iterate them, so the strategy leaves alone traversals that mutate the graph or are profiled, as well as traversals
+ * executed by a {@code GraphComputer}. Child traversals are also left alone as they usually process one traverser at
+ * a time. A step that writes or reads side-effects, sacks or scoped values, either itself or in its children, would
+ * otherwise let the steps after it see the state left by traversers that are further ahead, so only the steps before
+ * the first such step are batched.
+ * <p/>
+ * <pre>
+ * g.withStrategies(BatchStrategy.instance()).V().out().has("name", "marko").id()
+ * g.withStrategies(new BatchStrategy(256)).V().out().has("name", "marko").id()
+ * </pre>
+ */
+public final class BatchStrategy extends AbstractTraversalStrategy<TraversalStrategy.FinalizationStrategy> implements TraversalStrategy.FinalizationStrategy {
+
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    private static final BatchStrategy INSTANCE = new BatchStrategy(DEFAULT_BATCH_SIZE);
+
+    /**
+     * Matches the steps that may share state between traversers, where lambdas are assumed to as they can reach
+     * the side-effects and the sack of a traverser.
+     */
+    private static final Predicate<Step> SHARES_STATE = step -> step instanceof SideEffectCapable ||
+            step instanceof SideEffectStep || step instanceof SideEffectCapStep || step instanceof SackStep ||
+            step instanceof SackValueStep || step instanceof Scoping || step instanceof LambdaHolder;
+
+    private final int batchSize;
+
+    public BatchStrategy(final int batchSize) {
+        if (batchSize <= 0)
+            throw new IllegalArgumentException("The batch size must be greater than zero: " + batchSize);
+        this.batchSize = batchSize;
+    }
+
+    public int getBatchSize() {
+        return this.batchSize;
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        if (!traversal.isRoot() || TraversalHelper.onGraphComputer(traversal) ||
+                TraversalHelper.hasStepOfAssignableClassRecursively(
+                        Arrays.<Class>asList(Mutating.class, ProfileStep.class, ProfileSideEffectStep.class), traversal))
+            return;
+
+        for (final Step<?, ?> step : traversal.getSteps()) {
+            if (SHARES_STATE.test(step) ||
+                    (step instanceof TraversalParent && TraversalHelper.anyStepRecursively(SHARES_STATE, (TraversalParent) step)))
+                break;
+            if (step instanceof Batchable)
+                ((Batchable) step).setBatchSize(this.batchSize);
+        }
+    }
+
+    public static final String ID_BATCH_SIZE = "batchSize";
+
+    public static BatchStrategy create(final Configuration configuration) {
+        return new BatchStrategy(configuration.getInt(ID_BATCH_SIZE, DEFAULT_BATCH_SIZE));
+    }
+
+    @Override
+    public Configuration getConfiguration() {
+        final Map<String, Object> map = new HashMap<>();
+        map.put(STRATEGY, BatchStrategy.class.getCanonicalName());
+        map.put(ID_BATCH_SIZE, this.batchSize);
+        return new MapConfiguration(map);
+    }
+
+    public static BatchStrategy instance() {
+        return INSTANCE;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.LambdaHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.GroupSideEffectStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.RecyclableTraverserGeneratorFactory;
+import org.apache.tinkerpop.gremlin.process.traversal.util.DefaultTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+
+import java.util.Arrays;
+
+/**
+ * A strategy that has a traversal generate recyclable traversers with the {@link RecyclableTraverserGeneratorFactory}.
+ * Steps {@link Traverser.Admin#recycle() recycle} the traversers they drop, like a filter rejecting one, a map or
+ * flatmap that has split one or a {@code count()} that has counted one, and a recycled traverser is reused by a later
+ * split on the same thread rather than allocating a new one, which spares the garbage collector the many short-lived
+ * traversers that steps like {@code out()} over high-degree vertices produce.
+ * <p/>
+ * A recycled traverser must not be referenced any more, so the strategy leaves alone traversals with lambdas, which
+ * may keep hold of a traverser they are given, with {@code group("x")}, which passes on the traverser it hands to its
+ * {@code by()} traversal, and traversals executed by a {@code GraphComputer}. Traversals that
+ * require paths or labels keep the traversers of the {@code DefaultTraverserGeneratorFactory}.
+ * <p/>
+ * <pre>
+ * g.withStrategies(TraverserRecyclingStrategy.instance()).V().out().out().count()
+ * </pre>
+ */
+public final class TraverserRecyclingStrategy extends AbstractTraversalStrategy<TraversalStrategy.FinalizationStrategy> implements TraversalStrategy.FinalizationStrategy {
+
+    private static final TraverserRecyclingStrategy INSTANCE = new TraverserRecyclingStrategy();
+
+    private TraverserRecyclingStrategy() {
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        if (!traversal.isRoot() || !(traversal instanceof DefaultTraversal) || TraversalHelper.onGraphComputer(traversal) ||
+                TraversalHelper.hasStepOfAssignableClassRecursively(
+                        Arrays.<Class>asList(LambdaHolder.class, GroupSideEffectStep.class), traversal))
+            return;
+
+        ((DefaultTraversal<?, ?>) traversal).setTraverserGeneratorFactory(RecyclableTraverserGeneratorFactory.instance());
+    }
+
+    public static TraverserRecyclingStrategy instance() {
+        return INSTANCE;
+    }
+}
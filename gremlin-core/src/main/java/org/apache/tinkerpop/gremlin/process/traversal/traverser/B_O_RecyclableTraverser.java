@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.traverser;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserPool;
+
+import java.util.HashSet;
+
+/**
+ * A {@link B_O_Traverser} that is returned to a {@link TraverserPool} when it is recycled and is reused by the next
+ * split rather than allocating a new traverser.
+ */
+public class B_O_RecyclableTraverser<T> extends B_O_Traverser<T> {
+
+    private static final TraverserPool<B_O_RecyclableTraverser<?>> POOL = new TraverserPool<>();
+
+    private transient boolean recycled = false;
+
+    protected B_O_RecyclableTraverser() {
+    }
+
+    public B_O_RecyclableTraverser(final T t, final long initialBulk) {
+        super(t, initialBulk);
+    }
+
+    /**
+     * Gets a traverser from the pool of the thread, or a new one if the pool is empty.
+     */
+    public static <T> B_O_RecyclableTraverser<T> of(final T t, final long initialBulk) {
+        final B_O_RecyclableTraverser<T> traverser = (B_O_RecyclableTraverser<T>) POOL.take();
+        if (null == traverser)
+            return new B_O_RecyclableTraverser<>(t, initialBulk);
+        traverser.recycled = false;
+        traverser.t = t;
+        traverser.bulk = initialBulk;
+        traverser.future = HALT;
+        return traverser;
+    }
+
+    @Override
+    public <R> Traverser.Admin<R> split(final R r, final Step<T, R> step) {
+        final B_O_RecyclableTraverser<R> clone = (B_O_RecyclableTraverser<R>) POOL.take();
+        if (null == clone)
+            return super.split(r, step);
+        clone.recycled = false;
+        clone.t = r;
+        this.copyTo(clone);
+        return clone;
+    }
+
+    @Override
+    public Traverser.Admin<T> split() {
+        final B_O_RecyclableTraverser<T> clone = (B_O_RecyclableTraverser<T>) POOL.take();
+        if (null == clone)
+            return super.split();
+        clone.recycled = false;
+        clone.t = this.t;
+        this.copyTo(clone);
+        return clone;
+    }
+
+    private void copyTo(final B_O_RecyclableTraverser<?> clone) {
+        clone.bulk = this.bulk;
+        clone.future = this.future;
+        clone.tags = null == this.tags ? null : new HashSet<>(this.tags);
+    }
+
+    @Override
+    public void recycle() {
+        if (this.recycled)
+            return;
+        this.recycled = true;
+        this.t = null;
+        this.tags = null;
+        POOL.offer(this);
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.traverser;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.TraverserGenerator;
+
+import java.util.Set;
+
+/**
+ * Generates the {@link B_O_S_SE_SL_RecyclableTraverser} that reuses the traversers recycled on the thread.
+ */
+public final class B_O_S_SE_SL_RecyclableTraverserGenerator implements TraverserGenerator {
+
+    private static final B_O_S_SE_SL_RecyclableTraverserGenerator INSTANCE = new B_O_S_SE_SL_RecyclableTraverserGenerator();
+
+    private B_O_S_SE_SL_RecyclableTraverserGenerator() {
+    }
+
+    @Override
+    public <S> Traverser.Admin<S> generate(final S start, final Step<S, ?> startStep, final long initialBulk) {
+        return B_O_S_SE_SL_RecyclableTraverser.of(start, startStep, initialBulk);
+    }
+
+    @Override
+    public Set<TraverserRequirement> getProvidedRequirements() {
+        return B_O_S_SE_SL_TraverserGenerator.instance().getProvidedRequirements();
+    }
+
+    public static B_O_S_SE_SL_RecyclableTraverserGenerator instance() {
+        return INSTANCE;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.traverser.util;
+
+import org.apache.tinkerpop.gremlin.process.traversal.TraverserGenerator;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization.TraverserRecyclingStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.B_O_RecyclableTraverserGenerator;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.B_O_S_SE_SL_RecyclableTraverserGenerator;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserGeneratorFactory;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
+
+import java.util.Set;
+
+/**
+ * A {@link TraverserGeneratorFactory} that chooses generators of recyclable traversers, which are reused once the
+ * traversal drops them rather than left to the garbage collector, for the requirements that they provide and the
+ * generators of the {@link DefaultTraverserGeneratorFactory} otherwise. As a recycled traverser must not be
+ * referenced any more, it is only to be used for traversals where no step keeps a reference to a traverser it drops.
+ *
+ * @see TraverserRecyclingStrategy
+ */
+public class RecyclableTraverserGeneratorFactory implements TraverserGeneratorFactory {
+
+    private static final RecyclableTraverserGeneratorFactory INSTANCE = new RecyclableTraverserGeneratorFactory();
+
+    public static RecyclableTraverserGeneratorFactory instance() {
+        return INSTANCE;
+    }
+
+    private RecyclableTraverserGeneratorFactory() {
+    }
+
+    @Override
+    public TraverserGenerator getTraverserGenerator(final Set<TraverserRequirement> requirements) {
+        if (!requirements.contains(TraverserRequirement.ONE_BULK)) {
+            if (B_O_RecyclableTraverserGenerator.instance().getProvidedRequirements().containsAll(requirements))
+                return B_O_RecyclableTraverserGenerator.instance();
+
+            if (B_O_S_SE_SL_RecyclableTraverserGenerator.instance().getProvidedRequirements().containsAll(requirements))
+                return B_O_S_SE_SL_RecyclableTraverserGenerator.instance();
+        }
+
+        return DefaultTraverserGeneratorFactory.instance().getTraverserGenerator(requirements);
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.traverser.util;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+
+import java.util.ArrayDeque;
+
+/**
+ * A pool of recycled traversers of one class for each thread, from which traverser generators and splits take a
+ * traverser to reuse before they allocate a new one. The pool of a thread holds at most a fixed number of traversers
+ * and drops those recycled beyond it.
+ */
+public final class TraverserPool<T extends Traverser.Admin<?>> {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final int capacity;
+    private final ThreadLocal<ArrayDeque<T>> pools = ThreadLocal.withInitial(ArrayDeque::new);
+
+    public TraverserPool() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public TraverserPool(final int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Takes the traverser recycled last on this thread, or {@code null} if there is none.
+     */
+    public T take() {
+        return this.pools.get().pollLast();
+    }
+
+    public void offer(final T traverser) {
+        final ArrayDeque<T> pool = this.pools.get();
+        if (pool.size() < this.capacity)
+            pool.addLast(traverser);
+    }
+}
@@ -20,28 +20,53 @@ package org.apache.tinkerpop.gremlin.process.traversal.traverser.util;
 
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
-import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.io.Serializable;
 import java.util.AbstractSet;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Queue;
 import java.util.Random;
 import java.util.Set;
 import java.util.Spliterator;
+import java.util.Spliterators;
 
 /**
+ * An insertion ordered set of traversers that merges the bulk of a traverser that is added into the equal traverser
+ * already in the set. The traversers are held in an array in the order they were added, with an open addressing hash
+ * table of their positions in it, so that taking the traverser at the head of the set only advances past its position.
+ * The positions left empty by removed traversers are reclaimed when the array fills up.
+ * <p/>
+ * The set is not thread safe as it is almost always confined to the thread executing a traversal. Use a
+ * {@link ConcurrentTraverserSet} where it is shared.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 public class TraverserSet<S> extends AbstractSet<Traverser.Admin<S>> implements Set<Traverser.Admin<S>>, Queue<Traverser.Admin<S>>, Serializable {
 
-    private final Map<Traverser.Admin<S>, Traverser.Admin<S>> map = Collections.synchronizedMap(new LinkedHashMap<>());
+    private static final int INITIAL_CAPACITY = 8;
+    private static final int EMPTY = -1;
+
+    /**
+     * The traversers in the order they were added, with {@code null} where one was removed.
+     */
+    private Traverser.Admin<S>[] traversers = null;
+    /**
+     * The hash codes of the traversers at the same positions.
+     */
+    private int[] hashes = null;
+    /**
+     * The positions of the traversers in the array by their hash codes with linear probing, which is twice the size
+     * of the array to keep it at most half full.
+     */
+    private int[] table = null;
+    private int head = 0;
+    private int tail = 0;
+    private int size = 0;
 
     public TraverserSet() {
 
@@ -49,51 +74,61 @@ public class TraverserSet<S> extends AbstractSet<Traverser.Admin<S>> implements
 
     public TraverserSet(final Traverser.Admin<S> traverser) {
         if (traverser != null)
-            this.map.put(traverser, traverser);
+            this.add(traverser);
     }
 
     @Override
     public Iterator<Traverser.Admin<S>> iterator() {
-        return this.map.values().iterator();
+        return new TraverserSetIterator();
     }
 
     public Traverser.Admin<S> get(final Traverser.Admin<S> traverser) {
-        return this.map.get(traverser);
+        final int slot = this.find(traverser, hash(traverser));
+        return EMPTY == slot ? null : this.traversers[this.table[slot]];
     }
 
     @Override
     public int size() {
-        return this.map.size();
+        return this.size;
     }
 
     public long bulkSize() {
         long bulk = 0L;
-        for (final Traverser.Admin<S> traverser : this.map.values()) {
-            bulk = bulk + traverser.bulk();
+        for (int i = this.head; i < this.tail; i++) {
+            if (null != this.traversers[i])
+                bulk = bulk + this.traversers[i].bulk();
         }
         return bulk;
     }
 
     @Override
     public boolean isEmpty() {
-        return this.map.isEmpty();
+        return 0 == this.size;
     }
 
     @Override
     public boolean contains(final Object traverser) {
-        return this.map.containsKey(traverser);
+        return traverser instanceof Traverser.Admin && EMPTY != this.find(traverser, hash(traverser));
     }
 
     @Override
     public boolean add(final Traverser.Admin<S> traverser) {
-        final Traverser.Admin<S> existing = this.map.get(traverser);
-        if (null == existing) {
-            this.map.put(traverser, traverser);
-            return true;
-        } else {
-            existing.merge(traverser);
+        final int hash = hash(traverser);
+        final int slot = this.find(traverser, hash);
+        if (EMPTY != slot) {
+            this.traversers[this.table[slot]].merge(traverser);
             return false;
         }
+
+        if (null == this.traversers)
+            this.allocate(INITIAL_CAPACITY);
+        else if (this.tail == this.traversers.length)
+            this.allocate(this.size < this.traversers.length / 2 ? this.traversers.length : this.traversers.length * 2);
+        this.traversers[this.tail] = traverser;
+        this.hashes[this.tail] = hash;
+        this.table[this.free(hash)] = this.tail++;
+        this.size++;
+        return true;
     }
 
     @Override
@@ -103,63 +138,198 @@ public class TraverserSet<S> extends AbstractSet<Traverser.Admin<S>> implements
 
     @Override
     public Traverser.Admin<S> remove() {  // pop, exception if empty
-        final Iterator<Traverser.Admin<S>> iterator = this.map.values().iterator();
-        if (!iterator.hasNext())
+        if (0 == this.size)
             throw FastNoSuchElementException.instance();
-        final Traverser.Admin<S> next = iterator.next();
-        iterator.remove();
-        return next;
+        final Traverser.Admin<S> traverser = this.traversers[this.head];
+        this.delete(this.head);
+        return traverser;
     }
 
     @Override
     public Traverser.Admin<S> poll() {  // pop, null if empty
-        return this.map.isEmpty() ? null : this.remove();
+        return 0 == this.size ? null : this.remove();
     }
 
     @Override
     public Traverser.Admin<S> element() { // peek, exception if empty
-        return this.iterator().next();
+        if (0 == this.size)
+            throw new NoSuchElementException();
+        return this.traversers[this.head];
     }
 
     @Override
     public Traverser.Admin<S> peek() { // peek, null if empty
-        return this.map.isEmpty() ? null : this.iterator().next();
+        return 0 == this.size ? null : this.traversers[this.head];
     }
 
     @Override
     public boolean remove(final Object traverser) {
-        return this.map.remove(traverser) != null;
+        if (!(traverser instanceof Traverser.Admin))
+            return false;
+        final int slot = this.find(traverser, hash(traverser));
+        if (EMPTY == slot)
+            return false;
+        this.delete(this.table[slot]);
+        return true;
     }
 
     @Override
     public void clear() {
-        this.map.clear();
+        if (null != this.traversers) {
+            Arrays.fill(this.traversers, this.head, this.tail, null);
+            Arrays.fill(this.table, EMPTY);
+        }
+        this.head = 0;
+        this.tail = 0;
+        this.size = 0;
     }
 
     @Override
     public Spliterator<Traverser.Admin<S>> spliterator() {
-        return this.map.values().spliterator();
-    }
-
-    @Override
-    public String toString() {
-        return this.map.values().toString();
+        return Spliterators.spliterator(this, Spliterator.DISTINCT | Spliterator.ORDERED);
     }
 
     public void sort(final Comparator<Traverser<S>> comparator) {
-        final List<Traverser.Admin<S>> list = new ArrayList<>(this.map.size());
-        IteratorUtils.removeOnNext(this.map.values().iterator()).forEachRemaining(list::add);
+        final List<Traverser.Admin<S>> list = this.drain();
         Collections.sort(list, comparator);
-        this.map.clear();
-        list.forEach(traverser -> this.map.put(traverser, traverser));
+        list.forEach(this::add);
     }
 
     public void shuffle(final Random random) {
-        final List<Traverser.Admin<S>> list = new ArrayList<>(this.map.size());
-        IteratorUtils.removeOnNext(this.map.values().iterator()).forEachRemaining(list::add);
+        final List<Traverser.Admin<S>> list = this.drain();
         Collections.shuffle(list, random);
-        this.map.clear();
-        list.forEach(traverser -> this.map.put(traverser, traverser));
+        list.forEach(this::add);
+    }
+
+    private List<Traverser.Admin<S>> drain() {
+        final Traverser.Admin<S>[] array = new Traverser.Admin[this.size];
+        int i = 0;
+        for (int j = this.head; j < this.tail; j++) {
+            if (null != this.traversers[j])
+                array[i++] = this.traversers[j];
+        }
+        this.clear();
+        return Arrays.asList(array);
+    }
+
+    /**
+     * Gets the slot of the table holding the position of the equal traverser, or {@link #EMPTY} if there is none.
+     */
+    private int find(final Object traverser, final int hash) {
+        if (0 == this.size)
+            return EMPTY;
+        final int mask = this.table.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            final int position = this.table[slot];
+            if (EMPTY == position)
+                return EMPTY;
+            if (this.hashes[position] == hash && this.traversers[position].equals(traverser))
+                return slot;
+        }
+    }
+
+    /**
+     * Gets the first empty slot of the table for the hash.
+     */
+    private int free(final int hash) {
+        final int mask = this.table.length - 1;
+        int slot = hash & mask;
+        while (EMPTY != this.table[slot]) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Removes the traverser at the position of the array, shifting back the positions in the table that follow its
+     * slot so that no probe sequence is broken by the empty slot.
+     */
+    private void delete(final int position) {
+        final int mask = this.table.length - 1;
+        int slot = this.hashes[position] & mask;
+        while (this.table[slot] != position) {
+            slot = (slot + 1) & mask;
+        }
+        int next = (slot + 1) & mask;
+        while (EMPTY != this.table[next]) {
+            final int home = this.hashes[this.table[next]] & mask;
+            // the entry at next can move back to slot unless its home lies cyclically within (slot, next]
+            if (slot <= next ? (home <= slot || home > next) : (home <= slot && home > next)) {
+                this.table[slot] = this.table[next];
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+        this.table[slot] = EMPTY;
+
+        this.traversers[position] = null;
+        this.size--;
+        if (0 == this.size) {
+            this.head = 0;
+            this.tail = 0;
+        } else if (position == this.head) {
+            while (null == this.traversers[this.head]) {
+                this.head++;
+            }
+        }
     }
 
+    /**
+     * Moves the traversers to the front of an array of the capacity and rebuilds the table of their positions.
+     */
+    private void allocate(final int capacity) {
+        final Traverser.Admin<S>[] traversers = new Traverser.Admin[capacity];
+        final int[] hashes = new int[capacity];
+        int count = 0;
+        for (int i = this.head; i < this.tail; i++) {
+            if (null != this.traversers[i]) {
+                traversers[count] = this.traversers[i];
+                hashes[count++] = this.hashes[i];
+            }
+        }
+        this.traversers = traversers;
+        this.hashes = hashes;
+        this.table = new int[capacity * 2];
+        Arrays.fill(this.table, EMPTY);
+        for (int i = 0; i < count; i++) {
+            this.table[this.free(hashes[i])] = i;
+        }
+        this.head = 0;
+        this.tail = count;
+    }
+
+    private static int hash(final Object traverser) {
+        final int hash = traverser.hashCode() * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private final class TraverserSetIterator implements Iterator<Traverser.Admin<S>> {
+
+        private int next = head;
+        private int last = EMPTY;
+
+        @Override
+        public boolean hasNext() {
+            while (this.next < tail && null == traversers[this.next]) {
+                this.next++;
+            }
+            return this.next < tail;
+        }
+
+        @Override
+        public Traverser.Admin<S> next() {
+            if (!this.hasNext())
+                throw FastNoSuchElementException.instance();
+            this.last = this.next++;
+            return traversers[this.last];
+        }
+
+        @Override
+        public void remove() {
+            if (EMPTY == this.last || null == traversers[this.last])
+                throw new IllegalStateException();
+            delete(this.last);
+            this.last = EMPTY;
+        }
+    }
 }
@@ -30,6 +30,8 @@ import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.TraverserGenerator;
 import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.PathLabelTable;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserGeneratorFactory;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.DefaultTraverserGeneratorFactory;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.EmptyTraverser;
@@ -64,6 +66,8 @@ public class DefaultTraversal<S, E> implements Traversal.Admin<S, E> {
     protected TraversalSideEffects sideEffects = new DefaultTraversalSideEffects();
     protected TraversalStrategies strategies;
     protected transient TraverserGenerator generator;
+    protected transient TraverserGeneratorFactory generatorFactory;
+    protected transient volatile PathLabelTable pathLabelTable;
     protected Set<TraverserRequirement> requirements;
 
     protected boolean locked = false;
@@ -113,11 +117,44 @@ public class DefaultTraversal<S, E> implements Traversal.Admin<S, E> {
     public TraverserGenerator getTraverserGenerator() {
         if (null == this.generator)
             this.generator = isRoot() ?
-                    DefaultTraverserGeneratorFactory.instance().getTraverserGenerator(this.getTraverserRequirements()) :
+                    this.getTraverserGeneratorFactory().getTraverserGenerator(this.getTraverserRequirements()) :
                     TraversalHelper.getRootTraversal(this).getTraverserGenerator();
         return this.generator;
     }
 
+    /**
+     * Gets the factory that chooses the {@link TraverserGenerator} of the traversal, which is the
+     * {@link DefaultTraverserGeneratorFactory} unless another was set.
+     */
+    public TraverserGeneratorFactory getTraverserGeneratorFactory() {
+        return null == this.generatorFactory ? DefaultTraverserGeneratorFactory.instance() : this.generatorFactory;
+    }
+
+    /**
+     * Sets the factory that chooses the {@link TraverserGenerator} of the traversal, which only has an effect on a
+     * root traversal as child traversals use the generator of the root.
+     */
+    public void setTraverserGeneratorFactory(final TraverserGeneratorFactory generatorFactory) {
+        this.generatorFactory = generatorFactory;
+        this.generator = null;
+    }
+
+    /**
+     * Gets the table that numbers the labels of the paths of the traversal, which is shared with its clones.
+     */
+    public PathLabelTable getPathLabelTable() {
+        // the threads executing a traversal may get the table at once so they must not each create one
+        PathLabelTable table = this.pathLabelTable;
+        if (null == table) {
+            synchronized (this) {
+                table = this.pathLabelTable;
+                if (null == table)
+                    this.pathLabelTable = table = new PathLabelTable();
+            }
+        }
+        return table;
+    }
+
     @Override
     public void applyStrategies() throws IllegalStateException {
         if (this.locked) throw Traversal.Exceptions.traversalIsLocked();
@@ -245,8 +282,11 @@ public class DefaultTraversal<S, E> implements Traversal.Admin<S, E> {
 
         try {
             if (!this.locked) this.applyStrategies();
-            if (this.lastTraverser.bulk() == 0L)
+            if (this.lastTraverser.bulk() == 0L) {
+                this.lastTraverser.recycle();
+                this.lastTraverser = EmptyTraverser.instance();
                 this.lastTraverser = this.finalEndStep.next();
+            }
             this.lastTraverser.setBulk(this.lastTraverser.bulk() - 1L);
             return this.lastTraverser.get();
         } catch (final FastNoSuchElementException e) {
@@ -32,6 +32,7 @@ import org.apache.tinkerpop.gremlin.structure.io.IoRegistry;
 import org.apache.tinkerpop.gremlin.structure.service.ServiceRegistry;
 import org.apache.tinkerpop.gremlin.structure.util.FeatureDescriptor;
 import org.apache.tinkerpop.gremlin.structure.util.GraphFactory;
+import org.apache.tinkerpop.gremlin.structure.util.GraphStatistics;
 import org.apache.tinkerpop.gremlin.structure.util.Host;
 import org.javatuples.Pair;
 
@@ -345,6 +346,14 @@ public interface Graph extends AutoCloseable, Host {
      */
     default ServiceRegistry getServiceRegistry() { return ServiceRegistry.EMPTY; }
 
+    /**
+     * Get the {@link GraphStatistics} of the graph, which strategies may use to estimate the cost of alternative ways
+     * to execute a traversal.
+     *
+     * @return The statistics of the graph, which by default are all unknown
+     */
+    default GraphStatistics getStatistics() { return GraphStatistics.EMPTY; }
+
     /**
      * Graph variables are a set of key/value pairs associated with the graph. The keys are String and the values
      * are Objects.
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.structure.util;
+
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+
+/**
+ * Cardinality statistics of a {@link Graph} that traversal strategies may use to estimate how many elements a step
+ * will read, for example to choose the most selective of several indices. Every count is an estimate that a graph
+ * may answer approximately, and is {@link #UNKNOWN} where the graph does not keep the statistic, so callers must fall
+ * back to their usual behavior when a count is unknown. By default all counts are unknown.
+ *
+ * @see Graph#getStatistics()
+ */
+public interface GraphStatistics {
+
+    /**
+     * The count returned for a statistic that the graph does not keep.
+     */
+    long UNKNOWN = -1L;
+
+    /**
+     * Statistics of a graph that does not keep any, for the {@link Graph} interface.
+     */
+    GraphStatistics EMPTY = new GraphStatistics() {};
+
+    /**
+     * Gets the number of vertices or edges in the graph.
+     */
+    default long count(final Class<? extends Element> elementClass) {
+        return UNKNOWN;
+    }
+
+    /**
+     * Gets the number of vertices or edges in the graph with the label.
+     */
+    default long countLabel(final Class<? extends Element> elementClass, final String label) {
+        return UNKNOWN;
+    }
+
+    /**
+     * Gets the number of distinct values that the vertices or edges of the graph have for the property key.
+     */
+    default long countDistinct(final Class<? extends Element> elementClass, final String key) {
+        return UNKNOWN;
+    }
+
+    /**
+     * Gets the number of vertices or edges in the graph that have the value for the property key.
+     */
+    default long countValue(final Class<? extends Element> elementClass, final String key, final Object value) {
+        return UNKNOWN;
+    }
+
+    /**
+     * Gets the fraction of vertices or edges in the graph expected to have the value for the property key, taken
+     * from the count of the value if it is known and otherwise from the number of distinct values assuming they are
+     * uniformly distributed. Returns {@code 1.0} if neither is known, as nothing can be assumed to be filtered.
+     */
+    default double selectivity(final Class<? extends Element> elementClass, final String key, final Object value) {
+        final long total = count(elementClass);
+        final long matches = countValue(elementClass, key, value);
+        if (total > 0 && matches >= 0)
+            return Math.min(1.0, (double) matches / total);
+        final long distinct = countDistinct(elementClass, key);
+        return distinct > 0 ? 1.0 / distinct : 1.0;
+    }
+}
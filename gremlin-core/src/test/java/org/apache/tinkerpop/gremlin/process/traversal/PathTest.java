@@ -24,12 +24,14 @@ import org.apache.tinkerpop.gremlin.structure.util.detached.DetachedPath;
 import org.apache.tinkerpop.gremlin.structure.util.reference.ReferencePath;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -39,6 +41,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -549,4 +552,73 @@ public class PathTest {
             }
         });
     }
+
+    @Test
+    public void shouldHandleMoreLabelsThanLabelBits() {
+        PATH_SUPPLIERS.forEach(supplier -> {
+            Path path = supplier.get();
+            for (int i = 0; i < 100; i++) {
+                path = path.extend(i, new LinkedHashSet<>(Arrays.asList("a" + i, "b" + (i % 10))));
+            }
+            assertEquals(100, path.size());
+            for (int i = 0; i < 100; i++) {
+                assertTrue(path.hasLabel("a" + i));
+                assertEquals(Integer.valueOf(i), path.get("a" + i));
+            }
+            assertEquals(Integer.valueOf(97), path.get(Pop.last, "b7"));
+            assertEquals(Integer.valueOf(7), path.get(Pop.first, "b7"));
+            assertEquals(10, path.<List>get(Pop.all, "b7").size());
+            path = path.retract(new HashSet<>(Arrays.asList("a99", "b9")));
+            assertEquals(99, path.size());
+            assertFalse(path.hasLabel("a99"));
+            assertFalse(path.hasLabel("b9"));
+            assertTrue(path.hasLabel("a89"));
+            assertEquals(Collections.singleton("a89"), path.labels().get(89));
+        });
+    }
+
+    @Test
+    public void shouldHaveImmutablePathEqualityAcrossLabelTables() {
+        Path pathA = ImmutablePath.make();
+        Path pathB = ImmutablePath.make();
+        pathB = pathB.extend("stephen", Collections.singleton("b")).retract(Collections.singleton("b"));
+        pathA = pathA.extend("marko", new LinkedHashSet<>(Arrays.asList("a", "b")));
+        pathB = pathB.extend("marko", new LinkedHashSet<>(Arrays.asList("b", "a")));
+        assertEquals(pathA, pathB);
+        assertEquals(pathA.hashCode(), pathB.hashCode());
+        assertEquals(Arrays.asList("b", "a"), new ArrayList<>(pathB.labels().get(0)));
+        pathA = pathA.extend(null, Collections.singleton("c"));
+        pathB = pathB.extend(null, Collections.singleton("c"));
+        assertEquals(pathA, pathB);
+        assertEquals(pathA.hashCode(), pathB.hashCode());
+        assertNotEquals(pathA.extend("josh", Collections.singleton("d")), pathB.extend("josh", Collections.singleton("e")));
+        assertNotEquals(pathA.extend(null, Collections.singleton("d")), pathB.extend("josh", Collections.singleton("d")));
+        assertEquals(pathA, MutablePath.make().extend("marko", new LinkedHashSet<>(Arrays.asList("a", "b"))).extend(null, Collections.singleton("c")));
+    }
+
+    @Test
+    public void shouldShareUnchangedImmutablePaths() {
+        final Path path = ImmutablePath.make().
+                extend("marko", Collections.singleton("a")).
+                extend("josh", Collections.singleton("b"));
+        final Set<String> labels = Collections.singleton("b");
+        assertSame(path, path.extend(labels));
+        assertSame(path, path.retract(Collections.singleton("c")));
+        assertSame(path, path.retract(Collections.singleton("x")));
+        final Path retracted = path.retract(labels);
+        assertEquals(1, retracted.size());
+        assertEquals("marko", retracted.head());
+        assertSame(retracted, retracted.retract(labels));
+    }
+
+    @Test
+    public void shouldShareLabelTableOfImmutablePathsMadeWithoutTraversal() {
+        assertSame(ImmutablePath.make(), ImmutablePath.make());
+
+        final Path a = ImmutablePath.make().extend("marko", Collections.singleton("a"));
+        final Path b = ImmutablePath.make().extend("marko", Collections.singleton("a"));
+        assertEquals(a, b);
+        assertTrue(b.hasLabel("a"));
+        assertFalse(b.hasLabel("b"));
+    }
 }
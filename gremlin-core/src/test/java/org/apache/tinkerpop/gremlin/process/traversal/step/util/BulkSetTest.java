@@ -21,7 +21,15 @@ package org.apache.tinkerpop.gremlin.process.traversal.step.util;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.BulkSet;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 
@@ -89,4 +97,68 @@ public class BulkSetTest {
         }
         assertEquals(11, set.size());
     }
+
+    @Test
+    public void shouldKeepInsertionOrderWhenRemovingAndGrowing() {
+        final BulkSet<Integer> set = new BulkSet<>();
+        final Map<Integer, Long> expected = new LinkedHashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            set.add(i, i + 1);
+            expected.put(i, i + 1L);
+            if (i % 3 == 0) {
+                assertTrue(set.remove(i / 2));
+                expected.remove(i / 2);
+            }
+        }
+        set.add(2, 5);
+        expected.merge(2, 5L, Long::sum);
+        assertEquals(expected.size(), set.uniqueSize());
+        assertEquals(new ArrayList<>(expected.entrySet()), new ArrayList<>(set.asBulk().entrySet()));
+        assertEquals(expected.values().stream().mapToLong(Long::longValue).sum(), set.longSize());
+        assertEquals(expected.hashCode(), set.hashCode());
+        assertEquals(expected.toString(), set.toString());
+    }
+
+    @Test
+    public void shouldAddAllBulks() {
+        final BulkSet<String> a = new BulkSet<>();
+        a.add("marko", 2);
+        a.add("stephen");
+        final BulkSet<String> b = new BulkSet<>();
+        b.add("daniel", 3);
+        b.add("marko", 4);
+        a.addAll(b);
+        assertEquals(6, a.get("marko"));
+        assertEquals(1, a.get("stephen"));
+        assertEquals(3, a.get("daniel"));
+        assertEquals(Arrays.asList("marko", "stephen", "daniel"), new ArrayList<>(a.asBulk().keySet()));
+    }
+
+    @Test
+    public void shouldHoldNull() {
+        final BulkSet<String> set = new BulkSet<>();
+        set.add(null, 2);
+        set.add("marko");
+        set.add(null);
+        assertTrue(set.contains(null));
+        assertEquals(3, set.get(null));
+        assertEquals(4, set.size());
+        assertTrue(set.remove(null));
+        assertFalse(set.contains(null));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    public void shouldSerializeWithJava() throws Exception {
+        final BulkSet<String> set = new BulkSet<>();
+        set.add("marko", 3);
+        set.add("stephen");
+        set.add("daniel", 2);
+        set.remove("stephen");
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new ObjectOutputStream(outputStream).writeObject(set);
+        final BulkSet<String> copy = (BulkSet<String>) new ObjectInputStream(new ByteArrayInputStream(outputStream.toByteArray())).readObject();
+        assertEquals(set, copy);
+        assertEquals(Arrays.asList("marko", "daniel"), new ArrayList<>(copy.asBulk().keySet()));
+    }
 }
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.traverser.util;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.ConstantStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization.TraverserRecyclingStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.B_LP_O_P_S_SE_SL_Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.B_O_RecyclableTraverser;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.B_O_S_SE_SL_RecyclableTraverser;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.B_O_Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.O_OB_S_SE_SL_Traverser;
+import org.apache.tinkerpop.gremlin.structure.util.empty.EmptyGraph;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class RecyclableTraverserGeneratorFactoryTest {
+
+    private final GraphTraversalSource g = EmptyGraph.instance().traversal().withStrategies(TraverserRecyclingStrategy.instance());
+
+    @Test
+    public void shouldProduceExpectedTraverser() {
+        final Object start = new Object();
+
+        Traversal.Admin traversal = g.V().out().asAdmin();
+        traversal.applyStrategies();
+        assertEquals(B_O_RecyclableTraverser.class, traversal.getTraverserGenerator().generate(start, traversal.getStartStep(), 1l).getClass());
+        //
+        traversal = g.V().repeat(__.out()).times(10).asAdmin();
+        traversal.applyStrategies();
+        assertEquals(B_O_S_SE_SL_RecyclableTraverser.class, traversal.getTraverserGenerator().generate(start, traversal.getStartStep(), 1l).getClass());
+        //
+        traversal = g.V().out().path().asAdmin();
+        traversal.applyStrategies();
+        assertEquals(B_LP_O_P_S_SE_SL_Traverser.class, traversal.getTraverserGenerator().generate(start, traversal.getStartStep(), 1l).getClass());
+        //
+        traversal = g.withBulk(false).V().out().asAdmin();
+        traversal.applyStrategies();
+        assertEquals(O_OB_S_SE_SL_Traverser.class, traversal.getTraverserGenerator().generate(start, traversal.getStartStep(), 1l).getClass());
+        //
+        traversal = g.V().out().map(t -> t.get()).asAdmin();
+        traversal.applyStrategies();
+        assertEquals(B_O_Traverser.class, traversal.getTraverserGenerator().generate(start, traversal.getStartStep(), 1l).getClass());
+    }
+
+    @Test
+    public void shouldReuseRecycledTraverser() {
+        final ConstantStep<String, String> step = new ConstantStep<>(__.start().asAdmin(), "b");
+        final Traverser.Admin<String> a = B_O_RecyclableTraverser.of("a", 2L);
+        a.getTags().add("x");
+        final Traverser.Admin<String> b = a.split("b", step);
+        assertEquals("b", b.get());
+        assertEquals(2L, b.bulk());
+        assertEquals(a.getTags(), b.getTags());
+        assertNotSame(a.getTags(), b.getTags());
+
+        a.recycle();
+        assertNull(a.get());
+        final Traverser.Admin<String> c = b.split("c", step);
+        assertSame(a, c);
+        assertEquals("c", c.get());
+        assertEquals(2L, c.bulk());
+        assertEquals(b.getTags(), c.getTags());
+    }
+
+    @Test
+    public void shouldNotPoolTraverserRecycledTwice() {
+        final Traverser.Admin<String> a = B_O_RecyclableTraverser.of("a", 1L);
+        a.recycle();
+        a.recycle();
+        final Traverser.Admin<String> b = B_O_RecyclableTraverser.of("b", 1L);
+        final Traverser.Admin<String> c = B_O_RecyclableTraverser.of("c", 1L);
+        assertSame(a, b);
+        assertNotSame(b, c);
+        assertEquals("b", b.get());
+        assertEquals("c", c.get());
+    }
+}
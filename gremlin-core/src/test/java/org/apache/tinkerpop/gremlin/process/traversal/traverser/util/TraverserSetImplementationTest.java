@@ -25,8 +25,11 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 import java.util.function.Supplier;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -43,6 +46,7 @@ public class TraverserSetImplementationTest {
     public static Iterable<Object[]> data() {
         return Arrays.asList(new Object[][]{
                 {TraverserSet.class.getSimpleName(), (Supplier) TraverserSet::new},
+                {ConcurrentTraverserSet.class.getSimpleName(), (Supplier) ConcurrentTraverserSet::new},
                 {IndexedTraverserSet.class.getSimpleName(), (Supplier) () -> new IndexedTraverserSet<String,String>(x -> x.substring(0,1))}});
     }
 
@@ -191,6 +195,97 @@ public class TraverserSetImplementationTest {
         assertEquals(3, ts.bulkSize());
     }
 
+    @Test
+    public void shouldRemoveTraversersInInsertionOrder() {
+        final TraverserSet<String> ts = makeStringTraversers();
+        assertEquals("a", ts.peek().get());
+        assertEquals("a", ts.remove().get());
+        assertEquals("b1", ts.poll().get());
+        assertEquals("b2", ts.element().get());
+        assertEquals("b2", ts.remove().get());
+        assertEquals("c", ts.remove().get());
+        assertNull(ts.peek());
+        assertNull(ts.poll());
+        assertThat(ts.isEmpty(), is(true));
+    }
+
+    @Test
+    public void shouldRemoveSpecificTraverser() {
+        final TraverserSet<String> ts = makeStringTraversers();
+        assertThat(ts.remove(makeTraverser("b1", 1)), is(true));
+        assertThat(ts.remove(makeTraverser("b1", 1)), is(false));
+        assertThat(ts.contains(makeTraverser("b1", 1)), is(false));
+        assertEquals(3, ts.size());
+        assertEquals(Arrays.asList("a", "b2", "c"), values(ts));
+
+        assertThat(ts.add(makeTraverser("b1", 1)), is(true));
+        assertEquals(Arrays.asList("a", "b2", "c", "b1"), values(ts));
+    }
+
+    @Test
+    public void shouldRemoveTraverserWithIterator() {
+        final TraverserSet<String> ts = makeStringTraversers();
+        final Iterator<Traverser.Admin<String>> itty = ts.iterator();
+        while (itty.hasNext()) {
+            if (itty.next().get().startsWith("b"))
+                itty.remove();
+        }
+        assertEquals(2, ts.size());
+        assertEquals(3, ts.bulkSize());
+        assertEquals(Arrays.asList("a", "c"), values(ts));
+    }
+
+    @Test
+    public void shouldClearAndReuse() {
+        final TraverserSet<String> ts = makeStringTraversers();
+        ts.clear();
+        assertThat(ts.isEmpty(), is(true));
+        assertThat(ts.contains(makeTraverser("a", 1)), is(false));
+        ts.add(makeTraverser("c", 1));
+        ts.add(makeTraverser("a", 1));
+        assertEquals(Arrays.asList("c", "a"), values(ts));
+    }
+
+    @Test
+    public void shouldKeepOrderAndBulkWhileGrowingAndRemoving() {
+        final TraverserSet<String> ts = traverserSetMaker.get();
+        final List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            ts.add(makeTraverser("v" + i, 1));
+            ts.add(makeTraverser("v" + i, 2));
+            expected.add("v" + i);
+            // take from the head every third traverser so that removed positions have to be reclaimed as it grows
+            if (i % 3 == 0)
+                assertEquals(expected.remove(0), ts.remove().get());
+        }
+        assertEquals(expected.size(), ts.size());
+        assertEquals(expected, values(ts));
+        for (final String value : expected) {
+            assertThat(ts.contains(makeTraverser(value, 1)), is(true));
+        }
+        assertEquals(3, ts.get(makeTraverser("v999", 1)).bulk());
+        assertEquals(3L * expected.size(), ts.bulkSize());
+    }
+
+    @Test
+    public void shouldSortTraversers() {
+        final TraverserSet<String> ts = traverserSetMaker.get();
+        ts.add(makeTraverser("c", 1));
+        ts.add(makeTraverser("a", 1));
+        ts.add(makeTraverser("b", 1));
+        ts.remove(makeTraverser("a", 1));
+        ts.add(makeTraverser("d", 1));
+        ts.sort(Comparator.comparing(Traverser::get));
+        assertEquals(Arrays.asList("b", "c", "d"), values(ts));
+        assertThat(ts.contains(makeTraverser("b", 1)), is(true));
+    }
+
+    private static List<String> values(final TraverserSet<String> ts) {
+        final List<String> values = new ArrayList<>();
+        ts.forEach(t -> values.add(t.get()));
+        return values;
+    }
+
     private TraverserSet<String> makeStringTraversers() {
         final TraverserSet<String> ts = traverserSetMaker.get();
         ts.add(makeTraverser("a", 1));
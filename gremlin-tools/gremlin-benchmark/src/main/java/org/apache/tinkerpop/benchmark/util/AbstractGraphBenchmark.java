@@ -54,8 +54,8 @@ public class AbstractGraphBenchmark extends AbstractBenchmarkBase {
      */
     @Setup
     public void prepare() throws IOException {
-        graph = TinkerGraph.open();
-        g = graph.traversal();
+        graph = openGraph();
+        g = traversal();
 
         final LoadGraphWith[] loadGraphWiths = this.getClass().getAnnotationsByType(LoadGraphWith.class);
         final LoadGraphWith loadGraphWith = loadGraphWiths.length == 0 ? null : loadGraphWiths[0];
@@ -82,4 +82,19 @@ public class AbstractGraphBenchmark extends AbstractBenchmarkBase {
             }
         }
     }
+
+    /**
+     * Opens the {@link Graph} to benchmark which by default is a {@link TinkerGraph} with its default configuration.
+     */
+    protected Graph openGraph() {
+        return TinkerGraph.open();
+    }
+
+    /**
+     * Creates the {@link GraphTraversalSource} to benchmark from the {@link #graph}, which by default uses the
+     * standard strategies.
+     */
+    protected GraphTraversalSource traversal() {
+        return graph.traversal();
+    }
 }
@@ -42,7 +42,14 @@ public abstract class AbstractGraphMutateBenchmark extends AbstractBenchmarkBase
 
     @Setup(Level.Invocation)
     public void prepare() {
-        graph = TinkerGraph.open();
+        graph = openGraph();
         g = graph.traversal();
     }
+
+    /**
+     * Opens the {@link Graph} to benchmark which by default is a {@link TinkerGraph} with its default configuration.
+     */
+    protected Graph openGraph() {
+        return TinkerGraph.open();
+    }
 }
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process;
+
+import org.apache.tinkerpop.benchmark.util.AbstractBenchmarkBase;
+import org.apache.tinkerpop.gremlin.process.traversal.Operator;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.BulkSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.profile.Profiler;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures the throughput and, with the {@link GCProfiler}, the allocations of adding to a {@link BulkSet} the way
+ * {@code aggregate()} and {@code store()} do, where most of the objects added are already in the set.
+ */
+@State(Scope.Thread)
+public class BulkSetBenchmark extends AbstractBenchmarkBase {
+
+    @Param({"100", "100000"})
+    public int uniqueSize;
+
+    private Object[] objects;
+    private BulkSet<Object> bulkSet;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        final Random random = new Random(1234);
+        this.objects = new Object[this.uniqueSize * 10];
+        for (int i = 0; i < this.objects.length; i++) {
+            this.objects[i] = random.nextInt(this.uniqueSize);
+        }
+        this.bulkSet = new BulkSet<>();
+        for (int i = 0; i < this.uniqueSize; i++) {
+            this.bulkSet.add(i, 3);
+        }
+    }
+
+    @Benchmark
+    public BulkSet<Object> add() {
+        final BulkSet<Object> bulkSet = new BulkSet<>();
+        for (final Object object : this.objects) {
+            bulkSet.add(object);
+        }
+        return bulkSet;
+    }
+
+    @Benchmark
+    public BulkSet<Object> addWithBulk() {
+        final BulkSet<Object> bulkSet = new BulkSet<>();
+        for (final Object object : this.objects) {
+            bulkSet.add(object, 2);
+        }
+        return bulkSet;
+    }
+
+    @Benchmark
+    public Object addAll() {
+        return Operator.addAll.apply(new BulkSet<>(), this.bulkSet);
+    }
+
+    @Benchmark
+    public long get() {
+        long bulk = 0;
+        for (final Object object : this.objects) {
+            bulk = bulk + this.bulkSet.get(object);
+        }
+        return bulk;
+    }
+
+    @Benchmark
+    public long iterate() {
+        long count = 0;
+        for (final Object object : this.bulkSet) {
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    protected List<Class<? extends Profiler>> getProfilers() {
+        return Collections.singletonList(GCProfiler.class);
+    }
+}
@@ -18,6 +18,8 @@
  */
 package org.apache.tinkerpop.gremlin.process;
 
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
 import org.apache.tinkerpop.benchmark.util.AbstractGraphMutateBenchmark;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
@@ -27,8 +29,10 @@ import org.apache.tinkerpop.gremlin.structure.Property;
 import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
 
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Setup;
 
 import java.util.ArrayList;
@@ -48,6 +52,23 @@ public class GraphMutateBenchmark extends AbstractGraphMutateBenchmark {
     private Vertex c;
     private Edge e;
 
+    /**
+     * Toggles {@link TinkerGraph#GREMLIN_TINKERGRAPH_PRIMITIVE_ID_STORAGE} to compare element storage keyed by boxed
+     * {@code Long} identifiers to storage keyed by primitive ones, both using the {@code LONG} {@code IdManager}.
+     */
+    @Param({"false", "true"})
+    public boolean primitiveIdStorage;
+
+    @Override
+    protected Graph openGraph() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_VERTEX_ID_MANAGER, TinkerGraph.DefaultIdManager.LONG.name());
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_EDGE_ID_MANAGER, TinkerGraph.DefaultIdManager.LONG.name());
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_VERTEX_PROPERTY_ID_MANAGER, TinkerGraph.DefaultIdManager.LONG.name());
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_PRIMITIVE_ID_STORAGE, primitiveIdStorage);
+        return TinkerGraph.open(conf);
+    }
+
     @Setup
     @Override
     public void prepare() {
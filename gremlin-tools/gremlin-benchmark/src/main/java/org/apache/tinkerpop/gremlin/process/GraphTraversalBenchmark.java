@@ -18,15 +18,22 @@
  */
 package org.apache.tinkerpop.gremlin.process;
 
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
 import org.apache.tinkerpop.benchmark.util.AbstractGraphBenchmark;
 import org.apache.tinkerpop.gremlin.LoadGraphWith;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.Path;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization.BatchStrategy;
 import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
 
 import java.util.List;
 import java.util.Map;
@@ -41,6 +48,35 @@ import static org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__.out;
 @LoadGraphWith(LoadGraphWith.GraphData.GRATEFUL)
 public class GraphTraversalBenchmark extends AbstractGraphBenchmark {
 
+    /**
+     * Toggles {@link TinkerGraph#GREMLIN_TINKERGRAPH_PRIMITIVE_ID_STORAGE} to compare element storage keyed by boxed
+     * {@code Long} identifiers to storage keyed by primitive ones, both using the {@code LONG} {@code IdManager}.
+     */
+    @Param({"false", "true"})
+    public boolean primitiveIdStorage;
+
+    /**
+     * The batch size given to the {@link BatchStrategy} to compare steps processing traversers in batches to the
+     * default of processing them one at a time, which is a size of zero.
+     */
+    @Param({"0", "64"})
+    public int batchSize;
+
+    @Override
+    protected Graph openGraph() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_VERTEX_ID_MANAGER, TinkerGraph.DefaultIdManager.LONG.name());
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_EDGE_ID_MANAGER, TinkerGraph.DefaultIdManager.LONG.name());
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_VERTEX_PROPERTY_ID_MANAGER, TinkerGraph.DefaultIdManager.LONG.name());
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_PRIMITIVE_ID_STORAGE, primitiveIdStorage);
+        return TinkerGraph.open(conf);
+    }
+
+    @Override
+    protected GraphTraversalSource traversal() {
+        return batchSize > 0 ? graph.traversal().withStrategies(new BatchStrategy(batchSize)) : graph.traversal();
+    }
+
     @Benchmark
     public List<Vertex> g_V_outE_inV_outE_inV_outE_inV() throws Exception {
         return g.V().outE().inV().outE().inV().outE().inV().toList();
@@ -51,11 +87,36 @@ public class GraphTraversalBenchmark extends AbstractGraphBenchmark {
         return g.V().out().out().out().toList();
     }
 
+    @Benchmark
+    public List<Object> g_V_out_out_id() throws Exception {
+        return g.V().out().out().id().toList();
+    }
+
+    @Benchmark
+    public List<Object> g_V_outE_inV_hasXsongType_originalX_valuesXnameX() throws Exception {
+        return g.V().outE().inV().has("songType", "original").values("name").toList();
+    }
+
+    @Benchmark
+    public List<String> g_V_both_hasXperformances_gtX100XX_label() throws Exception {
+        return g.V().both().has("performances", P.gt(100)).label().toList();
+    }
+
     @Benchmark
     public List<Path> g_V_out_out_out_path() throws Exception {
         return g.V().out().out().out().path().toList();
     }
 
+    @Benchmark
+    public List<Path> g_V_out_out_in_path_dedup() throws Exception {
+        return g.V().out().out().in().path().dedup().toList();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> g_V_asXaX_out_in_asXbX_barrier_selectXa_bX() throws Exception {
+        return g.V().as("a").out().in().as("b").barrier().<Object>select("a", "b").toList();
+    }
+
     @Benchmark
     public List<Vertex> g_V_repeatXoutX_timesX2X() throws Exception {
         return g.V().repeat(out()).times(2).toList();
@@ -86,6 +147,21 @@ public class GraphTraversalBenchmark extends AbstractGraphBenchmark {
         return g.V().label().groupCount().toList();
     }
 
+    @Benchmark
+    public List<Map<Object, Long>> g_V_out_out_groupCount() throws Exception {
+        return g.V().out().out().groupCount().toList();
+    }
+
+    @Benchmark
+    public List<Map<Object, Long>> g_V_out_out_barrier_groupCount() throws Exception {
+        return g.V().out().out().barrier().groupCount().toList();
+    }
+
+    @Benchmark
+    public List<Object> g_V_out_out_aggregateXxX_capXxX() throws Exception {
+        return g.V().out().out().aggregate("x").cap("x").toList();
+    }
+
     @Benchmark
     public List<Object> g_V_match_selectXbX_valuesXnameX() throws Exception {
         return g.V().match(
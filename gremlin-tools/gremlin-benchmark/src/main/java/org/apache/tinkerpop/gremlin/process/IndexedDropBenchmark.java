@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process;
+
+import org.apache.tinkerpop.benchmark.util.AbstractGraphMutateBenchmark;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * {@code IndexedDropBenchmark} benchmarks the removal of elements from a {@link TinkerGraph} with indexed properties,
+ * where each removal must also remove the element from the indices.
+ */
+public class IndexedDropBenchmark extends AbstractGraphMutateBenchmark {
+
+    @Param({"10000"})
+    public int vertexCount;
+
+    @Param({"0", "3"})
+    public int indexedKeyCount;
+
+    @Param({"HASH", "RANGE"})
+    public TinkerGraph.IndexType indexType;
+
+    @Setup(Level.Invocation)
+    @Override
+    public void prepare() {
+        super.prepare();
+        final TinkerGraph tinkerGraph = (TinkerGraph) graph;
+        for (int ix = 0; ix < indexedKeyCount; ix++) {
+            tinkerGraph.createIndex("x" + ix, Vertex.class, indexType);
+        }
+
+        Vertex previous = null;
+        for (int ix = 0; ix < vertexCount; ix++) {
+            final Vertex v = graph.addVertex("person");
+            // low cardinality keys so that value buckets are large
+            for (int iy = 0; iy < 3; iy++) {
+                v.property("x" + iy, ix % (10 * (iy + 1)));
+            }
+            if (null != previous)
+                v.addEdge("knows", previous);
+            previous = v;
+        }
+    }
+
+    @Benchmark
+    public void testDropVertices() {
+        g.V().drop().iterate();
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process;
+
+import org.apache.tinkerpop.benchmark.util.AbstractGraphBenchmark;
+import org.apache.tinkerpop.gremlin.LoadGraphWith;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization.TraverserRecyclingStrategy;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.profile.Profiler;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures the throughput and, with the {@link GCProfiler}, the allocation rate of traversals over a
+ * {@link TinkerGraph} loaded with the Grateful Dead data set with and without the {@link TraverserRecyclingStrategy},
+ * where most traversers are split by {@code out()} and {@code both()} and die at a filter or at a count.
+ */
+@LoadGraphWith(LoadGraphWith.GraphData.GRATEFUL)
+public class TraverserRecyclingBenchmark extends AbstractGraphBenchmark {
+
+    @Param({"false", "true"})
+    public boolean recycling;
+
+    @Override
+    protected GraphTraversalSource traversal() {
+        return recycling ? graph.traversal().withStrategies(TraverserRecyclingStrategy.instance()) : graph.traversal();
+    }
+
+    @Benchmark
+    public Long g_V_out_out_count() throws Exception {
+        return g.V().out().out().count().next();
+    }
+
+    @Benchmark
+    public Long g_V_both_both_hasXperformances_gtX100XX_count() throws Exception {
+        return g.V().both().both().has("performances", P.gt(100)).count().next();
+    }
+
+    @Benchmark
+    public Map<Object, Long> g_V_out_out_groupCount() throws Exception {
+        return g.V().out().out().groupCount().next();
+    }
+
+    @Benchmark
+    public List<Object> g_V_out_out_hasXsongType_originalX_id() throws Exception {
+        return g.V().out().out().has("songType", "original").id().toList();
+    }
+
+    @Override
+    protected List<Class<? extends Profiler>> getProfilers() {
+        return Collections.singletonList(GCProfiler.class);
+    }
+}
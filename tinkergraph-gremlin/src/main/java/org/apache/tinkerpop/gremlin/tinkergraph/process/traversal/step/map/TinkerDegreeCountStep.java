@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ReducingBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertex;
+import org.apache.tinkerpop.gremlin.util.function.ConstantSupplier;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.BinaryOperator;
+
+/**
+ * Counts the edges, or the adjacent vertices, of the vertices it is given in a direction and with any of the labels
+ * using the degrees held by each {@link TinkerVertex}, in place of a {@code VertexStep} followed by a
+ * {@code CountGlobalStep}. A count that was limited by a {@code RangeGlobalStep} between the two is capped at that limit.
+ *
+ * @see TinkerHelper#getDegree(TinkerVertex, Direction, String...)
+ */
+public final class TinkerDegreeCountStep<S extends Vertex> extends ReducingBarrierStep<S, Long> {
+
+    private static final Set<TraverserRequirement> REQUIREMENTS = EnumSet.of(TraverserRequirement.BULK);
+
+    private final Direction direction;
+    private final String[] edgeLabels;
+    private final long limit;
+
+    public TinkerDegreeCountStep(final Traversal.Admin traversal, final Direction direction, final String... edgeLabels) {
+        this(traversal, direction, Long.MAX_VALUE, edgeLabels);
+    }
+
+    public TinkerDegreeCountStep(final Traversal.Admin traversal, final Direction direction, final long limit, final String... edgeLabels) {
+        super(traversal);
+        this.direction = direction;
+        this.edgeLabels = edgeLabels;
+        this.limit = limit;
+        this.setSeedSupplier(new ConstantSupplier<>(0L));
+        this.setReducingBiOperator(new CappedSum(limit));
+    }
+
+    @Override
+    public Long projectTraverser(final Traverser.Admin<S> traverser) {
+        final Vertex vertex = traverser.get();
+        final long degree = vertex instanceof TinkerVertex ?
+                TinkerHelper.getDegree((TinkerVertex) vertex, this.direction, this.edgeLabels) :
+                IteratorUtils.count(vertex.edges(this.direction, this.edgeLabels));
+        if (0 == degree) return 0L;
+        final long bulk = traverser.bulk();
+        return bulk > this.limit / degree ? this.limit : degree * bulk;
+    }
+
+    public Direction getDirection() {
+        return this.direction;
+    }
+
+    public String[] getEdgeLabels() {
+        return this.edgeLabels;
+    }
+
+    public long getLimit() {
+        return this.limit;
+    }
+
+    @Override
+    public Set<TraverserRequirement> getRequirements() {
+        return REQUIREMENTS;
+    }
+
+    @Override
+    public String toString() {
+        return Long.MAX_VALUE == this.limit ?
+                StringFactory.stepString(this, this.direction, Arrays.asList(this.edgeLabels)) :
+                StringFactory.stepString(this, this.direction, Arrays.asList(this.edgeLabels), this.limit);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() ^ this.direction.hashCode() ^ Arrays.hashCode(this.edgeLabels) ^ Long.hashCode(this.limit);
+    }
+
+    /**
+     * Sums counts without exceeding the limit, which is also what keeps a sum of large degrees from overflowing.
+     */
+    private static final class CappedSum implements BinaryOperator<Long>, Serializable {
+        private final long limit;
+
+        private CappedSum(final long limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public Long apply(final Long a, final Long b) {
+            return a > this.limit - b ? this.limit : a + b;
+        }
+    }
+}
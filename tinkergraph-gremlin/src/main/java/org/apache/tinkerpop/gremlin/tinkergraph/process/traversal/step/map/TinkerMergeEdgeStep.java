@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Merge;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.MergeEdgeStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.util.CloseableIterator;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link MergeEdgeStep} that finds the edges between the out and in vertices of the merge in the index of edges by
+ * their endpoints, rather than by iterating the edges of the out vertex, which is what makes a merge on a vertex with
+ * many edges expensive. Searches that do not give both vertices, or that give the identifier of the edge, are left to
+ * {@link MergeEdgeStep}.
+ *
+ * @see TinkerGraph#GREMLIN_TINKERGRAPH_ENDPOINT_INDEX
+ */
+public final class TinkerMergeEdgeStep<S> extends MergeEdgeStep<S> {
+
+    public TinkerMergeEdgeStep(final MergeEdgeStep<S> originalStep) {
+        super(originalStep.getTraversal(), originalStep.isStart(), originalStep.getMergeTraversal());
+        if (null != originalStep.getOnCreateTraversal())
+            this.addChildOption(Merge.onCreate, (Traversal.Admin) originalStep.getOnCreateTraversal());
+        if (null != originalStep.getOnMatchTraversal())
+            this.addChildOption(Merge.onMatch, (Traversal.Admin) originalStep.getOnMatchTraversal());
+        if (null != originalStep.getOutVTraversal())
+            this.addChildOption(Merge.outV, originalStep.getOutVTraversal());
+        if (null != originalStep.getInVTraversal())
+            this.addChildOption(Merge.inV, originalStep.getInVTraversal());
+        this.callbackRegistry = originalStep.getCallbackRegistry();
+        originalStep.getLabels().forEach(this::addLabel);
+    }
+
+    @Override
+    protected CloseableIterator<Edge> searchEdges(final Map search) {
+        final Graph graph = this.getGraph();
+        if (null == search || !(graph instanceof TinkerGraph) || null != search.get(T.id))
+            return super.searchEdges(search);
+
+        final Object outVertexId = search.get(Direction.OUT);
+        final Object inVertexId = search.get(Direction.IN);
+        if (!isSingleId(outVertexId) || !isSingleId(inVertexId))
+            return super.searchEdges(search);
+
+        final List<HasContainer> hasContainers = new ArrayList<>();
+        for (final Map.Entry e : ((Map<?, ?>) search).entrySet()) {
+            if (!(e.getKey() instanceof String)) continue;
+            final Object value = e.getValue();
+            if (value instanceof Traversal)
+                return super.searchEdges(search);
+            hasContainers.add(new HasContainer((String) e.getKey(), value instanceof P ? (P) value : P.eq(value)));
+        }
+
+        final String label = (String) search.get(T.label);
+        final Iterator<Edge> edges = TinkerHelper.queryEndpointIndex((TinkerGraph) graph, outVertexId, inVertexId, label);
+        return CloseableIterator.of(hasContainers.isEmpty() ? edges :
+                IteratorUtils.filter(edges, edge -> HasContainer.testAll(edge, hasContainers)));
+    }
+
+    private static boolean isSingleId(final Object id) {
+        return null != id && !(id instanceof Collection) && !id.getClass().isArray();
+    }
+}
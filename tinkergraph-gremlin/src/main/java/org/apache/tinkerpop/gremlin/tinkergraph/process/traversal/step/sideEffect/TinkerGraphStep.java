@@ -19,15 +19,20 @@
 package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.sideEffect;
 
 import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Contains;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Mutating;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
 import org.apache.tinkerpop.gremlin.process.traversal.util.AndP;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.util.CloseableIterator;
+import org.apache.tinkerpop.gremlin.structure.util.GraphStatistics;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraphIterator;
@@ -36,10 +41,18 @@ import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.stream.Collectors;
 
 /**
@@ -48,6 +61,12 @@ import java.util.stream.Collectors;
  */
 public final class TinkerGraphStep<S, E extends Element> extends GraphStep<S, E> implements HasContainerHolder, AutoCloseable {
 
+    /**
+     * The size of the smallest bucket of several hash indexed equalities above which the buckets are intersected
+     * rather than only the smallest being read, as below it testing the elements of the smallest costs as little.
+     */
+    private static final long INTERSECTION_THRESHOLD = 64;
+
     private final List<HasContainer> hasContainers = new ArrayList<>();
     /**
      * List of iterators opened by this step.
@@ -67,20 +86,14 @@ public final class TinkerGraphStep<S, E extends Element> extends GraphStep<S, E>
 
     private Iterator<? extends Edge> edges() {
         final TinkerGraph graph = (TinkerGraph) this.getTraversal().getGraph().get();
-        final HasContainer indexedContainer = getIndexKey(Edge.class);
-        Iterator<Edge> iterator;
+        final Iterator<Edge> iterator;
         // ids are present, filter on them first
         if (null == this.ids)
             iterator = Collections.emptyIterator();
         else if (this.ids.length > 0)
             iterator = this.iteratorList(graph.edges(this.ids));
         else
-            iterator = null == indexedContainer ?
-                    this.iteratorList(graph.edges()) :
-                    TinkerHelper.queryEdgeIndex(graph, indexedContainer.getKey(), indexedContainer.getPredicate().getValue()).stream()
-                                .filter(edge -> HasContainer.testAll(edge, this.hasContainers))
-                                .collect(Collectors.<Edge>toList()).iterator();
-
+            iterator = this.lookup(graph, Edge.class);
 
         iterators.add(iterator);
 
@@ -89,31 +102,252 @@ public final class TinkerGraphStep<S, E extends Element> extends GraphStep<S, E>
 
     private Iterator<? extends Vertex> vertices() {
         final TinkerGraph graph = (TinkerGraph) this.getTraversal().getGraph().get();
-        final HasContainer indexedContainer = getIndexKey(Vertex.class);
-        Iterator<? extends Vertex> iterator;
+        final Iterator<Vertex> iterator;
         // ids are present, filter on them first
         if (null == this.ids)
             iterator = Collections.emptyIterator();
         else if (this.ids.length > 0)
             iterator = this.iteratorList(graph.vertices(this.ids));
         else
-            iterator = (null == indexedContainer ?
-                    this.iteratorList(graph.vertices()) :
-                    IteratorUtils.filter(TinkerHelper.queryVertexIndex(graph, indexedContainer.getKey(), indexedContainer.getPredicate().getValue()).iterator(),
-                                         vertex -> HasContainer.testAll(vertex, this.hasContainers)));
+            iterator = this.lookup(graph, Vertex.class);
 
         iterators.add(iterator);
 
         return iterator;
     }
 
-    private HasContainer getIndexKey(final Class<? extends Element> indexedClass) {
-        final Set<String> indexedKeys = ((TinkerGraph) this.getTraversal().getGraph().get()).getIndexedKeys(indexedClass);
+    /**
+     * Gets the elements matching the {@link HasContainer} instances from the most specific index that applies, falling
+     * back to a scan of the graph.
+     */
+    private <T extends Element> Iterator<T> lookup(final TinkerGraph graph, final Class<T> elementClass) {
+        Iterator<? extends Element> candidates = this.queryCompositeIndex(elementClass);
+        if (null == candidates)
+            candidates = this.queryMostSelectiveIndex(graph, elementClass);
+        if (null == candidates) {
+            final ForkJoinPool pool = TinkerHelper.getParallelScanPool(graph);
+            return null == pool || this.hasContainers.isEmpty() ?
+                    this.iteratorList(this.scan(graph, elementClass)) :
+                    this.parallelScan(graph, pool, elementClass);
+        }
+
+        // the index is read lazily so that a limit() only pulls what it needs, but a traversal that mutates the graph
+        // could move an element to a part of the index that is yet to be read, so such traversals read it up front
+        return this.isMutating() ?
+                this.iteratorList((Iterator<T>) candidates) :
+                IteratorUtils.filter((Iterator<T>) candidates, element -> HasContainer.testAll(element, this.hasContainers));
+    }
+
+    private boolean isMutating() {
+        return TraversalHelper.hasStepOfAssignableClassRecursively(Mutating.class, TraversalHelper.getRootTraversal(this.getTraversal()));
+    }
+
+    /**
+     * Looks up the elements with whichever of the hash and range indices that apply is estimated to read the fewest
+     * elements, returning {@code null} if none apply or if a scan of the label index would read fewer. The estimates
+     * are the sizes of the index buckets as given by the {@link GraphStatistics} of the graph. When there are several
+     * hash indexed equalities and even the smallest bucket is large, the buckets are intersected so that the elements
+     * of the smallest are only tested if they are in all of the others.
+     */
+    private Iterator<? extends Element> queryMostSelectiveIndex(final TinkerGraph graph, final Class<? extends Element> indexedClass) {
+        final boolean vertices = Vertex.class.isAssignableFrom(indexedClass);
+        final GraphStatistics statistics = graph.getStatistics();
+        final Set<String> indexedKeys = graph.getIndexedKeys(indexedClass, TinkerGraph.IndexType.HASH);
+
+        final List<HasContainer> equalities = new ArrayList<>();
+        final Map<HasContainer, Long> bucketSizes = new IdentityHashMap<>();
+        for (final HasContainer hasContainer : this.hasContainers) {
+            if (hasContainer.getBiPredicate() == Compare.eq && indexedKeys.contains(hasContainer.getKey())) {
+                equalities.add(hasContainer);
+                bucketSizes.put(hasContainer, statistics.countValue(indexedClass, hasContainer.getKey(), hasContainer.getValue()));
+            }
+        }
+        equalities.sort(Comparator.comparingLong(bucketSizes::get));
+
+        long cost = this.estimateScan(graph, statistics, indexedClass);
+        Iterator<? extends Element> candidates = null;
+        if (!equalities.isEmpty() && bucketSizes.get(equalities.get(0)) <= cost) {
+            cost = bucketSizes.get(equalities.get(0));
+            if (equalities.size() > 1 && cost > INTERSECTION_THRESHOLD) {
+                final List<String> keys = equalities.stream().map(HasContainer::getKey).collect(Collectors.toList());
+                final List<Object> values = equalities.stream().map(HasContainer::getValue).collect(Collectors.toList());
+                candidates = vertices ?
+                        TinkerHelper.queryVertexIndex(graph, keys, values) :
+                        TinkerHelper.queryEdgeIndex(graph, keys, values);
+            } else {
+                final HasContainer indexedContainer = equalities.get(0);
+                candidates = vertices ?
+                        TinkerHelper.queryVertexIndex(graph, indexedContainer.getKey(), indexedContainer.getPredicate().getValue()) :
+                        TinkerHelper.queryEdgeIndex(graph, indexedContainer.getKey(), indexedContainer.getPredicate().getValue());
+            }
+        }
+
+        final String rangeKey = getRangeIndexKey(indexedClass);
+        if (null != rangeKey) {
+            final List<P<?>> predicates = getRangePredicates(rangeKey);
+            final long rangeCost = vertices ?
+                    TinkerHelper.countVertexRangeIndex(graph, rangeKey, predicates, cost) :
+                    TinkerHelper.countEdgeRangeIndex(graph, rangeKey, predicates, cost);
+            if (null == candidates ? rangeCost <= cost : rangeCost < cost)
+                candidates = vertices ?
+                        TinkerHelper.queryVertexRangeIndex(graph, rangeKey, predicates) :
+                        TinkerHelper.queryEdgeRangeIndex(graph, rangeKey, predicates);
+        }
+        return candidates;
+    }
+
+    /**
+     * Estimates the number of elements {@link #scan(TinkerGraph, Class)} would read.
+     */
+    private long estimateScan(final TinkerGraph graph, final GraphStatistics statistics, final Class<? extends Element> elementClass) {
+        final Collection<String> labels = TinkerHelper.hasLabelIndex(graph) ? this.getIndexedLabels() : null;
+        if (null == labels)
+            return statistics.count(elementClass);
+
+        long count = 0;
+        for (final String label : labels) {
+            count += statistics.countLabel(elementClass, label);
+        }
+        return count;
+    }
+
+    /**
+     * Gets all of the elements of the graph or, if the graph has a label index and the step constrains the label, only
+     * the elements with those labels.
+     */
+    private <T extends Element> Iterator<T> scan(final TinkerGraph graph, final Class<T> elementClass) {
+        final boolean vertices = Vertex.class.isAssignableFrom(elementClass);
+        final Collection<String> labels = TinkerHelper.hasLabelIndex(graph) ? this.getIndexedLabels() : null;
+        if (null == labels)
+            return (Iterator<T>) (vertices ? graph.vertices() : graph.edges());
+
+        return IteratorUtils.flatMap(labels.iterator(), label -> (Iterator<T>) (vertices ?
+                TinkerHelper.queryVertexLabelIndex(graph, label).iterator() :
+                TinkerHelper.queryEdgeLabelIndex(graph, label).iterator()));
+    }
 
-        final Iterator<HasContainer> itty = IteratorUtils.filter(hasContainers.iterator(),
-                c -> c.getPredicate().getBiPredicate() == Compare.eq && indexedKeys.contains(c.getKey()));
-        return itty.hasNext() ? itty.next() : null;
+    /**
+     * Gets the elements that {@link #scan(TinkerGraph, Class)} would return that match the {@link HasContainer}
+     * instances by testing partitions of them across the pool. The partitions are joined in order so the elements are
+     * returned in the same order as a scan on a single thread would return them.
+     */
+    private <T extends Element> Iterator<T> parallelScan(final TinkerGraph graph, final ForkJoinPool pool, final Class<T> elementClass) {
+        final Collection<String> labels = TinkerHelper.hasLabelIndex(graph) ? this.getIndexedLabels() : null;
+        final Object[] elements;
+        if (null == labels) {
+            elements = Vertex.class.isAssignableFrom(elementClass) ?
+                    TinkerHelper.getVertices(graph).values().toArray() :
+                    TinkerHelper.getEdges(graph).values().toArray();
+        } else {
+            elements = IteratorUtils.list(this.scan(graph, elementClass)).toArray();
+        }
+
+        if (elements.length < TinkerHelper.getParallelScanThreshold(graph))
+            return this.iteratorList(IteratorUtils.map(Arrays.asList(elements).iterator(), e -> (T) e));
+
+        // more partitions than workers so that a worker that finishes early can take on another partition
+        final int partitions = Math.min(elements.length, pool.getParallelism() * 4);
+        final List<ForkJoinTask<List<T>>> tasks = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            final int from = (int) ((long) elements.length * i / partitions);
+            final int to = (int) ((long) elements.length * (i + 1) / partitions);
+            tasks.add(pool.submit(() -> {
+                final List<T> matches = new ArrayList<>();
+                for (int j = from; j < to; j++) {
+                    final T element = (T) elements[j];
+                    if (HasContainer.testAll(element, this.hasContainers))
+                        matches.add(element);
+                }
+                return matches;
+            }));
+        }
+
+        final List<T> list = new ArrayList<>();
+        for (final ForkJoinTask<List<T>> task : tasks) {
+            list.addAll(task.join());
+        }
+        return new TinkerGraphIterator<>(list.iterator());
+    }
+
+    /**
+     * Gets the labels of the first {@link HasContainer} that restricts the label by {@code eq()} or {@code within()}.
+     */
+    private Collection<String> getIndexedLabels() {
+        for (final HasContainer hasContainer : this.hasContainers) {
+            if (!hasContainer.getKey().equals(T.label.getAccessor()))
+                continue;
+            final Object value = hasContainer.getValue();
+            if (hasContainer.getBiPredicate() == Compare.eq && value instanceof String)
+                return Collections.singletonList((String) value);
+            if (hasContainer.getBiPredicate() == Contains.within && value instanceof Collection &&
+                    ((Collection<?>) value).stream().allMatch(label -> label instanceof String))
+                return new LinkedHashSet<>((Collection<String>) value);
+        }
+        return null;
+    }
+
+    /**
+     * Looks up elements with the composite index that covers the most keys among those for which all of the keys,
+     * and the label if the index is scoped to one, are constrained by equality. Returns {@code null} if there is no
+     * such index.
+     */
+    private Iterator<? extends Element> queryCompositeIndex(final Class<? extends Element> indexedClass) {
+        final TinkerGraph graph = (TinkerGraph) this.getTraversal().getGraph().get();
+        final Map<String, Object> equalities = new HashMap<>();
+        for (final HasContainer hasContainer : this.hasContainers) {
+            if (hasContainer.getBiPredicate() == Compare.eq && !equalities.containsKey(hasContainer.getKey()))
+                equalities.put(hasContainer.getKey(), hasContainer.getValue());
+        }
+        if (equalities.isEmpty()) return null;
+
+        final Object labelValue = equalities.get(T.label.getAccessor());
+        final List<String> labels = labelValue instanceof String ?
+                Arrays.asList((String) labelValue, null) : Collections.singletonList(null);
+
+        String indexLabel = null;
+        List<String> indexKeys = null;
+        for (final String label : labels) {
+            for (final List<String> keys : graph.getCompositeIndexedKeys(indexedClass, label)) {
+                if (equalities.keySet().containsAll(keys) && (null == indexKeys || keys.size() > indexKeys.size())) {
+                    indexLabel = label;
+                    indexKeys = keys;
+                }
+            }
+        }
+        if (null == indexKeys) return null;
+
+        final List<Object> values = new ArrayList<>(indexKeys.size());
+        for (final String key : indexKeys) {
+            values.add(equalities.get(key));
+        }
+        return Vertex.class.isAssignableFrom(indexedClass) ?
+                TinkerHelper.queryVertexCompositeIndex(graph, indexLabel, indexKeys, values) :
+                TinkerHelper.queryEdgeCompositeIndex(graph, indexLabel, indexKeys, values);
+    }
+
+    /**
+     * Gets the first key with a {@link TinkerGraph.IndexType#RANGE} index for which all of the {@link HasContainer}
+     * predicates can be answered by that index.
+     */
+    private String getRangeIndexKey(final Class<? extends Element> indexedClass) {
+        final Set<String> rangeIndexedKeys = ((TinkerGraph) this.getTraversal().getGraph().get()).getIndexedKeys(indexedClass, TinkerGraph.IndexType.RANGE);
+        if (rangeIndexedKeys.isEmpty()) return null;
+
+        for (final HasContainer hasContainer : this.hasContainers) {
+            final String key = hasContainer.getKey();
+            if (rangeIndexedKeys.contains(key) && this.hasContainers.stream()
+                    .filter(c -> key.equals(c.getKey()))
+                    .allMatch(c -> TinkerHelper.isRangeIndexable(c.getPredicate())))
+                return key;
+        }
+        return null;
+    }
 
+    private List<P<?>> getRangePredicates(final String key) {
+        return this.hasContainers.stream()
+                .filter(c -> key.equals(c.getKey()))
+                .map(HasContainer::getPredicate)
+                .collect(Collectors.toList());
     }
 
     @Override
@@ -126,7 +360,7 @@ public final class TinkerGraphStep<S, E extends Element> extends GraphStep<S, E>
                     StringFactory.stepString(this, this.returnClass.getSimpleName().toLowerCase(), Arrays.toString(this.ids), this.hasContainers);
     }
 
-    private <E extends Element> Iterator<E> iteratorList(final Iterator<E> iterator) {
+    private <E extends Element> Iterator<E> iteratorList(final Iterator<? extends E> iterator) {
         final List<E> list = new ArrayList<>();
 
         try {
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.CountGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map.TinkerDegreeCountStep;
+
+import java.util.List;
+
+/**
+ * This strategy replaces a count of the edges or adjacent vertices of each vertex with a {@link TinkerDegreeCountStep}
+ * which reads the degree that each {@link org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertex} holds for
+ * each label and direction rather than iterating its edges. As strategies are applied to child traversals too, this
+ * covers counts in {@code local()}, {@code where()} and {@code by()} as well as those at the end of a traversal. The
+ * limit that {@code CountStrategy} places ahead of a count that is compared is kept as a cap on the count.
+ *
+ * @example <pre>
+ * g.V(1).outE('knows').count()                 // is replaced by TinkerDegreeCountStep
+ * g.V().local(bothE().count())                 // is replaced by TinkerDegreeCountStep in the local traversal
+ * g.V().where(outE().count().is(gt(1000)))     // is replaced by TinkerDegreeCountStep limited to 1001
+ * </pre>
+ */
+public final class TinkerGraphDegreeStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy> implements TraversalStrategy.ProviderOptimizationStrategy {
+
+    private static final TinkerGraphDegreeStrategy INSTANCE = new TinkerGraphDegreeStrategy();
+
+    private TinkerGraphDegreeStrategy() {
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        if (TraversalHelper.onGraphComputer(traversal))
+            return;
+
+        for (final VertexStep<?> vertexStep : TraversalHelper.getStepsOfClass(VertexStep.class, traversal)) {
+            if (!vertexStep.getLabels().isEmpty() || !vertexStep.getParameters().isEmpty())
+                continue;
+
+            Step<?, ?> next = vertexStep.getNextStep();
+            long limit = Long.MAX_VALUE;
+            if (next instanceof RangeGlobalStep) {
+                final RangeGlobalStep<?> rangeStep = (RangeGlobalStep<?>) next;
+                if (0 != rangeStep.getLowRange() || !rangeStep.getLabels().isEmpty())
+                    continue;
+                if (rangeStep.getHighRange() >= 0) limit = rangeStep.getHighRange();
+                next = next.getNextStep();
+            }
+            if (!(next instanceof CountGlobalStep))
+                continue;
+
+            final TinkerDegreeCountStep<?> degreeStep = new TinkerDegreeCountStep<>(traversal,
+                    vertexStep.getDirection(), limit, vertexStep.getEdgeLabels());
+            TraversalHelper.copyLabels(next, degreeStep, false);
+            final List<Step> steps = traversal.getSteps();
+            final int index = steps.indexOf(vertexStep);
+            for (int i = steps.indexOf(next); i >= index; i--) {
+                traversal.removeStep(i);
+            }
+            traversal.addStep(index, degreeStep);
+        }
+    }
+
+    public static TinkerGraphDegreeStrategy instance() {
+        return INSTANCE;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.MergeEdgeStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.util.empty.EmptyGraph;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map.TinkerMergeEdgeStep;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+
+/**
+ * This strategy replaces each {@link MergeEdgeStep} with a {@link TinkerMergeEdgeStep}, which finds the edge to merge
+ * in the index of edges by their endpoints, when the {@link TinkerGraph} keeps that index.
+ *
+ * @example <pre>
+ * g.mergeE([(from):1, (to):2, (T.label):'knows'])       // is replaced by TinkerMergeEdgeStep
+ * </pre>
+ * @see TinkerGraph#GREMLIN_TINKERGRAPH_ENDPOINT_INDEX
+ */
+public final class TinkerGraphMergeEdgeStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy> implements TraversalStrategy.ProviderOptimizationStrategy {
+
+    private static final TinkerGraphMergeEdgeStrategy INSTANCE = new TinkerGraphMergeEdgeStrategy();
+
+    private TinkerGraphMergeEdgeStrategy() {
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        if (TraversalHelper.onGraphComputer(traversal))
+            return;
+        final Graph graph = traversal.getGraph().orElse(EmptyGraph.instance());
+        if (!(graph instanceof TinkerGraph) || !TinkerHelper.hasEndpointIndex((TinkerGraph) graph))
+            return;
+
+        for (final MergeEdgeStep originalStep : TraversalHelper.getStepsOfClass(MergeEdgeStep.class, traversal)) {
+            TraversalHelper.replaceStep(originalStep, new TinkerMergeEdgeStep(originalStep), traversal);
+        }
+    }
+
+    public static TinkerGraphMergeEdgeStrategy instance() {
+        return INSTANCE;
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.services;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.service.Service;
+import org.apache.tinkerpop.gremlin.structure.util.CloseableIterator;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.apache.tinkerpop.gremlin.structure.service.Service.ServiceCallContext;
+import static org.apache.tinkerpop.gremlin.structure.service.Service.Type;
+import static org.apache.tinkerpop.gremlin.util.tools.CollectionFactory.asMap;
+
+/**
+ * Search against an index created with {@link TinkerGraph#createGeoIndex(String, String, Class)}, returning the
+ * elements within a {@link Params#BOX} or, given a {@link Params#CENTER}, the elements within the {@link Params#RADIUS}
+ * of it or the {@link Params#K} nearest to it, which are ordered from the nearest. As a {@link Service.Type#Start}
+ * service it searches around the supplied position and as a {@link Service.Type#Streaming} service it searches around
+ * the indexed position of each incoming element, leaving that element out, unless a box or center is supplied.
+ */
+public class TinkerGeoSearchFactory extends TinkerServiceRegistry.TinkerServiceFactory<Element, Element> {
+
+    public static final String NAME = "tinker.geo";
+
+    public interface Params {
+        /**
+         * Specify the latitude property key of the index to search
+         */
+        String LATITUDE_KEY = "latitudeKey";
+        /**
+         * Specify the longitude property key of the index to search
+         */
+        String LONGITUDE_KEY = "longitudeKey";
+        /**
+         * Specify the bounding box to search as a list of south, west, north and east
+         */
+        String BOX = "box";
+        /**
+         * Specify the position to search around as a list of latitude and longitude
+         */
+        String CENTER = "center";
+        /**
+         * Specify the distance in kilometres from the center to search within (optional), default is unlimited
+         */
+        String RADIUS = "radius";
+        /**
+         * Specify the number of nearest elements to find (optional), default is all of those within the radius
+         */
+        String K = "k";
+        /**
+         * Specify the type of Element to search for (optional), default is Vertex
+         */
+        String TYPE = "type";
+
+        Map DESCRIBE = asMap(
+                LATITUDE_KEY, "Specify the latitude property key of the index to search",
+                LONGITUDE_KEY, "Specify the longitude property key of the index to search",
+                BOX, "Specify the bounding box to search as a list of south, west, north and east, which crosses the antimeridian if west is greater than east",
+                CENTER, "Specify the position to search around as a list of latitude and longitude (otherwise defaults to the position of the incoming element)",
+                RADIUS, "Specify the distance in kilometres from the center to search within (optional), default is unlimited",
+                K, "Specify the number of nearest elements to find (optional), default is all of those within the radius",
+                TYPE, "Specify the type of Element to search for, one of Vertex/Edge (optional), default is Vertex"
+        );
+
+        static Class<? extends Element> type(final String type) {
+            if (type == null)
+                return Vertex.class;
+
+            switch (type) {
+                case "Vertex":
+                    return Vertex.class;
+                case "Edge":
+                    return Edge.class;
+                default: throw new IllegalArgumentException("Type must be one of Vertex/Edge: " + type);
+            }
+        }
+    }
+
+    private final GeoSearchService startService = new GeoSearchService(this, Type.Start);
+    private final GeoSearchService streamingService = new GeoSearchService(this, Type.Streaming);
+
+    public TinkerGeoSearchFactory(final TinkerGraph graph) {
+        super(graph, NAME);
+    }
+
+    @Override
+    public Map describeParams() {
+        return Params.DESCRIBE;
+    }
+
+    @Override
+    public Set<Type> getSupportedTypes() {
+        return new HashSet<>(Arrays.asList(Type.Start, Type.Streaming));
+    }
+
+    @Override
+    public Service<Element, Element> createService(final boolean isStart, final Map params) {
+        return isStart ? startService : streamingService;
+    }
+
+    private static class GeoSearchService extends TinkerServiceRegistry.TinkerService<Element, Element> {
+
+        private final Type type;
+
+        private GeoSearchService(final TinkerGeoSearchFactory factory, final Type type) {
+            super(factory);
+            this.type = type;
+        }
+
+        @Override
+        public Type getType() {
+            return this.type;
+        }
+
+        @Override
+        public CloseableIterator<Element> execute(final ServiceCallContext ctx, final Map params) {
+            if (!params.containsKey(Params.BOX) && !params.containsKey(Params.CENTER))
+                throw new IllegalStateException("Missing box or center parameter");
+            return CloseableIterator.of(this.search(params, null, null).iterator());
+        }
+
+        @Override
+        public CloseableIterator<Element> execute(final ServiceCallContext ctx, final Traverser.Admin<Element> in, final Map params) {
+            final List<Element> results;
+            if (params.containsKey(Params.BOX) || params.containsKey(Params.CENTER)) {
+                results = this.search(params, null, null);
+            } else {
+                final double[] position = TinkerHelper.getGeoPosition(graph(), latitudeKey(params), longitudeKey(params), in.get());
+                results = null == position ? Collections.emptyList() : this.search(params, position, in.get());
+            }
+
+            final List<Element> bulked = new ArrayList<>();
+            for (long i = 0; i < in.bulk(); i++) {
+                bulked.addAll(results);
+            }
+            return CloseableIterator.of(bulked.iterator());
+        }
+
+        /**
+         * Searches the index within the box or around the center, which is read from the parameters if it is
+         * {@code null}, leaving out the element if it is not {@code null}.
+         */
+        private List<Element> search(final Map params, final double[] position, final Element exclude) {
+            final Class<? extends Element> elementClass = Params.type((String) params.get(Params.TYPE));
+            if (null == position && params.containsKey(Params.BOX)) {
+                final double[] box = coordinates(params, Params.BOX, 4);
+                return (List) TinkerHelper.searchGeoIndexWithin(graph(), latitudeKey(params), longitudeKey(params),
+                        elementClass, box[0], box[1], box[2], box[3]);
+            }
+
+            final double[] center = null == position ? coordinates(params, Params.CENTER, 2) : position;
+            final double radius = params.containsKey(Params.RADIUS) ?
+                    ((Number) params.get(Params.RADIUS)).doubleValue() : Double.POSITIVE_INFINITY;
+            final int k = params.containsKey(Params.K) ? ((Number) params.get(Params.K)).intValue() : Integer.MAX_VALUE;
+
+            final List<? extends Map.Entry<? extends Element, Double>> nearest = TinkerHelper.searchGeoIndexNearest(
+                    graph(), latitudeKey(params), longitudeKey(params), elementClass, center[0], center[1], radius,
+                    null == exclude || k == Integer.MAX_VALUE ? k : k + 1);
+            final List<Element> results = new ArrayList<>(nearest.size());
+            for (Map.Entry<? extends Element, Double> neighbour : nearest) {
+                if (results.size() == k) break;
+                if (neighbour.getKey().equals(exclude)) continue;
+                results.add(neighbour.getKey());
+            }
+            return results;
+        }
+
+        private static double[] coordinates(final Map params, final String param, final int size) {
+            final Object value = params.get(param);
+            if (!(value instanceof List) || ((List) value).size() != size)
+                throw new IllegalArgumentException(String.format("The %s parameter must be a list of %s numbers: %s", param, size, value));
+
+            final double[] coordinates = new double[size];
+            for (int i = 0; i < size; i++) {
+                final Object coordinate = ((List) value).get(i);
+                if (!(coordinate instanceof Number))
+                    throw new IllegalArgumentException(String.format("The %s parameter must be a list of %s numbers: %s", param, size, value));
+                coordinates[i] = ((Number) coordinate).doubleValue();
+            }
+            return coordinates;
+        }
+
+        private static String latitudeKey(final Map params) {
+            if (!params.containsKey(Params.LATITUDE_KEY))
+                throw new IllegalStateException("Missing latitudeKey parameter");
+            return (String) params.get(Params.LATITUDE_KEY);
+        }
+
+        private static String longitudeKey(final Map params) {
+            if (!params.containsKey(Params.LONGITUDE_KEY))
+                throw new IllegalStateException("Missing longitudeKey parameter");
+            return (String) params.get(Params.LONGITUDE_KEY);
+        }
+
+        private TinkerGraph graph() {
+            return ((TinkerGeoSearchFactory) this.serviceFactory).graph;
+        }
+    }
+}
@@ -36,8 +36,9 @@ import java.util.Set;
 import static org.apache.tinkerpop.gremlin.util.tools.CollectionFactory.asMap;
 
 /**
- * Inefficient text search implementation (scan+filter), searches for {@link Property}s by token/regex.
- * Demonstrates a {@link Service.Type#Start} service.
+ * Text search for {@link Property}s. A {@link Params#QUERY} is answered by the full-text index created for the
+ * {@link Params#KEY} with {@link TinkerGraph.IndexType#TEXT}, while a {@link Params#SEARCH} or {@link Params#REGEX} is
+ * answered by an inefficient scan+filter over all properties. Demonstrates a {@link Service.Type#Start} service.
  */
 public class TinkerTextSearchFactory<I, R> extends TinkerServiceRegistry.TinkerServiceFactory<I, R> implements Service<I, R> {
 
@@ -56,11 +57,27 @@ public class TinkerTextSearchFactory<I, R> extends TinkerServiceRegistry.TinkerS
          * Specify the type of Element to search for (optional)
          */
         String TYPE = "type";
+        /**
+         * Specify a full-text query against a text index - terms are optional unless prefixed with + (required) or -
+         * (excluded) and a trailing * matches any term with that prefix
+         */
+        String QUERY = "query";
+        /**
+         * Specify the text indexed property key to query (required with query)
+         */
+        String KEY = "key";
+        /**
+         * Specify the maximum number of best matching elements to return for a query (optional)
+         */
+        String TOP_K = "k";
 
         Map DESCRIBE = asMap(
                 SEARCH, "Specify a search term - will be converted to regex via .*(search).*",
                 REGEX, "Directly specify the regex",
-                TYPE, "Specify the type of Element to search for, one of Vertex/Edge/VertexProperty (optional)"
+                TYPE, "Specify the type of Element to search for, one of Vertex/Edge/VertexProperty (optional)",
+                QUERY, "Specify a full-text query against a text index, where terms may be prefixed with + (required) or - (excluded) and suffixed with * (prefix match)",
+                KEY, "Specify the text indexed property key to query (required with query)",
+                TOP_K, "Specify the maximum number of best matching elements to return for a query (optional)"
         );
 
         static Class type(final String type) {
@@ -108,15 +125,24 @@ public class TinkerTextSearchFactory<I, R> extends TinkerServiceRegistry.TinkerS
 
     @Override
     public CloseableIterator<R> execute(final ServiceCallContext ctx, final Map params) {
+        final Class type = Params.type((String) params.get(Params.TYPE));
+
+        if (params.containsKey(Params.QUERY)) {
+            if (!params.containsKey(Params.KEY))
+                throw new IllegalStateException("Missing key parameter for query");
+            final int k = params.containsKey(Params.TOP_K) ? ((Number) params.get(Params.TOP_K)).intValue() : 0;
+            return CloseableIterator.of((Iterator<R>) TinkerHelper.searchTextIndex(graph, (String) params.get(Params.KEY),
+                    (String) params.get(Params.QUERY), k, Optional.ofNullable(type)));
+        }
+
         final String regex;
         if (params.containsKey(Params.REGEX)) {
             regex = (String) params.get(Params.REGEX);
         } else if (params.containsKey(Params.SEARCH)) {
             regex = ".*(" + params.get(Params.SEARCH) + ").*";
         } else {
-            throw new IllegalStateException("Missing search/regex parameter");
+            throw new IllegalStateException("Missing search/regex/query parameter");
         }
-        final Class type = Params.type((String) params.get(Params.TYPE));
 
         return CloseableIterator.of((Iterator<R>) TinkerHelper.search(graph, regex, Optional.ofNullable(type)));
     }
@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.services;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.service.Service;
+import org.apache.tinkerpop.gremlin.structure.util.CloseableIterator;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.apache.tinkerpop.gremlin.structure.service.Service.ServiceCallContext;
+import static org.apache.tinkerpop.gremlin.structure.service.Service.Type;
+import static org.apache.tinkerpop.gremlin.util.tools.CollectionFactory.asMap;
+
+/**
+ * Nearest neighbour search against an index created with {@link TinkerGraph.IndexType#VECTOR}, returning a
+ * {@code Map} of the {@link Params#ELEMENT} and its {@link Params#DISTANCE} for each of the nearest elements, ordered
+ * from the nearest. As a {@link Service.Type#Start} service it finds the neighbours of the supplied vector and as a
+ * {@link Service.Type#Streaming} service it finds the neighbours of each incoming element by its own indexed vector,
+ * unless a vector is supplied.
+ */
+public class TinkerVectorSearchFactory extends TinkerServiceRegistry.TinkerServiceFactory<Element, Map<String, Object>> {
+
+    public static final String NAME = "tinker.knn";
+
+    public interface Params {
+        /**
+         * Specify the vector indexed property key to search
+         */
+        String KEY = "key";
+        /**
+         * Specify the vector to find the neighbours of (required to start a traversal)
+         */
+        String VECTOR = "vector";
+        /**
+         * Specify the number of neighbours to find (optional), default is 10
+         */
+        String K = "k";
+        /**
+         * Specify the number of candidates to consider (optional), default is 64
+         */
+        String EF = "ef";
+        /**
+         * Specify the type of Element to search for (optional), default is Vertex
+         */
+        String TYPE = "type";
+
+        /**
+         * The key of the neighbouring element in the results.
+         */
+        String ELEMENT = "element";
+        /**
+         * The key of the distance to the neighbouring element in the results.
+         */
+        String DISTANCE = "distance";
+
+        int DEFAULT_K = 10;
+        int DEFAULT_EF = 64;
+
+        Map DESCRIBE = asMap(
+                KEY, "Specify the vector indexed property key to search",
+                VECTOR, "Specify the vector to find the neighbours of (required to start a traversal, otherwise defaults to the vector of the incoming element)",
+                K, "Specify the number of neighbours to find (optional), default is " + DEFAULT_K,
+                EF, "Specify the number of candidates to consider, where more finds the true nearest neighbours more often (optional), default is " + DEFAULT_EF,
+                TYPE, "Specify the type of Element to search for, one of Vertex/Edge (optional), default is Vertex"
+        );
+
+        static Class<? extends Element> type(final String type) {
+            if (type == null)
+                return Vertex.class;
+
+            switch (type) {
+                case "Vertex":
+                    return Vertex.class;
+                case "Edge":
+                    return Edge.class;
+                default: throw new IllegalArgumentException("Type must be one of Vertex/Edge: " + type);
+            }
+        }
+    }
+
+    private final VectorSearchService startService = new VectorSearchService(this, Type.Start);
+    private final VectorSearchService streamingService = new VectorSearchService(this, Type.Streaming);
+
+    public TinkerVectorSearchFactory(final TinkerGraph graph) {
+        super(graph, NAME);
+    }
+
+    @Override
+    public Map describeParams() {
+        return Params.DESCRIBE;
+    }
+
+    @Override
+    public Set<Type> getSupportedTypes() {
+        return new HashSet<>(Arrays.asList(Type.Start, Type.Streaming));
+    }
+
+    @Override
+    public Service<Element, Map<String, Object>> createService(final boolean isStart, final Map params) {
+        return isStart ? startService : streamingService;
+    }
+
+    private static class VectorSearchService extends TinkerServiceRegistry.TinkerService<Element, Map<String, Object>> {
+
+        private final Type type;
+
+        private VectorSearchService(final TinkerVectorSearchFactory factory, final Type type) {
+            super(factory);
+            this.type = type;
+        }
+
+        @Override
+        public Type getType() {
+            return this.type;
+        }
+
+        @Override
+        public CloseableIterator<Map<String, Object>> execute(final ServiceCallContext ctx, final Map params) {
+            if (!params.containsKey(Params.VECTOR))
+                throw new IllegalStateException("Missing vector parameter");
+            return CloseableIterator.of(this.search(params, params.get(Params.VECTOR), null).iterator());
+        }
+
+        @Override
+        public CloseableIterator<Map<String, Object>> execute(final ServiceCallContext ctx, final Traverser.Admin<Element> in, final Map params) {
+            final List<Map<String, Object>> results;
+            if (params.containsKey(Params.VECTOR)) {
+                results = this.search(params, params.get(Params.VECTOR), null);
+            } else {
+                final float[] vector = TinkerHelper.getIndexedVector(graph(), key(params), in.get());
+                results = null == vector ? Collections.emptyList() : this.search(params, vector, in.get());
+            }
+
+            final List<Map<String, Object>> bulked = new ArrayList<>();
+            for (long i = 0; i < in.bulk(); i++) {
+                bulked.addAll(results);
+            }
+            return CloseableIterator.of(bulked.iterator());
+        }
+
+        /**
+         * Searches the index for the neighbours of the vector, leaving out the element if it is not {@code null}.
+         */
+        private List<Map<String, Object>> search(final Map params, final Object vector, final Element exclude) {
+            final int k = params.containsKey(Params.K) ? ((Number) params.get(Params.K)).intValue() : Params.DEFAULT_K;
+            final int ef = params.containsKey(Params.EF) ? ((Number) params.get(Params.EF)).intValue() : Params.DEFAULT_EF;
+            final Class<? extends Element> elementClass = Params.type((String) params.get(Params.TYPE));
+
+            final List<? extends Map.Entry<? extends Element, Double>> nearest = TinkerHelper.searchVectorIndex(
+                    graph(), key(params), vector, null == exclude ? k : k + 1, ef, elementClass);
+            final List<Map<String, Object>> results = new ArrayList<>(nearest.size());
+            for (Map.Entry<? extends Element, Double> neighbour : nearest) {
+                if (results.size() == k) break;
+                if (neighbour.getKey().equals(exclude)) continue;
+
+                final Map<String, Object> result = new LinkedHashMap<>();
+                result.put(Params.ELEMENT, neighbour.getKey());
+                result.put(Params.DISTANCE, neighbour.getValue());
+                results.add(result);
+            }
+            return results;
+        }
+
+        private String key(final Map params) {
+            if (!params.containsKey(Params.KEY))
+                throw new IllegalStateException("Missing key parameter");
+            return (String) params.get(Params.KEY);
+        }
+
+        private TinkerGraph graph() {
+            return ((TinkerVectorSearchFactory) this.serviceFactory).graph;
+        }
+    }
+}
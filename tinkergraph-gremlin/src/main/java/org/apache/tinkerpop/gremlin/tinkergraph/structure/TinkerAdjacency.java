@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * The edges of a {@link TinkerVertex} in one direction, grouped by label. Most vertices have few edges with few
+ * labels, for which a map of sets costs several hundred bytes, so the labels are held in an array alongside the group
+ * of edges for each label. A group is an array of edges until it grows past {@link #PROMOTION_THRESHOLD}, at which
+ * point it is promoted to a {@code LinkedHashSet} so that removal stays constant time for high degree vertices. Both
+ * forms iterate in the order the edges were added, so iteration order is stable across promotion, and both hold an
+ * edge at most once, comparing edges by equality as the set does.
+ * <p/>
+ * As with the maps it replaces, the adjacency is not safe for concurrent modification.
+ */
+final class TinkerAdjacency {
+
+    /**
+     * The number of edges with a label above which they are held in a hashed set rather than an array.
+     */
+    static final int PROMOTION_THRESHOLD = 32;
+
+    private static final String[] NO_LABELS = new String[0];
+    private static final Object[] NO_GROUPS = new Object[0];
+    private static final int[] NO_SIZES = new int[0];
+
+    // each group is either an Edge[] whose first sizes[i] slots are used or a Set<Edge>
+    private String[] labels = NO_LABELS;
+    private Object[] groups = NO_GROUPS;
+    private int[] sizes = NO_SIZES;
+
+    void add(final String label, final Edge edge) {
+        int i = indexOf(label);
+        if (i < 0) {
+            i = this.labels.length;
+            this.labels = Arrays.copyOf(this.labels, i + 1);
+            this.groups = Arrays.copyOf(this.groups, i + 1);
+            this.sizes = Arrays.copyOf(this.sizes, i + 1);
+            this.labels[i] = label;
+            this.groups[i] = new Edge[1];
+        }
+
+        final Object group = this.groups[i];
+        if (group instanceof Edge[]) {
+            Edge[] edges = (Edge[]) group;
+            final int size = this.sizes[i];
+            if (indexOf(edges, size, edge) >= 0) return;
+            if (size == PROMOTION_THRESHOLD) {
+                final Set<Edge> set = new LinkedHashSet<>(Arrays.asList(edges).subList(0, size));
+                set.add(edge);
+                this.groups[i] = set;
+            } else {
+                if (size == edges.length) {
+                    edges = Arrays.copyOf(edges, Math.min(PROMOTION_THRESHOLD, size << 1));
+                    this.groups[i] = edges;
+                }
+                edges[size] = edge;
+            }
+        } else if (!((Set<Edge>) group).add(edge)) {
+            return;
+        }
+        this.sizes[i]++;
+    }
+
+    void remove(final String label, final Edge edge) {
+        final int i = indexOf(label);
+        if (i < 0) return;
+
+        final Object group = this.groups[i];
+        if (group instanceof Edge[]) {
+            final Edge[] edges = (Edge[]) group;
+            final int size = this.sizes[i];
+            final int j = indexOf(edges, size, edge);
+            if (j >= 0) {
+                System.arraycopy(edges, j + 1, edges, j, size - j - 1);
+                edges[size - 1] = null;
+                this.sizes[i]--;
+            }
+        } else if (((Set<Edge>) group).remove(edge)) {
+            this.sizes[i]--;
+        }
+
+        if (0 == this.sizes[i]) removeLabel(i);
+    }
+
+    /**
+     * Gets the labels that there are edges with.
+     */
+    String[] labels() {
+        return this.labels.clone();
+    }
+
+    boolean isEmpty() {
+        return 0 == this.labels.length;
+    }
+
+    /**
+     * Counts the edges with the labels, or all edges if no labels are given, counting an edge once for each time its
+     * label is given as {@link #forEach(String[], Consumer)} would visit it.
+     */
+    long count(final String[] edgeLabels) {
+        long count = 0;
+        if (0 == edgeLabels.length) {
+            for (int i = 0; i < this.sizes.length; i++) {
+                count += this.sizes[i];
+            }
+        } else {
+            for (String label : edgeLabels) {
+                final int i = indexOf(label);
+                if (i >= 0) count += this.sizes[i];
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Applies the action to the edges with the labels, or to all edges if no labels are given, in the order of the
+     * labels given and then in the order the edges were added.
+     */
+    void forEach(final String[] edgeLabels, final Consumer<Edge> action) {
+        if (0 == edgeLabels.length) {
+            for (int i = 0; i < this.labels.length; i++) {
+                forEach(i, action);
+            }
+        } else {
+            for (String label : edgeLabels) {
+                final int i = indexOf(label);
+                if (i >= 0) forEach(i, action);
+            }
+        }
+    }
+
+    private void forEach(final int i, final Consumer<Edge> action) {
+        final Object group = this.groups[i];
+        if (group instanceof Edge[]) {
+            final Edge[] edges = (Edge[]) group;
+            final int size = this.sizes[i];
+            for (int j = 0; j < size; j++) {
+                action.accept(edges[j]);
+            }
+        } else {
+            ((Set<Edge>) group).forEach(action);
+        }
+    }
+
+    private int indexOf(final String label) {
+        for (int i = 0; i < this.labels.length; i++) {
+            if (this.labels[i].equals(label)) return i;
+        }
+        return -1;
+    }
+
+    private static int indexOf(final Edge[] edges, final int size, final Edge edge) {
+        for (int j = 0; j < size; j++) {
+            if (edges[j] == edge || edges[j].equals(edge)) return j;
+        }
+        return -1;
+    }
+
+    private void removeLabel(final int i) {
+        final int remaining = this.labels.length - 1;
+        if (0 == remaining) {
+            this.labels = NO_LABELS;
+            this.groups = NO_GROUPS;
+            this.sizes = NO_SIZES;
+            return;
+        }
+
+        final String[] labels = new String[remaining];
+        final Object[] groups = new Object[remaining];
+        final int[] sizes = new int[remaining];
+        System.arraycopy(this.labels, 0, labels, 0, i);
+        System.arraycopy(this.groups, 0, groups, 0, i);
+        System.arraycopy(this.sizes, 0, sizes, 0, i);
+        System.arraycopy(this.labels, i + 1, labels, i, remaining - i);
+        System.arraycopy(this.groups, i + 1, groups, i, remaining - i);
+        System.arraycopy(this.sizes, i + 1, sizes, i, remaining - i);
+        this.labels = labels;
+        this.groups = groups;
+        this.sizes = sizes;
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.io.GraphReader;
+import org.apache.tinkerpop.gremlin.structure.io.IoCore;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Loads partitioned input files into a {@link TinkerGraph} across a pool of workers. Each partition is a file in an
+ * adjacency list format, such as one written by the {@code writeVertices()} method of the Gryo or GraphSON
+ * {@link GraphReader}, in which every vertex appears in exactly one partition along with its outgoing edges.
+ * <p/>
+ * Loading happens in three phases. The partitions are first read in parallel, adding their vertices to the graph and
+ * holding their edges. Once every vertex is present, the edges of each partition are added in parallel and then the
+ * loaded elements are added to the indices of the graph in a single parallel pass, rather than updating the indices as
+ * each property is added. If the graph has a write-ahead log, the graph is saved and the log reset once loading
+ * completes, as the loaded elements are not written to the log.
+ * <p/>
+ * The graph should not be read or modified by other threads while it is loading.
+ *
+ * <pre>
+ * graph.bulkLoader().workers(64).reader(() -&gt; graph.io(IoCore.graphson()).reader().create()).load(partitions);
+ * </pre>
+ */
+public final class TinkerBulkLoader {
+
+    private static final BasicThreadFactory THREAD_FACTORY_WORKER = new BasicThreadFactory.Builder().namingPattern("tinker-loader-%d").build();
+
+    private final TinkerGraph graph;
+    private int workers = Runtime.getRuntime().availableProcessors();
+    private Supplier<? extends GraphReader> reader;
+
+    TinkerBulkLoader(final TinkerGraph graph) {
+        this.graph = graph;
+        this.reader = () -> graph.io(IoCore.gryo()).reader().create();
+    }
+
+    /**
+     * Sets the number of partitions to load at once, which defaults to the number of available processors.
+     */
+    public TinkerBulkLoader workers(final int workers) {
+        if (workers < 1)
+            throw new IllegalArgumentException("The number of workers must be greater than zero: " + workers);
+        this.workers = workers;
+        return this;
+    }
+
+    /**
+     * Sets the supplier of the {@link GraphReader} for the format of the partitions, which defaults to Gryo. A reader
+     * is created for each partition as readers are not necessarily safe to use from multiple threads.
+     */
+    public TinkerBulkLoader reader(final Supplier<? extends GraphReader> reader) {
+        if (null == reader)
+            throw Graph.Exceptions.argumentCanNotBeNull("reader");
+        this.reader = reader;
+        return this;
+    }
+
+    /**
+     * Loads the partitions into the graph, blocking until they have all been loaded.
+     */
+    public void load(final List<File> partitions) {
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(this.workers, Math.max(1, partitions.size())), THREAD_FACTORY_WORKER);
+        try {
+            final List<Partition> loaded = invokeAll(executor, partitions, this::readPartition);
+            invokeAll(executor, loaded, partition -> {
+                addEdges(partition);
+                return partition;
+            });
+
+            if (null != this.graph.vertexIndex) {
+                final List<TinkerVertex> vertices = new ArrayList<>();
+                loaded.forEach(partition -> vertices.addAll(partition.vertices));
+                this.graph.vertexIndex.addElements(vertices);
+            }
+            if (null != this.graph.edgeIndex) {
+                final List<TinkerEdge> edges = new ArrayList<>();
+                loaded.forEach(partition -> edges.addAll(partition.edges));
+                this.graph.edgeIndex.addElements(edges);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        final TinkerWriteAheadLog wal = TinkerHelper.writeAheadLog(this.graph);
+        if (null != wal)
+            wal.checkpoint(() -> TinkerGraph.writeSnapshot(this.graph, this.graph.graphLocation, this.graph.graphFormat));
+    }
+
+    private Partition readPartition(final File file) throws Exception {
+        final GraphReader partitionReader = this.reader.get();
+        final Partition partition = new Partition();
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            partitionReader.readVertices(in,
+                    attachable -> {
+                        final TinkerVertex vertex = addVertex(attachable.get());
+                        partition.vertices.add(vertex);
+                        return vertex;
+                    },
+                    attachable -> {
+                        partition.pendingEdges.add(new PendingEdge(attachable.get()));
+                        return null;
+                    }, Direction.OUT).forEachRemaining(v -> {});
+        } catch (RuntimeException ex) {
+            // some readers wrap what the vertex maker throws, so unwrap a duplicate identifier to raise it as
+            // vertexWithIdAlreadyExists the way adding a vertex otherwise does
+            if (ex.getCause() instanceof IllegalArgumentException) throw (IllegalArgumentException) ex.getCause();
+            throw ex;
+        }
+        return partition;
+    }
+
+    private TinkerVertex addVertex(final Vertex read) {
+        final Object id = this.graph.vertexIdManager.convert(read.id());
+        final TinkerVertex vertex = new TinkerVertex(id, read.label(), this.graph);
+        read.properties().forEachRemaining(readVertexProperty -> {
+            final TinkerVertexProperty<Object> vertexProperty = new TinkerVertexProperty<>(
+                    this.graph.vertexPropertyIdManager.convert(readVertexProperty.id()), vertex,
+                    readVertexProperty.key(), readVertexProperty.value());
+            readVertexProperty.properties().forEachRemaining(p -> {
+                if (null == vertexProperty.properties) vertexProperty.properties = new TinkerPropertyMap<>(this.graph.shapes);
+                vertexProperty.properties.put(p.key(), new TinkerProperty<>(vertexProperty, p.key(), p.value()));
+            });
+            if (null == vertex.properties) vertex.properties = new TinkerPropertyMap<>(this.graph.shapes);
+            vertex.properties.computeIfAbsent(readVertexProperty.key(), k -> new ArrayList<>()).add(vertexProperty);
+        });
+
+        TinkerHelper.registerVertex(this.graph, vertex, null);
+        return vertex;
+    }
+
+    private void addEdges(final Partition partition) {
+        for (PendingEdge pending : partition.pendingEdges) {
+            final Object id = this.graph.edgeIdManager.convert(pending.id);
+            final TinkerVertex outVertex = (TinkerVertex) this.graph.vertices.get(this.graph.vertexIdManager.convert(pending.outId));
+            final TinkerVertex inVertex = (TinkerVertex) this.graph.vertices.get(this.graph.vertexIdManager.convert(pending.inId));
+            if (null == outVertex || null == inVertex)
+                throw new IllegalStateException(String.format("The edge %s refers to a vertex that was not loaded: %s",
+                        pending.id, null == outVertex ? pending.outId : pending.inId));
+
+            final TinkerEdge edge = new TinkerEdge(id, outVertex, pending.label, inVertex);
+            for (int i = 0; i < pending.keyValues.length; i = i + 2) {
+                if (null == edge.properties) edge.properties = new TinkerPropertyMap<>(this.graph.shapes);
+                final String key = (String) pending.keyValues[i];
+                edge.properties.put(key, new TinkerProperty<>(edge, key, pending.keyValues[i + 1]));
+            }
+
+            TinkerHelper.registerEdge(this.graph, edge, null);
+            partition.edges.add(edge);
+        }
+    }
+
+    private static <S, R> List<R> invokeAll(final ExecutorService executor, final Collection<S> inputs,
+                                            final Task<S, R> task) {
+        final List<Future<R>> futures = new ArrayList<>(inputs.size());
+        for (S input : inputs) {
+            futures.add(executor.submit((Callable<R>) () -> task.apply(input)));
+        }
+
+        final List<R> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<R> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException)
+                throw (RuntimeException) ex.getCause();
+            throw new IllegalStateException(ex.getCause());
+        }
+        return results;
+    }
+
+    @FunctionalInterface
+    private interface Task<S, R> {
+        R apply(final S input) throws Exception;
+    }
+
+    /**
+     * The elements loaded from a partition along with the edges read from it, which are added once all the vertices
+     * are loaded.
+     */
+    private static final class Partition {
+        private final List<TinkerVertex> vertices = new ArrayList<>();
+        private final List<PendingEdge> pendingEdges = new ArrayList<>();
+        private final List<TinkerEdge> edges = new ArrayList<>();
+    }
+
+    /**
+     * An edge that was read, holding only its identifiers and properties so that the rest of the adjacency list it
+     * was read from can be collected.
+     */
+    private static final class PendingEdge {
+        private final Object id;
+        private final String label;
+        private final Object outId;
+        private final Object inId;
+        private final Object[] keyValues;
+
+        private PendingEdge(final Edge edge) {
+            this.id = edge.id();
+            this.label = edge.label();
+            this.outId = edge.outVertex().id();
+            this.inId = edge.inVertex().id();
+            final List<Object> keyValues = new ArrayList<>();
+            edge.properties().forEachRemaining(p -> {
+                keyValues.add(p.key());
+                keyValues.add(p.value());
+            });
+            this.keyValues = keyValues.toArray();
+        }
+    }
+}
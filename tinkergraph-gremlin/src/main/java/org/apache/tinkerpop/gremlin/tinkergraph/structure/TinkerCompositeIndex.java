@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Property;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An index over an ordered list of property keys, optionally restricted to elements with a particular label. The
+ * index is keyed by the list of values of those keys so that an element can be found with a single lookup when all of
+ * the keys are constrained by equality. Elements that are missing any one of the keys are not indexed. A vertex with
+ * multiple values for a key is indexed under every combination of its values.
+ * <p/>
+ * The values under which each element is indexed are tracked so that the element can be re-indexed or removed after
+ * its properties have already changed.
+ */
+final class TinkerCompositeIndex<T extends Element> {
+
+    private final String label;
+    private final List<String> keys;
+    private final Map<List<Object>, Set<T>> index = new ConcurrentHashMap<>();
+    private final Map<T, Set<List<Object>>> entries = new ConcurrentHashMap<>();
+
+    TinkerCompositeIndex(final String label, final List<String> keys) {
+        this.label = label;
+        this.keys = Collections.unmodifiableList(new ArrayList<>(keys));
+    }
+
+    public String getLabel() {
+        return this.label;
+    }
+
+    public List<String> getKeys() {
+        return this.keys;
+    }
+
+    public boolean covers(final String key) {
+        return this.keys.contains(key);
+    }
+
+    /**
+     * Gets the elements whose values for the keys of the index are equal to the supplied values, in key order. The
+     * returned iterator reads directly from the index and is weakly consistent.
+     */
+    public Iterator<T> get(final List<Object> values) {
+        final List<Object> indexableValues = new ArrayList<>(values.size());
+        for (Object value : values) {
+            indexableValues.add(TinkerIndex.indexable(value));
+        }
+        final Set<T> set = this.index.get(indexableValues);
+        return null == set ? Collections.emptyIterator() : Collections.unmodifiableSet(set).iterator();
+    }
+
+    /**
+     * Re-indexes the element from its current property values.
+     */
+    public void update(final T element) {
+        if (null != this.label && !this.label.equals(element.label()))
+            return;
+
+        final Set<List<Object>> current = values(element);
+        final Set<List<Object>> previous = current.isEmpty() ? this.entries.remove(element) : this.entries.put(element, current);
+        if (null != previous) {
+            for (List<Object> values : previous) {
+                if (!current.contains(values))
+                    removeFromBucket(values, element);
+            }
+        }
+        for (List<Object> values : current) {
+            if (null == previous || !previous.contains(values))
+                this.index.computeIfAbsent(values, k -> ConcurrentHashMap.newKeySet()).add(element);
+        }
+    }
+
+    public void remove(final T element) {
+        final Set<List<Object>> previous = this.entries.remove(element);
+        if (null != previous) {
+            for (List<Object> values : previous) {
+                removeFromBucket(values, element);
+            }
+        }
+    }
+
+    public void clear() {
+        this.index.clear();
+        this.entries.clear();
+    }
+
+    private void removeFromBucket(final List<Object> values, final T element) {
+        final Set<T> set = this.index.get(values);
+        if (null != set) {
+            set.remove(element);
+            if (set.isEmpty())
+                this.index.remove(values, set);
+        }
+    }
+
+    /**
+     * Gets every combination of the element's values for the keys of the index.
+     */
+    private Set<List<Object>> values(final T element) {
+        Set<List<Object>> combinations = Collections.singleton(Collections.emptyList());
+        for (String key : this.keys) {
+            final List<Object> keyValues = new ArrayList<>(1);
+            final Iterator<? extends Property<Object>> properties = element.properties(key);
+            while (properties.hasNext()) {
+                final Property<Object> property = properties.next();
+                if (property.isPresent()) keyValues.add(TinkerIndex.indexable(property.value()));
+            }
+            if (keyValues.isEmpty())
+                return Collections.emptySet();
+
+            final Set<List<Object>> next = new HashSet<>();
+            for (List<Object> combination : combinations) {
+                for (Object value : keyValues) {
+                    final Object[] extended = combination.toArray(new Object[combination.size() + 1]);
+                    extended[combination.size()] = value;
+                    next.add(Arrays.asList(extended));
+                }
+            }
+            combinations = next;
+        }
+        return combinations;
+    }
+}
@@ -29,7 +29,6 @@ import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
@@ -46,7 +45,7 @@ public final class TinkerEdge extends TinkerElement implements Edge {
     private final boolean allowNullPropertyValues;
 
     protected TinkerEdge(final Object id, final Vertex outVertex, final String label, final Vertex inVertex) {
-        super(id, label);
+        super(id, ((TinkerGraph) outVertex.graph()).shapes.intern(label));
         this.outVertex = outVertex;
         this.inVertex = inVertex;
         this.allowNullPropertyValues = outVertex.graph().features().edge().supportsNullPropertyValues();
@@ -63,9 +62,16 @@ public final class TinkerEdge extends TinkerElement implements Edge {
             return Property.empty();
         }
 
+        TinkerHelper.validateIndexedValue(this, key, value);
         final Property oldProperty = super.property(key);
         final Property<V> newProperty = new TinkerProperty<>(this, key, value);
-        if (null == this.properties) this.properties = new HashMap<>();
+
+        // properties given to addEdge() are logged with the edge so only log those set once it is in the graph
+        final TinkerGraph graph = (TinkerGraph) this.graph();
+        final TinkerWriteAheadLog wal = TinkerHelper.writeAheadLog(graph);
+        if (null != wal && graph.edges.get(this.id) == this) wal.setProperty(newProperty);
+
+        if (null == this.properties) this.properties = new TinkerPropertyMap<>(((TinkerGraph) this.graph()).shapes);
         this.properties.put(key, newProperty);
         TinkerHelper.autoUpdateIndex(this, key, value, oldProperty.isPresent() ? oldProperty.value() : null);
         return newProperty;
@@ -84,22 +90,23 @@ public final class TinkerEdge extends TinkerElement implements Edge {
 
     @Override
     public void remove() {
+        final TinkerGraph graph = (TinkerGraph) this.graph();
+        final TinkerWriteAheadLog wal = TinkerHelper.writeAheadLog(graph);
+        if (null != wal) wal.removeEdge(this);
+
         final TinkerVertex outVertex = (TinkerVertex) this.outVertex;
         final TinkerVertex inVertex = (TinkerVertex) this.inVertex;
 
-        if (null != outVertex && null != outVertex.outEdges) {
-            final Set<Edge> edges = outVertex.outEdges.get(this.label());
-            if (null != edges)
-                edges.remove(this);
-        }
-        if (null != inVertex && null != inVertex.inEdges) {
-            final Set<Edge> edges = inVertex.inEdges.get(this.label());
-            if (null != edges)
-                edges.remove(this);
-        }
+        if (null != outVertex && null != outVertex.outEdges)
+            outVertex.outEdges.remove(this.label(), this);
+        if (null != inVertex && null != inVertex.inEdges)
+            inVertex.inEdges.remove(this.label(), this);
 
         TinkerHelper.removeElementIndex(this);
-        ((TinkerGraph) this.graph()).edges.remove(this.id());
+        graph.edges.remove(this.id());
+        if (null != graph.edgeLabelIndex) graph.edgeLabelIndex.remove(this);
+        if (null != graph.endpointIndex) graph.endpointIndex.remove(this);
+        graph.statistics.remove(this);
         this.properties = null;
         this.removed = true;
     }
@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the committed versions of an element of a {@link TinkerTransactionGraph} as a chain from the newest, where
+ * each version records the state of the element from the time it was committed and a {@code null} state records that
+ * the element was removed. The identifier and label of an element never change so they are held once by the container
+ * rather than in each version.
+ * <p/>
+ * Versions are only added by a commit and only discarded once no open transaction can read them, both of which happen
+ * under the commit lock of the graph, while transactions read the chain without locking.
+ */
+abstract class TinkerElementContainer<S> {
+
+    final Object id;
+    final String label;
+    private volatile Version<S> head;
+
+    TinkerElementContainer(final Object id, final String label) {
+        this.id = id;
+        this.label = label;
+    }
+
+    /**
+     * Gets the state of the element as it was committed at the time, which is {@code null} if it did not exist then.
+     */
+    S stateAt(final long time) {
+        for (Version<S> version = this.head; null != version; version = version.previous) {
+            if (version.time <= time) return version.state;
+        }
+        return null;
+    }
+
+    /**
+     * Gets the time of the latest commit to the element or {@code -1} if it was never committed.
+     */
+    long lastCommitted() {
+        final Version<S> version = this.head;
+        return null == version ? -1 : version.time;
+    }
+
+    /**
+     * Determines if the latest commit to the element left it in the graph.
+     */
+    boolean isPresent() {
+        final Version<S> version = this.head;
+        return null != version && null != version.state;
+    }
+
+    void install(final long time, final S state) {
+        this.head = new Version<>(time, state, this.head);
+    }
+
+    /**
+     * Continues the history of a container for the same identifier whose element was removed, so that transactions
+     * which still read that element find it through this container.
+     */
+    void inherit(final TinkerElementContainer<S> removed) {
+        this.head = removed.head;
+    }
+
+    /**
+     * Discards the versions that no transaction reading at or after the horizon can see, returning {@code true} if
+     * the latest version is the only one left.
+     */
+    boolean prune(final long horizon) {
+        for (Version<S> version = this.head; null != version; version = version.previous) {
+            if (version.time <= horizon) {
+                version.previous = null;
+                return version == this.head;
+            }
+        }
+        return false;
+    }
+
+    private static final class Version<S> {
+        private final long time;
+        private final S state;
+        private volatile Version<S> previous;
+
+        private Version(final long time, final S state, final Version<S> previous) {
+            this.time = time;
+            this.state = state;
+            this.previous = previous;
+        }
+    }
+
+    /**
+     * The container of a vertex, which also holds the containers of the edges that have been committed for it by
+     * label. Edges are only removed from the adjacency once they are discarded, so the versions of each edge determine
+     * whether a transaction can see it.
+     */
+    static final class Vertex extends TinkerElementContainer<VertexState> {
+        final Map<String, Set<Edge>> outEdges = new ConcurrentHashMap<>();
+        final Map<String, Set<Edge>> inEdges = new ConcurrentHashMap<>();
+
+        /**
+         * The time of the latest commit that added an edge to the vertex, which a transaction removing the vertex
+         * checks so that it cannot miss removing an edge.
+         */
+        volatile long lastAdjacencyCommitted = -1;
+
+        Vertex(final Object id, final String label) {
+            super(id, label);
+        }
+
+        void inherit(final Vertex removed) {
+            super.inherit(removed);
+            this.outEdges.putAll(removed.outEdges);
+            this.inEdges.putAll(removed.inEdges);
+        }
+    }
+
+    /**
+     * The container of an edge, which holds the containers of its vertices as those never change either.
+     */
+    static final class Edge extends TinkerElementContainer<EdgeState> {
+        final Vertex outVertex;
+        final Vertex inVertex;
+
+        Edge(final Object id, final String label, final Vertex outVertex, final Vertex inVertex) {
+            super(id, label);
+            this.outVertex = outVertex;
+            this.inVertex = inVertex;
+        }
+    }
+
+    /**
+     * The properties of a vertex at a version. The state is copied before it is changed by a transaction and is not
+     * changed once it is committed.
+     */
+    static final class VertexState {
+        final Map<String, List<VertexPropertyState>> properties;
+
+        VertexState() {
+            this.properties = new HashMap<>();
+        }
+
+        VertexState copy() {
+            final VertexState copy = new VertexState();
+            this.properties.forEach((key, list) -> {
+                final List<VertexPropertyState> copied = new ArrayList<>(list.size());
+                list.forEach(vp -> copied.add(vp.copy()));
+                copy.properties.put(key, copied);
+            });
+            return copy;
+        }
+
+        VertexPropertyState get(final String key, final Object id) {
+            final List<VertexPropertyState> list = this.properties.get(key);
+            if (null != list) {
+                for (VertexPropertyState vertexProperty : list) {
+                    if (vertexProperty.id.equals(id)) return vertexProperty;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * A vertex property along with its meta-properties.
+     */
+    static final class VertexPropertyState {
+        final Object id;
+        final String key;
+        final Object value;
+        final Map<String, Object> properties;
+
+        VertexPropertyState(final Object id, final String key, final Object value) {
+            this(id, key, value, new HashMap<>());
+        }
+
+        private VertexPropertyState(final Object id, final String key, final Object value, final Map<String, Object> properties) {
+            this.id = id;
+            this.key = key;
+            this.value = value;
+            this.properties = properties;
+        }
+
+        VertexPropertyState copy() {
+            return new VertexPropertyState(this.id, this.key, this.value, new HashMap<>(this.properties));
+        }
+    }
+
+    /**
+     * The properties of an edge at a version.
+     */
+    static final class EdgeState {
+        final Map<String, Object> properties;
+
+        EdgeState() {
+            this(new HashMap<>());
+        }
+
+        private EdgeState(final Map<String, Object> properties) {
+            this.properties = properties;
+        }
+
+        EdgeState copy() {
+            return new EdgeState(new HashMap<>(this.properties));
+        }
+    }
+}
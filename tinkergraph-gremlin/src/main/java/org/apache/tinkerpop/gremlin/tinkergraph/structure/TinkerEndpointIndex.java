@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the edges of the graph keyed by their out vertex, in vertex and label, so that the edges between two vertices
+ * are found without iterating the adjacency of either, which for a vertex with many edges is what makes finding an
+ * edge with {@code mergeE()} expensive. The endpoints and label of an edge cannot change so the index only needs to be
+ * maintained as edges are added and removed. As most vertices are joined by a single edge with a given label, a key
+ * maps to that edge alone and only to a set once there is more than one.
+ */
+final class TinkerEndpointIndex {
+
+    private final Map<Endpoints, Object> index = new ConcurrentHashMap<>();
+
+    public void add(final TinkerEdge edge) {
+        this.index.compute(endpoints(edge), (k, edges) -> {
+            if (null == edges)
+                return edge;
+            if (edges instanceof Edge) {
+                final Set<Edge> set = ConcurrentHashMap.newKeySet();
+                set.add((Edge) edges);
+                set.add(edge);
+                return set;
+            }
+            ((Set<Edge>) edges).add(edge);
+            return edges;
+        });
+    }
+
+    public void remove(final TinkerEdge edge) {
+        this.index.computeIfPresent(endpoints(edge), (k, edges) -> {
+            if (edges instanceof Edge)
+                return edges.equals(edge) ? null : edges;
+            final Set<Edge> set = (Set<Edge>) edges;
+            set.remove(edge);
+            return set.size() == 1 ? set.iterator().next() : set;
+        });
+    }
+
+    /**
+     * Gets the edges from the out vertex to the in vertex with the label, or with any label if it is {@code null}.
+     */
+    public List<Edge> get(final TinkerVertex outVertex, final TinkerVertex inVertex, final String label) {
+        if (null != label)
+            return get(outVertex.id(), inVertex.id(), label);
+        if (null == outVertex.outEdges)
+            return Collections.emptyList();
+
+        final List<Edge> edges = new ArrayList<>();
+        for (String edgeLabel : outVertex.outEdges.labels()) {
+            edges.addAll(get(outVertex.id(), inVertex.id(), edgeLabel));
+        }
+        return edges;
+    }
+
+    private List<Edge> get(final Object outId, final Object inId, final String label) {
+        final Object edges = this.index.get(new Endpoints(outId, inId, label));
+        if (null == edges)
+            return Collections.emptyList();
+        return edges instanceof Edge ? Collections.singletonList((Edge) edges) : new ArrayList<>((Set<Edge>) edges);
+    }
+
+    public void clear() {
+        this.index.clear();
+    }
+
+    private static Endpoints endpoints(final TinkerEdge edge) {
+        return new Endpoints(edge.outVertex.id(), edge.inVertex.id(), edge.label());
+    }
+
+    private static final class Endpoints {
+        private final Object outId;
+        private final Object inId;
+        private final String label;
+        private final int hashCode;
+
+        private Endpoints(final Object outId, final Object inId, final String label) {
+            this.outId = outId;
+            this.inId = inId;
+            this.label = label;
+            this.hashCode = 31 * (31 * outId.hashCode() + inId.hashCode()) + label.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (this == other) return true;
+            if (!(other instanceof Endpoints)) return false;
+            final Endpoints endpoints = (Endpoints) other;
+            return this.hashCode == endpoints.hashCode && this.outId.equals(endpoints.outId) &&
+                    this.inId.equals(endpoints.inId) && this.label.equals(endpoints.label);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+    }
+}
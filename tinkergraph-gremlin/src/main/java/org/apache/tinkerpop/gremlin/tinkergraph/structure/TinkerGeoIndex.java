@@ -0,0 +1,325 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Property;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A spatial index over the positions given by a pair of latitude and longitude property keys, implemented as a grid of
+ * cells of {@link #CELL_SIZE} degrees in both directions. A bounding box query only reads the cells that the box
+ * overlaps, or the cells that hold elements if there are fewer of those, while a radius query reads the bounding box
+ * of the circle and a nearest neighbour query widens its radius until it holds enough elements. Distances are great
+ * circle distances in kilometres.
+ * <p/>
+ * Latitudes and longitudes must be numbers in degrees within {@code [-90, 90]} and {@code [-180, 180]}, with an element
+ * that lacks either or has a value of any other type or range not being indexed. A vertex with several values for a
+ * key is indexed by the first of them.
+ */
+final class TinkerGeoIndex<T extends Element> {
+
+    /**
+     * The size in degrees of the cells of the grid, which is about 11 km of latitude.
+     */
+    static final double CELL_SIZE = 0.1;
+
+    /**
+     * The mean radius of the earth in kilometres.
+     */
+    static final double EARTH_RADIUS = 6371.0088;
+
+    private static final long ROWS = (long) Math.ceil(180 / CELL_SIZE) + 1;
+    private static final long COLUMNS = (long) Math.ceil(360 / CELL_SIZE) + 1;
+    private static final double HALF_CIRCUMFERENCE = Math.PI * EARTH_RADIUS;
+
+    private final String latitudeKey;
+    private final String longitudeKey;
+    private final Map<T, double[]> positions = new HashMap<>();
+    private final Map<Long, Set<T>> cells = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    TinkerGeoIndex(final String latitudeKey, final String longitudeKey) {
+        this.latitudeKey = latitudeKey;
+        this.longitudeKey = longitudeKey;
+    }
+
+    public String getLatitudeKey() {
+        return this.latitudeKey;
+    }
+
+    public String getLongitudeKey() {
+        return this.longitudeKey;
+    }
+
+    public boolean covers(final String key) {
+        return this.latitudeKey.equals(key) || this.longitudeKey.equals(key);
+    }
+
+    public int size() {
+        this.lock.readLock().lock();
+        try {
+            return this.positions.size();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Re-indexes the element from its current values for the keys.
+     */
+    public void update(final T element) {
+        final double latitude = value(element, this.latitudeKey);
+        final double longitude = value(element, this.longitudeKey);
+        final boolean valid = latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180;
+
+        this.lock.writeLock().lock();
+        try {
+            final double[] previous = this.positions.get(element);
+            if (null != previous) {
+                if (valid && previous[0] == latitude && previous[1] == longitude)
+                    return;
+                this.delete(element, previous);
+            }
+            if (valid) {
+                this.positions.put(element, new double[]{latitude, longitude});
+                this.cells.computeIfAbsent(cell(latitude, longitude), k -> new HashSet<>()).add(element);
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(final T element) {
+        this.lock.writeLock().lock();
+        try {
+            final double[] position = this.positions.get(element);
+            if (null != position) this.delete(element, position);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        this.lock.writeLock().lock();
+        try {
+            this.positions.clear();
+            this.cells.clear();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the latitude and longitude of the element in the index, or {@code null} if it is not indexed.
+     */
+    public double[] get(final T element) {
+        this.lock.readLock().lock();
+        try {
+            final double[] position = this.positions.get(element);
+            return null == position ? null : position.clone();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the elements within the bounding box, which crosses the antimeridian if the west longitude is greater than
+     * the east longitude.
+     */
+    public List<T> within(final double south, final double west, final double north, final double east) {
+        if (south > north)
+            throw new IllegalArgumentException(String.format("The south latitude %s is north of the north latitude %s", south, north));
+
+        this.lock.readLock().lock();
+        try {
+            final List<T> elements = new ArrayList<>();
+            if (west > east) {
+                this.collect(south, west, north, 180, elements);
+                this.collect(south, -180, north, east, elements);
+            } else {
+                this.collect(south, west, north, east, elements);
+            }
+            return elements;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the nearest elements to the position that are within the radius with their distances, ordered from the
+     * nearest.
+     *
+     * @param radius the distance in kilometres beyond which elements are not returned, which may be infinite
+     * @param k      the number of elements to return, which may be {@code Integer.MAX_VALUE} to return all of the
+     *               elements within the radius
+     */
+    public List<Map.Entry<T, Double>> nearest(final double latitude, final double longitude, final double radius, final int k) {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180)
+            throw new IllegalArgumentException(String.format("The position is not a valid latitude and longitude: %s, %s", latitude, longitude));
+        if (radius < 0)
+            throw new IllegalArgumentException("The radius must not be negative: " + radius);
+
+        this.lock.readLock().lock();
+        try {
+            if (k <= 0 || this.positions.isEmpty()) return new ArrayList<>();
+
+            // elements within a radius are exactly those nearer than it, so a radius holding k of them holds the k
+            // nearest. the radius starts out at a few cells and doubles until it does or covers the whole earth.
+            double searched = Integer.MAX_VALUE == k ? radius : Math.min(radius, 2 * CELL_SIZE * HALF_CIRCUMFERENCE / 180);
+            while (true) {
+                final List<Map.Entry<T, Double>> found = this.withinRadius(latitude, longitude, searched);
+                if (found.size() >= k || searched >= radius || searched >= HALF_CIRCUMFERENCE) {
+                    found.sort(Map.Entry.comparingByValue());
+                    return found.size() > k ? new ArrayList<>(found.subList(0, k)) : found;
+                }
+                searched = Math.min(radius, searched * 2);
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    private List<Map.Entry<T, Double>> withinRadius(final double latitude, final double longitude, final double radius) {
+        final List<T> candidates = new ArrayList<>();
+        final double angle = Math.min(radius, HALF_CIRCUMFERENCE) / EARTH_RADIUS;
+        final double south = latitude - Math.toDegrees(angle);
+        final double north = latitude + Math.toDegrees(angle);
+        final double spread = Math.sin(angle) / Math.cos(Math.toRadians(latitude));
+        if (south <= -90 || north >= 90 || spread >= 1) {
+            // the circle covers a pole or is too wide for the spread of longitudes to be bounded
+            this.collect(Math.max(-90, south), -180, Math.min(90, north), 180, candidates);
+        } else {
+            final double width = Math.toDegrees(Math.asin(spread));
+            final double west = longitude - width;
+            final double east = longitude + width;
+            if (west < -180) {
+                this.collect(south, west + 360, north, 180, candidates);
+                this.collect(south, -180, north, east, candidates);
+            } else if (east > 180) {
+                this.collect(south, west, north, 180, candidates);
+                this.collect(south, -180, north, east - 360, candidates);
+            } else {
+                this.collect(south, west, north, east, candidates);
+            }
+        }
+
+        final List<Map.Entry<T, Double>> found = new ArrayList<>();
+        for (T candidate : candidates) {
+            final double[] position = this.positions.get(candidate);
+            final double distance = distance(latitude, longitude, position[0], position[1]);
+            if (distance <= radius)
+                found.add(new AbstractMap.SimpleImmutableEntry<>(candidate, distance));
+        }
+        return found;
+    }
+
+    /**
+     * Adds the elements within the bounding box, which does not cross the antimeridian, reading whichever is fewer of
+     * the cells the box overlaps and the cells that hold elements.
+     */
+    private void collect(final double south, final double west, final double north, final double east, final Collection<T> elements) {
+        final long firstRow = row(south);
+        final long lastRow = row(north);
+        final long firstColumn = column(west);
+        final long lastColumn = column(east);
+        if ((lastRow - firstRow + 1) * (lastColumn - firstColumn + 1) > this.cells.size()) {
+            for (Map.Entry<Long, Set<T>> cell : this.cells.entrySet()) {
+                final long row = cell.getKey() / COLUMNS;
+                final long column = cell.getKey() % COLUMNS;
+                if (row >= firstRow && row <= lastRow && column >= firstColumn && column <= lastColumn)
+                    this.collect(cell.getValue(), south, west, north, east, elements);
+            }
+        } else {
+            for (long row = firstRow; row <= lastRow; row++) {
+                for (long column = firstColumn; column <= lastColumn; column++) {
+                    final Set<T> cell = this.cells.get(row * COLUMNS + column);
+                    if (null != cell) this.collect(cell, south, west, north, east, elements);
+                }
+            }
+        }
+    }
+
+    private void collect(final Set<T> cell, final double south, final double west, final double north, final double east,
+                         final Collection<T> elements) {
+        for (T element : cell) {
+            final double[] position = this.positions.get(element);
+            if (position[0] >= south && position[0] <= north && position[1] >= west && position[1] <= east)
+                elements.add(element);
+        }
+    }
+
+    private void delete(final T element, final double[] position) {
+        this.positions.remove(element);
+        final Long cell = cell(position[0], position[1]);
+        final Set<T> elements = this.cells.get(cell);
+        if (null != elements) {
+            elements.remove(element);
+            if (elements.isEmpty()) this.cells.remove(cell);
+        }
+    }
+
+    private static long cell(final double latitude, final double longitude) {
+        return row(latitude) * COLUMNS + column(longitude);
+    }
+
+    private static long row(final double latitude) {
+        return Math.min(ROWS - 1, Math.max(0, (long) Math.floor((latitude + 90) / CELL_SIZE)));
+    }
+
+    private static long column(final double longitude) {
+        return Math.min(COLUMNS - 1, Math.max(0, (long) Math.floor((longitude + 180) / CELL_SIZE)));
+    }
+
+    /**
+     * Gets the great circle distance in kilometres between two positions by the haversine formula.
+     */
+    static double distance(final double latitude1, final double longitude1, final double latitude2, final double longitude2) {
+        final double dLatitude = Math.toRadians(latitude2 - latitude1);
+        final double dLongitude = Math.toRadians(longitude2 - longitude1);
+        final double a = Math.pow(Math.sin(dLatitude / 2), 2) +
+                Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2)) * Math.pow(Math.sin(dLongitude / 2), 2);
+        return 2 * EARTH_RADIUS * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    /**
+     * Gets the first value of the element for the key as a {@code double}, or {@code NaN} if it has none that is a
+     * number.
+     */
+    private static double value(final Element element, final String key) {
+        final Iterator<? extends Property<Object>> properties = element.properties(key);
+        while (properties.hasNext()) {
+            final Property<Object> property = properties.next();
+            if (property.isPresent())
+                return property.value() instanceof Number ? ((Number) property.value()).doubleValue() : Double.NaN;
+        }
+        return Double.NaN;
+    }
+}
@@ -34,16 +34,21 @@ import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONVersion;
 import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoVersion;
 import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
 import org.apache.tinkerpop.gremlin.structure.util.GraphFactory;
+import org.apache.tinkerpop.gremlin.structure.util.GraphStatistics;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputer;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputerView;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphCountStrategy;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphDegreeStrategy;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphMergeEdgeStrategy;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphStepStrategy;
 import org.apache.tinkerpop.gremlin.tinkergraph.services.TinkerServiceRegistry;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.io.File;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
@@ -53,14 +58,15 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 
 import static org.apache.tinkerpop.gremlin.tinkergraph.services.TinkerServiceRegistry.TinkerServiceFactory;
 
 /**
- * An in-memory (with optional persistence on calls to {@link #close()}), reference implementation of the property
- * graph interfaces provided by TinkerPop.
+ * An in-memory (with optional persistence on calls to {@link #close()} or to a write-ahead log), reference
+ * implementation of the property graph interfaces provided by TinkerPop.
  *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  * @author Stephen Mallette (http://stephen.genoprime.com)
@@ -71,12 +77,24 @@ import static org.apache.tinkerpop.gremlin.tinkergraph.services.TinkerServiceReg
 @Graph.OptIn(Graph.OptIn.SUITE_PROCESS_COMPUTER)
 @Graph.OptIn(Graph.OptIn.SUITE_PROCESS_LIMITED_STANDARD)
 @Graph.OptIn(Graph.OptIn.SUITE_PROCESS_LIMITED_COMPUTER)
+@Graph.OptOut(
+        test = "org.apache.tinkerpop.gremlin.process.traversal.step.map.ProfileTest",
+        method = "g_V_whereXinXcreatedX_count_isX1XX_name_profile",
+        reason = TinkerGraph.DEGREE_COUNT_PROFILE)
+@Graph.OptOut(
+        test = "org.apache.tinkerpop.gremlin.process.traversal.step.map.ProfileTest",
+        method = "g_V_whereXinXcreatedX_count_isX1XX_name_profileXmetricsX",
+        reason = TinkerGraph.DEGREE_COUNT_PROFILE)
 public final class TinkerGraph implements Graph {
 
+    static final String DEGREE_COUNT_PROFILE = "TinkerGraphDegreeStrategy answers in().count() within where() with a single step, so there are fewer nested metrics than the test expects of TinkerGraph.";
+
     static {
         TraversalStrategies.GlobalCache.registerStrategies(TinkerGraph.class, TraversalStrategies.GlobalCache.getStrategies(Graph.class).clone().addStrategies(
                 TinkerGraphStepStrategy.instance(),
-                TinkerGraphCountStrategy.instance()));
+                TinkerGraphCountStrategy.instance(),
+                TinkerGraphDegreeStrategy.instance(),
+                TinkerGraphMergeEdgeStrategy.instance()));
     }
 
     private static final Configuration EMPTY_CONFIGURATION = new BaseConfiguration() {{
@@ -91,17 +109,30 @@ public final class TinkerGraph implements Graph {
     public static final String GREMLIN_TINKERGRAPH_GRAPH_FORMAT = "gremlin.tinkergraph.graphFormat";
     public static final String GREMLIN_TINKERGRAPH_ALLOW_NULL_PROPERTY_VALUES = "gremlin.tinkergraph.allowNullPropertyValues";
     public static final String GREMLIN_TINKERGRAPH_SERVICE = "gremlin.tinkergraph.service";
+    public static final String GREMLIN_TINKERGRAPH_PRIMITIVE_ID_STORAGE = "gremlin.tinkergraph.primitiveIdStorage";
+    public static final String GREMLIN_TINKERGRAPH_LABEL_INDEX = "gremlin.tinkergraph.labelIndex";
+    public static final String GREMLIN_TINKERGRAPH_WAL = "gremlin.tinkergraph.wal";
+    public static final String GREMLIN_TINKERGRAPH_WAL_SYNC = "gremlin.tinkergraph.walSync";
+    public static final String GREMLIN_TINKERGRAPH_WAL_SYNC_INTERVAL = "gremlin.tinkergraph.walSyncInterval";
+    public static final String GREMLIN_TINKERGRAPH_WAL_COMPACTION_SIZE = "gremlin.tinkergraph.walCompactionSize";
+    public static final String GREMLIN_TINKERGRAPH_PARALLEL_SCAN = "gremlin.tinkergraph.parallelScan";
+    public static final String GREMLIN_TINKERGRAPH_PARALLEL_SCAN_THRESHOLD = "gremlin.tinkergraph.parallelScanThreshold";
+    public static final String GREMLIN_TINKERGRAPH_BACKGROUND_INDEX = "gremlin.tinkergraph.backgroundIndex";
+    public static final String GREMLIN_TINKERGRAPH_ENDPOINT_INDEX = "gremlin.tinkergraph.endpointIndex";
 
     private final TinkerGraphFeatures features = new TinkerGraphFeatures();
 
     protected AtomicLong currentId = new AtomicLong(-1L);
-    protected Map<Object, Vertex> vertices = new ConcurrentHashMap<>();
-    protected Map<Object, Edge> edges = new ConcurrentHashMap<>();
+    protected Map<Object, Vertex> vertices;
+    protected Map<Object, Edge> edges;
 
     protected TinkerGraphVariables variables = null;
     protected TinkerGraphComputerView graphComputerView = null;
     protected TinkerIndex<TinkerVertex> vertexIndex = null;
     protected TinkerIndex<TinkerEdge> edgeIndex = null;
+    protected final TinkerLabelIndex<Vertex> vertexLabelIndex;
+    protected final TinkerLabelIndex<Edge> edgeLabelIndex;
+    protected final TinkerEndpointIndex endpointIndex;
 
     protected final IdManager<?> vertexIdManager;
     protected final IdManager<?> edgeIdManager;
@@ -111,9 +142,31 @@ public final class TinkerGraph implements Graph {
 
     protected final TinkerServiceRegistry serviceRegistry;
 
+    /**
+     * The shapes shared by the property maps of the elements of the graph, along with the dictionary of interned keys
+     * and labels.
+     */
+    final TinkerShape shapes = TinkerShape.root();
+
+    final TinkerGraphStatistics statistics = new TinkerGraphStatistics(this);
+
+    /**
+     * The pool that scans of the graph that filter on properties are partitioned across, which is {@code null} unless
+     * {@link #GREMLIN_TINKERGRAPH_PARALLEL_SCAN} is set, along with the number of elements below which a scan is not
+     * worth partitioning.
+     */
+    final ForkJoinPool scanPool;
+    final int parallelScanThreshold;
+
+    /**
+     * Determines if {@link #createIndex(String, Class, IndexType)} returns before a hash or range index is built.
+     */
+    final boolean backgroundIndex;
+
     private final Configuration configuration;
-    private final String graphLocation;
-    private final String graphFormat;
+    final String graphLocation;
+    final String graphFormat;
+    TinkerWriteAheadLog wal = null;
 
     /**
      * An empty private constructor that initializes {@link TinkerGraph}.
@@ -127,6 +180,26 @@ public final class TinkerGraph implements Graph {
                 configuration.getString(GREMLIN_TINKERGRAPH_DEFAULT_VERTEX_PROPERTY_CARDINALITY, VertexProperty.Cardinality.single.name()));
         allowNullPropertyValues = configuration.getBoolean(GREMLIN_TINKERGRAPH_ALLOW_NULL_PROPERTY_VALUES, false);
 
+        // primitive storage only applies to elements whose identifiers are guaranteed to be Long
+        final boolean primitiveIdStorage = configuration.getBoolean(GREMLIN_TINKERGRAPH_PRIMITIVE_ID_STORAGE, false);
+        vertices = primitiveIdStorage && vertexIdManager == DefaultIdManager.LONG ?
+                new TinkerLongElementMap<>() : new ConcurrentHashMap<>();
+        edges = primitiveIdStorage && edgeIdManager == DefaultIdManager.LONG ?
+                new TinkerLongElementMap<>() : new ConcurrentHashMap<>();
+
+        final boolean labelIndex = configuration.getBoolean(GREMLIN_TINKERGRAPH_LABEL_INDEX, false);
+        vertexLabelIndex = labelIndex ? new TinkerLabelIndex<>() : null;
+        edgeLabelIndex = labelIndex ? new TinkerLabelIndex<>() : null;
+        endpointIndex = configuration.getBoolean(GREMLIN_TINKERGRAPH_ENDPOINT_INDEX, false) ? new TinkerEndpointIndex() : null;
+
+        final int parallelScan = configuration.getInt(GREMLIN_TINKERGRAPH_PARALLEL_SCAN, 0);
+        if (parallelScan < 0)
+            throw new IllegalArgumentException(String.format("The %s must not be negative", GREMLIN_TINKERGRAPH_PARALLEL_SCAN));
+        // the workers of the pool are started on demand and stop once idle so the pool holds nothing while unused
+        scanPool = parallelScan > 0 ? new ForkJoinPool(parallelScan) : null;
+        parallelScanThreshold = configuration.getInt(GREMLIN_TINKERGRAPH_PARALLEL_SCAN_THRESHOLD, 10000);
+        backgroundIndex = configuration.getBoolean(GREMLIN_TINKERGRAPH_BACKGROUND_INDEX, false);
+
         graphLocation = configuration.getString(GREMLIN_TINKERGRAPH_GRAPH_LOCATION, null);
         graphFormat = configuration.getString(GREMLIN_TINKERGRAPH_GRAPH_FORMAT, null);
 
@@ -134,7 +207,19 @@ public final class TinkerGraph implements Graph {
             throw new IllegalStateException(String.format("The %s and %s must both be specified if either is present",
                     GREMLIN_TINKERGRAPH_GRAPH_LOCATION, GREMLIN_TINKERGRAPH_GRAPH_FORMAT));
 
-        if (graphLocation != null) loadGraph();
+        if (graphLocation != null) readSnapshot(this, graphLocation, graphFormat);
+
+        if (configuration.getBoolean(GREMLIN_TINKERGRAPH_WAL, false)) {
+            if (null == graphLocation)
+                throw new IllegalStateException(String.format("The %s requires the %s and %s to be specified",
+                        GREMLIN_TINKERGRAPH_WAL, GREMLIN_TINKERGRAPH_GRAPH_LOCATION, GREMLIN_TINKERGRAPH_GRAPH_FORMAT));
+
+            final TinkerWriteAheadLog.Sync sync = TinkerWriteAheadLog.Sync.valueOf(
+                    configuration.getString(GREMLIN_TINKERGRAPH_WAL_SYNC, TinkerWriteAheadLog.Sync.INTERVAL.name()).toUpperCase());
+            wal = TinkerWriteAheadLog.open(this, sync,
+                    configuration.getLong(GREMLIN_TINKERGRAPH_WAL_SYNC_INTERVAL, 1000L),
+                    configuration.getLong(GREMLIN_TINKERGRAPH_WAL_COMPACTION_SIZE, 64L * 1024 * 1024));
+        }
 
         serviceRegistry = new TinkerServiceRegistry(this);
         configuration.getList(String.class, GREMLIN_TINKERGRAPH_SERVICE, Collections.emptyList()).forEach(serviceClass ->
@@ -185,8 +270,8 @@ public final class TinkerGraph implements Graph {
             idValue = vertexIdManager.getNextId(this);
         }
 
-        final Vertex vertex = new TinkerVertex(idValue, label, this);
-        this.vertices.put(vertex.id(), vertex);
+        final TinkerVertex vertex = new TinkerVertex(idValue, label, this);
+        TinkerHelper.registerVertex(this, vertex, TinkerHelper.writeAheadLog(this));
 
         ElementHelper.attachProperties(vertex, VertexProperty.Cardinality.list, keyValues);
         return vertex;
@@ -227,8 +312,13 @@ public final class TinkerGraph implements Graph {
     }
 
     public void clear() {
+        if (null != this.wal) this.wal.clear();
         this.vertices.clear();
         this.edges.clear();
+        if (null != this.vertexLabelIndex) this.vertexLabelIndex.clear();
+        if (null != this.edgeLabelIndex) this.edgeLabelIndex.clear();
+        if (null != this.endpointIndex) this.endpointIndex.clear();
+        this.statistics.clear();
         this.variables = null;
         this.currentId.set(-1L);
         this.vertexIndex = null;
@@ -238,16 +328,33 @@ public final class TinkerGraph implements Graph {
 
     /**
      * This method only has an effect if the {@link #GREMLIN_TINKERGRAPH_GRAPH_LOCATION} is set, in which case the
-     * data in the graph is persisted to that location. This method may be called multiple times and does not release
-     * resources.
+     * data in the graph is persisted to that location. If the {@link #GREMLIN_TINKERGRAPH_WAL} is enabled, the
+     * write-ahead log is reset once the data is persisted and then closed, so that changes made to the graph after it
+     * is closed are only persisted by closing it again. The pool of {@link #GREMLIN_TINKERGRAPH_PARALLEL_SCAN} is shut
+     * down, after which scans are no longer partitioned. This method may be called multiple times.
      */
     @Override
     public void close() {
-        if (graphLocation != null) saveGraph();
+        if (scanPool != null) scanPool.shutdown();
+        if (wal != null) {
+            wal.checkpoint(() -> writeSnapshot(this, graphLocation, graphFormat));
+            wal.close();
+            wal = null;
+        } else if (graphLocation != null)
+            writeSnapshot(this, graphLocation, graphFormat);
         // shutdown services
         serviceRegistry.close();
     }
 
+    /**
+     * Gets the statistics of the graph, which count the elements of each label and, for indexed keys, the elements
+     * with each value.
+     */
+    @Override
+    public GraphStatistics getStatistics() {
+        return statistics;
+    }
+
     @Override
     public Transaction tx() {
         throw Exceptions.transactionsNotSupported();
@@ -273,18 +380,23 @@ public final class TinkerGraph implements Graph {
         return createElementIterator(Edge.class, edges, edgeIdManager, edgeIds);
     }
 
-    private void loadGraph() {
+    /**
+     * Reads the graph at the location, if there is one, into the supplied graph.
+     */
+    static void readSnapshot(final TinkerGraph graph, final String graphLocation, final String graphFormat) {
         final File f = new File(graphLocation);
         if (f.exists() && f.isFile()) {
             try {
                 if (graphFormat.equals("graphml")) {
-                    io(IoCore.graphml()).readGraph(graphLocation);
+                    graph.io(IoCore.graphml()).readGraph(graphLocation);
                 } else if (graphFormat.equals("graphson")) {
-                    io(IoCore.graphson()).readGraph(graphLocation);
+                    graph.io(IoCore.graphson()).readGraph(graphLocation);
                 } else if (graphFormat.equals("gryo")) {
-                    io(IoCore.gryo()).readGraph(graphLocation);
+                    graph.io(IoCore.gryo()).readGraph(graphLocation);
+                } else if (graphFormat.equals(TinkerSnapshot.FORMAT)) {
+                    TinkerSnapshot.read(graph, f);
                 } else {
-                    io(IoCore.createIoBuilder(graphFormat)).readGraph(graphLocation);
+                    graph.io(IoCore.createIoBuilder(graphFormat)).readGraph(graphLocation);
                 }
             } catch (Exception ex) {
                 throw new RuntimeException(String.format("Could not load graph at %s with %s", graphLocation, graphFormat), ex);
@@ -292,29 +404,34 @@ public final class TinkerGraph implements Graph {
         }
     }
 
-    private void saveGraph() {
+    /**
+     * Writes the supplied graph to the location. The graph is written to a temporary file which then replaces any
+     * existing file, so that the existing file remains intact if the write fails.
+     */
+    static void writeSnapshot(final TinkerGraph graph, final String graphLocation, final String graphFormat) {
         final File f = new File(graphLocation);
-        if (f.exists()) {
-            f.delete();
-        } else {
-            final File parent = f.getParentFile();
-
-            // the parent would be null in the case of an relative path if the graphLocation was simply: "f.gryo"
-            if (parent != null && !parent.exists()) {
-                parent.mkdirs();
-            }
+        final File parent = f.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
         }
 
+        final File temp = new File(graphLocation + ".tmp");
         try {
+            Files.deleteIfExists(temp.toPath());
             if (graphFormat.equals("graphml")) {
-                io(IoCore.graphml()).writeGraph(graphLocation);
+                graph.io(IoCore.graphml()).writeGraph(temp.getPath());
             } else if (graphFormat.equals("graphson")) {
-                io(IoCore.graphson()).writeGraph(graphLocation);
+                graph.io(IoCore.graphson()).writeGraph(temp.getPath());
             } else if (graphFormat.equals("gryo")) {
-                io(IoCore.gryo()).writeGraph(graphLocation);
+                graph.io(IoCore.gryo()).writeGraph(temp.getPath());
+            } else if (graphFormat.equals(TinkerSnapshot.FORMAT)) {
+                TinkerSnapshot.write(graph, temp);
             } else {
-                io(IoCore.createIoBuilder(graphFormat)).writeGraph(graphLocation);
+                graph.io(IoCore.createIoBuilder(graphFormat)).writeGraph(temp.getPath());
             }
+            // a custom writer may write somewhere other than the path it is given, leaving nothing to move
+            if (temp.exists())
+                Files.move(temp.toPath(), f.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
         } catch (Exception ex) {
             throw new RuntimeException(String.format("Could not save graph at %s with %s", graphLocation, graphFormat), ex);
         }
@@ -337,7 +454,11 @@ public final class TinkerGraph implements Graph {
                 // ids cant be null so all of those filter out
                 if (null == id) return null;
                 final Object iid = clazz.isAssignableFrom(id.getClass()) ? clazz.cast(id).id() : idManager.convert(id);
-                return elements.get(idManager.convert(iid));
+
+                // primitive storage is only used with the LONG IdManager which will always produce a Long here
+                return elements instanceof TinkerLongElementMap ?
+                        ((TinkerLongElementMap<T>) elements).get(((Long) idManager.convert(iid)).longValue()) :
+                        elements.get(idManager.convert(iid));
             }).iterator(), Objects::nonNull));
         }
         return TinkerHelper.inComputerMode(this) ?
@@ -491,6 +612,16 @@ public final class TinkerGraph implements Graph {
         }
     }
 
+    ///////////// GRAPH SPECIFIC LOADING METHODS ///////////////
+
+    /**
+     * Gets a loader that adds the elements of partitioned adjacency list files to this graph across a pool of
+     * workers, updating the indices once loading is complete rather than as each element is added.
+     */
+    public TinkerBulkLoader bulkLoader() {
+        return new TinkerBulkLoader(this);
+    }
+
     ///////////// GRAPH SPECIFIC INDEXING METHODS ///////////////
 
     /**
@@ -503,12 +634,54 @@ public final class TinkerGraph implements Graph {
      * @param <E>          The type of the element class
      */
     public <E extends Element> void createIndex(final String key, final Class<E> elementClass) {
+        createIndex(key, elementClass, IndexType.HASH);
+    }
+
+    /**
+     * Create an index of the specified {@link IndexType} for said element class ({@link Vertex} or {@link Edge}) and
+     * said property key. Whenever an element has the specified key mutated, the index is updated. When the index is
+     * created, all existing elements are indexed to ensure that they are captured by the index. If
+     * {@link #GREMLIN_TINKERGRAPH_BACKGROUND_INDEX} is enabled, a {@link IndexType#HASH} or {@link IndexType#RANGE}
+     * index is built in the background and this method returns immediately. Mutations made while the index is built
+     * are applied to it once all existing elements are indexed, and the index is only used by traversals, and only
+     * listed by {@link #getIndexedKeys(Class)}, from then on. The build can be followed with
+     * {@link #getIndexProgress(Class)} and waited for with {@link #awaitIndex(String, Class)}.
+     *
+     * @param key          the property key to index
+     * @param elementClass the element class to index
+     * @param indexType    the type of index to create
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void createIndex(final String key, final Class<E> elementClass, final IndexType indexType) {
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            if (null == this.vertexIndex) this.vertexIndex = new TinkerIndex<>(this, TinkerVertex.class);
+            this.vertexIndex.createKeyIndex(key, indexType);
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            if (null == this.edgeIndex) this.edgeIndex = new TinkerIndex<>(this, TinkerEdge.class);
+            this.edgeIndex.createKeyIndex(key, indexType);
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
+    /**
+     * Create a {@link IndexType#VECTOR} index for said element class ({@link Vertex} or {@link Edge}) and said property
+     * key that ranks vectors by the specified distance. Every vector in the index must have the same dimension, so
+     * writing a vector of another dimension to the key throws an {@link IllegalArgumentException}, as does creating
+     * the index over existing vectors of differing dimensions.
+     *
+     * @param key          the property key to index
+     * @param elementClass the element class to index
+     * @param distance     the distance by which to rank vectors
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void createVectorIndex(final String key, final Class<E> elementClass, final VectorDistance distance) {
         if (Vertex.class.isAssignableFrom(elementClass)) {
             if (null == this.vertexIndex) this.vertexIndex = new TinkerIndex<>(this, TinkerVertex.class);
-            this.vertexIndex.createKeyIndex(key);
+            this.vertexIndex.createVectorIndex(key, distance);
         } else if (Edge.class.isAssignableFrom(elementClass)) {
             if (null == this.edgeIndex) this.edgeIndex = new TinkerIndex<>(this, TinkerEdge.class);
-            this.edgeIndex.createKeyIndex(key);
+            this.edgeIndex.createVectorIndex(key, distance);
         } else {
             throw new IllegalArgumentException("Class is not indexable: " + elementClass);
         }
@@ -531,6 +704,44 @@ public final class TinkerGraph implements Graph {
         }
     }
 
+    /**
+     * Gets the progress of the builds of the hash and range indices for said element class ({@link Vertex} or
+     * {@link Edge}) that are not yet ready, as the fraction of the existing elements that each has indexed by key.
+     * Once a build has indexed every existing element it applies the mutations made in the meantime, so an index may
+     * still be listed with a progress of {@code 1.0} for a moment.
+     *
+     * @param elementClass the element class to get the progress of the index builds for
+     * @param <E>          The type of the element class
+     * @return the fraction of the existing elements indexed by the keys whose indices are being built
+     */
+    public <E extends Element> Map<String, Double> getIndexProgress(final Class<E> elementClass) {
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            return null == this.vertexIndex ? Collections.emptyMap() : this.vertexIndex.getBuildProgress();
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            return null == this.edgeIndex ? Collections.emptyMap() : this.edgeIndex.getBuildProgress();
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
+    /**
+     * Wait for the hash and range indices of said element class ({@link Vertex} or {@link Edge}) and key that are
+     * being built to be ready, rethrowing the failure of a build.
+     *
+     * @param key          the property key of the index to wait for
+     * @param elementClass the element class of the index to wait for
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void awaitIndex(final String key, final Class<E> elementClass) {
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            if (null != this.vertexIndex) this.vertexIndex.awaitKeyIndex(key);
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            if (null != this.edgeIndex) this.edgeIndex.awaitKeyIndex(key);
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
     /**
      * Return all the keys currently being index for said element class  ({@link Vertex} or {@link Edge}).
      *
@@ -548,6 +759,167 @@ public final class TinkerGraph implements Graph {
         }
     }
 
+    /**
+     * Return the keys currently being indexed with the specified {@link IndexType} for said element class
+     * ({@link Vertex} or {@link Edge}).
+     *
+     * @param elementClass the element class to get the indexed keys for
+     * @param indexType    the type of index to get the keys for
+     * @param <E>          The type of the element class
+     * @return the set of keys currently being indexed
+     */
+    public <E extends Element> Set<String> getIndexedKeys(final Class<E> elementClass, final IndexType indexType) {
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            return null == this.vertexIndex ? Collections.emptySet() : this.vertexIndex.getIndexedKeys(indexType);
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            return null == this.edgeIndex ? Collections.emptySet() : this.edgeIndex.getIndexedKeys(indexType);
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
+    /**
+     * Create a composite index over the ordered list of property keys for said element class ({@link Vertex} or
+     * {@link Edge}). The index is used to look up elements when all of the keys are constrained by equality. Whenever
+     * an element has one of the keys mutated, the index is updated. When the index is created, all existing elements
+     * are indexed to ensure that they are captured by the index.
+     *
+     * @param keys         the property keys to index
+     * @param elementClass the element class to index
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void createCompositeIndex(final List<String> keys, final Class<E> elementClass) {
+        createCompositeIndex(keys, null, elementClass);
+    }
+
+    /**
+     * Create a composite index over the ordered list of property keys for elements of said element class
+     * ({@link Vertex} or {@link Edge}) with the specified label. The index is used to look up elements when the label
+     * and all of the keys are constrained by equality.
+     *
+     * @param keys         the property keys to index
+     * @param label        the label of the elements to index or {@code null} to index elements of all labels
+     * @param elementClass the element class to index
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void createCompositeIndex(final List<String> keys, final String label, final Class<E> elementClass) {
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            if (null == this.vertexIndex) this.vertexIndex = new TinkerIndex<>(this, TinkerVertex.class);
+            this.vertexIndex.createCompositeIndex(label, keys);
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            if (null == this.edgeIndex) this.edgeIndex = new TinkerIndex<>(this, TinkerEdge.class);
+            this.edgeIndex.createCompositeIndex(label, keys);
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
+    /**
+     * Drop the composite index for the specified element class ({@link Vertex} or {@link Edge}) and keys.
+     *
+     * @param keys         the property keys to stop indexing
+     * @param elementClass the element class of the index to drop
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void dropCompositeIndex(final List<String> keys, final Class<E> elementClass) {
+        dropCompositeIndex(keys, null, elementClass);
+    }
+
+    /**
+     * Drop the composite index for the specified element class ({@link Vertex} or {@link Edge}), label and keys.
+     *
+     * @param keys         the property keys to stop indexing
+     * @param label        the label the index is scoped to or {@code null} if it applies to all labels
+     * @param elementClass the element class of the index to drop
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void dropCompositeIndex(final List<String> keys, final String label, final Class<E> elementClass) {
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            if (null != this.vertexIndex) this.vertexIndex.dropCompositeIndex(label, keys);
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            if (null != this.edgeIndex) this.edgeIndex.dropCompositeIndex(label, keys);
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
+    /**
+     * Return the key lists of the composite indices for said element class ({@link Vertex} or {@link Edge}) that are
+     * scoped to the label.
+     *
+     * @param elementClass the element class to get the composite indices for
+     * @param label        the label the indices are scoped to or {@code null} for indices that apply to all labels
+     * @param <E>          The type of the element class
+     * @return the set of key lists currently being indexed
+     */
+    public <E extends Element> Set<List<String>> getCompositeIndexedKeys(final Class<E> elementClass, final String label) {
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            return null == this.vertexIndex ? Collections.emptySet() : this.vertexIndex.getCompositeIndexedKeys(label);
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            return null == this.edgeIndex ? Collections.emptySet() : this.edgeIndex.getCompositeIndexedKeys(label);
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
+    /**
+     * Create a geospatial index over the positions given by a pair of latitude and longitude property keys for
+     * elements of said element class ({@link Vertex} or {@link Edge}). The index is searched for the elements within
+     * a bounding box, within a radius of a position or nearest to a position with the {@code tinker.geo} service.
+     *
+     * @param latitudeKey  the property key holding the latitude in degrees
+     * @param longitudeKey the property key holding the longitude in degrees
+     * @param elementClass the element class to index
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void createGeoIndex(final String latitudeKey, final String longitudeKey, final Class<E> elementClass) {
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            if (null == this.vertexIndex) this.vertexIndex = new TinkerIndex<>(this, TinkerVertex.class);
+            this.vertexIndex.createGeoIndex(latitudeKey, longitudeKey);
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            if (null == this.edgeIndex) this.edgeIndex = new TinkerIndex<>(this, TinkerEdge.class);
+            this.edgeIndex.createGeoIndex(latitudeKey, longitudeKey);
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
+    /**
+     * Drop the geospatial index for the specified element class ({@link Vertex} or {@link Edge}) and keys.
+     *
+     * @param latitudeKey  the latitude property key of the index to drop
+     * @param longitudeKey the longitude property key of the index to drop
+     * @param elementClass the element class of the index to drop
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void dropGeoIndex(final String latitudeKey, final String longitudeKey, final Class<E> elementClass) {
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            if (null != this.vertexIndex) this.vertexIndex.dropGeoIndex(latitudeKey, longitudeKey);
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            if (null != this.edgeIndex) this.edgeIndex.dropGeoIndex(latitudeKey, longitudeKey);
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
+    /**
+     * Return the pairs of latitude and longitude keys of the geospatial indices for said element class
+     * ({@link Vertex} or {@link Edge}).
+     *
+     * @param elementClass the element class to get the geospatial indices for
+     * @param <E>          The type of the element class
+     * @return the set of latitude and longitude key pairs currently being indexed
+     */
+    public <E extends Element> Set<List<String>> getGeoIndexedKeys(final Class<E> elementClass) {
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            return null == this.vertexIndex ? Collections.emptySet() : this.vertexIndex.getGeoIndexedKeys();
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            return null == this.edgeIndex ? Collections.emptySet() : this.edgeIndex.getGeoIndexedKeys();
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
     /**
      * Construct an {@link TinkerGraph.IdManager} from the TinkerGraph {@code Configuration}.
      */
@@ -573,6 +945,53 @@ public final class TinkerGraph implements Graph {
         }
     }
 
+    /**
+     * The types of index that can be created with {@link #createIndex(String, Class, IndexType)}.
+     */
+    public enum IndexType {
+        /**
+         * A hash index which can only be used for equality lookups.
+         */
+        HASH,
+
+        /**
+         * An ordered index which can be used for equality lookups, for range predicates like {@code gt()},
+         * {@code lte()}, {@code between()}, {@code inside()} and {@code outside()}, as well as for
+         * {@code TextP.startingWith()}.
+         */
+        RANGE,
+
+        /**
+         * An inverted index over the words of {@code String} values which is not used by traversal filters but which
+         * answers full-text queries made through the {@code tinker.search} service.
+         */
+        TEXT,
+
+        /**
+         * An approximate nearest neighbour index over vector values, given as {@code float[]}, {@code double[]} or a
+         * {@code List} of numbers, which is not used by traversal filters but which answers similarity queries made
+         * through the {@code tinker.knn} service. It needs the {@link VectorDistance} by which it ranks vectors so it
+         * can only be created with {@link #createVectorIndex(String, Class, VectorDistance)}.
+         */
+        VECTOR
+    }
+
+    /**
+     * The distance by which a {@link IndexType#VECTOR} index ranks vectors.
+     */
+    public enum VectorDistance {
+        /**
+         * The euclidean distance between the vectors.
+         */
+        EUCLIDEAN,
+
+        /**
+         * One minus the cosine of the angle between the vectors, which ranges from {@code 0} for vectors pointing the
+         * same way to {@code 2} for vectors pointing opposite ways.
+         */
+        COSINE
+    }
+
     /**
      * TinkerGraph will use an implementation of this interface to generate identifiers when a user does not supply
      * them and to handle identifier conversions when querying to provide better flexibility with respect to
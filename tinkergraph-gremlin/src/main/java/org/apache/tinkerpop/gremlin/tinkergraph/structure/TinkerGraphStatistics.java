@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.GraphStatistics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@link GraphStatistics} of a {@link TinkerGraph}. The number of elements with each label is counted as elements
+ * are added and removed, while the counts of property values are read from the hash and range indices, so only the
+ * values of indexed keys are known. All of the counts are exact at the time they are read.
+ */
+final class TinkerGraphStatistics implements GraphStatistics {
+
+    private final TinkerGraph graph;
+    private final Map<String, LongAdder> vertexLabels = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> edgeLabels = new ConcurrentHashMap<>();
+
+    TinkerGraphStatistics(final TinkerGraph graph) {
+        this.graph = graph;
+    }
+
+    void add(final Element element) {
+        labels(element.getClass()).computeIfAbsent(element.label(), k -> new LongAdder()).increment();
+    }
+
+    void remove(final Element element) {
+        final LongAdder count = labels(element.getClass()).get(element.label());
+        if (null != count) count.decrement();
+    }
+
+    void clear() {
+        this.vertexLabels.clear();
+        this.edgeLabels.clear();
+    }
+
+    @Override
+    public long count(final Class<? extends Element> elementClass) {
+        return Vertex.class.isAssignableFrom(elementClass) ? this.graph.vertices.size() : this.graph.edges.size();
+    }
+
+    @Override
+    public long countLabel(final Class<? extends Element> elementClass, final String label) {
+        final LongAdder count = labels(elementClass).get(label);
+        return null == count ? 0 : count.sum();
+    }
+
+    @Override
+    public long countDistinct(final Class<? extends Element> elementClass, final String key) {
+        if (key.equals(T.label.getAccessor()))
+            return labels(elementClass).values().stream().filter(count -> count.sum() > 0).count();
+        final TinkerIndex<?> index = index(elementClass);
+        return null == index ? UNKNOWN : index.countDistinct(key);
+    }
+
+    @Override
+    public long countValue(final Class<? extends Element> elementClass, final String key, final Object value) {
+        if (key.equals(T.label.getAccessor()))
+            return value instanceof String ? countLabel(elementClass, (String) value) : 0;
+        final TinkerIndex<?> index = index(elementClass);
+        return null == index ? UNKNOWN : index.countValue(key, value);
+    }
+
+    private Map<String, LongAdder> labels(final Class<?> elementClass) {
+        return Vertex.class.isAssignableFrom(elementClass) ? this.vertexLabels : this.edgeLabels;
+    }
+
+    private TinkerIndex<?> index(final Class<? extends Element> elementClass) {
+        return Vertex.class.isAssignableFrom(elementClass) ? this.graph.vertexIndex :
+                Edge.class.isAssignableFrom(elementClass) ? this.graph.edgeIndex : null;
+    }
+}
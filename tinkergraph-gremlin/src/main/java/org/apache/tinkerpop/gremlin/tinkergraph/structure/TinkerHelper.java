@@ -20,6 +20,7 @@ package org.apache.tinkerpop.gremlin.tinkergraph.structure;
 
 import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
 import org.apache.tinkerpop.gremlin.process.computer.VertexComputeKey;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
@@ -33,17 +34,14 @@ import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Supplier;
 import java.util.regex.Pattern;
-import java.util.stream.Stream;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -68,46 +66,190 @@ public final class TinkerHelper {
         }
 
         edge = new TinkerEdge(idValue, outVertex, label, inVertex);
-        ElementHelper.attachProperties(edge, keyValues);
-        graph.edges.put(edge.id(), edge);
-        TinkerHelper.addOutEdge(outVertex, label, edge);
-        TinkerHelper.addInEdge(inVertex, label, edge);
+        try {
+            ElementHelper.attachProperties(edge, keyValues);
+            registerEdge(graph, (TinkerEdge) edge, writeAheadLog(graph));
+        } catch (RuntimeException ex) {
+            // the properties of the edge are indexed as they are attached so those entries are all there is to undo
+            removeElementIndex((TinkerEdge) edge);
+            throw ex;
+        }
         return edge;
 
     }
 
-    protected static void addOutEdge(final TinkerVertex vertex, final String label, final Edge edge) {
-        if (null == vertex.outEdges) vertex.outEdges = new HashMap<>();
-        Set<Edge> edges = vertex.outEdges.get(label);
-        if (null == edges) {
-            edges = new HashSet<>();
-            vertex.outEdges.put(label, edges);
+    /**
+     * Puts the vertex in the graph, its label index and its statistics, having first appended it to the write-ahead
+     * log if one is given. Every vertex enters the graph this way, whether added, bulk loaded or read from a snapshot,
+     * and vertices may be registered from several threads at once.
+     */
+    static void registerVertex(final TinkerGraph graph, final TinkerVertex vertex, final TinkerWriteAheadLog wal) {
+        if (null != wal) wal.addVertex(vertex);
+        if (null != graph.vertices.putIfAbsent(vertex.id, vertex))
+            throw Graph.Exceptions.vertexWithIdAlreadyExists(vertex.id);
+        if (null != graph.vertexLabelIndex) graph.vertexLabelIndex.add(vertex);
+        graph.statistics.add(vertex);
+    }
+
+    /**
+     * Puts the edge in the graph, its label and endpoint indices, its statistics and the adjacency of its vertices,
+     * having first appended it to the write-ahead log if one is given. Every edge enters the graph this way, whether
+     * added, bulk loaded or read from a snapshot, and edges may be registered from several threads at once as the
+     * adjacency of each vertex is only changed while holding that vertex.
+     */
+    static void registerEdge(final TinkerGraph graph, final TinkerEdge edge, final TinkerWriteAheadLog wal) {
+        if (null != wal) wal.addEdge(edge);
+        if (null != graph.edges.putIfAbsent(edge.id, edge))
+            throw Graph.Exceptions.edgeWithIdAlreadyExists(edge.id);
+        if (null != graph.edgeLabelIndex) graph.edgeLabelIndex.add(edge);
+        if (null != graph.endpointIndex) graph.endpointIndex.add(edge);
+        graph.statistics.add(edge);
+
+        final TinkerVertex outVertex = (TinkerVertex) edge.outVertex;
+        final TinkerVertex inVertex = (TinkerVertex) edge.inVertex;
+        synchronized (outVertex) {
+            addOutEdge(outVertex, edge.label, edge);
         }
-        edges.add(edge);
+        synchronized (inVertex) {
+            addInEdge(inVertex, edge.label, edge);
+        }
+    }
+
+    protected static void addOutEdge(final TinkerVertex vertex, final String label, final Edge edge) {
+        if (null == vertex.outEdges) vertex.outEdges = new TinkerAdjacency();
+        vertex.outEdges.add(label, edge);
     }
 
     protected static void addInEdge(final TinkerVertex vertex, final String label, final Edge edge) {
-        if (null == vertex.inEdges) vertex.inEdges = new HashMap<>();
-        Set<Edge> edges = vertex.inEdges.get(label);
-        if (null == edges) {
-            edges = new HashSet<>();
-            vertex.inEdges.put(label, edges);
-        }
-        edges.add(edge);
+        if (null == vertex.inEdges) vertex.inEdges = new TinkerAdjacency();
+        vertex.inEdges.add(label, edge);
+    }
+
+    public static Iterator<TinkerVertex> queryVertexIndex(final TinkerGraph graph, final String key, final Object value) {
+        return null == graph.vertexIndex ? Collections.emptyIterator() : graph.vertexIndex.get(key, value);
     }
 
-    public static List<TinkerVertex> queryVertexIndex(final TinkerGraph graph, final String key, final Object value) {
-        return null == graph.vertexIndex ? Collections.emptyList() : graph.vertexIndex.get(key, value);
+    public static Iterator<TinkerEdge> queryEdgeIndex(final TinkerGraph graph, final String key, final Object value) {
+        return null == graph.edgeIndex ? Collections.emptyIterator() : graph.edgeIndex.get(key, value);
     }
 
-    public static List<TinkerEdge> queryEdgeIndex(final TinkerGraph graph, final String key, final Object value) {
-        return null == graph.edgeIndex ? Collections.emptyList() : graph.edgeIndex.get(key, value);
+    /**
+     * Gets the vertices with all of the values for the hash indexed keys by intersecting the buckets of the index.
+     */
+    public static Iterator<TinkerVertex> queryVertexIndex(final TinkerGraph graph, final List<String> keys, final List<Object> values) {
+        return null == graph.vertexIndex ? Collections.emptyIterator() : graph.vertexIndex.getAll(keys, values);
+    }
+
+    /**
+     * Gets the edges with all of the values for the hash indexed keys by intersecting the buckets of the index.
+     */
+    public static Iterator<TinkerEdge> queryEdgeIndex(final TinkerGraph graph, final List<String> keys, final List<Object> values) {
+        return null == graph.edgeIndex ? Collections.emptyIterator() : graph.edgeIndex.getAll(keys, values);
+    }
+
+    /**
+     * Estimates the number of vertices the range index would return for the predicates, counting no further than just
+     * past the limit.
+     */
+    public static long countVertexRangeIndex(final TinkerGraph graph, final String key, final List<P<?>> predicates, final long limit) {
+        return null == graph.vertexIndex ? 0 : graph.vertexIndex.countRange(key, predicates, limit);
+    }
+
+    /**
+     * Estimates the number of edges the range index would return for the predicates, counting no further than just
+     * past the limit.
+     */
+    public static long countEdgeRangeIndex(final TinkerGraph graph, final String key, final List<P<?>> predicates, final long limit) {
+        return null == graph.edgeIndex ? 0 : graph.edgeIndex.countRange(key, predicates, limit);
+    }
+
+    public static Iterator<TinkerVertex> queryVertexRangeIndex(final TinkerGraph graph, final String key, final List<P<?>> predicates) {
+        return null == graph.vertexIndex ? Collections.emptyIterator() : graph.vertexIndex.getRange(key, predicates);
+    }
+
+    public static Iterator<TinkerEdge> queryEdgeRangeIndex(final TinkerGraph graph, final String key, final List<P<?>> predicates) {
+        return null == graph.edgeIndex ? Collections.emptyIterator() : graph.edgeIndex.getRange(key, predicates);
+    }
+
+    /**
+     * Determines if the graph maintains the elements of each label as configured by
+     * {@link TinkerGraph#GREMLIN_TINKERGRAPH_LABEL_INDEX}.
+     */
+    public static boolean hasLabelIndex(final TinkerGraph graph) {
+        return null != graph.vertexLabelIndex;
+    }
+
+    public static Set<Vertex> queryVertexLabelIndex(final TinkerGraph graph, final String label) {
+        return null == graph.vertexLabelIndex ? Collections.emptySet() : graph.vertexLabelIndex.get(label);
+    }
+
+    public static Set<Edge> queryEdgeLabelIndex(final TinkerGraph graph, final String label) {
+        return null == graph.edgeLabelIndex ? Collections.emptySet() : graph.edgeLabelIndex.get(label);
+    }
+
+    public static boolean hasEndpointIndex(final TinkerGraph graph) {
+        return null != graph.endpointIndex;
+    }
+
+    /**
+     * Gets the edges from the out vertex to the in vertex with the label, or with any label if it is {@code null},
+     * from the index of edges by their endpoints. The vertices are given by their identifiers, as they would be to
+     * {@link TinkerGraph#vertices(Object...)}.
+     */
+    public static Iterator<Edge> queryEndpointIndex(final TinkerGraph graph, final Object outVertexId, final Object inVertexId, final String label) {
+        if (null == graph.endpointIndex)
+            return Collections.emptyIterator();
+        final Iterator<Vertex> outVertex = graph.vertices(outVertexId);
+        final Iterator<Vertex> inVertex = graph.vertices(inVertexId);
+        if (!outVertex.hasNext() || !inVertex.hasNext())
+            return Collections.emptyIterator();
+        return graph.endpointIndex.get((TinkerVertex) outVertex.next(), (TinkerVertex) inVertex.next(), label).iterator();
+    }
+
+    public static Iterator<TinkerVertex> queryVertexCompositeIndex(final TinkerGraph graph, final String label, final List<String> keys, final List<Object> values) {
+        return null == graph.vertexIndex ? Collections.emptyIterator() : graph.vertexIndex.getComposite(label, keys, values);
+    }
+
+    public static Iterator<TinkerEdge> queryEdgeCompositeIndex(final TinkerGraph graph, final String label, final List<String> keys, final List<Object> values) {
+        return null == graph.edgeIndex ? Collections.emptyIterator() : graph.edgeIndex.getComposite(label, keys, values);
+    }
+
+    /**
+     * Determines if the predicate can be answered by an index created with {@link TinkerGraph.IndexType#RANGE}.
+     */
+    public static boolean isRangeIndexable(final P<?> predicate) {
+        return TinkerIndex.isRangeIndexable(predicate);
+    }
+
+    /**
+     * Gets the pool to partition scans of the graph across as configured by
+     * {@link TinkerGraph#GREMLIN_TINKERGRAPH_PARALLEL_SCAN}, which is {@code null} if scans are not to be partitioned
+     * or the graph was closed.
+     */
+    public static ForkJoinPool getParallelScanPool(final TinkerGraph graph) {
+        return inComputerMode(graph) || null == graph.scanPool || graph.scanPool.isShutdown() ? null : graph.scanPool;
+    }
+
+    /**
+     * Gets the number of elements below which a scan is not partitioned as configured by
+     * {@link TinkerGraph#GREMLIN_TINKERGRAPH_PARALLEL_SCAN_THRESHOLD}.
+     */
+    public static int getParallelScanThreshold(final TinkerGraph graph) {
+        return graph.parallelScanThreshold;
     }
 
     public static boolean inComputerMode(final TinkerGraph graph) {
         return null != graph.graphComputerView;
     }
 
+    /**
+     * Gets the write-ahead log that mutations of the graph are recorded in, which is {@code null} if the graph does
+     * not have one or if the mutations are only made to the {@link TinkerGraphComputerView}.
+     */
+    static TinkerWriteAheadLog writeAheadLog(final TinkerGraph graph) {
+        return inComputerMode(graph) ? null : graph.wal;
+    }
+
     public static TinkerGraphComputerView createGraphComputerView(final TinkerGraph graph, final GraphFilter graphFilter, final Set<VertexComputeKey> computeKeys) {
         return graph.graphComputerView = new TinkerGraphComputerView(graph, graphFilter, computeKeys);
     }
@@ -136,6 +278,18 @@ public final class TinkerHelper {
             graph.vertexIndex.autoUpdate(key, newValue, oldValue, vertex);
     }
 
+    public static void validateIndexedValue(final TinkerEdge edge, final String key, final Object value) {
+        final TinkerGraph graph = (TinkerGraph) edge.graph();
+        if (graph.edgeIndex != null)
+            graph.edgeIndex.validate(key, value);
+    }
+
+    public static void validateIndexedValue(final TinkerVertex vertex, final String key, final Object value) {
+        final TinkerGraph graph = (TinkerGraph) vertex.graph();
+        if (graph.vertexIndex != null)
+            graph.vertexIndex.validate(key, value);
+    }
+
     public static void removeElementIndex(final TinkerVertex vertex) {
         final TinkerGraph graph = (TinkerGraph) vertex.graph();
         if (graph.vertexIndex != null)
@@ -154,62 +308,148 @@ public final class TinkerHelper {
             graph.vertexIndex.remove(key, value, vertex);
     }
 
+    public static void reindex(final TinkerVertex vertex, final String key) {
+        final TinkerGraph graph = (TinkerGraph) vertex.graph();
+        if (graph.vertexIndex != null)
+            graph.vertexIndex.reindex(key, vertex);
+    }
+
     public static void removeIndex(final TinkerEdge edge, final String key, final Object value) {
         final TinkerGraph graph = (TinkerGraph) edge.graph();
         if (graph.edgeIndex != null)
             graph.edgeIndex.remove(key, value, edge);
     }
 
+    /**
+     * Search the index created with {@link TinkerGraph.IndexType#VECTOR} on the key for said element class
+     * ({@link Vertex} or {@link Edge}) for the approximate nearest elements to the vector, returning them with their
+     * distances ordered from the nearest.
+     *
+     * @param k  the number of elements to return
+     * @param ef the number of candidates to consider, where a larger number finds the true nearest elements more
+     *           often at the cost of speed
+     */
+    public static <E extends Element> List<Map.Entry<E, Double>> searchVectorIndex(final TinkerGraph graph, final String key,
+                                                                                  final Object vector, final int k,
+                                                                                  final int ef, final Class<E> elementClass) {
+        final TinkerIndex<?> index = vectorIndex(graph, key, elementClass);
+        if (null == index)
+            throw new IllegalStateException(String.format("There is no vector index for the key on %s: %s", elementClass.getSimpleName(), key));
+        return (List) index.searchVector(key, vector, k, ef);
+    }
+
+    /**
+     * Gets the vector of the element in the index created with {@link TinkerGraph.IndexType#VECTOR} on the key, or
+     * {@code null} if it is not indexed.
+     */
+    public static float[] getIndexedVector(final TinkerGraph graph, final String key, final Element element) {
+        if (!(element instanceof Vertex) && !(element instanceof Edge)) return null;
+        final TinkerIndex index = vectorIndex(graph, key, element instanceof Vertex ? Vertex.class : Edge.class);
+        return null == index ? null : index.getVector(key, element);
+    }
+
+    /**
+     * Search the geospatial index over the latitude and longitude keys for said element class ({@link Vertex} or
+     * {@link Edge}) for the elements within the bounding box, which crosses the antimeridian if the west longitude is
+     * greater than the east longitude.
+     */
+    public static <E extends Element> List<E> searchGeoIndexWithin(final TinkerGraph graph, final String latitudeKey,
+                                                                   final String longitudeKey, final Class<E> elementClass,
+                                                                   final double south, final double west,
+                                                                   final double north, final double east) {
+        return (List) geoIndex(graph, latitudeKey, longitudeKey, elementClass).within(south, west, north, east);
+    }
+
+    /**
+     * Search the geospatial index over the latitude and longitude keys for said element class ({@link Vertex} or
+     * {@link Edge}) for the nearest elements to the position that are within the radius, returning them with their
+     * distances in kilometres ordered from the nearest.
+     *
+     * @param radius the distance in kilometres beyond which elements are not returned, which may be infinite
+     * @param k      the number of elements to return, which may be {@code Integer.MAX_VALUE} to return all of the
+     *               elements within the radius
+     */
+    public static <E extends Element> List<Map.Entry<E, Double>> searchGeoIndexNearest(final TinkerGraph graph, final String latitudeKey,
+                                                                                      final String longitudeKey, final Class<E> elementClass,
+                                                                                      final double latitude, final double longitude,
+                                                                                      final double radius, final int k) {
+        return (List) geoIndex(graph, latitudeKey, longitudeKey, elementClass).nearest(latitude, longitude, radius, k);
+    }
+
+    /**
+     * Gets the latitude and longitude of the element in the geospatial index over the keys, or {@code null} if it is
+     * not indexed.
+     */
+    public static double[] getGeoPosition(final TinkerGraph graph, final String latitudeKey, final String longitudeKey,
+                                          final Element element) {
+        if (!(element instanceof Vertex) && !(element instanceof Edge)) return null;
+        final TinkerGeoIndex geoIndex = geoIndex(graph, latitudeKey, longitudeKey, element instanceof Vertex ? Vertex.class : Edge.class);
+        return geoIndex.get(element);
+    }
+
+    private static TinkerGeoIndex<?> geoIndex(final TinkerGraph graph, final String latitudeKey, final String longitudeKey,
+                                              final Class<? extends Element> elementClass) {
+        final TinkerIndex<?> index;
+        if (Vertex.class.isAssignableFrom(elementClass))
+            index = graph.vertexIndex;
+        else if (Edge.class.isAssignableFrom(elementClass))
+            index = graph.edgeIndex;
+        else
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        final TinkerGeoIndex<?> geoIndex = null == index ? null : index.getGeoIndex(latitudeKey, longitudeKey);
+        if (null == geoIndex)
+            throw new IllegalStateException(String.format("There is no geospatial index for the keys on %s: %s, %s",
+                    elementClass.getSimpleName(), latitudeKey, longitudeKey));
+        return geoIndex;
+    }
+
+    private static TinkerIndex<?> vectorIndex(final TinkerGraph graph, final String key, final Class<? extends Element> elementClass) {
+        final TinkerIndex<?> index;
+        if (Vertex.class.isAssignableFrom(elementClass))
+            index = graph.vertexIndex;
+        else if (Edge.class.isAssignableFrom(elementClass))
+            index = graph.edgeIndex;
+        else
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        return null != index && index.getIndexedKeys(TinkerGraph.IndexType.VECTOR).contains(key) ? index : null;
+    }
+
     public static Iterator<TinkerEdge> getEdges(final TinkerVertex vertex, final Direction direction, final String... edgeLabels) {
         final List<Edge> edges = new ArrayList<>();
-        if (direction.equals(Direction.OUT) || direction.equals(Direction.BOTH)) {
-            if (vertex.outEdges != null) {
-                if (edgeLabels.length == 0)
-                    vertex.outEdges.values().forEach(edges::addAll);
-                else if (edgeLabels.length == 1)
-                    edges.addAll(vertex.outEdges.getOrDefault(edgeLabels[0], Collections.emptySet()));
-                else
-                    Stream.of(edgeLabels).map(vertex.outEdges::get).filter(Objects::nonNull).forEach(edges::addAll);
-            }
-        }
-        if (direction.equals(Direction.IN) || direction.equals(Direction.BOTH)) {
-            if (vertex.inEdges != null) {
-                if (edgeLabels.length == 0)
-                    vertex.inEdges.values().forEach(edges::addAll);
-                else if (edgeLabels.length == 1)
-                    edges.addAll(vertex.inEdges.getOrDefault(edgeLabels[0], Collections.emptySet()));
-                else
-                    Stream.of(edgeLabels).map(vertex.inEdges::get).filter(Objects::nonNull).forEach(edges::addAll);
-            }
-        }
+        if ((direction.equals(Direction.OUT) || direction.equals(Direction.BOTH)) && vertex.outEdges != null)
+            vertex.outEdges.forEach(edgeLabels, edges::add);
+        if ((direction.equals(Direction.IN) || direction.equals(Direction.BOTH)) && vertex.inEdges != null)
+            vertex.inEdges.forEach(edgeLabels, edges::add);
         return (Iterator) edges.iterator();
     }
 
     public static Iterator<TinkerVertex> getVertices(final TinkerVertex vertex, final Direction direction, final String... edgeLabels) {
         final List<Vertex> vertices = new ArrayList<>();
-        if (direction.equals(Direction.OUT) || direction.equals(Direction.BOTH)) {
-            if (vertex.outEdges != null) {
-                if (edgeLabels.length == 0)
-                    vertex.outEdges.values().forEach(set -> set.forEach(edge -> vertices.add(((TinkerEdge) edge).inVertex)));
-                else if (edgeLabels.length == 1)
-                    vertex.outEdges.getOrDefault(edgeLabels[0], Collections.emptySet()).forEach(edge -> vertices.add(((TinkerEdge) edge).inVertex));
-                else
-                    Stream.of(edgeLabels).map(vertex.outEdges::get).filter(Objects::nonNull).flatMap(Set::stream).forEach(edge -> vertices.add(((TinkerEdge) edge).inVertex));
-            }
-        }
-        if (direction.equals(Direction.IN) || direction.equals(Direction.BOTH)) {
-            if (vertex.inEdges != null) {
-                if (edgeLabels.length == 0)
-                    vertex.inEdges.values().forEach(set -> set.forEach(edge -> vertices.add(((TinkerEdge) edge).outVertex)));
-                else if (edgeLabels.length == 1)
-                    vertex.inEdges.getOrDefault(edgeLabels[0], Collections.emptySet()).forEach(edge -> vertices.add(((TinkerEdge) edge).outVertex));
-                else
-                    Stream.of(edgeLabels).map(vertex.inEdges::get).filter(Objects::nonNull).flatMap(Set::stream).forEach(edge -> vertices.add(((TinkerEdge) edge).outVertex));
-            }
-        }
+        if ((direction.equals(Direction.OUT) || direction.equals(Direction.BOTH)) && vertex.outEdges != null)
+            vertex.outEdges.forEach(edgeLabels, edge -> vertices.add(((TinkerEdge) edge).inVertex));
+        if ((direction.equals(Direction.IN) || direction.equals(Direction.BOTH)) && vertex.inEdges != null)
+            vertex.inEdges.forEach(edgeLabels, edge -> vertices.add(((TinkerEdge) edge).outVertex));
         return (Iterator) vertices.iterator();
     }
 
+    /**
+     * Counts the edges of the vertex with any of the labels in the direction, or of any label if none are given,
+     * without iterating them. This is the number of edges that {@link TinkerVertex#edges(Direction, String...)} would
+     * return, so a self-loop counts twice for {@link Direction#BOTH}.
+     */
+    public static long getDegree(final TinkerVertex vertex, final Direction direction, final String... edgeLabels) {
+        // the edges of a vertex in a computation are filtered by the view of the computer so they must be counted
+        if (inComputerMode((TinkerGraph) vertex.graph()))
+            return IteratorUtils.count(vertex.edges(direction, edgeLabels));
+
+        long degree = 0;
+        if ((direction.equals(Direction.OUT) || direction.equals(Direction.BOTH)) && vertex.outEdges != null)
+            degree += vertex.outEdges.count(edgeLabels);
+        if ((direction.equals(Direction.IN) || direction.equals(Direction.BOTH)) && vertex.inEdges != null)
+            degree += vertex.inEdges.count(edgeLabels);
+        return degree;
+    }
+
     public static Map<Object, Vertex> getVertices(final TinkerGraph graph) {
         return graph.vertices;
     }
@@ -265,4 +505,41 @@ public final class TinkerHelper {
         return search(graph, regex, Optional.empty());
     }
 
+    /**
+     * Search for the {@link Property}s of the key whose values match the full-text query using the indices created
+     * with {@link TinkerGraph.IndexType#TEXT}. Elements are ranked by how well their values match and the properties
+     * of the best matching elements are returned first. If the type is not specified then both the vertex and edge
+     * indices for the key are searched.
+     *
+     * @param limit the maximum number of elements to return properties for or a non-positive number for all of them
+     */
+    public static <E extends Element> Iterator<Property> searchTextIndex(final TinkerGraph graph, final String key,
+                                                                         final String query, final int limit,
+                                                                         final Optional<Class<E>> type) {
+        final boolean searchVertices = !type.isPresent() || Vertex.class.isAssignableFrom(type.get());
+        final boolean searchEdges = !type.isPresent() || Edge.class.isAssignableFrom(type.get());
+        if (type.isPresent() && (VertexProperty.class.isAssignableFrom(type.get()) || (!searchVertices && !searchEdges)))
+            throw new IllegalArgumentException("Only Vertex and Edge text indices can be searched: " + type.get().getSimpleName());
+
+        final boolean hasVertexIndex = searchVertices && null != graph.vertexIndex &&
+                graph.vertexIndex.getIndexedKeys(TinkerGraph.IndexType.TEXT).contains(key);
+        final boolean hasEdgeIndex = searchEdges && null != graph.edgeIndex &&
+                graph.edgeIndex.getIndexedKeys(TinkerGraph.IndexType.TEXT).contains(key);
+        if (!hasVertexIndex && !hasEdgeIndex)
+            throw new IllegalStateException("There is no text index for the key: " + key);
+
+        final TinkerTextIndex.Query parsed = TinkerTextIndex.Query.parse(query);
+        final List<Map.Entry<? extends Element, Double>> ranked = new ArrayList<>();
+        if (hasVertexIndex) ranked.addAll(graph.vertexIndex.searchText(key, parsed, limit));
+        if (hasEdgeIndex) ranked.addAll(graph.edgeIndex.searchText(key, parsed, limit));
+        if (hasVertexIndex && hasEdgeIndex) {
+            ranked.sort((a, b) -> Double.compare(b.getValue(), a.getValue()));
+            if (limit > 0 && ranked.size() > limit)
+                ranked.subList(limit, ranked.size()).clear();
+        }
+
+        return IteratorUtils.filter(IteratorUtils.flatMap(ranked.iterator(), entry -> IteratorUtils.cast(entry.getKey().properties(key))),
+                p -> p.value() instanceof String && TinkerTextIndex.matches(parsed, (String) p.value()));
+    }
+
 }
@@ -18,27 +18,67 @@
  */
 package org.apache.tinkerpop.gremlin.tinkergraph.structure;
 
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Contains;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Text;
+import org.apache.tinkerpop.gremlin.process.traversal.util.AndP;
+import org.apache.tinkerpop.gremlin.process.traversal.util.ConnectiveP;
+import org.apache.tinkerpop.gremlin.process.traversal.util.OrP;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Property;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.GraphStatistics;
+import org.apache.tinkerpop.gremlin.util.GremlinValueComparator;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 final class TinkerIndex<T extends Element> {
 
+    /**
+     * Stands for the missing old value of an element that is added to the index or new value of one that is removed.
+     */
+    private static final Object ABSENT = new Object();
+
     protected Map<String, Map<Object, Set<T>>> index = new ConcurrentHashMap<>();
+    protected Map<String, ConcurrentNavigableMap<Object, Set<T>>> rangeIndex = new ConcurrentHashMap<>();
     protected final Class<T> indexClass;
-    private final Set<String> indexedKeys = new HashSet<>();
+    private final Set<String> indexedKeys = ConcurrentHashMap.newKeySet();
+    private final Set<String> rangeIndexedKeys = ConcurrentHashMap.newKeySet();
+    private final Map<String, Build> builds = new ConcurrentHashMap<>();
+    private final Map<String, Build> rangeBuilds = new ConcurrentHashMap<>();
+    private final List<TinkerCompositeIndex<T>> compositeIndexes = new CopyOnWriteArrayList<>();
+    private final List<TinkerGeoIndex<T>> geoIndexes = new CopyOnWriteArrayList<>();
+    private final Map<String, TinkerTextIndex<T>> textIndexes = new ConcurrentHashMap<>();
+    private final Map<String, TinkerVectorIndex<T>> vectorIndexes = new ConcurrentHashMap<>();
     private final TinkerGraph graph;
 
     public TinkerIndex(final TinkerGraph graph, final Class<T> indexClass) {
@@ -52,24 +92,29 @@ final class TinkerIndex<T extends Element> {
             this.index.putIfAbsent(key, new ConcurrentHashMap<>());
             keyMap = this.index.get(key);
         }
-        Set<T> objects = keyMap.get(value);
+        final Object indexableValue = indexable(value);
+        Set<T> objects = keyMap.get(indexableValue);
         if (null == objects) {
-            keyMap.putIfAbsent(value, ConcurrentHashMap.newKeySet());
-            objects = keyMap.get(value);
+            keyMap.putIfAbsent(indexableValue, ConcurrentHashMap.newKeySet());
+            objects = keyMap.get(indexableValue);
         }
         objects.add(element);
     }
 
-    public List<T> get(final String key, final Object value) {
+    /**
+     * Gets the elements with the value for the key. The returned iterator reads directly from the index and is weakly
+     * consistent, so it reflects some or all of the changes made to the index while it is being consumed.
+     */
+    public Iterator<T> get(final String key, final Object value) {
         final Map<Object, Set<T>> keyMap = this.index.get(key);
         if (null == keyMap) {
-            return Collections.emptyList();
+            return Collections.emptyIterator();
         } else {
-            Set<T> set = keyMap.get(indexable(value));
+            final Set<T> set = keyMap.get(indexable(value));
             if (null == set)
-                return Collections.emptyList();
+                return Collections.emptyIterator();
             else
-                return new ArrayList<>(set);
+                return Collections.unmodifiableSet(set).iterator();
         }
     }
 
@@ -86,59 +131,585 @@ final class TinkerIndex<T extends Element> {
         }
     }
 
+    /**
+     * Gets the elements that have all of the values for the hash indexed keys by testing the elements of the smallest
+     * bucket for membership of the others, so the cost is that of reading the smallest bucket whatever the size of
+     * the others.
+     */
+    public Iterator<T> getAll(final List<String> keys, final List<Object> values) {
+        final List<Set<T>> buckets = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            final Map<Object, Set<T>> keyMap = this.index.get(keys.get(i));
+            final Set<T> bucket = null == keyMap ? null : keyMap.get(indexable(values.get(i)));
+            if (null == bucket) return Collections.emptyIterator();
+            buckets.add(bucket);
+        }
+        if (buckets.isEmpty()) return Collections.emptyIterator();
+
+        buckets.sort(Comparator.comparingInt(Set::size));
+        final Set<T> smallest = buckets.get(0);
+        final List<Set<T>> others = buckets.subList(1, buckets.size());
+        return IteratorUtils.filter(Collections.unmodifiableSet(smallest).iterator(), element -> {
+            for (Set<T> other : others) {
+                if (!other.contains(element)) return false;
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Gets the number of elements with the value for the key from the hash index or, failing that, the range index,
+     * or {@link GraphStatistics#UNKNOWN} if the key is in neither.
+     */
+    public long countValue(final String key, final Object value) {
+        if (this.indexedKeys.contains(key))
+            return count(key, value);
+        if (this.rangeIndexedKeys.contains(key)) {
+            final Map<Object, Set<T>> keyMap = this.rangeIndex.get(key);
+            final Set<T> set = null == keyMap ? null : keyMap.get(indexable(value));
+            return null == set ? 0 : set.size();
+        }
+        return GraphStatistics.UNKNOWN;
+    }
+
+    /**
+     * Gets the number of distinct values of the key from the hash index or, failing that, the range index, or
+     * {@link GraphStatistics#UNKNOWN} if the key is in neither.
+     */
+    public long countDistinct(final String key) {
+        final Map<Object, Set<T>> keyMap;
+        if (this.indexedKeys.contains(key))
+            keyMap = this.index.get(key);
+        else if (this.rangeIndexedKeys.contains(key))
+            keyMap = this.rangeIndex.get(key);
+        else
+            return GraphStatistics.UNKNOWN;
+        return null == keyMap ? 0 : keyMap.size();
+    }
+
     public void remove(final String key, final Object value, final T element) {
+        this.update(false, key, value, ABSENT, element);
+        this.update(true, key, value, ABSENT, element);
+        this.reindex(key, element);
+    }
+
+    private void removeHash(final String key, final Object value, final T element) {
         final Map<Object, Set<T>> keyMap = this.index.get(key);
         if (null != keyMap) {
-            final Set<T> objects = keyMap.get(indexable(value));
+            final Object indexableValue = indexable(value);
+            final Set<T> objects = keyMap.get(indexableValue);
             if (null != objects) {
                 objects.remove(element);
                 if (objects.size() == 0) {
-                    keyMap.remove(value);
+                    keyMap.remove(indexableValue);
                 }
             }
         }
     }
 
+    protected void putRange(final String key, final Object value, final T element) {
+        ConcurrentNavigableMap<Object, Set<T>> keyMap = this.rangeIndex.get(key);
+        if (null == keyMap) {
+            this.rangeIndex.putIfAbsent(key, new ConcurrentSkipListMap<>(RANGE_COMPARATOR));
+            keyMap = this.rangeIndex.get(key);
+        }
+        final Object indexableValue = indexable(value);
+        Set<T> objects = keyMap.get(indexableValue);
+        if (null == objects) {
+            keyMap.putIfAbsent(indexableValue, ConcurrentHashMap.newKeySet());
+            objects = keyMap.get(indexableValue);
+        }
+        objects.add(element);
+    }
+
+    private void removeRange(final String key, final Object value, final T element) {
+        final Map<Object, Set<T>> keyMap = this.rangeIndex.get(key);
+        if (null != keyMap) {
+            final Object indexableValue = indexable(value);
+            final Set<T> objects = keyMap.get(indexableValue);
+            if (null != objects) {
+                objects.remove(element);
+                if (objects.size() == 0) {
+                    keyMap.remove(indexableValue);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the elements whose value for the range indexed key may satisfy all of the supplied predicates. The
+     * predicates must be answerable by the index as determined by {@link #isRangeIndexable(P)}. The index compares
+     * values by Gremlin orderability so the result may contain elements that the predicates would reject (e.g.
+     * {@code 1} and {@code 1.0} share a bucket) and callers should still test the returned elements.
+     */
+    public Iterator<T> getRange(final String key, final List<P<?>> predicates) {
+        final ConcurrentNavigableMap<Object, Set<T>> keyMap = this.rangeIndex.get(key);
+        if (null == keyMap || predicates.isEmpty()) return Collections.emptyIterator();
+
+        List<Range> ranges = toRanges(predicates.get(0));
+        for (int i = 1; i < predicates.size(); i++) {
+            ranges = intersect(ranges, toRanges(predicates.get(i)));
+        }
+
+        final List<Collection<Set<T>>> buckets = new ArrayList<>(ranges.size());
+        for (Range range : ranges) {
+            if (!range.isEmpty())
+                buckets.add(keyMap.subMap(range.low, range.lowInclusive, range.high, range.highInclusive).values());
+        }
+
+        final Iterator<T> candidates = IteratorUtils.flatMap(IteratorUtils.flatMap(buckets.iterator(), Collection::iterator), Set::iterator);
+
+        // a multi-property vertex or overlapping ranges can put the same element in more than one matching bucket
+        if (buckets.size() > 1 || Vertex.class.isAssignableFrom(this.indexClass)) {
+            final Set<T> seen = new HashSet<>();
+            return IteratorUtils.filter(candidates, seen::add);
+        }
+        return candidates;
+    }
+
+    /**
+     * Estimates the number of elements that {@link #getRange(String, List)} would return by summing the sizes of the
+     * matching buckets, so an element in more than one of them is counted more than once. Counting stops once the
+     * count exceeds the limit so that the cost of estimating a wide range is bounded by the alternative it is
+     * compared to.
+     */
+    public long countRange(final String key, final List<P<?>> predicates, final long limit) {
+        final ConcurrentNavigableMap<Object, Set<T>> keyMap = this.rangeIndex.get(key);
+        if (null == keyMap || predicates.isEmpty()) return 0;
+
+        List<Range> ranges = toRanges(predicates.get(0));
+        for (int i = 1; i < predicates.size(); i++) {
+            ranges = intersect(ranges, toRanges(predicates.get(i)));
+        }
+
+        long count = 0;
+        for (Range range : ranges) {
+            if (range.isEmpty()) continue;
+            for (Set<T> bucket : keyMap.subMap(range.low, range.lowInclusive, range.high, range.highInclusive).values()) {
+                count += bucket.size();
+                if (count > limit) return count;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Removes the element from the index using its current property values to find the buckets that it is in, so
+     * this must be called before the properties of the element are cleared.
+     */
     public void removeElement(final T element) {
         if (this.indexClass.isAssignableFrom(element.getClass())) {
-            for (Map<Object, Set<T>> map : index.values()) {
-                for (Set<T> set : map.values()) {
-                    set.remove(element);
+            for (TinkerCompositeIndex<T> compositeIndex : this.compositeIndexes) {
+                compositeIndex.remove(element);
+            }
+            for (String key : this.maintainedKeys(false)) {
+                for (Object value : indexedValues(element, key)) {
+                    this.update(false, key, value, ABSENT, element);
+                }
+            }
+            for (String key : this.maintainedKeys(true)) {
+                for (Object value : indexedValues(element, key)) {
+                    this.update(true, key, value, ABSENT, element);
+                }
+            }
+            for (TinkerTextIndex<T> textIndex : this.textIndexes.values()) {
+                textIndex.remove(element);
+            }
+            for (TinkerVectorIndex<T> vectorIndex : this.vectorIndexes.values()) {
+                vectorIndex.remove(element);
+            }
+            for (TinkerGeoIndex<T> geoIndex : this.geoIndexes) {
+                geoIndex.remove(element);
+            }
+        }
+    }
+
+    /**
+     * Adds elements that were added to the graph without maintaining the index to every index in a single pass over
+     * them, which is parallel for all but the vector indices as their insertions are serialized.
+     */
+    public void addElements(final Collection<T> elements) {
+        elements.parallelStream().forEach(element -> {
+            for (String key : this.maintainedKeys(false)) {
+                for (Object value : indexedValues(element, key)) {
+                    this.update(false, key, ABSENT, value, element);
+                }
+            }
+            for (String key : this.maintainedKeys(true)) {
+                for (Object value : indexedValues(element, key)) {
+                    this.update(true, key, ABSENT, value, element);
                 }
             }
+            for (TinkerCompositeIndex<T> compositeIndex : this.compositeIndexes) {
+                compositeIndex.update(element);
+            }
+            for (TinkerTextIndex<T> textIndex : this.textIndexes.values()) {
+                textIndex.update(element);
+            }
+            for (TinkerGeoIndex<T> geoIndex : this.geoIndexes) {
+                geoIndex.update(element);
+            }
+        });
+        for (TinkerVectorIndex<T> vectorIndex : this.vectorIndexes.values()) {
+            elements.forEach(vectorIndex::update);
         }
     }
 
+    /**
+     * Gets the values the element is indexed under for the key, which may be more than one for a multi-property.
+     */
+    private static List<Object> indexedValues(final Element element, final String key) {
+        if (key.equals(org.apache.tinkerpop.gremlin.structure.T.label.getAccessor()))
+            return Collections.singletonList(element.label());
+
+        final List<Object> values = new ArrayList<>(1);
+        final Iterator<? extends Property<Object>> properties = element.properties(key);
+        while (properties.hasNext()) {
+            final Property<Object> property = properties.next();
+            if (property.isPresent()) values.add(property.value());
+        }
+        return values;
+    }
+
     public void autoUpdate(final String key, final Object newValue, final Object oldValue, final T element) {
-        if (this.indexedKeys.contains(key)) {
-            this.remove(key, oldValue, element);
-            this.put(key, newValue, element);
+        this.update(false, key, oldValue, newValue, element);
+        this.update(true, key, oldValue, newValue, element);
+        this.reindex(key, element);
+    }
+
+    /**
+     * Re-indexes the element in the indices that are built from all of its current values for the key rather than
+     * from the value that changed, which is all that needs doing when a vertex loses one of several equal values.
+     */
+    public void reindex(final String key, final T element) {
+        this.updateComposite(key, element);
+        this.updateGeo(key, element);
+        this.updateText(key, element);
+        this.updateVector(key, element);
+    }
+
+    /**
+     * Moves the element from the bucket of the old value to that of the new value in the hash or range index of the
+     * key, where either value may be {@link #ABSENT}. While the index is being built the change is logged for the
+     * build to apply instead, as the build may not yet have read the element or may be about to index its old value.
+     */
+    private void update(final boolean range, final String key, final Object oldValue, final Object newValue, final T element) {
+        final Build build = (range ? this.rangeBuilds : this.builds).get(key);
+        if (null != build && build.log(element, oldValue, newValue))
+            return;
+        if ((range ? this.rangeIndexedKeys : this.indexedKeys).contains(key))
+            this.apply(range, key, oldValue, newValue, element);
+    }
+
+    private void apply(final boolean range, final String key, final Object oldValue, final Object newValue, final T element) {
+        if (range) {
+            if (ABSENT != oldValue) this.removeRange(key, oldValue, element);
+            if (ABSENT != newValue) this.putRange(key, newValue, element);
+        } else {
+            if (ABSENT != oldValue) this.removeHash(key, oldValue, element);
+            if (ABSENT != newValue) this.put(key, newValue, element);
         }
     }
 
-    public void createKeyIndex(final String key) {
+    /**
+     * Gets the keys of the hash or range index that are being built as well as those that are ready, listing those
+     * being built first so that a key whose build completes in the meantime is still seen as ready.
+     */
+    private Collection<String> maintainedKeys(final boolean range) {
+        final Map<String, Build> builds = range ? this.rangeBuilds : this.builds;
+        final Set<String> keys = range ? this.rangeIndexedKeys : this.indexedKeys;
+        if (builds.isEmpty())
+            return keys;
+        final List<String> maintained = new ArrayList<>(builds.keySet());
+        maintained.addAll(keys);
+        return maintained;
+    }
+
+    private void updateText(final String key, final T element) {
+        final TinkerTextIndex<T> textIndex = this.textIndexes.get(key);
+        if (null != textIndex)
+            textIndex.update(element);
+    }
+
+    /**
+     * Throws an {@link IllegalArgumentException} if the value cannot be written to the key because it is a vector
+     * whose dimension differs from that of the vectors in the vector index for the key.
+     */
+    public void validate(final String key, final Object value) {
+        final TinkerVectorIndex<T> vectorIndex = this.vectorIndexes.get(key);
+        if (null != vectorIndex)
+            vectorIndex.validate(value);
+    }
+
+    private void updateVector(final String key, final T element) {
+        final TinkerVectorIndex<T> vectorIndex = this.vectorIndexes.get(key);
+        if (null != vectorIndex)
+            vectorIndex.update(element);
+    }
+
+    /**
+     * Gets the approximate nearest elements to the vector for the vector indexed key with their distances, ordered
+     * from the nearest.
+     */
+    public List<Map.Entry<T, Double>> searchVector(final String key, final Object vector, final int k, final int ef) {
+        final TinkerVectorIndex<T> vectorIndex = this.vectorIndexes.get(key);
+        return null == vectorIndex ? Collections.emptyList() : vectorIndex.search(vector, k, ef);
+    }
+
+    /**
+     * Gets the vector of the element in the vector index for the key or {@code null} if it is not indexed.
+     */
+    public float[] getVector(final String key, final T element) {
+        final TinkerVectorIndex<T> vectorIndex = this.vectorIndexes.get(key);
+        return null == vectorIndex ? null : vectorIndex.get(element);
+    }
+
+    public void createVectorIndex(final String key, final TinkerGraph.VectorDistance distance) {
         if (null == key)
             throw Graph.Exceptions.argumentCanNotBeNull("key");
         if (key.isEmpty())
             throw new IllegalArgumentException("The key for the index cannot be an empty string");
+        if (null == distance)
+            throw Graph.Exceptions.argumentCanNotBeNull("distance");
+        if (this.vectorIndexes.containsKey(key))
+            return;
 
-        if (this.indexedKeys.contains(key))
+        final TinkerVectorIndex<T> vectorIndex = new TinkerVectorIndex<>(key, distance);
+        // insertions into the index are serialized so there is nothing to gain from a parallel stream, and it is only
+        // added once every element is indexed so that vectors of differing dimensions leave no index behind
+        (Vertex.class.isAssignableFrom(this.indexClass) ?
+                this.graph.vertices.values().stream() :
+                this.graph.edges.values().stream())
+                .forEach(e -> vectorIndex.update((T) e));
+        this.vectorIndexes.put(key, vectorIndex);
+    }
+
+    /**
+     * Gets the elements whose values for the text indexed key match the query with their scores, ordered from the best
+     * match to the worst.
+     *
+     * @param limit the maximum number of elements to return or a non-positive number to return all of them
+     */
+    public List<Map.Entry<T, Double>> searchText(final String key, final TinkerTextIndex.Query query, final int limit) {
+        final TinkerTextIndex<T> textIndex = this.textIndexes.get(key);
+        return null == textIndex ? Collections.emptyList() : textIndex.search(query, limit);
+    }
+
+    private void updateComposite(final String key, final T element) {
+        for (TinkerCompositeIndex<T> compositeIndex : this.compositeIndexes) {
+            if (compositeIndex.covers(key))
+                compositeIndex.update(element);
+        }
+    }
+
+    private void updateGeo(final String key, final T element) {
+        for (TinkerGeoIndex<T> geoIndex : this.geoIndexes) {
+            if (geoIndex.covers(key))
+                geoIndex.update(element);
+        }
+    }
+
+    /**
+     * Gets the geospatial index over the latitude and longitude keys, or {@code null} if there is none.
+     */
+    public TinkerGeoIndex<T> getGeoIndex(final String latitudeKey, final String longitudeKey) {
+        for (TinkerGeoIndex<T> geoIndex : this.geoIndexes) {
+            if (geoIndex.getLatitudeKey().equals(latitudeKey) && geoIndex.getLongitudeKey().equals(longitudeKey))
+                return geoIndex;
+        }
+        return null;
+    }
+
+    public void createGeoIndex(final String latitudeKey, final String longitudeKey) {
+        if (null == latitudeKey)
+            throw Graph.Exceptions.argumentCanNotBeNull("latitudeKey");
+        if (null == longitudeKey)
+            throw Graph.Exceptions.argumentCanNotBeNull("longitudeKey");
+        if (latitudeKey.isEmpty() || longitudeKey.isEmpty())
+            throw new IllegalArgumentException("The key for the index cannot be an empty string");
+        if (latitudeKey.equals(longitudeKey))
+            throw new IllegalArgumentException("The latitude and longitude keys of a geospatial index must differ: " + latitudeKey);
+
+        if (null != this.getGeoIndex(latitudeKey, longitudeKey))
             return;
-        this.indexedKeys.add(key);
+
+        final TinkerGeoIndex<T> geoIndex = new TinkerGeoIndex<>(latitudeKey, longitudeKey);
+        this.geoIndexes.add(geoIndex);
 
         (Vertex.class.isAssignableFrom(this.indexClass) ?
                 this.graph.vertices.values().parallelStream() :
                 this.graph.edges.values().parallelStream())
-                .map(e -> new Object[]{((T) e).property(key), e})
-                .filter(a -> ((Property) a[0]).isPresent())
-                .forEach(a -> this.put(key, ((Property) a[0]).value(), (T) a[1]));
+                .forEach(e -> geoIndex.update((T) e));
+    }
+
+    public void dropGeoIndex(final String latitudeKey, final String longitudeKey) {
+        final TinkerGeoIndex<T> geoIndex = this.getGeoIndex(latitudeKey, longitudeKey);
+        if (null != geoIndex) {
+            this.geoIndexes.remove(geoIndex);
+            geoIndex.clear();
+        }
+    }
+
+    /**
+     * Gets the pairs of latitude and longitude keys of the geospatial indices.
+     */
+    public Set<List<String>> getGeoIndexedKeys() {
+        final Set<List<String>> keys = new HashSet<>();
+        for (TinkerGeoIndex<T> geoIndex : this.geoIndexes) {
+            keys.add(Arrays.asList(geoIndex.getLatitudeKey(), geoIndex.getLongitudeKey()));
+        }
+        return keys;
+    }
+
+    /**
+     * Gets the elements with the specified values for the keys of the composite index matching the label and keys.
+     */
+    public Iterator<T> getComposite(final String label, final List<String> keys, final List<Object> values) {
+        final TinkerCompositeIndex<T> compositeIndex = this.getCompositeIndex(label, keys);
+        return null == compositeIndex ? Collections.emptyIterator() : compositeIndex.get(values);
+    }
+
+    public void createCompositeIndex(final String label, final List<String> keys) {
+        if (null == keys)
+            throw Graph.Exceptions.argumentCanNotBeNull("keys");
+        if (keys.isEmpty())
+            throw new IllegalArgumentException("The keys for a composite index cannot be empty");
+        for (String key : keys) {
+            if (null == key)
+                throw Graph.Exceptions.argumentCanNotBeNull("key");
+            if (key.isEmpty())
+                throw new IllegalArgumentException("The key for the index cannot be an empty string");
+        }
+        if (new HashSet<>(keys).size() != keys.size())
+            throw new IllegalArgumentException("The keys for a composite index cannot contain duplicates: " + keys);
+
+        if (null != this.getCompositeIndex(label, keys))
+            return;
+
+        final TinkerCompositeIndex<T> compositeIndex = new TinkerCompositeIndex<>(label, keys);
+        this.compositeIndexes.add(compositeIndex);
+
+        (Vertex.class.isAssignableFrom(this.indexClass) ?
+                this.graph.vertices.values().parallelStream() :
+                this.graph.edges.values().parallelStream())
+                .forEach(e -> compositeIndex.update((T) e));
+    }
+
+    public void dropCompositeIndex(final String label, final List<String> keys) {
+        final TinkerCompositeIndex<T> compositeIndex = this.getCompositeIndex(label, keys);
+        if (null != compositeIndex) {
+            this.compositeIndexes.remove(compositeIndex);
+            compositeIndex.clear();
+        }
+    }
+
+    /**
+     * Gets the key lists of the composite indexes scoped to the label, where a {@code null} label returns the composite
+     * indexes that apply to all labels.
+     */
+    public Set<List<String>> getCompositeIndexedKeys(final String label) {
+        final Set<List<String>> keys = new HashSet<>();
+        for (TinkerCompositeIndex<T> compositeIndex : this.compositeIndexes) {
+            if (Objects.equals(label, compositeIndex.getLabel()))
+                keys.add(compositeIndex.getKeys());
+        }
+        return keys;
+    }
+
+    private TinkerCompositeIndex<T> getCompositeIndex(final String label, final List<String> keys) {
+        for (TinkerCompositeIndex<T> compositeIndex : this.compositeIndexes) {
+            if (Objects.equals(label, compositeIndex.getLabel()) && compositeIndex.getKeys().equals(keys))
+                return compositeIndex;
+        }
+        return null;
+    }
+
+    public void createKeyIndex(final String key) {
+        createKeyIndex(key, TinkerGraph.IndexType.HASH);
+    }
+
+    public void createKeyIndex(final String key, final TinkerGraph.IndexType indexType) {
+        if (null == key)
+            throw Graph.Exceptions.argumentCanNotBeNull("key");
+        if (key.isEmpty())
+            throw new IllegalArgumentException("The key for the index cannot be an empty string");
+        if (null == indexType)
+            throw Graph.Exceptions.argumentCanNotBeNull("indexType");
+
+        if (indexType == TinkerGraph.IndexType.TEXT) {
+            if (this.textIndexes.containsKey(key))
+                return;
+            final TinkerTextIndex<T> textIndex = new TinkerTextIndex<>(key);
+            this.textIndexes.put(key, textIndex);
+            (Vertex.class.isAssignableFrom(this.indexClass) ?
+                    this.graph.vertices.values().parallelStream() :
+                    this.graph.edges.values().parallelStream())
+                    .forEach(e -> textIndex.update((T) e));
+            return;
+        } else if (indexType == TinkerGraph.IndexType.VECTOR) {
+            throw new IllegalArgumentException("A vector index needs the distance by which it ranks vectors so create it with createVectorIndex()");
+        }
+
+        final boolean range = indexType == TinkerGraph.IndexType.RANGE;
+        final Map<String, Build> builds = range ? this.rangeBuilds : this.builds;
+        if ((range ? this.rangeIndexedKeys : this.indexedKeys).contains(key) || builds.containsKey(key))
+            return;
+        final Build build = new Build(key, range);
+        if (null != builds.putIfAbsent(key, build))
+            return;
+
+        if (this.graph.backgroundIndex) {
+            ForkJoinPool.commonPool().execute(build);
+        } else {
+            build.run();
+            build.await();
+        }
+    }
+
+    /**
+     * Waits for the builds of the hash and range indices of the key to complete, rethrowing the failure of a build.
+     */
+    public void awaitKeyIndex(final String key) {
+        final Build build = this.builds.get(key);
+        if (null != build) build.await();
+        final Build rangeBuild = this.rangeBuilds.get(key);
+        if (null != rangeBuild) rangeBuild.await();
+    }
+
+    /**
+     * Gets the fraction of the existing elements that have been read by the builds of the hash and range indices that
+     * are in progress, by key.
+     */
+    public Map<String, Double> getBuildProgress() {
+        final Map<String, Double> progress = new HashMap<>();
+        for (Build build : this.builds.values()) {
+            progress.put(build.key, build.progress());
+        }
+        for (Build build : this.rangeBuilds.values()) {
+            progress.merge(build.key, build.progress(), Math::min);
+        }
+        return progress;
     }
 
     public void dropKeyIndex(final String key) {
+        final Build build = this.builds.remove(key);
+        if (null != build) build.cancel();
+        final Build rangeBuild = this.rangeBuilds.remove(key);
+        if (null != rangeBuild) rangeBuild.cancel();
+
         if (this.index.containsKey(key))
             this.index.remove(key).clear();
+        if (this.rangeIndex.containsKey(key))
+            this.rangeIndex.remove(key).clear();
+        final TinkerTextIndex<T> textIndex = this.textIndexes.remove(key);
+        if (null != textIndex)
+            textIndex.clear();
+        final TinkerVectorIndex<T> vectorIndex = this.vectorIndexes.remove(key);
+        if (null != vectorIndex)
+            vectorIndex.clear();
 
         this.indexedKeys.remove(key);
+        this.rangeIndexedKeys.remove(key);
     }
 
     /**
@@ -149,8 +720,340 @@ final class TinkerIndex<T extends Element> {
         return null == obj ? IndexedNull.instance() : obj;
     }
 
+    /**
+     * Gets the keys indexed by any {@link TinkerGraph.IndexType}.
+     */
     public Set<String> getIndexedKeys() {
-        return this.indexedKeys;
+        if (this.rangeIndexedKeys.isEmpty() && this.textIndexes.isEmpty() && this.vectorIndexes.isEmpty())
+            return this.indexedKeys;
+        final Set<String> keys = new HashSet<>(this.indexedKeys);
+        keys.addAll(this.rangeIndexedKeys);
+        keys.addAll(this.textIndexes.keySet());
+        keys.addAll(this.vectorIndexes.keySet());
+        return keys;
+    }
+
+    public Set<String> getIndexedKeys(final TinkerGraph.IndexType indexType) {
+        switch (indexType) {
+            case RANGE:
+                return this.rangeIndexedKeys;
+            case TEXT:
+                return this.textIndexes.keySet();
+            case VECTOR:
+                return this.vectorIndexes.keySet();
+            default:
+                return this.indexedKeys;
+        }
+    }
+
+    /**
+     * Determines if the predicate can be answered by a range index.
+     */
+    public static boolean isRangeIndexable(final P<?> predicate) {
+        if (predicate instanceof ConnectiveP) {
+            for (P<?> p : ((ConnectiveP<?>) predicate).getPredicates()) {
+                if (!isRangeIndexable(p)) return false;
+            }
+            return true;
+        }
+
+        final Object biPredicate = predicate.getBiPredicate();
+        if (biPredicate == Compare.eq || biPredicate == Compare.gt || biPredicate == Compare.gte ||
+                biPredicate == Compare.lt || biPredicate == Compare.lte)
+            return true;
+        else if (biPredicate == Text.startingWith)
+            return predicate.getValue() instanceof String;
+        else if (biPredicate == Contains.within)
+            return predicate.getValue() instanceof Collection;
+        else
+            return false;
+    }
+
+    /**
+     * Converts a predicate to the union of the ranges of the index that can satisfy it.
+     */
+    private static List<Range> toRanges(final P<?> predicate) {
+        if (predicate instanceof OrP) {
+            final List<Range> ranges = new ArrayList<>();
+            for (P<?> p : ((OrP<?>) predicate).getPredicates()) {
+                ranges.addAll(toRanges(p));
+            }
+            return ranges;
+        } else if (predicate instanceof AndP) {
+            final List<P<?>> predicates = (List) ((AndP<?>) predicate).getPredicates();
+            List<Range> ranges = toRanges(predicates.get(0));
+            for (int i = 1; i < predicates.size(); i++) {
+                ranges = intersect(ranges, toRanges(predicates.get(i)));
+            }
+            return ranges;
+        }
+
+        final Object biPredicate = predicate.getBiPredicate();
+        final Object value = indexable(predicate.getValue());
+        if (biPredicate == Compare.eq)
+            return Collections.singletonList(new Range(value, true, value, true));
+        else if (biPredicate == Compare.gt)
+            return Collections.singletonList(new Range(value, false, TypeBound.upper(value), false));
+        else if (biPredicate == Compare.gte)
+            return Collections.singletonList(new Range(value, true, TypeBound.upper(value), false));
+        else if (biPredicate == Compare.lt)
+            return Collections.singletonList(new Range(TypeBound.lower(value), false, value, false));
+        else if (biPredicate == Compare.lte)
+            return Collections.singletonList(new Range(TypeBound.lower(value), false, value, true));
+        else if (biPredicate == Text.startingWith)
+            return Collections.singletonList(prefixRange((String) value));
+        else if (biPredicate == Contains.within) {
+            final List<Range> ranges = new ArrayList<>();
+            for (Object v : (Collection<?>) predicate.getValue()) {
+                final Object indexableValue = indexable(v);
+                ranges.add(new Range(indexableValue, true, indexableValue, true));
+            }
+            return ranges;
+        } else
+            throw new IllegalArgumentException("The predicate cannot be answered by a range index: " + predicate);
+    }
+
+    /**
+     * All strings that start with the prefix sort at or after the prefix and before the prefix with its last
+     * incrementable character incremented.
+     */
+    private static Range prefixRange(final String prefix) {
+        for (int i = prefix.length() - 1; i >= 0; i--) {
+            final char c = prefix.charAt(i);
+            if (c != Character.MAX_VALUE)
+                return new Range(prefix, true, prefix.substring(0, i) + (char) (c + 1), false);
+        }
+        return new Range(prefix, true, TypeBound.upper(prefix), false);
+    }
+
+    private static List<Range> intersect(final List<Range> a, final List<Range> b) {
+        final List<Range> ranges = new ArrayList<>();
+        for (Range x : a) {
+            for (Range y : b) {
+                final Range r = x.intersect(y);
+                if (!r.isEmpty()) ranges.add(r);
+            }
+        }
+        return ranges;
+    }
+
+    /**
+     * Orders values using Gremlin orderability, which groups values by {@link GremlinValueComparator.Type} so that
+     * each type occupies a contiguous section of the index delimited by {@link TypeBound} markers.
+     */
+    private static final Comparator<Object> RANGE_COMPARATOR = TinkerIndex::compareRange;
+
+    private static int compareRange(final Object a, final Object b) {
+        if (a instanceof TypeBound) {
+            return b instanceof TypeBound ? ((TypeBound) a).compareTo((TypeBound) b) : -((TypeBound) a).compareToValue(b);
+        } else if (b instanceof TypeBound) {
+            return ((TypeBound) b).compareToValue(a);
+        } else {
+            return GremlinValueComparator.ORDERABILITY.compare(a instanceof IndexedNull ? null : a,
+                                                               b instanceof IndexedNull ? null : b);
+        }
+    }
+
+    private static final class Range {
+        private final Object low;
+        private final boolean lowInclusive;
+        private final Object high;
+        private final boolean highInclusive;
+
+        private Range(final Object low, final boolean lowInclusive, final Object high, final boolean highInclusive) {
+            this.low = low;
+            this.lowInclusive = lowInclusive;
+            this.high = high;
+            this.highInclusive = highInclusive;
+        }
+
+        private boolean isEmpty() {
+            final int c = compareRange(this.low, this.high);
+            return c > 0 || (c == 0 && !(this.lowInclusive && this.highInclusive));
+        }
+
+        private Range intersect(final Range other) {
+            final int l = compareRange(this.low, other.low);
+            final int h = compareRange(this.high, other.high);
+            return new Range(l > 0 ? this.low : other.low,
+                    l > 0 ? this.lowInclusive : l < 0 ? other.lowInclusive : this.lowInclusive && other.lowInclusive,
+                    h < 0 ? this.high : other.high,
+                    h < 0 ? this.highInclusive : h > 0 ? other.highInclusive : this.highInclusive && other.highInclusive);
+        }
+    }
+
+    /**
+     * Marks the lower or upper end of the section of the index holding values of a particular
+     * {@link GremlinValueComparator.Type}.
+     */
+    private static final class TypeBound implements Comparable<TypeBound> {
+        private final GremlinValueComparator.Type type;
+        private final boolean upper;
+
+        private TypeBound(final GremlinValueComparator.Type type, final boolean upper) {
+            this.type = type;
+            this.upper = upper;
+        }
+
+        private static TypeBound lower(final Object value) {
+            return new TypeBound(GremlinValueComparator.Type.type(value instanceof IndexedNull ? null : value), false);
+        }
+
+        private static TypeBound upper(final Object value) {
+            return new TypeBound(GremlinValueComparator.Type.type(value instanceof IndexedNull ? null : value), true);
+        }
+
+        /**
+         * Compares a value to this bound, returning a positive number if the value sorts after it.
+         */
+        private int compareToValue(final Object value) {
+            final GremlinValueComparator.Type valueType = GremlinValueComparator.Type.type(value instanceof IndexedNull ? null : value);
+            if (valueType != this.type)
+                return valueType.priority() - this.type.priority();
+            return this.upper ? -1 : 1;
+        }
+
+        @Override
+        public int compareTo(final TypeBound other) {
+            if (this.type != other.type)
+                return this.type.priority() - other.type.priority();
+            return this.upper == other.upper ? 0 : this.upper ? 1 : -1;
+        }
+    }
+
+    /**
+     * The build of the hash or range index of a key over the existing elements, which runs while the graph goes on
+     * being mutated. As the build may read an element either before or after a concurrent change to the key, the
+     * changes are logged rather than applied and the build applies them in order once it has read every element. The
+     * log is replayed while writers go on appending to it and then drained while briefly holding off writers, after
+     * which the key is added to the indexed keys so that queries start using the index and writers update it directly.
+     */
+    private final class Build implements Runnable {
+        private final String key;
+        private final boolean range;
+        private final Queue<Delta<T>> log = new ConcurrentLinkedQueue<>();
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final CompletableFuture<Void> completion = new CompletableFuture<>();
+        private final LongAdder read = new LongAdder();
+        private volatile long total = -1;
+        private volatile boolean cancelled = false;
+        private boolean completed = false;
+
+        private Build(final String key, final boolean range) {
+            this.key = key;
+            this.range = range;
+        }
+
+        /**
+         * Logs the change for the build to apply, returning {@code false} if the build has completed, in which case
+         * the index is ready to be updated directly.
+         */
+        private boolean log(final T element, final Object oldValue, final Object newValue) {
+            this.lock.readLock().lock();
+            try {
+                if (this.completed)
+                    return false;
+                this.log.add(new Delta<>(element, oldValue, newValue));
+                return true;
+            } finally {
+                this.lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                final Collection<?> elements = Vertex.class.isAssignableFrom(indexClass) ?
+                        graph.vertices.values() : graph.edges.values();
+                this.total = elements.size();
+                elements.parallelStream().forEach(e -> {
+                    if (this.cancelled)
+                        return;
+                    for (Object value : indexedValues((Element) e, this.key)) {
+                        apply(this.range, this.key, ABSENT, value, (T) e);
+                    }
+                    this.read.increment();
+                });
+
+                this.replay();
+                this.lock.writeLock().lock();
+                try {
+                    this.replay();
+                    this.completed = true;
+                    if (!this.cancelled) {
+                        (this.range ? rangeIndexedKeys : indexedKeys).add(this.key);
+                        (this.range ? rangeBuilds : builds).remove(this.key, this);
+                    }
+                } finally {
+                    this.lock.writeLock().unlock();
+                }
+                this.completion.complete(null);
+            } catch (RuntimeException | Error e) {
+                this.lock.writeLock().lock();
+                try {
+                    this.completed = true;
+                    this.log.clear();
+                    if ((this.range ? rangeBuilds : builds).remove(this.key, this))
+                        (this.range ? rangeIndex : index).remove(this.key);
+                } finally {
+                    this.lock.writeLock().unlock();
+                }
+                this.completion.completeExceptionally(e);
+            }
+        }
+
+        private void replay() {
+            Delta<T> delta;
+            while (null != (delta = this.log.poll())) {
+                if (!this.cancelled)
+                    apply(this.range, this.key, delta.oldValue, delta.newValue, delta.element);
+            }
+        }
+
+        /**
+         * Stops the build and waits for it to stop, leaving what it has indexed to be removed by the caller.
+         */
+        private void cancel() {
+            this.cancelled = true;
+            this.completion.handle((v, t) -> null).join();
+        }
+
+        /**
+         * Waits for the build to complete, rethrowing its failure.
+         */
+        private void await() {
+            try {
+                this.completion.join();
+            } catch (CompletionException ce) {
+                if (ce.getCause() instanceof RuntimeException)
+                    throw (RuntimeException) ce.getCause();
+                if (ce.getCause() instanceof Error)
+                    throw (Error) ce.getCause();
+                throw ce;
+            }
+        }
+
+        private double progress() {
+            final long total = this.total;
+            if (total < 0)
+                return 0.0;
+            return 0 == total ? 1.0 : Math.min(1.0, (double) this.read.sum() / total);
+        }
+    }
+
+    /**
+     * A change to an element logged while an index is being built.
+     */
+    private static final class Delta<T> {
+        private final T element;
+        private final Object oldValue;
+        private final Object newValue;
+
+        private Delta(final T element, final Object oldValue, final Object newValue) {
+            this.element = element;
+            this.oldValue = oldValue;
+            this.newValue = newValue;
+        }
     }
 
     public static final class IndexedNull {
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Element;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the elements of the graph grouped by label. The label of an element cannot change so the index only needs to
+ * be maintained as elements are added and removed. Label sets are never removed once created as there are typically
+ * few labels and removing an empty set could race with a concurrent addition to it.
+ */
+final class TinkerLabelIndex<T extends Element> {
+
+    private final Map<String, Set<T>> index = new ConcurrentHashMap<>();
+
+    public void add(final T element) {
+        this.index.computeIfAbsent(element.label(), k -> ConcurrentHashMap.newKeySet()).add(element);
+    }
+
+    public void remove(final T element) {
+        final Set<T> elements = this.index.get(element.label());
+        if (null != elements)
+            elements.remove(element);
+    }
+
+    public Set<T> get(final String label) {
+        final Set<T> elements = this.index.get(label);
+        return null == elements ? Collections.emptySet() : Collections.unmodifiableSet(elements);
+    }
+
+    public long count(final String label) {
+        final Set<T> elements = this.index.get(label);
+        return null == elements ? 0 : elements.size();
+    }
+
+    public void clear() {
+        this.index.clear();
+    }
+}
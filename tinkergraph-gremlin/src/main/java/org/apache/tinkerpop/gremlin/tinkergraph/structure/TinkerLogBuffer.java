@@ -0,0 +1,327 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.io.Buffer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link Buffer} over a {@code ByteBuffer} used to encode and decode the GraphBinary records of the
+ * {@link TinkerWriteAheadLog} and of the {@link TinkerSnapshot}, which avoids a dependency on a network buffer
+ * implementation. A buffer that is written grows on the heap as needed, while a buffer that wraps a region of a file
+ * mapped into memory is only read. The buffer is not reference counted and is reused by calling {@link #clear()}.
+ */
+final class TinkerLogBuffer implements Buffer {
+
+    private ByteBuffer bytes;
+    private int readerIndex;
+    private int writerIndex;
+    private int markedWriterIndex;
+
+    TinkerLogBuffer(final int initialCapacity) {
+        this.bytes = ByteBuffer.allocate(initialCapacity);
+    }
+
+    /**
+     * Wraps the bytes, from the position to the limit, for reading.
+     */
+    TinkerLogBuffer(final ByteBuffer bytes) {
+        this.bytes = bytes.slice();
+        this.writerIndex = this.bytes.capacity();
+    }
+
+    void clear() {
+        this.readerIndex = 0;
+        this.writerIndex = 0;
+        this.markedWriterIndex = 0;
+    }
+
+    /**
+     * Gets the bytes from the start of the buffer to the writer index.
+     */
+    ByteBuffer written() {
+        final ByteBuffer written = this.bytes.duplicate();
+        written.position(0).limit(this.writerIndex);
+        return written;
+    }
+
+    private void ensureWritable(final int length) {
+        if (this.writerIndex + length > this.bytes.capacity()) {
+            final ByteBuffer grown = ByteBuffer.allocate(Math.max(this.bytes.capacity() * 2, this.writerIndex + length));
+            grown.put(written());
+            this.bytes = grown;
+        }
+    }
+
+    private int read(final int length) {
+        if (this.readerIndex + length > this.writerIndex)
+            throw new IndexOutOfBoundsException(String.format("Cannot read %s bytes at %s from a buffer of %s",
+                    length, this.readerIndex, this.writerIndex));
+        final int index = this.readerIndex;
+        this.readerIndex += length;
+        return index;
+    }
+
+    /**
+     * Reserves the length of bytes, growing the buffer if needed, and returns the index to write them at. The buffer
+     * must only be dereferenced after this call since growing replaces it.
+     */
+    private int write(final int length) {
+        ensureWritable(length);
+        final int index = this.writerIndex;
+        this.writerIndex += length;
+        return index;
+    }
+
+    /**
+     * Gets a view of the buffer with its position at the index, for the bulk transfer of the length of bytes.
+     */
+    private ByteBuffer at(final int index, final int length) {
+        final ByteBuffer view = this.bytes.duplicate();
+        view.limit(index + length).position(index);
+        return view;
+    }
+
+    @Override
+    public int readableBytes() {
+        return this.writerIndex - this.readerIndex;
+    }
+
+    @Override
+    public int readerIndex() {
+        return this.readerIndex;
+    }
+
+    @Override
+    public Buffer readerIndex(final int readerIndex) {
+        this.readerIndex = readerIndex;
+        return this;
+    }
+
+    @Override
+    public int writerIndex() {
+        return this.writerIndex;
+    }
+
+    @Override
+    public Buffer writerIndex(final int writerIndex) {
+        ensureWritable(writerIndex - this.writerIndex);
+        this.writerIndex = writerIndex;
+        return this;
+    }
+
+    @Override
+    public Buffer markWriterIndex() {
+        this.markedWriterIndex = this.writerIndex;
+        return this;
+    }
+
+    @Override
+    public Buffer resetWriterIndex() {
+        this.writerIndex = this.markedWriterIndex;
+        return this;
+    }
+
+    @Override
+    public int capacity() {
+        return this.bytes.capacity();
+    }
+
+    @Override
+    public boolean isDirect() {
+        return this.bytes.isDirect();
+    }
+
+    @Override
+    public boolean readBoolean() {
+        return this.bytes.get(read(1)) != 0;
+    }
+
+    @Override
+    public byte readByte() {
+        return this.bytes.get(read(1));
+    }
+
+    @Override
+    public short readShort() {
+        return this.bytes.getShort(read(2));
+    }
+
+    @Override
+    public int readInt() {
+        return this.bytes.getInt(read(4));
+    }
+
+    @Override
+    public long readLong() {
+        return this.bytes.getLong(read(8));
+    }
+
+    @Override
+    public float readFloat() {
+        return this.bytes.getFloat(read(4));
+    }
+
+    @Override
+    public double readDouble() {
+        return this.bytes.getDouble(read(8));
+    }
+
+    @Override
+    public Buffer readBytes(final byte[] destination) {
+        return readBytes(destination, 0, destination.length);
+    }
+
+    @Override
+    public Buffer readBytes(final byte[] destination, final int dstIndex, final int length) {
+        at(read(length), length).get(destination, dstIndex, length);
+        return this;
+    }
+
+    @Override
+    public Buffer readBytes(final ByteBuffer dst) {
+        final int length = dst.remaining();
+        dst.put(at(read(length), length));
+        return this;
+    }
+
+    @Override
+    public Buffer readBytes(final OutputStream out, final int length) throws IOException {
+        final byte[] destination = new byte[length];
+        readBytes(destination);
+        out.write(destination);
+        return this;
+    }
+
+    @Override
+    public Buffer writeBoolean(final boolean value) {
+        final int index = write(1);
+        this.bytes.put(index, (byte) (value ? 1 : 0));
+        return this;
+    }
+
+    @Override
+    public Buffer writeByte(final int value) {
+        final int index = write(1);
+        this.bytes.put(index, (byte) value);
+        return this;
+    }
+
+    @Override
+    public Buffer writeShort(final int value) {
+        final int index = write(2);
+        this.bytes.putShort(index, (short) value);
+        return this;
+    }
+
+    @Override
+    public Buffer writeInt(final int value) {
+        final int index = write(4);
+        this.bytes.putInt(index, value);
+        return this;
+    }
+
+    @Override
+    public Buffer writeLong(final long value) {
+        final int index = write(8);
+        this.bytes.putLong(index, value);
+        return this;
+    }
+
+    @Override
+    public Buffer writeFloat(final float value) {
+        final int index = write(4);
+        this.bytes.putFloat(index, value);
+        return this;
+    }
+
+    @Override
+    public Buffer writeDouble(final double value) {
+        final int index = write(8);
+        this.bytes.putDouble(index, value);
+        return this;
+    }
+
+    @Override
+    public Buffer writeBytes(final byte[] src) {
+        return writeBytes(src, 0, src.length);
+    }
+
+    @Override
+    public Buffer writeBytes(final ByteBuffer src) {
+        final int length = src.remaining();
+        at(write(length), length).put(src);
+        return this;
+    }
+
+    @Override
+    public Buffer writeBytes(final byte[] src, final int srcIndex, final int length) {
+        at(write(length), length).put(src, srcIndex, length);
+        return this;
+    }
+
+    @Override
+    public boolean release() {
+        return false;
+    }
+
+    @Override
+    public Buffer retain() {
+        return this;
+    }
+
+    @Override
+    public int referenceCount() {
+        return 1;
+    }
+
+    @Override
+    public int nioBufferCount() {
+        return 1;
+    }
+
+    @Override
+    public ByteBuffer[] nioBuffers() {
+        return new ByteBuffer[] { nioBuffer() };
+    }
+
+    @Override
+    public ByteBuffer[] nioBuffers(final int index, final int length) {
+        return new ByteBuffer[] { nioBuffer(index, length) };
+    }
+
+    @Override
+    public ByteBuffer nioBuffer() {
+        return nioBuffer(this.readerIndex, readableBytes());
+    }
+
+    @Override
+    public ByteBuffer nioBuffer(final int index, final int length) {
+        return at(index, length).slice();
+    }
+
+    @Override
+    public Buffer getBytes(final int index, final byte[] dst) {
+        at(index, dst.length).get(dst);
+        return this;
+    }
+}
@@ -0,0 +1,488 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Element;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+
+/**
+ * A {@code Map} of {@link Element} instances keyed by their {@code long} identifier. Identifiers are held in primitive
+ * open-addressing tables so that neither a {@code Long} box nor a map node needs to be allocated per element. The
+ * tables are split into lock striped segments so that concurrent writers to different segments do not contend, while
+ * point lookups are optimistic and lock-free in the common case.
+ * <p/>
+ * Iteration is weakly consistent in the same way as {@code ConcurrentHashMap}: it never throws a
+ * {@code ConcurrentModificationException} and reflects the state of each segment at some point during iteration.
+ * The element identifier is read from {@link Element#id()} and is therefore not stored separately for iteration.
+ * This map is only usable with {@link TinkerGraph.DefaultIdManager#LONG} which guarantees {@code Long} keys.
+ */
+final class TinkerLongElementMap<T extends Element> extends AbstractMap<Object, T> {
+
+    private static final int INITIAL_SEGMENT_CAPACITY = 16;
+    private static final int MAX_SEGMENTS = 256;
+
+    /**
+     * Marks a slot whose element was removed so that probe sequences passing through it remain intact.
+     */
+    private static final Object REMOVED = new Object();
+
+    private final Segment[] segments;
+    private final int segmentMask;
+
+    private Values values;
+    private EntrySet entrySet;
+
+    public TinkerLongElementMap() {
+        this(Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    public TinkerLongElementMap(final int concurrencyLevel) {
+        int n = 1;
+        while (n < concurrencyLevel && n < MAX_SEGMENTS) n <<= 1;
+        this.segments = new Segment[n];
+        for (int i = 0; i < n; i++) {
+            this.segments[i] = new Segment();
+        }
+        this.segmentMask = n - 1;
+    }
+
+    /**
+     * Gets the element for the primitive identifier without boxing it.
+     */
+    public T get(final long id) {
+        final long h = hash(id);
+        return (T) segmentFor(h).get(id, (int) h);
+    }
+
+    /**
+     * Adds the element for the primitive identifier without boxing it and returns any element previously mapped to it.
+     */
+    public T put(final long id, final T element) {
+        if (null == element) throw new NullPointerException();
+        final long h = hash(id);
+        return (T) segmentFor(h).put(id, (int) h, element, false);
+    }
+
+    /**
+     * Adds the element for the primitive identifier without boxing it unless an element is already mapped to it, in
+     * which case that element is returned. The check and the addition are atomic.
+     */
+    public T putIfAbsent(final long id, final T element) {
+        if (null == element) throw new NullPointerException();
+        final long h = hash(id);
+        return (T) segmentFor(h).put(id, (int) h, element, true);
+    }
+
+    /**
+     * Removes the element for the primitive identifier without boxing it.
+     */
+    public T remove(final long id) {
+        final long h = hash(id);
+        return (T) segmentFor(h).remove(id, (int) h);
+    }
+
+    public boolean containsKey(final long id) {
+        return null != get(id);
+    }
+
+    @Override
+    public T get(final Object key) {
+        return key instanceof Long ? get(((Long) key).longValue()) : null;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return null != get(key);
+    }
+
+    @Override
+    public T put(final Object key, final T value) {
+        return put(id(key), value);
+    }
+
+    @Override
+    public T putIfAbsent(final Object key, final T value) {
+        return putIfAbsent(id(key), value);
+    }
+
+    /**
+     * Gets the element mapped to the identifier or adds the one the function computes for it, atomically with
+     * respect to other updates of the map. The function is called while the segment of the identifier is locked, so
+     * it must be short and must not update this map.
+     */
+    @Override
+    public T computeIfAbsent(final Object key, final Function<? super Object, ? extends T> mappingFunction) {
+        if (null == mappingFunction) throw new NullPointerException();
+        final long id = id(key);
+        final long h = hash(id);
+        return (T) segmentFor(h).computeIfAbsent(id, (int) h, key, mappingFunction);
+    }
+
+    @Override
+    public T remove(final Object key) {
+        return key instanceof Long ? remove(((Long) key).longValue()) : null;
+    }
+
+    @Override
+    public int size() {
+        long size = 0;
+        for (Segment segment : this.segments) {
+            size += segment.size;
+        }
+        return size > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (Segment segment : this.segments) {
+            if (segment.size > 0) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        for (Segment segment : this.segments) {
+            segment.clear();
+        }
+    }
+
+    @Override
+    public Collection<T> values() {
+        if (null == this.values) this.values = new Values();
+        return this.values;
+    }
+
+    @Override
+    public Set<Map.Entry<Object, T>> entrySet() {
+        if (null == this.entrySet) this.entrySet = new EntrySet();
+        return this.entrySet;
+    }
+
+    private static long id(final Object key) {
+        if (!(key instanceof Long))
+            throw new IllegalArgumentException(String.format("Expected an id of type %s but received %s", Long.class, null == key ? null : key.getClass()));
+        return (Long) key;
+    }
+
+    private Segment segmentFor(final long h) {
+        return this.segments[(int) (h >>> 32) & this.segmentMask];
+    }
+
+    /**
+     * The MurmurHash3 64-bit finalizer. Identifiers are usually sequential so the high bits select the segment and the
+     * low bits select the slot within that segment.
+     */
+    private static long hash(final long id) {
+        long h = id;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class Table {
+        private final long[] keys;
+        private final Object[] values;
+        private final int mask;
+
+        private Table(final int capacity) {
+            this.keys = new long[capacity];
+            this.values = new Object[capacity];
+            this.mask = capacity - 1;
+        }
+
+        private Object find(final long id, final int h) {
+            int slot = h & this.mask;
+            for (int probes = 0; probes <= this.mask; probes++) {
+                final Object v = this.values[slot];
+                if (null == v) return null;
+                if (v != REMOVED && this.keys[slot] == id) return v;
+                slot = (slot + 1) & this.mask;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * A lock striped segment of the map. Mutations take the write lock while reads use an optimistic stamp and only
+     * fall back to the read lock if a write happened while the table was probed. Tables are never resized in place, so
+     * a reader holding an older {@link Table} always sees a coherent, if stale, set of slots.
+     */
+    private static final class Segment {
+        private final StampedLock lock = new StampedLock();
+        private volatile Table table = new Table(INITIAL_SEGMENT_CAPACITY);
+        private volatile int size = 0;
+
+        /**
+         * Count of slots that are no longer {@code null}, which includes removed slots.
+         */
+        private int used = 0;
+
+        private Object get(final long id, final int h) {
+            final long stamp = this.lock.tryOptimisticRead();
+            Object v = this.table.find(id, h);
+            if (!this.lock.validate(stamp)) {
+                final long readStamp = this.lock.readLock();
+                try {
+                    v = this.table.find(id, h);
+                } finally {
+                    this.lock.unlockRead(readStamp);
+                }
+            }
+            return v;
+        }
+
+        private Object put(final long id, final int h, final Object element, final boolean onlyIfAbsent) {
+            final long stamp = this.lock.writeLock();
+            try {
+                final Table t = this.table;
+                final int slot = probe(t, id, h);
+                if (slot >= 0) {
+                    final Object v = t.values[slot];
+                    if (!onlyIfAbsent) t.values[slot] = element;
+                    return v;
+                }
+                insert(t, -slot - 1, id, element);
+                return null;
+            } finally {
+                this.lock.unlockWrite(stamp);
+            }
+        }
+
+        private Object computeIfAbsent(final long id, final int h, final Object key,
+                                       final Function<? super Object, ?> mappingFunction) {
+            final Object existing = get(id, h);
+            if (null != existing) return existing;
+
+            final long stamp = this.lock.writeLock();
+            try {
+                final Table t = this.table;
+                final int slot = probe(t, id, h);
+                if (slot >= 0) return t.values[slot];
+                final Object element = mappingFunction.apply(key);
+                if (null != element) insert(t, -slot - 1, id, element);
+                return element;
+            } finally {
+                this.lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * Finds the slot of the identifier, or if it is absent the slot to insert it into encoded as
+         * {@code -slot - 1}, which reuses the first removed slot on the probe sequence. The write lock must be held.
+         */
+        private static int probe(final Table t, final long id, final int h) {
+            int slot = h & t.mask;
+            int removedSlot = -1;
+            while (true) {
+                final Object v = t.values[slot];
+                if (null == v) return -(removedSlot >= 0 ? removedSlot : slot) - 1;
+                if (v == REMOVED) {
+                    if (removedSlot < 0) removedSlot = slot;
+                } else if (t.keys[slot] == id) {
+                    return slot;
+                }
+                slot = (slot + 1) & t.mask;
+            }
+        }
+
+        private void insert(final Table t, final int slot, final long id, final Object element) {
+            if (null == t.values[slot]) this.used++;
+            t.keys[slot] = id;
+            t.values[slot] = element;
+            this.size++;
+
+            // keep the load, including removed slots, under 3/4 so that probes always terminate on a null slot
+            if (this.used > (t.keys.length >>> 2) * 3)
+                rehash(t);
+        }
+
+        private Object remove(final long id, final int h) {
+            final long stamp = this.lock.writeLock();
+            try {
+                final Table t = this.table;
+                int slot = h & t.mask;
+                while (true) {
+                    final Object v = t.values[slot];
+                    if (null == v) return null;
+                    if (v != REMOVED && t.keys[slot] == id) {
+                        t.values[slot] = REMOVED;
+                        this.size--;
+                        return v;
+                    }
+                    slot = (slot + 1) & t.mask;
+                }
+            } finally {
+                this.lock.unlockWrite(stamp);
+            }
+        }
+
+        private void clear() {
+            final long stamp = this.lock.writeLock();
+            try {
+                this.table = new Table(INITIAL_SEGMENT_CAPACITY);
+                this.size = 0;
+                this.used = 0;
+            } finally {
+                this.lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * Copies live slots into a new table. The table only grows if removed slots do not account for a meaningful
+         * portion of the load, otherwise it is rebuilt at the same capacity to purge them.
+         */
+        private void rehash(final Table old) {
+            final int capacity = this.size > (old.keys.length >>> 1) ? old.keys.length << 1 : old.keys.length;
+            final Table t = new Table(capacity);
+            for (int i = 0; i < old.values.length; i++) {
+                final Object v = old.values[i];
+                if (null == v || v == REMOVED) continue;
+                final long id = old.keys[i];
+                int slot = (int) hash(id) & t.mask;
+                while (null != t.values[slot]) {
+                    slot = (slot + 1) & t.mask;
+                }
+                t.keys[slot] = id;
+                t.values[slot] = v;
+            }
+            this.used = this.size;
+            this.table = t;
+        }
+    }
+
+    private final class ValueIterator implements Iterator<T> {
+        private int segmentIndex = 0;
+        private Object[] slots = null;
+        private int slotIndex = 0;
+        private T next = null;
+        private T last = null;
+
+        private ValueIterator() {
+            advance();
+        }
+
+        private void advance() {
+            this.next = null;
+            while (true) {
+                if (null != this.slots) {
+                    while (this.slotIndex < this.slots.length) {
+                        final Object v = this.slots[this.slotIndex++];
+                        if (null != v && v != REMOVED) {
+                            this.next = (T) v;
+                            return;
+                        }
+                    }
+                }
+                if (this.segmentIndex >= segments.length) return;
+                this.slots = segments[this.segmentIndex++].table.values;
+                this.slotIndex = 0;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return null != this.next;
+        }
+
+        @Override
+        public T next() {
+            if (null == this.next) throw new NoSuchElementException();
+            this.last = this.next;
+            advance();
+            return this.last;
+        }
+
+        @Override
+        public void remove() {
+            if (null == this.last) throw new IllegalStateException();
+            TinkerLongElementMap.this.remove(this.last.id());
+            this.last = null;
+        }
+    }
+
+    private final class Values extends AbstractCollection<T> {
+        @Override
+        public Iterator<T> iterator() {
+            return new ValueIterator();
+        }
+
+        @Override
+        public int size() {
+            return TinkerLongElementMap.this.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return TinkerLongElementMap.this.isEmpty();
+        }
+
+        @Override
+        public void clear() {
+            TinkerLongElementMap.this.clear();
+        }
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<Object, T>> {
+        @Override
+        public Iterator<Map.Entry<Object, T>> iterator() {
+            final Iterator<T> itty = new ValueIterator();
+            return new Iterator<Map.Entry<Object, T>>() {
+                @Override
+                public boolean hasNext() {
+                    return itty.hasNext();
+                }
+
+                @Override
+                public Map.Entry<Object, T> next() {
+                    final T element = itty.next();
+                    return new SimpleImmutableEntry<>(element.id(), element);
+                }
+
+                @Override
+                public void remove() {
+                    itty.remove();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return TinkerLongElementMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+            TinkerLongElementMap.this.clear();
+        }
+    }
+}
@@ -35,7 +35,7 @@ public final class TinkerProperty<V> implements Property<V> {
 
     public TinkerProperty(final Element element, final String key, final V value) {
         this.element = element;
-        this.key = key;
+        this.key = element.graph() instanceof TinkerGraph ? ((TinkerGraph) element.graph()).shapes.intern(key) : key;
         this.value = value;
     }
 
@@ -79,6 +79,8 @@ public final class TinkerProperty<V> implements Property<V> {
 
     @Override
     public void remove() {
+        final TinkerWriteAheadLog wal = TinkerHelper.writeAheadLog((TinkerGraph) this.element.graph());
+        if (null != wal) wal.removeProperty(this);
         if (this.element instanceof Edge) {
             ((TinkerEdge) this.element).properties.remove(this.key);
             TinkerHelper.removeIndex((TinkerEdge) this.element, this.key, this.value);
@@ -0,0 +1,216 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * The properties of an element, keyed by property key, held as a {@link TinkerShape} that is shared with other
+ * elements that have the same keys and an array of values in the slots of that shape. This takes a fraction of the
+ * memory of a {@code HashMap} for the few keys elements usually have, with the values of an element adjacent to one
+ * another. If the shapes of the graph run out, the map holds its entries in a {@code HashMap} instead.
+ * <p/>
+ * As with the {@code HashMap} it replaces, the map is not safe for concurrent modification. The shape and the values
+ * are published together as one immutable {@link Slots} that is replaced whenever the keys change, so a reader never
+ * pairs a shape with the values of another and only a value replaced in its slot may be seen late.
+ */
+final class TinkerPropertyMap<V> extends AbstractMap<String, V> {
+
+    private Slots slots;
+    private Map<String, V> entries = null;
+
+    TinkerPropertyMap(final TinkerShape root) {
+        this.slots = new Slots(root, Slots.NO_VALUES);
+    }
+
+    @Override
+    public int size() {
+        return null == this.entries ? this.slots.shape.size() : this.entries.size();
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return null == this.entries ? this.slots.shape.slot(key) >= 0 : this.entries.containsKey(key);
+    }
+
+    @Override
+    public V get(final Object key) {
+        if (null != this.entries) return this.entries.get(key);
+        final Slots slots = this.slots;
+        final int slot = slots.shape.slot(key);
+        return slot < 0 ? null : (V) slots.values[slot];
+    }
+
+    @Override
+    public V put(final String key, final V value) {
+        if (null != this.entries) return this.entries.put(key, value);
+
+        final Slots slots = this.slots;
+        final int slot = slots.shape.slot(key);
+        if (slot >= 0) {
+            final V old = (V) slots.values[slot];
+            slots.values[slot] = value;
+            return old;
+        }
+
+        final TinkerShape next = slots.shape.with(key);
+        if (null == next) {
+            toEntries().put(key, value);
+            return null;
+        }
+
+        // elements rarely gain more than a few properties after they are added so the array is sized exactly
+        final Object[] values = Arrays.copyOf(slots.values, next.size());
+        values[next.size() - 1] = value;
+        this.slots = new Slots(next, values);
+        return null;
+    }
+
+    @Override
+    public V remove(final Object key) {
+        if (null != this.entries) return this.entries.remove(key);
+
+        final Slots slots = this.slots;
+        final int slot = slots.shape.slot(key);
+        if (slot < 0) return null;
+        final V old = (V) slots.values[slot];
+        removeSlot(slots, slot);
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        this.slots = new Slots(this.slots.shape.empty(), Slots.NO_VALUES);
+        this.entries = null;
+    }
+
+    @Override
+    public void forEach(final BiConsumer<? super String, ? super V> action) {
+        if (null != this.entries) {
+            this.entries.forEach(action);
+            return;
+        }
+        final Slots slots = this.slots;
+        for (int i = 0; i < slots.values.length; i++) {
+            action.accept(slots.shape.key(i), (V) slots.values[i]);
+        }
+    }
+
+    @Override
+    public Set<Entry<String, V>> entrySet() {
+        if (null != this.entries) return this.entries.entrySet();
+        return new AbstractSet<Entry<String, V>>() {
+            @Override
+            public Iterator<Entry<String, V>> iterator() {
+                return new SlotIterator(TinkerPropertyMap.this.slots);
+            }
+
+            @Override
+            public int size() {
+                return TinkerPropertyMap.this.size();
+            }
+        };
+    }
+
+    private void removeSlot(final Slots slots, final int slot) {
+        final TinkerShape next = slots.shape.without(slot);
+        if (null == next) {
+            toEntries().remove(slots.shape.key(slot));
+            return;
+        }
+
+        final Object[] values = 1 == slots.values.length ? Slots.NO_VALUES : new Object[slots.values.length - 1];
+        System.arraycopy(slots.values, 0, values, 0, slot);
+        System.arraycopy(slots.values, slot + 1, values, slot, slots.values.length - slot - 1);
+        this.slots = new Slots(next, values);
+    }
+
+    private Map<String, V> toEntries() {
+        final Slots slots = this.slots;
+        final Map<String, V> entries = new HashMap<>();
+        for (int i = 0; i < slots.values.length; i++) {
+            entries.put(slots.shape.key(i), (V) slots.values[i]);
+        }
+        this.entries = entries;
+        this.slots = new Slots(slots.shape.empty(), Slots.NO_VALUES);
+        return entries;
+    }
+
+    /**
+     * A shape and the values in its slots, which are only ever replaced together.
+     */
+    private static final class Slots {
+        private static final Object[] NO_VALUES = new Object[0];
+
+        private final TinkerShape shape;
+        private final Object[] values;
+
+        private Slots(final TinkerShape shape, final Object[] values) {
+            this.shape = shape;
+            this.values = values;
+        }
+    }
+
+    /**
+     * Iterates the slots the map had when the iterator was created, so that removing an entry, which replaces the
+     * slots of the map or moves its entries to a {@code HashMap}, does not disturb the iteration.
+     */
+    private final class SlotIterator implements Iterator<Entry<String, V>> {
+        private final Slots slots;
+        private int next = 0;
+        private int last = -1;
+
+        private SlotIterator(final Slots slots) {
+            this.slots = slots;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.next < this.slots.values.length;
+        }
+
+        @Override
+        public Entry<String, V> next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            this.last = this.next++;
+            return new SimpleEntry<String, V>(this.slots.shape.key(this.last), (V) this.slots.values[this.last]) {
+                @Override
+                public V setValue(final V value) {
+                    put(getKey(), value);
+                    return super.setValue(value);
+                }
+            };
+        }
+
+        @Override
+        public void remove() {
+            if (this.last < 0) throw new IllegalStateException();
+            TinkerPropertyMap.this.remove(this.slots.shape.key(this.last));
+            this.last = -1;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The ordered set of property keys shared by the {@link TinkerPropertyMap} of every element that was given the same
+ * keys in the same order, which maps each key to the slot holding its value. Shapes form a tree from an empty root in
+ * which each child adds one key, so elements that are built alike arrive at the same shape without comparing key sets.
+ * <p/>
+ * The root also holds the dictionary that interns the keys and labels of a graph, so that each distinct string is held
+ * once however many elements use it. As a graph whose elements each have distinct keys would create a shape for every
+ * element, the number of shapes and interned strings is bounded, beyond which maps hold their keys themselves.
+ */
+final class TinkerShape {
+
+    /**
+     * The number of keys up to which a key is found by scanning the keys rather than by hashing.
+     */
+    private static final int SCAN_LIMIT = 8;
+
+    static final int MAX_SHAPES = 1 << 16;
+    static final int MAX_KEYS = 64;
+    static final int MAX_INTERNED = 1 << 20;
+
+    private final TinkerShape root;
+    private final String[] keys;
+    private final Map<String, Integer> slots;
+    private final ConcurrentMap<String, TinkerShape> transitions = new ConcurrentHashMap<>(2);
+
+    // only used by the root
+    private final ConcurrentMap<String, String> strings;
+    private final AtomicInteger shapes;
+
+    private TinkerShape() {
+        this.root = this;
+        this.keys = new String[0];
+        this.slots = null;
+        this.strings = new ConcurrentHashMap<>();
+        this.shapes = new AtomicInteger(1);
+    }
+
+    private TinkerShape(final TinkerShape root, final String[] keys) {
+        this.root = root;
+        this.keys = keys;
+        if (keys.length > SCAN_LIMIT) {
+            this.slots = new HashMap<>(keys.length * 2);
+            for (int i = 0; i < keys.length; i++) {
+                this.slots.put(keys[i], i);
+            }
+        } else {
+            this.slots = null;
+        }
+        this.strings = null;
+        this.shapes = null;
+    }
+
+    /**
+     * Creates the empty shape at the root of the shapes of a graph.
+     */
+    static TinkerShape root() {
+        return new TinkerShape();
+    }
+
+    /**
+     * Gets the instance of the string held by the dictionary, adding it if there is room.
+     */
+    String intern(final String value) {
+        if (null == value) return null;
+        final ConcurrentMap<String, String> strings = this.root.strings;
+        final String interned = strings.get(value);
+        if (null != interned) return interned;
+        if (strings.size() >= MAX_INTERNED) return value;
+        final String existing = strings.putIfAbsent(value, value);
+        return null == existing ? value : existing;
+    }
+
+    /**
+     * Gets the root of the tree this shape belongs to.
+     */
+    TinkerShape empty() {
+        return this.root;
+    }
+
+    int size() {
+        return this.keys.length;
+    }
+
+    String key(final int slot) {
+        return this.keys[slot];
+    }
+
+    /**
+     * Gets the slot of the key or {@code -1} if the shape does not have the key.
+     */
+    int slot(final Object key) {
+        if (null != this.slots) {
+            final Integer slot = this.slots.get(key);
+            return null == slot ? -1 : slot;
+        }
+
+        // keys given to the graph are usually the interned instances so check identity before equality
+        for (int i = 0; i < this.keys.length; i++) {
+            if (this.keys[i] == key) return i;
+        }
+        for (int i = 0; i < this.keys.length; i++) {
+            if (this.keys[i].equals(key)) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the shape with the key added after the keys of this shape or {@code null} if the limit on shapes has been
+     * reached and there is not already such a shape.
+     */
+    TinkerShape with(final String key) {
+        final TinkerShape shape = this.transitions.get(key);
+        if (null != shape) return shape;
+        if (this.keys.length >= MAX_KEYS || this.root.shapes.get() >= MAX_SHAPES) return null;
+
+        final String[] keys = Arrays.copyOf(this.keys, this.keys.length + 1);
+        keys[this.keys.length] = intern(key);
+        final TinkerShape created = new TinkerShape(this.root, keys);
+        final TinkerShape existing = this.transitions.putIfAbsent(keys[this.keys.length], created);
+        if (null != existing) return existing;
+        this.root.shapes.incrementAndGet();
+        return created;
+    }
+
+    /**
+     * Gets the shape with the key at the slot removed or {@code null} if the limit on shapes has been reached.
+     */
+    TinkerShape without(final int slot) {
+        TinkerShape shape = this.root;
+        for (int i = 0; i < this.keys.length && null != shape; i++) {
+            if (i != slot) shape = shape.with(this.keys[i]);
+        }
+        return shape;
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.io.binary.GraphBinaryReader;
+import org.apache.tinkerpop.gremlin.structure.io.binary.GraphBinaryWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * A binary format for persisting a {@link TinkerGraph} that is laid out to be read through memory mapping and decoded
+ * on all cores, so that opening a large graph is limited by the speed of the disk rather than by deserializing one
+ * element at a time.
+ * <p/>
+ * The file holds a sequence of vertex chunks, then a sequence of edge chunks, then a footer with the offset and
+ * length of every chunk and finally a trailer with the offset of the footer and a magic number. Each chunk is a
+ * self-contained run of GraphBinary encoded records of roughly {@link #CHUNK_SIZE} bytes. A vertex record has the
+ * identifier, the label and the vertex properties along with their meta-properties and an edge record has the
+ * identifier, the label, the identifiers of the out and in vertices and the properties. The chunks of each section are
+ * mapped and decoded into elements that are added to the graph in parallel, after which the edges are added to the
+ * adjacency of their vertices.
+ */
+final class TinkerSnapshot {
+
+    /**
+     * The value of {@link TinkerGraph#GREMLIN_TINKERGRAPH_GRAPH_FORMAT} for this format.
+     */
+    static final String FORMAT = "snapshot";
+
+    static final int CHUNK_SIZE = 4 * 1024 * 1024;
+
+    // "TGSNAP01"
+    private static final long MAGIC = 0x5447534e41503031L;
+    private static final int TRAILER_LENGTH = 16;
+
+    private TinkerSnapshot() {}
+
+    static void write(final TinkerGraph graph, final File file) throws IOException {
+        write(graph, file, CHUNK_SIZE);
+    }
+
+    static void write(final TinkerGraph graph, final File file, final int chunkSize) throws IOException {
+        final GraphBinaryWriter writer = new GraphBinaryWriter();
+        final TinkerLogBuffer chunk = new TinkerLogBuffer(chunkSize + 1024);
+        try (FileChannel out = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            final List<long[]> vertexChunks = new ArrayList<>();
+            for (Vertex vertex : graph.vertices.values()) {
+                writeVertex(writer, (TinkerVertex) vertex, chunk);
+                if (chunk.writerIndex() >= chunkSize) writeChunk(out, chunk, vertexChunks);
+            }
+            writeChunk(out, chunk, vertexChunks);
+
+            final List<long[]> edgeChunks = new ArrayList<>();
+            for (Edge edge : graph.edges.values()) {
+                writeEdge(writer, (TinkerEdge) edge, chunk);
+                if (chunk.writerIndex() >= chunkSize) writeChunk(out, chunk, edgeChunks);
+            }
+            writeChunk(out, chunk, edgeChunks);
+
+            final long footerOffset = out.position();
+            writeChunkTable(chunk, vertexChunks);
+            writeChunkTable(chunk, edgeChunks);
+            chunk.writeLong(footerOffset);
+            chunk.writeLong(MAGIC);
+            writeFully(out, chunk.written());
+            chunk.clear();
+        }
+    }
+
+    static void read(final TinkerGraph graph, final File file) throws IOException {
+        final GraphBinaryReader reader = new GraphBinaryReader();
+        try (FileChannel in = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final long size = in.size();
+            if (size < TRAILER_LENGTH)
+                throw new IOException(String.format("%s is not a TinkerGraph snapshot", file));
+            final ByteBuffer trailer = in.map(FileChannel.MapMode.READ_ONLY, size - TRAILER_LENGTH, TRAILER_LENGTH);
+            final long footerOffset = trailer.getLong(0);
+            if (trailer.getLong(8) != MAGIC || footerOffset < 0 || footerOffset > size - TRAILER_LENGTH)
+                throw new IOException(String.format("%s is not a TinkerGraph snapshot", file));
+
+            final ByteBuffer footer = in.map(FileChannel.MapMode.READ_ONLY, footerOffset, size - TRAILER_LENGTH - footerOffset);
+            final List<long[]> vertexChunks = readChunkTable(footer);
+            final List<long[]> edgeChunks = readChunkTable(footer);
+
+            // vertices are registered as they are decoded but must all be in the graph before the edges that refer to
+            // them are decoded
+            readChunks(in, vertexChunks, buffer -> {
+                final TinkerVertex vertex = readVertex(reader, graph, buffer);
+                TinkerHelper.registerVertex(graph, vertex, null);
+                return vertex;
+            });
+
+            // edges are registered in the order they were written so that the adjacency of each vertex keeps its order
+            final List<List<TinkerEdge>> edgeChunkElements = readChunks(in, edgeChunks, buffer -> readEdge(reader, graph, buffer));
+            for (List<TinkerEdge> edges : edgeChunkElements) {
+                for (TinkerEdge edge : edges) {
+                    TinkerHelper.registerEdge(graph, edge, null);
+                }
+            }
+        }
+    }
+
+    private static void writeVertex(final GraphBinaryWriter writer, final TinkerVertex vertex, final TinkerLogBuffer buffer) throws IOException {
+        writer.write(vertex.id, buffer);
+        writer.write(vertex.label, buffer);
+        final List<VertexProperty> vertexProperties = new ArrayList<>();
+        if (null != vertex.properties) vertex.properties.values().forEach(vertexProperties::addAll);
+        buffer.writeInt(vertexProperties.size());
+        for (VertexProperty<?> vertexProperty : vertexProperties) {
+            writer.write(vertexProperty.id(), buffer);
+            writer.write(vertexProperty.key(), buffer);
+            writer.write(vertexProperty.value(), buffer);
+            final Map<String, Property> metaProperties = ((TinkerVertexProperty<?>) vertexProperty).properties;
+            writeProperties(writer, null == metaProperties ? null : metaProperties.values(), buffer);
+        }
+    }
+
+    private static void writeEdge(final GraphBinaryWriter writer, final TinkerEdge edge, final TinkerLogBuffer buffer) throws IOException {
+        writer.write(edge.id, buffer);
+        writer.write(edge.label, buffer);
+        writer.write(edge.outVertex.id(), buffer);
+        writer.write(edge.inVertex.id(), buffer);
+        writeProperties(writer, null == edge.properties ? null : edge.properties.values(), buffer);
+    }
+
+    private static void writeProperties(final GraphBinaryWriter writer, final Iterable<Property> properties, final TinkerLogBuffer buffer) throws IOException {
+        final int countIndex = buffer.writerIndex();
+        buffer.writeInt(0);
+        if (null == properties) return;
+
+        int count = 0;
+        for (Property<?> property : properties) {
+            writer.write(property.key(), buffer);
+            writer.write(property.value(), buffer);
+            count++;
+        }
+        final int endIndex = buffer.writerIndex();
+        buffer.writerIndex(countIndex);
+        buffer.writeInt(count);
+        buffer.writerIndex(endIndex);
+    }
+
+    private static TinkerVertex readVertex(final GraphBinaryReader reader, final TinkerGraph graph, final TinkerLogBuffer buffer) throws IOException {
+        final Object id = reader.read(buffer);
+        final String label = reader.read(buffer);
+        final TinkerVertex vertex = new TinkerVertex(id, label, graph);
+        final int vertexPropertyCount = buffer.readInt();
+        if (vertexPropertyCount > 0) vertex.properties = new TinkerPropertyMap<>(graph.shapes);
+        for (int i = 0; i < vertexPropertyCount; i++) {
+            final Object vertexPropertyId = reader.read(buffer);
+            final String key = reader.read(buffer);
+            final TinkerVertexProperty<Object> vertexProperty = new TinkerVertexProperty<>(vertexPropertyId, vertex, key, reader.read(buffer));
+            final int metaPropertyCount = buffer.readInt();
+            if (metaPropertyCount > 0) vertexProperty.properties = new TinkerPropertyMap<>(graph.shapes);
+            for (int j = 0; j < metaPropertyCount; j++) {
+                final String metaKey = reader.read(buffer);
+                vertexProperty.properties.put(metaKey, new TinkerProperty<>(vertexProperty, metaKey, reader.read(buffer)));
+            }
+            vertex.properties.computeIfAbsent(key, k -> new ArrayList<>()).add(vertexProperty);
+        }
+        return vertex;
+    }
+
+    private static TinkerEdge readEdge(final GraphBinaryReader reader, final TinkerGraph graph, final TinkerLogBuffer buffer) throws IOException {
+        final Object id = reader.read(buffer);
+        final String label = reader.read(buffer);
+        final Object outId = reader.read(buffer);
+        final Object inId = reader.read(buffer);
+        final Vertex outVertex = graph.vertices.get(outId);
+        final Vertex inVertex = graph.vertices.get(inId);
+        if (null == outVertex || null == inVertex)
+            throw new IOException(String.format("The edge %s refers to a vertex that is not in the snapshot", id));
+
+        final TinkerEdge edge = new TinkerEdge(id, outVertex, label, inVertex);
+        final int propertyCount = buffer.readInt();
+        if (propertyCount > 0) edge.properties = new TinkerPropertyMap<>(graph.shapes);
+        for (int i = 0; i < propertyCount; i++) {
+            final String key = reader.read(buffer);
+            edge.properties.put(key, new TinkerProperty<>(edge, key, reader.read(buffer)));
+        }
+        return edge;
+    }
+
+    private static void writeChunk(final FileChannel out, final TinkerLogBuffer chunk, final List<long[]> chunks) throws IOException {
+        if (chunk.writerIndex() == 0) return;
+        chunks.add(new long[]{out.position(), chunk.writerIndex()});
+        writeFully(out, chunk.written());
+        chunk.clear();
+    }
+
+    private static void writeChunkTable(final TinkerLogBuffer buffer, final List<long[]> chunks) {
+        buffer.writeInt(chunks.size());
+        for (long[] chunk : chunks) {
+            buffer.writeLong(chunk[0]);
+            buffer.writeInt((int) chunk[1]);
+        }
+    }
+
+    private static List<long[]> readChunkTable(final ByteBuffer footer) {
+        final int count = footer.getInt();
+        final List<long[]> chunks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            chunks.add(new long[]{footer.getLong(), footer.getInt()});
+        }
+        return chunks;
+    }
+
+    /**
+     * Maps each of the chunks and decodes them in parallel, returning the elements of each chunk in file order.
+     */
+    private static <T> List<List<T>> readChunks(final FileChannel in, final List<long[]> chunks,
+                                                final RecordDecoder<T> decoder) {
+        return IntStream.range(0, chunks.size()).parallel().mapToObj(i -> {
+            final long[] chunk = chunks.get(i);
+            try {
+                final ByteBuffer mapped = in.map(FileChannel.MapMode.READ_ONLY, chunk[0], chunk[1]);
+                final TinkerLogBuffer buffer = new TinkerLogBuffer(mapped);
+                final List<T> elements = new ArrayList<>();
+                while (buffer.readableBytes() > 0) {
+                    elements.add(decoder.decode(buffer));
+                }
+                return elements;
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }).collect(Collectors.toList());
+    }
+
+    private static void writeFully(final FileChannel out, final ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            out.write(bytes);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RecordDecoder<T> {
+        T decode(final TinkerLogBuffer buffer) throws IOException;
+    }
+}
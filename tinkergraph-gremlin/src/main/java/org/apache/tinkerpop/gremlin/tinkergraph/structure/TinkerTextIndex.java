@@ -0,0 +1,309 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Property;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * An inverted index over the tokens of the {@code String} values of a single property key. Values are split into
+ * lower-cased terms on any character that is not a letter or a digit and each term maps to the elements containing it
+ * along with the number of times it occurs. The terms are kept sorted so that prefix queries can read a contiguous
+ * range of them.
+ * <p/>
+ * The terms of each element are tracked so that it can be re-indexed from its current values, which keeps the index
+ * correct for vertices that have several values for the key, and so that it can be removed without a scan. The number
+ * of terms in the values of each element is kept with them so that scoring does not recount it for every posting.
+ */
+final class TinkerTextIndex<T extends Element> {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final String key;
+    private final ConcurrentNavigableMap<String, Map<T, Integer>> postings = new ConcurrentSkipListMap<>();
+    private final Map<T, Document> documents = new ConcurrentHashMap<>();
+
+    TinkerTextIndex(final String key) {
+        this.key = key;
+    }
+
+    /**
+     * Re-indexes the element from its current values for the key.
+     */
+    public void update(final T element) {
+        final Map<String, Integer> current = new HashMap<>();
+        final Iterator<? extends Property<Object>> properties = element.properties(this.key);
+        while (properties.hasNext()) {
+            final Property<Object> property = properties.next();
+            if (property.isPresent() && property.value() instanceof String) {
+                for (String term : tokenize((String) property.value())) {
+                    current.merge(term, 1, Integer::sum);
+                }
+            }
+        }
+
+        final Document previous = current.isEmpty() ? this.documents.remove(element) : this.documents.put(element, new Document(current));
+        if (null != previous) {
+            for (String term : previous.terms.keySet()) {
+                if (!current.containsKey(term))
+                    removePosting(term, element);
+            }
+        }
+        for (Map.Entry<String, Integer> entry : current.entrySet()) {
+            this.postings.computeIfAbsent(entry.getKey(), k -> new ConcurrentHashMap<>()).put(element, entry.getValue());
+        }
+    }
+
+    public void remove(final T element) {
+        final Document previous = this.documents.remove(element);
+        if (null != previous) {
+            for (String term : previous.terms.keySet()) {
+                removePosting(term, element);
+            }
+        }
+    }
+
+    public void clear() {
+        this.postings.clear();
+        this.documents.clear();
+    }
+
+    /**
+     * Gets the elements matching the query with their scores ordered by descending score, where the score of an
+     * element is the sum of the tf-idf weights of the query terms it contains normalized by the number of terms in its
+     * values.
+     *
+     * @param limit the maximum number of elements to return or a non-positive number to return all of them
+     */
+    public List<Map.Entry<T, Double>> search(final Query query, final int limit) {
+        Map<T, Double> required = null;
+        final Map<T, Double> optional = new HashMap<>();
+        for (Query.Clause clause : query.clauses) {
+            if (clause.occur == Query.Occur.MUST) {
+                final Map<T, Double> matches = this.score(clause);
+                required = null == required ? matches : intersect(required, matches);
+            } else if (clause.occur == Query.Occur.SHOULD) {
+                this.score(clause).forEach((element, score) -> optional.merge(element, score, Double::sum));
+            }
+        }
+
+        // optional terms only add to the score of required matches but are themselves the matches otherwise
+        final Map<T, Double> candidates;
+        if (null == required) {
+            candidates = optional;
+        } else {
+            candidates = required;
+            optional.forEach((element, score) -> candidates.computeIfPresent(element, (k, v) -> v + score));
+        }
+
+        for (Query.Clause clause : query.clauses) {
+            if (clause.occur == Query.Occur.MUST_NOT)
+                this.score(clause).keySet().forEach(candidates::remove);
+        }
+
+        return topK(candidates, limit);
+    }
+
+    /**
+     * Determines if the value matches the query, ignoring the scores.
+     */
+    public static boolean matches(final Query query, final String value) {
+        final List<String> terms = tokenize(value);
+        boolean anyRequired = false;
+        boolean matchedOptional = false;
+        for (Query.Clause clause : query.clauses) {
+            final boolean found = terms.stream().anyMatch(clause::matches);
+            switch (clause.occur) {
+                case MUST:
+                    if (!found) return false;
+                    anyRequired = true;
+                    break;
+                case MUST_NOT:
+                    if (found) return false;
+                    break;
+                default:
+                    matchedOptional |= found;
+            }
+        }
+        return anyRequired || matchedOptional;
+    }
+
+    static List<String> tokenize(final String value) {
+        final List<String> terms = new ArrayList<>();
+        for (String term : TOKEN_SEPARATOR.split(value.toLowerCase(Locale.ROOT))) {
+            if (!term.isEmpty()) terms.add(term);
+        }
+        return terms;
+    }
+
+    private Map<T, Double> score(final Query.Clause clause) {
+        final Map<T, Double> scores = new HashMap<>();
+        final Map<String, Map<T, Integer>> terms;
+        if (clause.prefix) {
+            terms = this.postings.subMap(clause.term, true, clause.term + Character.MAX_VALUE, true);
+        } else {
+            final Map<T, Integer> elements = this.postings.get(clause.term);
+            terms = null == elements ? Collections.emptyMap() : Collections.singletonMap(clause.term, elements);
+        }
+
+        final double documentCount = this.documents.size();
+        for (Map<T, Integer> elements : terms.values()) {
+            final double idf = Math.log(1.0d + documentCount / Math.max(1, elements.size()));
+            for (Map.Entry<T, Integer> posting : elements.entrySet()) {
+                final Document document = this.documents.get(posting.getKey());
+                final int length = null == document ? 1 : document.length;
+                scores.merge(posting.getKey(), posting.getValue() * idf / Math.sqrt(length), Double::sum);
+            }
+        }
+        return scores;
+    }
+
+    private static <T> Map<T, Double> intersect(final Map<T, Double> a, final Map<T, Double> b) {
+        final Map<T, Double> intersection = new HashMap<>();
+        final Map<T, Double> smaller = a.size() <= b.size() ? a : b;
+        final Map<T, Double> larger = smaller == a ? b : a;
+        for (Map.Entry<T, Double> entry : smaller.entrySet()) {
+            final Double other = larger.get(entry.getKey());
+            if (null != other) intersection.put(entry.getKey(), entry.getValue() + other);
+        }
+        return intersection;
+    }
+
+    private static <T> List<Map.Entry<T, Double>> topK(final Map<T, Double> scores, final int limit) {
+        final Comparator<Map.Entry<T, Double>> byScore = Map.Entry.comparingByValue();
+        final List<Map.Entry<T, Double>> ranked;
+        if (limit > 0 && limit < scores.size()) {
+            // keep the best k in a min-heap so that the lowest scoring of them is the one to evict
+            final PriorityQueue<Map.Entry<T, Double>> heap = new PriorityQueue<>(limit, byScore);
+            for (Map.Entry<T, Double> entry : scores.entrySet()) {
+                if (heap.size() < limit) {
+                    heap.add(entry);
+                } else if (entry.getValue() > heap.peek().getValue()) {
+                    heap.poll();
+                    heap.add(entry);
+                }
+            }
+            ranked = new ArrayList<>(heap);
+        } else {
+            ranked = new ArrayList<>(scores.entrySet());
+        }
+        ranked.sort(byScore.reversed());
+        return ranked;
+    }
+
+    private void removePosting(final String term, final T element) {
+        final Map<T, Integer> elements = this.postings.get(term);
+        if (null != elements) {
+            elements.remove(element);
+            if (elements.isEmpty())
+                this.postings.remove(term, elements);
+        }
+    }
+
+    /**
+     * The number of times each term occurs in the values of an element along with the total number of terms.
+     */
+    private static final class Document {
+        private final Map<String, Integer> terms;
+        private final int length;
+
+        private Document(final Map<String, Integer> terms) {
+            this.terms = terms;
+            int length = 0;
+            for (int count : terms.values()) {
+                length += count;
+            }
+            this.length = length;
+        }
+    }
+
+    /**
+     * A parsed text query made of whitespace separated terms. A term prefixed with {@code +} must occur, a term
+     * prefixed with {@code -} must not occur and any other term should occur, where at least one of those should occur
+     * if no term is required. A term ending with {@code *} matches any term starting with it. Terms are tokenized like
+     * indexed values, so a query term that splits into several tokens requires all of them.
+     */
+    public static final class Query {
+
+        enum Occur { MUST, SHOULD, MUST_NOT }
+
+        private final List<Clause> clauses = new ArrayList<>();
+
+        private Query() {}
+
+        public static Query parse(final String query) {
+            final Query parsed = new Query();
+            for (String token : query.trim().split("\\s+")) {
+                if (token.isEmpty()) continue;
+
+                Occur occur = Occur.SHOULD;
+                if (token.charAt(0) == '+') {
+                    occur = Occur.MUST;
+                    token = token.substring(1);
+                } else if (token.charAt(0) == '-') {
+                    occur = Occur.MUST_NOT;
+                    token = token.substring(1);
+                }
+
+                final boolean prefix = token.endsWith("*");
+                if (prefix) token = token.substring(0, token.length() - 1);
+
+                final List<String> terms = tokenize(token);
+                if (terms.size() > 1 && occur == Occur.SHOULD) occur = Occur.MUST;
+                for (int i = 0; i < terms.size(); i++) {
+                    parsed.clauses.add(new Clause(terms.get(i), occur, prefix && i == terms.size() - 1));
+                }
+            }
+
+            if (parsed.clauses.stream().allMatch(c -> c.occur == Occur.MUST_NOT))
+                throw new IllegalArgumentException("The query must contain at least one term that is not excluded: " + query);
+            return parsed;
+        }
+
+        private static final class Clause {
+            private final String term;
+            private final Occur occur;
+            private final boolean prefix;
+
+            private Clause(final String term, final Occur occur, final boolean prefix) {
+                this.term = term;
+                this.occur = occur;
+                this.prefix = prefix;
+            }
+
+            private boolean matches(final String token) {
+                return this.prefix ? token.startsWith(this.term) : token.equals(this.term);
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Transaction;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.AbstractThreadLocalTransaction;
+import org.apache.tinkerpop.gremlin.structure.util.TransactionException;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerElementContainer.EdgeState;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerElementContainer.VertexState;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@link Transaction} of a {@link TinkerTransactionGraph}, which is bound to the thread that opened it. A
+ * transaction reads the graph as it was committed when the transaction opened along with its own changes, which are
+ * held privately until commit. Reading never takes a lock, so readers neither wait for nor delay writers, and commit
+ * fails with a {@link TransactionException} if another transaction committed a change to the same element after this
+ * one opened.
+ */
+public final class TinkerTransaction extends AbstractThreadLocalTransaction {
+
+    private final TinkerTransactionGraph graph;
+    private final ThreadLocal<Context> context = new ThreadLocal<>();
+
+    TinkerTransaction(final TinkerTransactionGraph graph) {
+        super(graph);
+        this.graph = graph;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return null != this.context.get();
+    }
+
+    @Override
+    protected void doOpen() {
+        this.context.set(this.graph.begin());
+    }
+
+    @Override
+    protected void doCommit() throws TransactionException {
+        final Context current = this.context.get();
+        // the transaction no longer reads once it commits so it need not hold back the versions its commit replaces
+        this.graph.end(current);
+        try {
+            this.graph.commit(current);
+        } finally {
+            this.context.remove();
+        }
+    }
+
+    @Override
+    protected void doRollback() throws TransactionException {
+        final Context current = this.context.get();
+        this.graph.end(current);
+        this.context.remove();
+    }
+
+    /**
+     * Gets the context of the transaction of the current thread, opening one as the read-write behavior requires.
+     */
+    Context context() {
+        readWrite();
+        final Context current = this.context.get();
+        if (null == current)
+            throw Transaction.Exceptions.transactionMustBeOpenToReadWrite();
+        return current;
+    }
+
+    /**
+     * The snapshot a transaction reads along with the changes it has made. A changed element maps to its new state,
+     * or to {@code null} if it was removed, and elements added by the transaction are held by identifier as they are
+     * not in the graph until commit.
+     */
+    static final class Context {
+        long startTime;
+
+        final Map<TinkerElementContainer.Vertex, VertexState> vertices = new LinkedHashMap<>();
+        final Map<TinkerElementContainer.Edge, EdgeState> edges = new LinkedHashMap<>();
+        final Map<Object, TinkerElementContainer.Vertex> addedVertices = new HashMap<>();
+        final Map<Object, TinkerElementContainer.Edge> addedEdges = new HashMap<>();
+        final Map<TinkerElementContainer.Vertex, List<TinkerElementContainer.Edge>> addedOutEdges = new HashMap<>();
+        final Map<TinkerElementContainer.Vertex, List<TinkerElementContainer.Edge>> addedInEdges = new HashMap<>();
+
+        boolean isReadOnly() {
+            return this.vertices.isEmpty() && this.edges.isEmpty();
+        }
+
+        boolean isAdded(final TinkerElementContainer.Vertex container) {
+            return this.addedVertices.get(container.id) == container;
+        }
+
+        boolean isAdded(final TinkerElementContainer.Edge container) {
+            return this.addedEdges.get(container.id) == container;
+        }
+
+        VertexState read(final TinkerElementContainer.Vertex container) {
+            return this.vertices.containsKey(container) ? this.vertices.get(container) : container.stateAt(this.startTime);
+        }
+
+        EdgeState read(final TinkerElementContainer.Edge container) {
+            return this.edges.containsKey(container) ? this.edges.get(container) : container.stateAt(this.startTime);
+        }
+
+        /**
+         * Gets the state of the vertex that the transaction may change, copying the committed state on first change.
+         */
+        VertexState write(final TinkerElementContainer.Vertex container) {
+            VertexState state = this.vertices.get(container);
+            if (null == state) {
+                if (this.vertices.containsKey(container) || null == (state = container.stateAt(this.startTime)))
+                    throw TinkerElement.elementAlreadyRemoved(Vertex.class, container.id);
+                state = state.copy();
+                this.vertices.put(container, state);
+            }
+            return state;
+        }
+
+        EdgeState write(final TinkerElementContainer.Edge container) {
+            EdgeState state = this.edges.get(container);
+            if (null == state) {
+                if (this.edges.containsKey(container) || null == (state = container.stateAt(this.startTime)))
+                    throw TinkerElement.elementAlreadyRemoved(Edge.class, container.id);
+                state = state.copy();
+                this.edges.put(container, state);
+            }
+            return state;
+        }
+
+        void add(final TinkerElementContainer.Vertex container) {
+            this.addedVertices.put(container.id, container);
+            this.vertices.put(container, new VertexState());
+        }
+
+        void add(final TinkerElementContainer.Edge container) {
+            this.addedEdges.put(container.id, container);
+            this.edges.put(container, new EdgeState());
+            this.addedOutEdges.computeIfAbsent(container.outVertex, v -> new ArrayList<>()).add(container);
+            this.addedInEdges.computeIfAbsent(container.inVertex, v -> new ArrayList<>()).add(container);
+        }
+
+        void remove(final TinkerElementContainer.Vertex container) {
+            this.vertices.put(container, null);
+        }
+
+        void remove(final TinkerElementContainer.Edge container) {
+            this.edges.put(container, null);
+        }
+    }
+}
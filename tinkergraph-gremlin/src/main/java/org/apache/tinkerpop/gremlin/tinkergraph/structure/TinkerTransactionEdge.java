@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerElementContainer.EdgeState;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An {@link Edge} of a {@link TinkerTransactionGraph}, which reads and changes the edge as the transaction of the
+ * current thread sees it.
+ */
+public final class TinkerTransactionEdge implements Edge {
+
+    private final TinkerTransactionGraph graph;
+    final TinkerElementContainer.Edge container;
+
+    TinkerTransactionEdge(final TinkerTransactionGraph graph, final TinkerElementContainer.Edge container) {
+        this.graph = graph;
+        this.container = container;
+    }
+
+    @Override
+    public Object id() {
+        return this.container.id;
+    }
+
+    @Override
+    public String label() {
+        return this.container.label;
+    }
+
+    @Override
+    public Graph graph() {
+        return this.graph;
+    }
+
+    @Override
+    public Vertex outVertex() {
+        return new TinkerTransactionVertex(this.graph, this.container.outVertex);
+    }
+
+    @Override
+    public Vertex inVertex() {
+        return new TinkerTransactionVertex(this.graph, this.container.inVertex);
+    }
+
+    @Override
+    public Iterator<Vertex> vertices(final Direction direction) {
+        switch (direction) {
+            case OUT:
+                return IteratorUtils.of(outVertex());
+            case IN:
+                return IteratorUtils.of(inVertex());
+            default:
+                return IteratorUtils.of(outVertex(), inVertex());
+        }
+    }
+
+    @Override
+    public <V> Property<V> property(final String key) {
+        final EdgeState state = read();
+        return null == state || !state.properties.containsKey(key) ?
+                Property.empty() :
+                new TinkerTransactionProperty<>(this, key, (V) state.properties.get(key));
+    }
+
+    @Override
+    public <V> Property<V> property(final String key, final V value) {
+        final TinkerTransaction.Context context = this.graph.transaction().context();
+        if (null == context.read(this.container)) throw TinkerElement.elementAlreadyRemoved(Edge.class, id());
+        ElementHelper.validateProperty(key, value);
+
+        if (!this.graph.allowNullPropertyValues && null == value) {
+            properties(key).forEachRemaining(Property::remove);
+            return Property.empty();
+        }
+
+        context.write(this.container).properties.put(key, value);
+        return new TinkerTransactionProperty<>(this, key, value);
+    }
+
+    @Override
+    public <V> Iterator<Property<V>> properties(final String... propertyKeys) {
+        final EdgeState state = read();
+        if (null == state) return Collections.emptyIterator();
+        final List<Property<V>> properties = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : state.properties.entrySet()) {
+            if (ElementHelper.keyExists(entry.getKey(), propertyKeys))
+                properties.add(new TinkerTransactionProperty<>(this, entry.getKey(), (V) entry.getValue()));
+        }
+        return properties.iterator();
+    }
+
+    @Override
+    public Set<String> keys() {
+        final EdgeState state = read();
+        return null == state ? Collections.emptySet() : Collections.unmodifiableSet(state.properties.keySet());
+    }
+
+    @Override
+    public void remove() {
+        final TinkerTransaction.Context context = this.graph.transaction().context();
+        if (null != context.read(this.container)) context.remove(this.container);
+    }
+
+    void removeProperty(final String key) {
+        final TinkerTransaction.Context context = this.graph.transaction().context();
+        if (null != context.read(this.container)) context.write(this.container).properties.remove(key);
+    }
+
+    private EdgeState read() {
+        return this.graph.transaction().context().read(this.container);
+    }
+
+    @Override
+    public boolean equals(final Object object) {
+        return ElementHelper.areEqual(this, object);
+    }
+
+    @Override
+    public int hashCode() {
+        return ElementHelper.hashCode(this);
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.edgeString(this);
+    }
+}
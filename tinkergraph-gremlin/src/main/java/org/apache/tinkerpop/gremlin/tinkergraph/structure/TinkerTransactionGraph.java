@@ -0,0 +1,666 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Transaction;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.apache.tinkerpop.gremlin.structure.util.TransactionException;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerElementContainer.EdgeState;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerElementContainer.VertexState;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+
+import static org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph.GREMLIN_TINKERGRAPH_ALLOW_NULL_PROPERTY_VALUES;
+import static org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph.GREMLIN_TINKERGRAPH_DEFAULT_VERTEX_PROPERTY_CARDINALITY;
+
+/**
+ * An in-memory, transactional variant of {@link TinkerGraph} that uses multi-version concurrency control. Each element
+ * holds the versions committed for it, so that a {@link TinkerTransaction} reads the graph as it was when the
+ * transaction opened without taking locks, while its own changes are held privately until commit. A commit checks
+ * that no other transaction committed a change to the elements it changed since it opened, failing with a
+ * {@link TransactionException} if one did, and then makes the changes visible to transactions opened after it at once.
+ * Versions are discarded when the oldest open transaction no longer needs them.
+ * <p/>
+ * Identifiers are used as supplied, with {@code Long} identifiers generated where none are supplied, and elements can
+ * also be looked up by other representations of {@code Long} and {@code UUID} identifiers. The graph is not
+ * persisted and does not support indices, {@link Graph.Variables} or {@link GraphComputer}.
+ */
+@Graph.OptIn(Graph.OptIn.SUITE_STRUCTURE_STANDARD)
+@Graph.OptIn(Graph.OptIn.SUITE_PROCESS_STANDARD)
+@Graph.OptIn(Graph.OptIn.SUITE_PROCESS_LIMITED_STANDARD)
+@Graph.OptOut(
+        test = "org.apache.tinkerpop.gremlin.structure.io.IoCustomTest",
+        method = "shouldProperlySerializeCustomId",
+        specific = "graphson-v1-embedded",
+        reason = TinkerTransactionGraph.UNCOMMITTED_MIGRATION)
+@Graph.OptOut(
+        test = "org.apache.tinkerpop.gremlin.structure.io.IoCustomTest",
+        method = "shouldProperlySerializeCustomId",
+        specific = "graphson-v2-embedded",
+        reason = TinkerTransactionGraph.UNCOMMITTED_MIGRATION)
+@Graph.OptOut(
+        test = "org.apache.tinkerpop.gremlin.structure.io.IoCustomTest",
+        method = "shouldProperlySerializeCustomId",
+        specific = "graphson-v3",
+        reason = TinkerTransactionGraph.UNCOMMITTED_MIGRATION)
+@Graph.OptOut(
+        test = "org.apache.tinkerpop.gremlin.structure.io.IoCustomTest",
+        method = "shouldProperlySerializeCustomId",
+        specific = "gryo-v1",
+        reason = TinkerTransactionGraph.UNCOMMITTED_MIGRATION)
+@Graph.OptOut(
+        test = "org.apache.tinkerpop.gremlin.structure.io.IoCustomTest",
+        method = "shouldProperlySerializeCustomId",
+        specific = "gryo-v3",
+        reason = TinkerTransactionGraph.UNCOMMITTED_MIGRATION)
+public final class TinkerTransactionGraph implements Graph {
+
+    static final String UNCOMMITTED_MIGRATION = "The GraphMigrator writes from a thread of its own, which cannot see the vertex the test thread added without committing.";
+
+    private static final Configuration EMPTY_CONFIGURATION = new BaseConfiguration() {{
+        this.setProperty(Graph.GRAPH, TinkerTransactionGraph.class.getName());
+    }};
+
+    private final TinkerTransactionGraphFeatures features = new TinkerTransactionGraphFeatures();
+    private final Configuration configuration;
+    private final TinkerTransaction transaction = new TinkerTransaction(this);
+
+    final Map<Object, TinkerElementContainer.Vertex> vertices = new ConcurrentHashMap<>();
+    final Map<Object, TinkerElementContainer.Edge> edges = new ConcurrentHashMap<>();
+    final AtomicLong currentId = new AtomicLong(-1L);
+    final VertexProperty.Cardinality defaultVertexPropertyCardinality;
+    final boolean allowNullPropertyValues;
+
+    /**
+     * The time of the latest commit, which a transaction reads when it opens and which is only advanced once a commit
+     * has installed all of its versions.
+     */
+    private volatile long time = 0;
+    private final ReentrantLock commitLock = new ReentrantLock();
+    private final Set<TinkerTransaction.Context> openTransactions = new LinkedHashSet<>();
+    private final Set<TinkerElementContainer<?>> unpruned = new LinkedHashSet<>();
+
+    private TinkerTransactionGraph(final Configuration configuration) {
+        this.configuration = configuration;
+        defaultVertexPropertyCardinality = VertexProperty.Cardinality.valueOf(
+                configuration.getString(GREMLIN_TINKERGRAPH_DEFAULT_VERTEX_PROPERTY_CARDINALITY, VertexProperty.Cardinality.single.name()));
+        allowNullPropertyValues = configuration.getBoolean(GREMLIN_TINKERGRAPH_ALLOW_NULL_PROPERTY_VALUES, false);
+    }
+
+    /**
+     * Open a new {@link TinkerTransactionGraph} instance.
+     */
+    public static TinkerTransactionGraph open() {
+        return open(EMPTY_CONFIGURATION);
+    }
+
+    /**
+     * Open a new {@link TinkerTransactionGraph} instance, which honors the cardinality and null property value
+     * settings of {@link TinkerGraph}.
+     */
+    public static TinkerTransactionGraph open(final Configuration configuration) {
+        return new TinkerTransactionGraph(configuration);
+    }
+
+    ////////////// STRUCTURE API METHODS //////////////////
+
+    @Override
+    public Vertex addVertex(final Object... keyValues) {
+        ElementHelper.legalPropertyKeyValueArray(keyValues);
+        final TinkerTransaction.Context context = this.transaction.context();
+        final Object id = ElementHelper.getIdValue(keyValues).orElseGet(this::nextId);
+        final String label = ElementHelper.getLabelValue(keyValues).orElse(Vertex.DEFAULT_LABEL);
+
+        if (null != vertex(context, id))
+            throw Exceptions.vertexWithIdAlreadyExists(id);
+
+        final TinkerElementContainer.Vertex container = new TinkerElementContainer.Vertex(id, label);
+        context.add(container);
+        final Vertex vertex = new TinkerTransactionVertex(this, container);
+        ElementHelper.attachProperties(vertex, VertexProperty.Cardinality.list, keyValues);
+        return vertex;
+    }
+
+    @Override
+    public <C extends GraphComputer> C compute(final Class<C> graphComputerClass) {
+        throw Exceptions.graphComputerNotSupported();
+    }
+
+    @Override
+    public GraphComputer compute() {
+        throw Exceptions.graphComputerNotSupported();
+    }
+
+    @Override
+    public Iterator<Vertex> vertices(final Object... vertexIds) {
+        final TinkerTransaction.Context context = this.transaction.context();
+        if (0 == vertexIds.length) {
+            return IteratorUtils.map(IteratorUtils.concat(
+                    IteratorUtils.filter(this.vertices.values().iterator(), c -> null != context.read(c)),
+                    IteratorUtils.filter(new ArrayList<>(context.addedVertices.values()).iterator(), c -> null != context.read(c))),
+                    c -> new TinkerTransactionVertex(this, c));
+        }
+
+        final List<Vertex> found = new ArrayList<>(vertexIds.length);
+        for (Object id : vertexIds) {
+            if (null == id) continue;
+            final TinkerElementContainer.Vertex container = id instanceof Vertex ?
+                    vertex(context, ((Vertex) id).id()) : lookup(context, id, this::vertex);
+            if (null != container) found.add(new TinkerTransactionVertex(this, container));
+        }
+        return found.iterator();
+    }
+
+    @Override
+    public Iterator<Edge> edges(final Object... edgeIds) {
+        final TinkerTransaction.Context context = this.transaction.context();
+        if (0 == edgeIds.length) {
+            return IteratorUtils.map(IteratorUtils.concat(
+                    IteratorUtils.filter(this.edges.values().iterator(), c -> null != context.read(c)),
+                    IteratorUtils.filter(new ArrayList<>(context.addedEdges.values()).iterator(), c -> null != context.read(c))),
+                    c -> new TinkerTransactionEdge(this, c));
+        }
+
+        final List<Edge> found = new ArrayList<>(edgeIds.length);
+        for (Object id : edgeIds) {
+            if (null == id) continue;
+            final TinkerElementContainer.Edge container = id instanceof Edge ?
+                    edge(context, ((Edge) id).id()) : lookup(context, id, this::edge);
+            if (null != container) found.add(new TinkerTransactionEdge(this, container));
+        }
+        return found.iterator();
+    }
+
+    @Override
+    public Transaction tx() {
+        return this.transaction;
+    }
+
+    @Override
+    public Variables variables() {
+        throw Exceptions.variablesNotSupported();
+    }
+
+    @Override
+    public Configuration configuration() {
+        return this.configuration;
+    }
+
+    /**
+     * Closes the transaction of the current thread as its close behavior requires.
+     */
+    @Override
+    public void close() {
+        if (this.transaction.isOpen()) this.transaction.close();
+    }
+
+    @Override
+    public Features features() {
+        return this.features;
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.graphString(this, "transactional");
+    }
+
+    ////////////// TRANSACTION METHODS //////////////////
+
+    TinkerTransaction transaction() {
+        return this.transaction;
+    }
+
+    /**
+     * Generates the next {@code Long} identifier, skipping those already taken by an element that was added with a
+     * supplied identifier.
+     */
+    Object nextId() {
+        final TinkerTransaction.Context context = this.transaction.context();
+        long id;
+        do {
+            id = this.currentId.incrementAndGet();
+        } while (this.vertices.containsKey(id) || this.edges.containsKey(id) ||
+                context.addedVertices.containsKey(id) || context.addedEdges.containsKey(id));
+        return id;
+    }
+
+    /**
+     * Gets the container of the vertex with the identifier as the transaction sees it or {@code null} if the
+     * transaction does not see such a vertex.
+     */
+    TinkerElementContainer.Vertex vertex(final TinkerTransaction.Context context, final Object id) {
+        TinkerElementContainer.Vertex container = context.addedVertices.get(id);
+        if (null == container) container = this.vertices.get(id);
+        return null == container || null == context.read(container) ? null : container;
+    }
+
+    TinkerElementContainer.Edge edge(final TinkerTransaction.Context context, final Object id) {
+        TinkerElementContainer.Edge container = context.addedEdges.get(id);
+        if (null == container) container = this.edges.get(id);
+        return null == container || null == context.read(container) ? null : container;
+    }
+
+    /**
+     * Finds an element by its identifier and, failing that, by the {@code Long} or {@code UUID} that the identifier
+     * represents, so that a generated identifier can also be found by another numeric type or its {@code String}
+     * form, the way {@link TinkerGraph.DefaultIdManager#LONG} and {@link TinkerGraph.DefaultIdManager#UUID} allow.
+     */
+    private static <C> C lookup(final TinkerTransaction.Context context, final Object id,
+                                final BiFunction<TinkerTransaction.Context, Object, C> finder) {
+        final C container = finder.apply(context, id);
+        if (null != container) return container;
+
+        if (id instanceof Number && !(id instanceof Long))
+            return finder.apply(context, ((Number) id).longValue());
+        if (id instanceof String) {
+            try {
+                return finder.apply(context, Long.parseLong((String) id));
+            } catch (NumberFormatException ignored) {
+                // not a numeric identifier so try it as a UUID
+            }
+            try {
+                return finder.apply(context, UUID.fromString((String) id));
+            } catch (IllegalArgumentException ignored) {
+                // not a UUID either so there is no other representation to find
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Starts a transaction at the time of the latest commit. The time is read while holding the set of open
+     * transactions so that the versions it needs cannot be discarded between reading the time and joining the set.
+     */
+    TinkerTransaction.Context begin() {
+        final TinkerTransaction.Context context = new TinkerTransaction.Context();
+        synchronized (this.openTransactions) {
+            context.startTime = this.time;
+            this.openTransactions.add(context);
+        }
+        return context;
+    }
+
+    void end(final TinkerTransaction.Context context) {
+        synchronized (this.openTransactions) {
+            this.openTransactions.remove(context);
+        }
+    }
+
+    /**
+     * Validates the changes of the transaction against those committed since it opened and installs them as the
+     * versions of the next commit time. A transaction that only read does not need to take the commit lock but uses
+     * the chance to discard versions when the lock is free.
+     */
+    void commit(final TinkerTransaction.Context context) {
+        if (context.isReadOnly()) {
+            if (this.commitLock.tryLock()) {
+                try {
+                    prune();
+                } finally {
+                    this.commitLock.unlock();
+                }
+            }
+            return;
+        }
+
+        this.commitLock.lock();
+        try {
+            validate(context);
+
+            final long commitTime = this.time + 1;
+            for (Map.Entry<TinkerElementContainer.Vertex, VertexState> entry : context.vertices.entrySet()) {
+                final TinkerElementContainer.Vertex container = entry.getKey();
+                if (context.isAdded(container)) {
+                    if (null == entry.getValue()) continue;
+                    final TinkerElementContainer.Vertex removed = this.vertices.put(container.id, container);
+                    if (null != removed) container.inherit(removed);
+                }
+                container.install(commitTime, entry.getValue());
+                this.unpruned.add(container);
+            }
+            for (Map.Entry<TinkerElementContainer.Edge, EdgeState> entry : context.edges.entrySet()) {
+                final TinkerElementContainer.Edge container = entry.getKey();
+                if (context.isAdded(container)) {
+                    if (null == entry.getValue()) continue;
+                    final TinkerElementContainer.Edge removed = this.edges.put(container.id, container);
+                    if (null != removed) container.inherit(removed);
+                    container.outVertex.outEdges.computeIfAbsent(container.label, k -> ConcurrentHashMap.newKeySet()).add(container);
+                    container.inVertex.inEdges.computeIfAbsent(container.label, k -> ConcurrentHashMap.newKeySet()).add(container);
+                    container.outVertex.lastAdjacencyCommitted = commitTime;
+                    container.inVertex.lastAdjacencyCommitted = commitTime;
+                }
+                container.install(commitTime, entry.getValue());
+                this.unpruned.add(container);
+            }
+
+            // publishing the time makes the whole commit visible to transactions that open after this point
+            this.time = commitTime;
+            prune();
+        } finally {
+            this.commitLock.unlock();
+        }
+    }
+
+    private void validate(final TinkerTransaction.Context context) {
+        for (Map.Entry<TinkerElementContainer.Vertex, VertexState> entry : context.vertices.entrySet()) {
+            final TinkerElementContainer.Vertex container = entry.getKey();
+            if (context.isAdded(container)) {
+                // an identifier may be reused if this transaction removed the element that held it, which it
+                // validates as any other change to a committed element
+                final TinkerElementContainer.Vertex committed = this.vertices.get(container.id);
+                if (null != entry.getValue() && null != committed && committed.isPresent() &&
+                        !isRemoved(context.vertices, committed))
+                    throw conflict(Vertex.class, container.id);
+            } else if (container.lastCommitted() > context.startTime ||
+                    (null == entry.getValue() && container.lastAdjacencyCommitted > context.startTime)) {
+                throw conflict(Vertex.class, container.id);
+            }
+        }
+        for (Map.Entry<TinkerElementContainer.Edge, EdgeState> entry : context.edges.entrySet()) {
+            final TinkerElementContainer.Edge container = entry.getKey();
+            if (context.isAdded(container)) {
+                if (null == entry.getValue()) continue;
+                final TinkerElementContainer.Edge committed = this.edges.get(container.id);
+                if ((null != committed && committed.isPresent() && !isRemoved(context.edges, committed)) ||
+                        !isPresent(context, container.outVertex) || !isPresent(context, container.inVertex))
+                    throw conflict(Edge.class, container.id);
+            } else if (container.lastCommitted() > context.startTime) {
+                throw conflict(Edge.class, container.id);
+            }
+        }
+    }
+
+    private static <C extends TinkerElementContainer<?>> boolean isRemoved(final Map<C, ?> changes, final C container) {
+        return changes.containsKey(container) && null == changes.get(container);
+    }
+
+    private static boolean isPresent(final TinkerTransaction.Context context, final TinkerElementContainer.Vertex container) {
+        return context.isAdded(container) ? null != context.vertices.get(container) : container.isPresent();
+    }
+
+    private static TransactionException conflict(final Class<? extends Element> clazz, final Object id) {
+        return new TransactionException(String.format(
+                "%s with id %s was changed by a transaction that committed after this one opened", clazz.getSimpleName(), id));
+    }
+
+    /**
+     * Discards the versions that are older than the version each open transaction reads and removes the elements
+     * whose removal every open transaction sees. Must be called while holding the commit lock.
+     */
+    private void prune() {
+        if (this.unpruned.isEmpty()) return;
+
+        long horizon = this.time;
+        synchronized (this.openTransactions) {
+            for (TinkerTransaction.Context context : this.openTransactions) {
+                horizon = Math.min(horizon, context.startTime);
+            }
+        }
+
+        final Iterator<TinkerElementContainer<?>> iterator = this.unpruned.iterator();
+        while (iterator.hasNext()) {
+            final TinkerElementContainer<?> container = iterator.next();
+            if (!container.prune(horizon)) continue;
+
+            iterator.remove();
+            if (container.isPresent()) continue;
+            if (container instanceof TinkerElementContainer.Edge) {
+                final TinkerElementContainer.Edge edge = (TinkerElementContainer.Edge) container;
+                this.edges.remove(edge.id, edge);
+                final Set<TinkerElementContainer.Edge> out = edge.outVertex.outEdges.get(edge.label);
+                if (null != out) out.remove(edge);
+                final Set<TinkerElementContainer.Edge> in = edge.inVertex.inEdges.get(edge.label);
+                if (null != in) in.remove(edge);
+            } else {
+                this.vertices.remove(container.id, container);
+            }
+        }
+    }
+
+    public class TinkerTransactionGraphFeatures implements Features {
+
+        private final TinkerTransactionGraphGraphFeatures graphFeatures = new TinkerTransactionGraphGraphFeatures();
+        private final TinkerTransactionGraphEdgeFeatures edgeFeatures = new TinkerTransactionGraphEdgeFeatures();
+        private final TinkerTransactionGraphVertexFeatures vertexFeatures = new TinkerTransactionGraphVertexFeatures();
+
+        private TinkerTransactionGraphFeatures() {
+        }
+
+        @Override
+        public GraphFeatures graph() {
+            return graphFeatures;
+        }
+
+        @Override
+        public EdgeFeatures edge() {
+            return edgeFeatures;
+        }
+
+        @Override
+        public VertexFeatures vertex() {
+            return vertexFeatures;
+        }
+
+        @Override
+        public String toString() {
+            return StringFactory.featureString(this);
+        }
+    }
+
+    public class TinkerTransactionGraphGraphFeatures implements Features.GraphFeatures {
+
+        private TinkerTransactionGraphGraphFeatures() {
+        }
+
+        @Override
+        public boolean supportsComputer() {
+            return false;
+        }
+
+        @Override
+        public boolean supportsPersistence() {
+            return false;
+        }
+
+        @Override
+        public boolean supportsThreadedTransactions() {
+            return false;
+        }
+
+        @Override
+        public Features.VariableFeatures variables() {
+            return new Features.VariableFeatures() {
+                @Override
+                public boolean supportsVariables() {
+                    return false;
+                }
+
+                @Override
+                public boolean supportsBooleanValues() {
+                    return false;
+                }
+
+                @Override
+                public boolean supportsByteValues() {
+                    return false;
+                }
+
+                @Override
+                public boolean supportsDoubleValues() {
+                    return false;
+                }
+
+                @Override
+                public boolean supportsFloatValues() {
+                    return false;
+                }
+
+                @Override
+                public boolean supportsIntegerValues() {
+                    return false;
+                }
+
+                @Override
+                public boolean supportsLongValues() {
+                    return false;
+                }
+
+                @Override
+                public boolean supportsMapValues() {
+                    return false;
+                }
+
+                @Override
+                public boolean supportsMixedListValues() {
+                    return false;
+                }
+
+                @Override
+                public boolean supportsSerializableValues() {
+                    return false;
+                }
+
+                @Override
+                public boolean supportsStringValues() {
+                    return false;
+                }
+
+                @Override
+                public boolean supportsUniformListValues() {
+                    return false;
+                }
+
+                @Override
+                public boolean supportsBooleanArrayValues() {
+                    return false;
+                }
+
+                @Override
+                public boolean supportsByteArrayValues() {
+                    return false;
+                }
+
+                @Override
+                public boolean supportsDoubleArrayValues() {
+                    return false;
+                }
+
+                @Override
+                public boolean supportsFloatArrayValues() {
+                    return false;
+                }
+
+                @Override
+                public boolean supportsIntegerArrayValues() {
+                    return false;
+                }
+
+                @Override
+                public boolean supportsLongArrayValues() {
+                    return false;
+                }
+
+                @Override
+                public boolean supportsStringArrayValues() {
+                    return false;
+                }
+            };
+        }
+    }
+
+    public class TinkerTransactionGraphVertexFeatures implements Features.VertexFeatures {
+
+        private final TinkerTransactionGraphVertexPropertyFeatures vertexPropertyFeatures = new TinkerTransactionGraphVertexPropertyFeatures();
+
+        private TinkerTransactionGraphVertexFeatures() {
+        }
+
+        @Override
+        public boolean supportsNullPropertyValues() {
+            return allowNullPropertyValues;
+        }
+
+        @Override
+        public Features.VertexPropertyFeatures properties() {
+            return vertexPropertyFeatures;
+        }
+
+        @Override
+        public boolean supportsCustomIds() {
+            return false;
+        }
+
+        @Override
+        public VertexProperty.Cardinality getCardinality(final String key) {
+            return defaultVertexPropertyCardinality;
+        }
+    }
+
+    public class TinkerTransactionGraphEdgeFeatures implements Features.EdgeFeatures {
+
+        private TinkerTransactionGraphEdgeFeatures() {
+        }
+
+        @Override
+        public boolean supportsNullPropertyValues() {
+            return allowNullPropertyValues;
+        }
+
+        @Override
+        public boolean supportsCustomIds() {
+            return false;
+        }
+    }
+
+    public class TinkerTransactionGraphVertexPropertyFeatures implements Features.VertexPropertyFeatures {
+
+        private TinkerTransactionGraphVertexPropertyFeatures() {
+        }
+
+        @Override
+        public boolean supportsNullPropertyValues() {
+            return allowNullPropertyValues;
+        }
+
+        @Override
+        public boolean supportsCustomIds() {
+            return false;
+        }
+    }
+}
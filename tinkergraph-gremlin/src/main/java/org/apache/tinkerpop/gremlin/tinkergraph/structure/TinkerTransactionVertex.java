@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerElementContainer.VertexPropertyState;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerElementContainer.VertexState;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * A {@link Vertex} of a {@link TinkerTransactionGraph}, which reads and changes the vertex as the transaction of the
+ * current thread sees it.
+ */
+public final class TinkerTransactionVertex implements Vertex {
+
+    private final TinkerTransactionGraph graph;
+    final TinkerElementContainer.Vertex container;
+
+    TinkerTransactionVertex(final TinkerTransactionGraph graph, final TinkerElementContainer.Vertex container) {
+        this.graph = graph;
+        this.container = container;
+    }
+
+    @Override
+    public Object id() {
+        return this.container.id;
+    }
+
+    @Override
+    public String label() {
+        return this.container.label;
+    }
+
+    @Override
+    public Graph graph() {
+        return this.graph;
+    }
+
+    @Override
+    public <V> VertexProperty<V> property(final String key) {
+        final VertexState state = read();
+        final List<VertexPropertyState> list = null == state ? null : state.properties.get(key);
+        if (null == list || list.isEmpty())
+            return VertexProperty.empty();
+        else if (list.size() > 1)
+            throw Vertex.Exceptions.multiplePropertiesExistForProvidedKey(key);
+        else
+            return new TinkerTransactionVertexProperty<>(this, list.get(0));
+    }
+
+    @Override
+    public <V> VertexProperty<V> property(final VertexProperty.Cardinality cardinality, final String key, final V value, final Object... keyValues) {
+        final TinkerTransaction.Context context = this.graph.transaction().context();
+        if (null == context.read(this.container)) throw TinkerElement.elementAlreadyRemoved(Vertex.class, id());
+        ElementHelper.legalPropertyKeyValueArray(keyValues);
+        ElementHelper.validateProperty(key, value);
+
+        // as with TinkerGraph, a null value removes the key for single cardinality and is otherwise ignored
+        if (!this.graph.allowNullPropertyValues && null == value) {
+            final VertexProperty.Cardinality card = null == cardinality ? this.graph.features().vertex().getCardinality(key) : cardinality;
+            if (VertexProperty.Cardinality.single == card)
+                properties(key).forEachRemaining(VertexProperty::remove);
+            return VertexProperty.empty();
+        }
+
+        final Optional<VertexProperty<V>> optionalVertexProperty = ElementHelper.stageVertexProperty(this, cardinality, key, value, keyValues);
+        if (optionalVertexProperty.isPresent()) return optionalVertexProperty.get();
+
+        final Object id = ElementHelper.getIdValue(keyValues).orElseGet(this.graph::nextId);
+        final VertexPropertyState vertexPropertyState = new VertexPropertyState(id, key, value);
+        context.write(this.container).properties.computeIfAbsent(key, k -> new ArrayList<>()).add(vertexPropertyState);
+
+        final VertexProperty<V> vertexProperty = new TinkerTransactionVertexProperty<>(this, vertexPropertyState);
+        ElementHelper.attachProperties(vertexProperty, keyValues);
+        return vertexProperty;
+    }
+
+    @Override
+    public <V> Iterator<VertexProperty<V>> properties(final String... propertyKeys) {
+        final VertexState state = read();
+        if (null == state) return Collections.emptyIterator();
+        final List<VertexProperty<V>> vertexProperties = new ArrayList<>();
+        for (Map.Entry<String, List<VertexPropertyState>> entry : state.properties.entrySet()) {
+            if (ElementHelper.keyExists(entry.getKey(), propertyKeys))
+                entry.getValue().forEach(vp -> vertexProperties.add(new TinkerTransactionVertexProperty<>(this, vp)));
+        }
+        return vertexProperties.iterator();
+    }
+
+    @Override
+    public Set<String> keys() {
+        final VertexState state = read();
+        return null == state ? Collections.emptySet() : Collections.unmodifiableSet(state.properties.keySet());
+    }
+
+    @Override
+    public Edge addEdge(final String label, final Vertex vertex, final Object... keyValues) {
+        if (null == vertex) throw Graph.Exceptions.argumentCanNotBeNull("vertex");
+        ElementHelper.validateLabel(label);
+        ElementHelper.legalPropertyKeyValueArray(keyValues);
+
+        final TinkerTransaction.Context context = this.graph.transaction().context();
+        if (null == context.read(this.container)) throw TinkerElement.elementAlreadyRemoved(Vertex.class, id());
+        final TinkerElementContainer.Vertex inVertex = ((TinkerTransactionVertex) vertex).container;
+        if (null == context.read(inVertex)) throw TinkerElement.elementAlreadyRemoved(Vertex.class, inVertex.id);
+
+        final Object id = ElementHelper.getIdValue(keyValues).orElseGet(this.graph::nextId);
+        if (null != this.graph.edge(context, id))
+            throw Graph.Exceptions.edgeWithIdAlreadyExists(id);
+
+        final TinkerElementContainer.Edge container = new TinkerElementContainer.Edge(id, label, this.container, inVertex);
+        context.add(container);
+        final Edge edge = new TinkerTransactionEdge(this.graph, container);
+        ElementHelper.attachProperties(edge, keyValues);
+        return edge;
+    }
+
+    @Override
+    public void remove() {
+        final TinkerTransaction.Context context = this.graph.transaction().context();
+        if (null == context.read(this.container)) return;
+        final List<Edge> edges = new ArrayList<>();
+        edges(Direction.BOTH).forEachRemaining(edges::add);
+        edges.forEach(edge -> context.remove(((TinkerTransactionEdge) edge).container));
+        context.remove(this.container);
+    }
+
+    @Override
+    public Iterator<Edge> edges(final Direction direction, final String... edgeLabels) {
+        final TinkerTransaction.Context context = this.graph.transaction().context();
+        final List<Edge> edges = new ArrayList<>();
+        if (direction != Direction.IN)
+            addEdges(context, this.container.outEdges, context.addedOutEdges.get(this.container), edgeLabels, edges);
+        if (direction != Direction.OUT)
+            addEdges(context, this.container.inEdges, context.addedInEdges.get(this.container), edgeLabels, edges);
+        return edges.iterator();
+    }
+
+    @Override
+    public Iterator<Vertex> vertices(final Direction direction, final String... edgeLabels) {
+        if (direction == Direction.BOTH) {
+            return IteratorUtils.concat(
+                    IteratorUtils.map(edges(Direction.OUT, edgeLabels), Edge::inVertex),
+                    IteratorUtils.map(edges(Direction.IN, edgeLabels), Edge::outVertex));
+        }
+        return IteratorUtils.map(edges(direction, edgeLabels), edge -> edge.vertices(direction.opposite()).next());
+    }
+
+    private void addEdges(final TinkerTransaction.Context context,
+                          final Map<String, Set<TinkerElementContainer.Edge>> committed,
+                          final List<TinkerElementContainer.Edge> added,
+                          final String[] edgeLabels, final List<Edge> edges) {
+        if (0 == edgeLabels.length) {
+            committed.values().forEach(set -> addEdges(context, set, edges));
+        } else {
+            for (String label : edgeLabels) {
+                final Set<TinkerElementContainer.Edge> set = committed.get(label);
+                if (null != set) addEdges(context, set, edges);
+            }
+        }
+        if (null != added) {
+            for (TinkerElementContainer.Edge edge : added) {
+                if ((0 == edgeLabels.length || ElementHelper.keyExists(edge.label, edgeLabels)) && null != context.read(edge))
+                    edges.add(new TinkerTransactionEdge(this.graph, edge));
+            }
+        }
+    }
+
+    private void addEdges(final TinkerTransaction.Context context, final Collection<TinkerElementContainer.Edge> containers,
+                          final List<Edge> edges) {
+        for (TinkerElementContainer.Edge edge : containers) {
+            if (null != context.read(edge))
+                edges.add(new TinkerTransactionEdge(this.graph, edge));
+        }
+    }
+
+    private VertexState read() {
+        return this.graph.transaction().context().read(this.container);
+    }
+
+    @Override
+    public boolean equals(final Object object) {
+        return ElementHelper.areEqual(this, object);
+    }
+
+    @Override
+    public int hashCode() {
+        return ElementHelper.hashCode(this);
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.vertexString(this);
+    }
+}
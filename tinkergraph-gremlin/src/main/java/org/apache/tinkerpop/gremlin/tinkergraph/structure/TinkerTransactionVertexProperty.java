@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerElementContainer.VertexPropertyState;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerElementContainer.VertexState;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A {@link VertexProperty} of a {@link TinkerTransactionGraph}. The key and value of a vertex property never change,
+ * so only its meta-properties are read through the transaction of the current thread.
+ */
+public final class TinkerTransactionVertexProperty<V> implements VertexProperty<V> {
+
+    private final TinkerTransactionVertex vertex;
+    private final Object id;
+    private final String key;
+    private final V value;
+
+    TinkerTransactionVertexProperty(final TinkerTransactionVertex vertex, final VertexPropertyState state) {
+        this.vertex = vertex;
+        this.id = state.id;
+        this.key = state.key;
+        this.value = (V) state.value;
+    }
+
+    @Override
+    public Object id() {
+        return this.id;
+    }
+
+    @Override
+    public String key() {
+        return this.key;
+    }
+
+    @Override
+    public V value() {
+        return this.value;
+    }
+
+    @Override
+    public boolean isPresent() {
+        return true;
+    }
+
+    @Override
+    public Vertex element() {
+        return this.vertex;
+    }
+
+    @Override
+    public Set<String> keys() {
+        final VertexPropertyState state = read();
+        return null == state ? Collections.emptySet() : Collections.unmodifiableSet(state.properties.keySet());
+    }
+
+    @Override
+    public <U> Property<U> property(final String key) {
+        final VertexPropertyState state = read();
+        return null == state || !state.properties.containsKey(key) ?
+                Property.empty() :
+                new TinkerTransactionProperty<>(this, key, (U) state.properties.get(key));
+    }
+
+    @Override
+    public <U> Property<U> property(final String key, final U value) {
+        final TinkerTransaction.Context context = transaction().context();
+        final VertexState vertexState = context.read(this.vertex.container);
+        if (null == vertexState || null == vertexState.get(this.key, this.id))
+            throw TinkerElement.elementAlreadyRemoved(VertexProperty.class, this.id);
+        ElementHelper.validateProperty(key, value);
+
+        if (!this.vertex.graph().features().vertex().properties().supportsNullPropertyValues() && null == value) {
+            properties(key).forEachRemaining(Property::remove);
+            return Property.empty();
+        }
+
+        context.write(this.vertex.container).get(this.key, this.id).properties.put(key, value);
+        return new TinkerTransactionProperty<>(this, key, value);
+    }
+
+    @Override
+    public <U> Iterator<Property<U>> properties(final String... propertyKeys) {
+        final VertexPropertyState state = read();
+        if (null == state) return Collections.emptyIterator();
+        final List<Property<U>> properties = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : state.properties.entrySet()) {
+            if (ElementHelper.keyExists(entry.getKey(), propertyKeys))
+                properties.add(new TinkerTransactionProperty<>(this, entry.getKey(), (U) entry.getValue()));
+        }
+        return properties.iterator();
+    }
+
+    @Override
+    public void remove() {
+        final TinkerTransaction.Context context = transaction().context();
+        final VertexState vertexState = context.read(this.vertex.container);
+        if (null == vertexState || null == vertexState.get(this.key, this.id)) return;
+
+        final Map<String, List<VertexPropertyState>> properties = context.write(this.vertex.container).properties;
+        final List<VertexPropertyState> list = properties.get(this.key);
+        list.removeIf(vp -> vp.id.equals(this.id));
+        if (list.isEmpty()) properties.remove(this.key);
+    }
+
+    /**
+     * Removes a meta-property, which is a change to the vertex as the vertex holds its vertex properties.
+     */
+    void removeProperty(final String key) {
+        final TinkerTransaction.Context context = transaction().context();
+        final VertexState vertexState = context.read(this.vertex.container);
+        if (null == vertexState || null == vertexState.get(this.key, this.id)) return;
+        context.write(this.vertex.container).get(this.key, this.id).properties.remove(key);
+    }
+
+    private VertexPropertyState read() {
+        final VertexState vertexState = transaction().context().read(this.vertex.container);
+        return null == vertexState ? null : vertexState.get(this.key, this.id);
+    }
+
+    private TinkerTransaction transaction() {
+        return ((TinkerTransactionGraph) this.vertex.graph()).transaction();
+    }
+
+    @SuppressWarnings("EqualsWhichDoesntCheckParameterClass")
+    @Override
+    public boolean equals(final Object object) {
+        return ElementHelper.areEqual(this, object);
+    }
+
+    @Override
+    public int hashCode() {
+        return ElementHelper.hashCode((Element) this);
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.propertyString(this);
+    }
+}
@@ -0,0 +1,455 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Property;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An approximate nearest neighbour index over the vector values of a single property key, implemented as a
+ * hierarchical navigable small world graph. Each indexed element is a node that is linked to its nearest neighbours
+ * on every layer up to a randomly chosen level, where the higher layers are exponentially sparser, so a search can
+ * descend greedily from the top layer and only explore the neighbourhood of the query on the bottom layer.
+ * <p/>
+ * Vector values may be {@code float[]}, {@code double[]} or a {@code List} of numbers and all of them must have the
+ * dimension of the first vector indexed, with values of any other type not being indexed. A vertex with several values
+ * for the key is indexed by the first of them that is a vector.
+ * <p/>
+ * Removing an element only marks its node as deleted, leaving it in the layers as a tombstone that searches navigate
+ * through but never return, and the layers are rebuilt from the indexed elements once the tombstones outnumber them.
+ */
+final class TinkerVectorIndex<T extends Element> {
+
+    /**
+     * The number of neighbours linked on the layers above the bottom one, which has twice as many.
+     */
+    private static final int M = 16;
+    private static final int M0 = M * 2;
+    private static final int EF_CONSTRUCTION = 100;
+    private static final double LEVEL_MULTIPLIER = 1 / Math.log(M);
+
+    private final String key;
+    private final TinkerGraph.VectorDistance distance;
+    private final Map<T, Node<T>> nodes = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Node<T> entryPoint;
+    private int dimension = -1;
+    private int tombstones;
+
+    TinkerVectorIndex(final String key, final TinkerGraph.VectorDistance distance) {
+        this.key = key;
+        this.distance = distance;
+    }
+
+    public TinkerGraph.VectorDistance getDistance() {
+        return this.distance;
+    }
+
+    public int size() {
+        this.lock.readLock().lock();
+        try {
+            return this.nodes.size();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Throws an {@link IllegalArgumentException} if the value is a vector whose dimension differs from that of the
+     * vectors in the index, which is checked before a property is written as {@link #update(Element)} would otherwise
+     * fail after it.
+     */
+    public void validate(final Object value) {
+        final float[] vector = toVector(value);
+        if (null == vector || vector.length == 0) return;
+        this.lock.readLock().lock();
+        try {
+            if (this.dimension >= 0 && this.dimension != vector.length)
+                throw this.dimensionMismatch(vector.length);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Re-indexes the element from its current values for the key.
+     *
+     * @throws IllegalArgumentException if the vector of the element has a dimension that differs from that of the
+     *                                  vectors in the index, in which case the element is left as it was indexed
+     */
+    public void update(final T element) {
+        float[] vector = null;
+        final Iterator<? extends Property<Object>> properties = element.properties(this.key);
+        while (null == vector && properties.hasNext()) {
+            final Property<Object> property = properties.next();
+            if (property.isPresent()) vector = this.prepare(toVector(property.value()));
+        }
+
+        this.lock.writeLock().lock();
+        try {
+            final Node<T> previous = this.nodes.get(element);
+            if (null != vector && this.dimension >= 0 && this.dimension != vector.length)
+                throw this.dimensionMismatch(vector.length);
+            if (null != previous) {
+                if (null != vector && Arrays.equals(previous.vector, vector))
+                    return;
+                this.delete(previous);
+            }
+            if (null != vector) {
+                this.dimension = vector.length;
+                this.insert(new Node<>(element, vector, randomLevel()));
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(final T element) {
+        this.lock.writeLock().lock();
+        try {
+            final Node<T> node = this.nodes.get(element);
+            if (null != node) this.delete(node);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        this.lock.writeLock().lock();
+        try {
+            this.nodes.clear();
+            this.entryPoint = null;
+            this.dimension = -1;
+            this.tombstones = 0;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the vector value of the element in the index, or {@code null} if it is not indexed.
+     */
+    public float[] get(final T element) {
+        this.lock.readLock().lock();
+        try {
+            final Node<T> node = this.nodes.get(element);
+            return null == node ? null : node.vector;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the approximate nearest elements to the vector with their distances, ordered from the nearest.
+     *
+     * @param k  the number of elements to return
+     * @param ef the number of candidates to track while searching the bottom layer, where a larger number improves
+     *           the recall at the cost of speed, and which is raised to {@code k} if it is smaller
+     */
+    public List<Map.Entry<T, Double>> search(final Object vector, final int k, final int ef) {
+        final float[] query = toVector(vector);
+        if (null == query)
+            throw new IllegalArgumentException("The vector must be a float[], double[] or List of numbers: " + vector);
+
+        this.lock.readLock().lock();
+        try {
+            if (null == this.entryPoint || k <= 0) return new ArrayList<>();
+            if (query.length != this.dimension)
+                throw this.dimensionMismatch(query.length);
+
+            final float[] prepared = this.prepare(query);
+            if (null == prepared) return new ArrayList<>();
+
+            Node<T> current = this.entryPoint;
+            for (int level = this.entryPoint.level; level > 0; level--) {
+                current = this.greedy(prepared, current, level);
+            }
+            final List<Candidate<T>> nearest = this.searchLayer(prepared, current, Math.max(ef, k), 0);
+
+            final List<Map.Entry<T, Double>> results = new ArrayList<>(Math.min(k, nearest.size()));
+            for (int i = 0; i < k && i < nearest.size(); i++) {
+                final Candidate<T> candidate = nearest.get(i);
+                results.add(new AbstractMap.SimpleImmutableEntry<>(candidate.node.element, this.distance(candidate.distance)));
+            }
+            return results;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    private IllegalArgumentException dimensionMismatch(final int dimension) {
+        return new IllegalArgumentException(String.format(
+                "The vector has %s dimensions but the index for %s has %s", dimension, this.key, this.dimension));
+    }
+
+    /**
+     * Converts a {@code float[]}, {@code double[]} or {@code List} of numbers to a {@code float[]}, returning
+     * {@code null} for anything else.
+     */
+    static float[] toVector(final Object value) {
+        if (value instanceof float[]) {
+            return (float[]) value;
+        } else if (value instanceof double[]) {
+            final double[] doubles = (double[]) value;
+            final float[] vector = new float[doubles.length];
+            for (int i = 0; i < doubles.length; i++) {
+                vector[i] = (float) doubles[i];
+            }
+            return vector;
+        } else if (value instanceof List) {
+            final List<?> list = (List<?>) value;
+            final float[] vector = new float[list.size()];
+            for (int i = 0; i < vector.length; i++) {
+                final Object number = list.get(i);
+                if (!(number instanceof Number)) return null;
+                vector[i] = ((Number) number).floatValue();
+            }
+            return vector;
+        }
+        return null;
+    }
+
+    /**
+     * Copies the vector, normalizing it for {@link TinkerGraph.VectorDistance#COSINE} so that the distance can be
+     * computed from the dot product alone, and returns {@code null} if it cannot be indexed.
+     */
+    private float[] prepare(final float[] vector) {
+        if (null == vector || vector.length == 0) return null;
+        final float[] copy = vector.clone();
+        if (this.distance == TinkerGraph.VectorDistance.COSINE) {
+            double norm = 0;
+            for (float v : copy) {
+                norm += v * v;
+            }
+            if (norm == 0) return null;
+            norm = Math.sqrt(norm);
+            for (int i = 0; i < copy.length; i++) {
+                copy[i] = (float) (copy[i] / norm);
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Computes a value that orders vectors in the same way as the distance but is cheaper to compute, being the
+     * squared euclidean distance or the negated dot product of the normalized vectors.
+     */
+    private double score(final float[] a, final float[] b) {
+        double sum = 0;
+        if (this.distance == TinkerGraph.VectorDistance.COSINE) {
+            for (int i = 0; i < a.length; i++) {
+                sum += a[i] * b[i];
+            }
+            return -sum;
+        } else {
+            for (int i = 0; i < a.length; i++) {
+                final double d = a[i] - b[i];
+                sum += d * d;
+            }
+            return sum;
+        }
+    }
+
+    private double distance(final double score) {
+        return this.distance == TinkerGraph.VectorDistance.COSINE ? 1 + score : Math.sqrt(score);
+    }
+
+    private static int randomLevel() {
+        return (int) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * LEVEL_MULTIPLIER);
+    }
+
+    private void insert(final Node<T> node) {
+        this.nodes.put(node.element, node);
+        if (null == this.entryPoint) {
+            this.entryPoint = node;
+            return;
+        }
+
+        Node<T> current = this.entryPoint;
+        for (int level = this.entryPoint.level; level > node.level; level--) {
+            current = this.greedy(node.vector, current, level);
+        }
+        for (int level = Math.min(node.level, this.entryPoint.level); level >= 0; level--) {
+            final List<Candidate<T>> candidates = this.searchLayer(node.vector, current, EF_CONSTRUCTION, level);
+            final int max = level == 0 ? M0 : M;
+            for (int i = 0; i < M && i < candidates.size(); i++) {
+                final Node<T> neighbour = candidates.get(i).node;
+                node.neighbours.get(level).add(neighbour);
+                this.link(neighbour, node, level, max);
+            }
+            if (!candidates.isEmpty()) current = candidates.get(0).node;
+        }
+
+        if (node.level > this.entryPoint.level)
+            this.entryPoint = node;
+    }
+
+    /**
+     * Marks the node as deleted, leaving it linked as a tombstone so that the layers stay navigable without having to
+     * reconnect its neighbours, and rebuilds the layers once the tombstones outnumber the indexed elements.
+     */
+    private void delete(final Node<T> node) {
+        this.nodes.remove(node.element);
+        node.deleted = true;
+        if (this.nodes.isEmpty()) {
+            this.entryPoint = null;
+            this.dimension = -1;
+            this.tombstones = 0;
+        } else if (++this.tombstones > this.nodes.size()) {
+            this.rebuild();
+        }
+    }
+
+    private void rebuild() {
+        final List<Node<T>> live = new ArrayList<>(this.nodes.values());
+        this.nodes.clear();
+        this.entryPoint = null;
+        this.tombstones = 0;
+        for (Node<T> node : live) {
+            this.insert(new Node<>(node.element, node.vector, node.level));
+        }
+    }
+
+    /**
+     * Links the node to the neighbour, dropping the furthest of its neighbours if it then has too many. A node never
+     * has more than the maximum before the link is added, so dropping one keeps the nearest of them.
+     */
+    private void link(final Node<T> node, final Node<T> neighbour, final int level, final int max) {
+        final List<Node<T>> neighbours = node.neighbours.get(level);
+        neighbours.add(neighbour);
+        if (neighbours.size() > max) {
+            neighbours.removeIf(n -> n.deleted);
+        }
+        if (neighbours.size() > max) {
+            int furthest = 0;
+            double furthestScore = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < neighbours.size(); i++) {
+                final double score = this.score(node.vector, neighbours.get(i).vector);
+                if (score > furthestScore) {
+                    furthest = i;
+                    furthestScore = score;
+                }
+            }
+            neighbours.remove(furthest);
+        }
+    }
+
+    private Node<T> greedy(final float[] query, final Node<T> start, final int level) {
+        Node<T> current = start;
+        double currentScore = this.score(query, current.vector);
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Node<T> neighbour : current.neighbours(level)) {
+                final double score = this.score(query, neighbour.vector);
+                if (score < currentScore) {
+                    current = neighbour;
+                    currentScore = score;
+                    changed = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Gets up to {@code ef} of the nearest nodes to the query on the layer, ordered from the nearest, by expanding the
+     * closest unexpanded candidate until none is nearer than the furthest of those found. Deleted nodes are expanded
+     * like any other but are never among those found.
+     */
+    private List<Candidate<T>> searchLayer(final float[] query, final Node<T> start, final int ef, final int level) {
+        final Set<Node<T>> visited = new HashSet<>();
+        final PriorityQueue<Candidate<T>> candidates = new PriorityQueue<>(Comparator.comparingDouble(c -> c.distance));
+        final PriorityQueue<Candidate<T>> found = new PriorityQueue<>(Comparator.comparingDouble((Candidate<T> c) -> c.distance).reversed());
+
+        final Candidate<T> first = new Candidate<>(start, this.score(query, start.vector));
+        visited.add(start);
+        candidates.add(first);
+        if (!start.deleted) found.add(first);
+
+        while (!candidates.isEmpty()) {
+            final Candidate<T> closest = candidates.poll();
+            if (!found.isEmpty() && closest.distance > found.peek().distance) break;
+
+            for (Node<T> neighbour : closest.node.neighbours(level)) {
+                if (!visited.add(neighbour)) continue;
+                final double score = this.score(query, neighbour.vector);
+                if (found.size() < ef || score < found.peek().distance) {
+                    final Candidate<T> candidate = new Candidate<>(neighbour, score);
+                    candidates.add(candidate);
+                    if (neighbour.deleted) continue;
+                    found.add(candidate);
+                    if (found.size() > ef) found.poll();
+                }
+            }
+        }
+
+        final List<Candidate<T>> nearest = new ArrayList<>(found);
+        nearest.sort(Comparator.comparingDouble(c -> c.distance));
+        return nearest;
+    }
+
+    private static final class Node<T> {
+        private final T element;
+        private final float[] vector;
+        private final int level;
+        private final List<List<Node<T>>> neighbours;
+        private boolean deleted;
+
+        private Node(final T element, final float[] vector, final int level) {
+            this.element = element;
+            this.vector = vector;
+            this.level = level;
+            this.neighbours = new ArrayList<>(level + 1);
+            for (int i = 0; i <= level; i++) {
+                this.neighbours.add(new ArrayList<>());
+            }
+        }
+
+        private Collection<Node<T>> neighbours(final int level) {
+            return level < this.neighbours.size() ? this.neighbours.get(level) : new ArrayList<>();
+        }
+    }
+
+    private static final class Candidate<T> {
+        private final Node<T> node;
+        private final double distance;
+
+        private Candidate(final Node<T> node, final double distance) {
+            this.node = node;
+            this.distance = distance;
+        }
+    }
+}
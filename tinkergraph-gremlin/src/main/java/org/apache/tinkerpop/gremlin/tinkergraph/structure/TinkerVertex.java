@@ -29,7 +29,6 @@ import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -43,13 +42,13 @@ import java.util.stream.Collectors;
 public final class TinkerVertex extends TinkerElement implements Vertex {
 
     protected Map<String, List<VertexProperty>> properties;
-    protected Map<String, Set<Edge>> outEdges;
-    protected Map<String, Set<Edge>> inEdges;
+    protected TinkerAdjacency outEdges;
+    protected TinkerAdjacency inEdges;
     private final TinkerGraph graph;
     private boolean allowNullPropertyValues;
 
     protected TinkerVertex(final Object id, final String label, final TinkerGraph graph) {
-        super(id, label);
+        super(id, graph.shapes.intern(label));
         this.graph = graph;
         this.allowNullPropertyValues = graph.features().vertex().supportsNullPropertyValues();
     }
@@ -97,6 +96,8 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
             return VertexProperty.empty();
         }
 
+        // checked before the staging below removes the values the new one replaces
+        TinkerHelper.validateIndexedValue(this, key, value);
         final Optional<Object> optionalId = ElementHelper.getIdValue(keyValues);
         final Optional<VertexProperty<V>> optionalVertexProperty = ElementHelper.stageVertexProperty(this, cardinality, key, value, keyValues);
         if (optionalVertexProperty.isPresent()) return optionalVertexProperty.get();
@@ -111,8 +112,10 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
                     graph.vertexPropertyIdManager.getNextId(graph);
 
             final VertexProperty<V> vertexProperty = new TinkerVertexProperty<V>(idValue, this, key, value);
+            final TinkerWriteAheadLog wal = TinkerHelper.writeAheadLog(this.graph);
+            if (null != wal) wal.addVertexProperty(vertexProperty);
 
-            if (null == this.properties) this.properties = new HashMap<>();
+            if (null == this.properties) this.properties = new TinkerPropertyMap<>(this.graph.shapes);
             final List<VertexProperty> list = this.properties.getOrDefault(key, new ArrayList<>());
             list.add(vertexProperty);
             this.properties.put(key, list);
@@ -142,9 +145,13 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
         final List<Edge> edges = new ArrayList<>();
         this.edges(Direction.BOTH).forEachRemaining(edges::add);
         edges.stream().filter(edge -> !((TinkerEdge) edge).removed).forEach(Edge::remove);
-        this.properties = null;
+        final TinkerWriteAheadLog wal = TinkerHelper.writeAheadLog(this.graph);
+        if (null != wal) wal.removeVertex(this);
         TinkerHelper.removeElementIndex(this);
+        this.properties = null;
         this.graph.vertices.remove(this.id);
+        if (null != this.graph.vertexLabelIndex) this.graph.vertexLabelIndex.remove(this);
+        this.graph.statistics.remove(this);
         this.removed = true;
     }
 
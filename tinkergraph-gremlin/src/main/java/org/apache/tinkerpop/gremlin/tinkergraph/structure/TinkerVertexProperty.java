@@ -28,7 +28,6 @@ import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComp
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
@@ -60,13 +59,13 @@ public class TinkerVertexProperty<V> extends TinkerElement implements VertexProp
      * can be explicitly set and validated against the expected data type.
      */
     public TinkerVertexProperty(final Object id, final TinkerVertex vertex, final String key, final V value, final Object... propertyKeyValues) {
-        super(id, key);
+        super(id, ((TinkerGraph) vertex.graph()).shapes.intern(key));
         this.allowNullPropertyValues = vertex.graph().features().vertex().properties().supportsNullPropertyValues();
         if (!allowNullPropertyValues && null == value)
             throw new IllegalArgumentException("value cannot be null as feature supportsNullPropertyValues is false");
 
         this.vertex = vertex;
-        this.key = key;
+        this.key = this.label;
         this.value = value;
         ElementHelper.legalPropertyKeyValueArray(propertyKeyValues);
         ElementHelper.attachProperties(this, propertyKeyValues);
@@ -123,7 +122,9 @@ public class TinkerVertexProperty<V> extends TinkerElement implements VertexProp
         }
 
         final Property<U> property = new TinkerProperty<>(this, key, value);
-        if (this.properties == null) this.properties = new HashMap<>();
+        final TinkerWriteAheadLog wal = TinkerHelper.writeAheadLog((TinkerGraph) this.vertex.graph());
+        if (null != wal) wal.setProperty(property);
+        if (this.properties == null) this.properties = new TinkerPropertyMap<>(((TinkerGraph) this.vertex.graph()).shapes);
         this.properties.put(key, property);
         return property;
     }
@@ -136,6 +137,8 @@ public class TinkerVertexProperty<V> extends TinkerElement implements VertexProp
     @Override
     public void remove() {
         if (null != this.vertex.properties && this.vertex.properties.containsKey(this.key)) {
+            final TinkerWriteAheadLog wal = TinkerHelper.writeAheadLog((TinkerGraph) this.vertex.graph());
+            if (null != wal) wal.removeVertexProperty(this);
             this.vertex.properties.get(this.key).remove(this);
             if (this.vertex.properties.get(this.key).size() == 0) {
                 this.vertex.properties.remove(this.key);
@@ -147,7 +150,11 @@ public class TinkerVertexProperty<V> extends TinkerElement implements VertexProp
                 if ((currentPropertyValue != null && currentPropertyValue.equals(this.value) || null == currentPropertyValue && null == this.value))
                     delete.set(false);
             });
-            if (delete.get()) TinkerHelper.removeIndex(this.vertex, this.key, this.value);
+            // an equal value is still indexed so only the indices built from every value of the key need updating
+            if (delete.get())
+                TinkerHelper.removeIndex(this.vertex, this.key, this.value);
+            else
+                TinkerHelper.reindex(this.vertex, this.key);
             this.properties = null;
             this.removed = true;
         }
@@ -0,0 +1,555 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.commons.configuration2.Configuration;
+import org.apache.commons.configuration2.ConfigurationUtils;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.io.binary.GraphBinaryReader;
+import org.apache.tinkerpop.gremlin.structure.io.binary.GraphBinaryWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only log of the mutations made to a {@link TinkerGraph} that is persisted to a
+ * {@link TinkerGraph#GREMLIN_TINKERGRAPH_GRAPH_LOCATION}, so that mutations made since the graph was last saved are
+ * not lost if the process ends without {@link TinkerGraph#close()} being called. The log is kept next to the snapshot
+ * of the graph, in a file with the {@code .wal} suffix, as records of a length, a CRC32 checksum and a GraphBinary
+ * payload.
+ * <p/>
+ * When the log grows past the configured size it is sealed, by renaming it with a {@code .sealed} suffix, and a new
+ * log is started. The sealed log is then compacted into the snapshot in the background by loading the snapshot into a
+ * separate graph, replaying the sealed log over it and atomically replacing the snapshot with that graph, so the live
+ * graph is neither read nor paused while it is compacted, though compaction requires memory for a second copy of the
+ * graph.
+ * <p/>
+ * Replay applies the sealed log and then the log over the snapshot and skips records that are already reflected in
+ * the graph or that refer to elements that no longer exist, which makes it safe to replay a record more than once.
+ * A record that was only partially written when the process ended is discarded.
+ */
+final class TinkerWriteAheadLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(TinkerWriteAheadLog.class);
+
+    /**
+     * The policies that determine when the log is forced to the storage device.
+     */
+    enum Sync {
+        /**
+         * Force the log after every record, so no acknowledged mutation is lost if the machine fails.
+         */
+        ALWAYS,
+
+        /**
+         * Force the log periodically, so only mutations made since the last interval may be lost if the machine
+         * fails, though none are lost if only the process ends.
+         */
+        INTERVAL,
+
+        /**
+         * Leave it to the operating system to write the log to the storage device.
+         */
+        NEVER
+    }
+
+    static final String LOG_SUFFIX = ".wal";
+    static final String SEALED_SUFFIX = ".wal.sealed";
+
+    private static final byte ADD_VERTEX = 1;
+    private static final byte REMOVE_VERTEX = 2;
+    private static final byte ADD_EDGE = 3;
+    private static final byte REMOVE_EDGE = 4;
+    private static final byte ADD_VERTEX_PROPERTY = 5;
+    private static final byte REMOVE_VERTEX_PROPERTY = 6;
+    private static final byte SET_META_PROPERTY = 7;
+    private static final byte REMOVE_META_PROPERTY = 8;
+    private static final byte SET_EDGE_PROPERTY = 9;
+    private static final byte REMOVE_EDGE_PROPERTY = 10;
+    private static final byte CLEAR = 11;
+
+    private static final int HEADER_LENGTH = 8;
+
+    private final TinkerGraph graph;
+    private final File logFile;
+    private final File sealedFile;
+    private final Sync sync;
+    private final long compactionSize;
+    private final GraphBinaryWriter writer = new GraphBinaryWriter();
+    private final TinkerLogBuffer buffer = new TinkerLogBuffer(256);
+    private final CRC32 crc = new CRC32();
+    private final ScheduledExecutorService syncExecutor;
+    private final ExecutorService compactionExecutor;
+
+    private volatile FileChannel channel;
+    private Future<?> compaction;
+
+    private TinkerWriteAheadLog(final TinkerGraph graph, final Sync sync, final long syncInterval, final long compactionSize) {
+        this.graph = graph;
+        this.logFile = new File(graph.graphLocation + LOG_SUFFIX);
+        this.sealedFile = new File(graph.graphLocation + SEALED_SUFFIX);
+        this.sync = sync;
+        this.compactionSize = compactionSize;
+        this.syncExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread thread = new Thread(r, "tinkergraph-wal-sync-" + this.logFile.getName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // compaction runs on a thread of its own as it may take long enough to hold up the periodic forcing
+        this.compactionExecutor = Executors.newSingleThreadExecutor(r -> {
+            final Thread thread = new Thread(r, "tinkergraph-wal-compaction-" + this.logFile.getName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (sync == Sync.INTERVAL)
+            this.syncExecutor.scheduleWithFixedDelay(this::force, syncInterval, syncInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Replays the logs of the graph over its current state, which should have been loaded from its snapshot, and
+     * opens the log for appending.
+     */
+    static TinkerWriteAheadLog open(final TinkerGraph graph, final Sync sync, final long syncInterval, final long compactionSize) {
+        final TinkerWriteAheadLog wal = new TinkerWriteAheadLog(graph, sync, syncInterval, compactionSize);
+        try {
+            if (wal.sealedFile.exists()) replay(graph, wal.sealedFile);
+            final long valid = wal.logFile.exists() ? replay(graph, wal.logFile) : 0;
+
+            final File parent = wal.logFile.getAbsoluteFile().getParentFile();
+            if (!parent.exists()) parent.mkdirs();
+            wal.channel = FileChannel.open(wal.logFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            // drop a partially written record so that new records follow the last complete one
+            wal.channel.truncate(valid);
+            wal.channel.position(valid);
+        } catch (IOException ex) {
+            wal.syncExecutor.shutdownNow();
+            wal.compactionExecutor.shutdownNow();
+            throw new UncheckedIOException(String.format("Could not open the write-ahead log at %s", wal.logFile), ex);
+        }
+
+        // a sealed log left by an interrupted compaction still needs to be compacted
+        if (wal.sealedFile.exists())
+            wal.compaction = wal.compactionExecutor.submit(wal::compact);
+        return wal;
+    }
+
+    void addVertex(final Vertex vertex) {
+        append(ADD_VERTEX, vertex.id(), vertex.label());
+    }
+
+    void removeVertex(final Vertex vertex) {
+        append(REMOVE_VERTEX, vertex.id());
+    }
+
+    /**
+     * Logs the addition of the edge along with the properties it was created with.
+     */
+    void addEdge(final Edge edge) {
+        final List<Object> fields = new ArrayList<>();
+        fields.add(edge.id());
+        fields.add(edge.label());
+        fields.add(edge.outVertex().id());
+        fields.add(edge.inVertex().id());
+        edge.properties().forEachRemaining(p -> {
+            fields.add(p.key());
+            fields.add(p.value());
+        });
+        append(ADD_EDGE, fields.toArray());
+    }
+
+    void removeEdge(final Edge edge) {
+        append(REMOVE_EDGE, edge.id());
+    }
+
+    void addVertexProperty(final VertexProperty<?> vertexProperty) {
+        append(ADD_VERTEX_PROPERTY, vertexProperty.element().id(), vertexProperty.id(), vertexProperty.key(), vertexProperty.value());
+    }
+
+    void removeVertexProperty(final VertexProperty<?> vertexProperty) {
+        append(REMOVE_VERTEX_PROPERTY, vertexProperty.element().id(), vertexProperty.id(), vertexProperty.key());
+    }
+
+    void setProperty(final Property<?> property) {
+        if (property.element() instanceof Edge) {
+            append(SET_EDGE_PROPERTY, property.element().id(), property.key(), property.value());
+        } else {
+            final VertexProperty<?> vertexProperty = (VertexProperty<?>) property.element();
+            append(SET_META_PROPERTY, vertexProperty.element().id(), vertexProperty.id(), property.key(), property.value());
+        }
+    }
+
+    void removeProperty(final Property<?> property) {
+        if (property.element() instanceof Edge) {
+            append(REMOVE_EDGE_PROPERTY, property.element().id(), property.key());
+        } else {
+            final VertexProperty<?> vertexProperty = (VertexProperty<?>) property.element();
+            append(REMOVE_META_PROPERTY, vertexProperty.element().id(), vertexProperty.id(), property.key());
+        }
+    }
+
+    void clear() {
+        append(CLEAR);
+    }
+
+    /**
+     * Saves a snapshot of the graph with the supplied action and then discards the logs that the snapshot makes
+     * redundant, waiting for any compaction in progress to finish first so that it cannot replace the newer snapshot.
+     * The snapshot also takes the place of a compaction that failed.
+     */
+    synchronized void checkpoint(final Runnable saveSnapshot) {
+        awaitCompaction();
+        saveSnapshot.run();
+        try {
+            this.channel.truncate(0);
+            this.channel.force(true);
+            Files.deleteIfExists(this.sealedFile.toPath());
+            this.compaction = null;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(String.format("Could not reset the write-ahead log at %s", this.logFile), ex);
+        }
+    }
+
+    /**
+     * Stops forcing and compacting the log and closes it, waiting for a compaction in progress to finish first. The
+     * log cannot be appended to once it is closed. If the last compaction failed and no checkpoint has taken its
+     * place since, the failure is thrown once the log is closed.
+     */
+    synchronized void close() {
+        Throwable failure = null;
+        try {
+            failure = awaitCompaction();
+        } finally {
+            shutdown(this.compactionExecutor);
+            shutdown(this.syncExecutor);
+
+            try {
+                this.channel.force(true);
+                this.channel.close();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(String.format("Could not close the write-ahead log at %s", this.logFile), ex);
+            }
+        }
+
+        if (null != failure)
+            throw new IllegalStateException(String.format("The last compaction of the write-ahead log at %s failed and is retried when the graph is next opened", this.sealedFile), failure);
+    }
+
+    boolean isClosed() {
+        return this.syncExecutor.isTerminated() && this.compactionExecutor.isTerminated() && !this.channel.isOpen();
+    }
+
+    private static void shutdown(final ExecutorService executor) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS))
+                executor.shutdownNow();
+        } catch (InterruptedException ex) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private synchronized void append(final byte operation, final Object... fields) {
+        try {
+            this.buffer.clear();
+            this.buffer.writeInt(0);
+            this.buffer.writeInt(0);
+            this.buffer.writeByte(operation);
+            for (Object field : fields) {
+                this.writer.write(field, this.buffer);
+            }
+
+            final ByteBuffer record = this.buffer.written();
+            final int length = record.remaining() - HEADER_LENGTH;
+            this.crc.reset();
+            this.crc.update((ByteBuffer) record.duplicate().position(HEADER_LENGTH));
+            record.putInt(0, length);
+            record.putInt(4, (int) this.crc.getValue());
+            while (record.hasRemaining()) {
+                this.channel.write(record);
+            }
+            if (this.sync == Sync.ALWAYS) this.channel.force(false);
+
+            if (this.compactionSize > 0 && this.channel.position() >= this.compactionSize &&
+                    (null == this.compaction || this.compaction.isDone()))
+                seal();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(String.format("Could not append to the write-ahead log at %s", this.logFile), ex);
+        }
+    }
+
+    /**
+     * Renames the log so that it can be compacted in the background and starts a new one. A sealed log that is left
+     * by a compaction that failed has the log appended to it instead, so that the next compaction retries it along
+     * with the records since.
+     */
+    private void seal() throws IOException {
+        this.channel.force(true);
+        this.channel.close();
+        if (this.sealedFile.exists()) {
+            try (FileChannel log = FileChannel.open(this.logFile.toPath(), StandardOpenOption.READ);
+                 FileChannel sealed = FileChannel.open(this.sealedFile.toPath(), StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                long position = 0;
+                while (position < log.size()) {
+                    position += log.transferTo(position, log.size() - position, sealed);
+                }
+                sealed.force(true);
+            }
+            // replaying the records of the log a second time from both files is harmless if this is interrupted
+            Files.delete(this.logFile.toPath());
+        } else {
+            Files.move(this.logFile.toPath(), this.sealedFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        }
+        this.channel = FileChannel.open(this.logFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        this.compaction = this.compactionExecutor.submit(this::compact);
+    }
+
+    /**
+     * Replays the sealed log over the snapshot in a separate graph and replaces the snapshot with it.
+     */
+    private void compact() {
+        try (final TinkerGraph compacted = TinkerGraph.open(scratchConfiguration(this.graph.configuration()))) {
+            TinkerGraph.readSnapshot(compacted, this.graph.graphLocation, this.graph.graphFormat);
+            replay(compacted, this.sealedFile);
+            TinkerGraph.writeSnapshot(compacted, this.graph.graphLocation, this.graph.graphFormat);
+            Files.deleteIfExists(this.sealedFile.toPath());
+        } catch (Exception ex) {
+            // the sealed log is kept so nothing is lost and compaction is retried when the log is next sealed or the
+            // graph is next opened
+            logger.error(String.format("Could not compact the write-ahead log at %s", this.sealedFile), ex);
+            throw new IllegalStateException(String.format("Could not compact the write-ahead log at %s", this.sealedFile), ex);
+        }
+    }
+
+    /**
+     * Gets the configuration of the graph that compaction replays the sealed log in, which keeps the settings that
+     * shape the data, like the identifier managers, but neither persists the graph nor runs threads of its own, so
+     * that it neither writes a snapshot or a log of its own when it is closed nor outlives the compaction.
+     */
+    static Configuration scratchConfiguration(final Configuration graphConfiguration) {
+        final Configuration configuration = ConfigurationUtils.cloneConfiguration(graphConfiguration);
+        configuration.clearProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION);
+        configuration.clearProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT);
+        configuration.clearProperty(TinkerGraph.GREMLIN_TINKERGRAPH_WAL);
+        configuration.clearProperty(TinkerGraph.GREMLIN_TINKERGRAPH_WAL_SYNC);
+        configuration.clearProperty(TinkerGraph.GREMLIN_TINKERGRAPH_WAL_SYNC_INTERVAL);
+        configuration.clearProperty(TinkerGraph.GREMLIN_TINKERGRAPH_WAL_COMPACTION_SIZE);
+        configuration.clearProperty(TinkerGraph.GREMLIN_TINKERGRAPH_SERVICE);
+        configuration.clearProperty(TinkerGraph.GREMLIN_TINKERGRAPH_PARALLEL_SCAN);
+        configuration.clearProperty(TinkerGraph.GREMLIN_TINKERGRAPH_BACKGROUND_INDEX);
+        return configuration;
+    }
+
+    /**
+     * Waits for a compaction in progress to finish, returning what the last compaction failed with or {@code null}
+     * if it did not fail.
+     */
+    Throwable awaitCompaction() {
+        if (null != this.compaction) {
+            try {
+                this.compaction.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(ex);
+            } catch (ExecutionException ex) {
+                return ex.getCause();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Forces the log without taking the lock, so that it does not wait for appends.
+     */
+    private void force() {
+        try {
+            this.channel.force(false);
+        } catch (ClosedChannelException ex) {
+            // the log was sealed after the channel was read and sealing forces it anyway
+        } catch (IOException ex) {
+            logger.warn(String.format("Could not force the write-ahead log at %s", this.logFile), ex);
+        }
+    }
+
+    /**
+     * Applies the records of the log file to the graph, returning the length of the log up to the end of the last
+     * complete record.
+     */
+    static long replay(final TinkerGraph graph, final File file) throws IOException {
+        final GraphBinaryReader reader = new GraphBinaryReader();
+        try (FileChannel in = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+            final CRC32 crc = new CRC32();
+            long valid = 0;
+            byte[] payload = new byte[256];
+            while (true) {
+                header.clear();
+                if (!readFully(in, header)) break;
+                final int length = header.getInt(0);
+                final int checksum = header.getInt(4);
+                if (length <= 0 || length > in.size() - in.position()) break;
+
+                if (payload.length < length) payload = new byte[length];
+                if (!readFully(in, ByteBuffer.wrap(payload, 0, length))) break;
+                crc.reset();
+                crc.update(payload, 0, length);
+                if ((int) crc.getValue() != checksum) break;
+
+                apply(graph, reader, new TinkerLogBuffer(ByteBuffer.wrap(payload, 0, length)));
+                valid = in.position();
+            }
+
+            if (valid < in.size())
+                logger.warn("Discarded {} bytes of an incomplete record at the end of the write-ahead log at {}", in.size() - valid, file);
+            return valid;
+        }
+    }
+
+    private static boolean readFully(final FileChannel in, final ByteBuffer destination) throws IOException {
+        while (destination.hasRemaining()) {
+            if (in.read(destination) < 0) return false;
+        }
+        return true;
+    }
+
+    private static void apply(final TinkerGraph graph, final GraphBinaryReader reader, final TinkerLogBuffer record) throws IOException {
+        final byte operation = record.readByte();
+        switch (operation) {
+            case ADD_VERTEX: {
+                final Object id = reader.read(record);
+                final String label = reader.read(record);
+                if (!graph.vertices.containsKey(id))
+                    graph.addVertex(T.id, id, T.label, label);
+                break;
+            }
+            case REMOVE_VERTEX: {
+                final Vertex vertex = graph.vertices.get(reader.read(record));
+                if (null != vertex) vertex.remove();
+                break;
+            }
+            case ADD_EDGE: {
+                final Object id = reader.read(record);
+                final String label = reader.read(record);
+                final Vertex outVertex = graph.vertices.get(reader.read(record));
+                final Vertex inVertex = graph.vertices.get(reader.read(record));
+                final List<Object> keyValues = new ArrayList<>();
+                keyValues.add(T.id);
+                keyValues.add(id);
+                while (record.readableBytes() > 0) {
+                    keyValues.add(reader.read(record));
+                }
+                if (null != outVertex && null != inVertex && !graph.edges.containsKey(id))
+                    outVertex.addEdge(label, inVertex, keyValues.toArray());
+                break;
+            }
+            case REMOVE_EDGE: {
+                final Edge edge = graph.edges.get(reader.read(record));
+                if (null != edge) edge.remove();
+                break;
+            }
+            case ADD_VERTEX_PROPERTY: {
+                final Vertex vertex = graph.vertices.get(reader.read(record));
+                final Object id = reader.read(record);
+                final String key = reader.read(record);
+                final Object value = reader.read(record);
+                if (null != vertex && null == vertexProperty(vertex, id, key))
+                    vertex.property(VertexProperty.Cardinality.list, key, value, T.id, id);
+                break;
+            }
+            case REMOVE_VERTEX_PROPERTY: {
+                final Vertex vertex = graph.vertices.get(reader.read(record));
+                final Object id = reader.read(record);
+                final String key = reader.read(record);
+                final VertexProperty<?> vertexProperty = null == vertex ? null : vertexProperty(vertex, id, key);
+                if (null != vertexProperty) vertexProperty.remove();
+                break;
+            }
+            case SET_META_PROPERTY: {
+                final Vertex vertex = graph.vertices.get(reader.read(record));
+                final Object id = reader.read(record);
+                final String key = reader.read(record);
+                final Object value = reader.read(record);
+                final VertexProperty<?> vertexProperty = null == vertex ? null : vertexProperty(vertex, id, null);
+                if (null != vertexProperty) vertexProperty.property(key, value);
+                break;
+            }
+            case REMOVE_META_PROPERTY: {
+                final Vertex vertex = graph.vertices.get(reader.read(record));
+                final Object id = reader.read(record);
+                final String key = reader.read(record);
+                final VertexProperty<?> vertexProperty = null == vertex ? null : vertexProperty(vertex, id, null);
+                if (null != vertexProperty) vertexProperty.properties(key).forEachRemaining(Property::remove);
+                break;
+            }
+            case SET_EDGE_PROPERTY: {
+                final Edge edge = graph.edges.get(reader.read(record));
+                final String key = reader.read(record);
+                final Object value = reader.read(record);
+                if (null != edge) edge.property(key, value);
+                break;
+            }
+            case REMOVE_EDGE_PROPERTY: {
+                final Edge edge = graph.edges.get(reader.read(record));
+                final String key = reader.read(record);
+                if (null != edge) edge.properties(key).forEachRemaining(Property::remove);
+                break;
+            }
+            case CLEAR:
+                graph.clear();
+                break;
+            default:
+                throw new IOException("Unknown write-ahead log operation: " + operation);
+        }
+    }
+
+    /**
+     * Finds the vertex property with the identifier, among those with the key if it is not {@code null}.
+     */
+    private static VertexProperty<?> vertexProperty(final Vertex vertex, final Object id, final String key) {
+        final Iterator<VertexProperty<Object>> properties = null == key ? vertex.properties() : vertex.properties(key);
+        while (properties.hasNext()) {
+            final VertexProperty<Object> vertexProperty = properties.next();
+            if (vertexProperty.id().equals(id)) return vertexProperty;
+        }
+        return null;
+    }
+}
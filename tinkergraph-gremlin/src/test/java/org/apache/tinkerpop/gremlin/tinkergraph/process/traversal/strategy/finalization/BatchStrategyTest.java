@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.finalization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Scope;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Batchable;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.TraversalFilterStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization.BatchStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__.out;
+import static org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__.select;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BatchStrategyTest {
+
+    private static final List<Function<GraphTraversalSource, Traversal<?, ?>>> TRAVERSALS = Arrays.asList(
+            g -> g.V().out(),
+            g -> g.V().out().out().id(),
+            g -> g.V().outE().inV().label(),
+            g -> g.V().both().has("name", P.neq("marko")).values("name"),
+            g -> g.V().out().out().path(),
+            g -> g.V().as("a").out().as("b").select("a", "b").by("name"),
+            g -> g.V().properties("location").value(),
+            g -> g.V().properties().key(),
+            g -> g.V().out().is(P.neq(null)).where(out()).id(),
+            g -> g.V().not(out("created")).values("name"),
+            g -> g.V().out().filter(t -> t.get().property("name").isPresent()).id(),
+            g -> g.V().repeat(out()).times(2).values("name"),
+            g -> g.V().local(out().limit(1)).id(),
+            g -> g.V().out().limit(3).id(),
+            g -> g.V().out().dedup().count(),
+            g -> g.V().out().has(T.label, "software").in().values("name").order());
+
+    @Test
+    public void shouldReturnSameResultsAsUnbatchedTraversal() {
+        for (final TinkerGraph graph : Arrays.asList(TinkerFactory.createModern(), TinkerFactory.createTheCrew())) {
+            for (final Function<GraphTraversalSource, Traversal<?, ?>> traversal : TRAVERSALS) {
+                final List<String> expected = results(traversal.apply(graph.traversal()));
+                for (final int batchSize : Arrays.asList(1, 2, 3, BatchStrategy.DEFAULT_BATCH_SIZE)) {
+                    assertEquals(expected, results(traversal.apply(graph.traversal().withStrategies(new BatchStrategy(batchSize)))));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void shouldLeaveOutStartsWithZeroBulk() {
+        final TinkerGraph graph = TinkerFactory.createModern();
+        final List<Supplier<Traversal.Admin<?, ?>>> traversals = Arrays.asList(
+                () -> __.out().values("name").asAdmin(),
+                () -> __.has("age").values("name").asAdmin(),
+                () -> __.id().asAdmin());
+        final List<List<String>> expected = Arrays.asList(
+                Arrays.asList("lop", "lop", "ripple"),
+                Arrays.asList("josh", "peter", "vadas"),
+                Arrays.asList("2", "3", "4", "5", "6"));
+
+        for (int i = 0; i < traversals.size(); i++) {
+            assertEquals(expected.get(i), resultsWithZeroBulkStart(graph, traversals.get(i).get(), graph.traversal()));
+            for (final int batchSize : Arrays.asList(1, 2, 3, BatchStrategy.DEFAULT_BATCH_SIZE)) {
+                assertEquals(expected.get(i), resultsWithZeroBulkStart(graph, traversals.get(i).get(),
+                        graph.traversal().withStrategies(new BatchStrategy(batchSize))));
+            }
+        }
+    }
+
+    @Test
+    public void shouldBatchStepsOfRootTraversal() {
+        final Traversal.Admin<?, ?> traversal = TinkerFactory.createModern().traversal().withStrategies(new BatchStrategy(16)).
+                V().out().has("name", "lop").where(__.in().has("age", P.gt(30))).id().asAdmin();
+        traversal.applyStrategies();
+
+        for (final Object step : traversal.getSteps()) {
+            assertEquals(step instanceof Batchable ? 16 : 0, ((AbstractStep<?, ?>) step).getBatchSize());
+        }
+        final TraversalFilterStep<?> where = TraversalHelper.getFirstStepOfAssignableClass(TraversalFilterStep.class, traversal).get();
+        assertEquals(16, where.getBatchSize());
+        for (final Object step : where.getLocalChildren().get(0).getSteps()) {
+            assertEquals(0, ((AbstractStep<?, ?>) step).getBatchSize());
+        }
+    }
+
+    @Test
+    public void shouldNotBatchStepsAfterSideEffects() {
+        final GraphTraversalSource g = TinkerFactory.createModern().traversal();
+        final List<String> expected = Arrays.asList("marko", "vadas");
+        assertEquals(expected, results(g.V().aggregate(Scope.local, "x").
+                filter(select("x").unfold().count().is(P.lt(3L))).values("name")));
+        for (final int batchSize : Arrays.asList(1, 2, 3, BatchStrategy.DEFAULT_BATCH_SIZE)) {
+            assertEquals(expected, results(g.withStrategies(new BatchStrategy(batchSize)).V().aggregate(Scope.local, "x").
+                    filter(select("x").unfold().count().is(P.lt(3L))).values("name")));
+        }
+
+        final Traversal.Admin<?, ?> traversal = g.withStrategies(new BatchStrategy(16)).
+                V().out().sideEffect(t -> {}).has("name", "lop").id().asAdmin();
+        traversal.applyStrategies();
+        // the lambda of sideEffect() could reach the side-effects so only out() ahead of it is batched
+        final List<Integer> batchSizes = traversal.getSteps().stream().
+                map(step -> ((AbstractStep<?, ?>) step).getBatchSize()).collect(Collectors.toList());
+        assertEquals(16, (int) batchSizes.get(1));
+        assertTrue(batchSizes.subList(2, batchSizes.size()).stream().allMatch(size -> 0 == size));
+    }
+
+    @Test
+    public void shouldNotBatchMutatingTraversal() {
+        final Traversal.Admin<?, ?> traversal = TinkerFactory.createModern().traversal().withStrategies(BatchStrategy.instance()).
+                V().out().property("visited", true).id().asAdmin();
+        traversal.applyStrategies();
+        assertTrue(traversal.getSteps().stream().allMatch(step -> 0 == ((AbstractStep<?, ?>) step).getBatchSize()));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotBatchStepThatIsNotBatchable() {
+        final Traversal.Admin<?, ?> traversal = TinkerFactory.createModern().traversal().V().out().limit(1).asAdmin();
+        ((AbstractStep<?, ?>) traversal.getEndStep()).setBatchSize(8);
+    }
+
+    /**
+     * Starts the traversal at every vertex of the graph where the first start, marko, has a bulk of zero.
+     */
+    private static List<String> resultsWithZeroBulkStart(final TinkerGraph graph, final Traversal.Admin traversal,
+                                                         final GraphTraversalSource g) {
+        traversal.setGraph(graph);
+        traversal.setStrategies(g.getStrategies());
+        traversal.applyStrategies();
+        final Vertex marko = graph.vertices(1).next();
+        traversal.addStart(traversal.getTraverserGenerator().generate(marko, traversal.getStartStep(), 0L));
+        graph.vertices().forEachRemaining(v -> {
+            if (!v.equals(marko))
+                traversal.addStart(traversal.getTraverserGenerator().generate(v, traversal.getStartStep(), 1L));
+        });
+        return results(traversal);
+    }
+
+    private static List<String> results(final Traversal<?, ?> traversal) {
+        return traversal.toStream().map(String::valueOf).sorted().collect(Collectors.toList());
+    }
+}
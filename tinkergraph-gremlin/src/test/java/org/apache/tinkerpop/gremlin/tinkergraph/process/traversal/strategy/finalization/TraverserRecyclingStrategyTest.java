@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.finalization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization.BatchStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization.TraverserRecyclingStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.DefaultTraverserGeneratorFactory;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.RecyclableTraverserGeneratorFactory;
+import org.apache.tinkerpop.gremlin.process.traversal.util.DefaultTraversal;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__.both;
+import static org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__.count;
+import static org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__.out;
+import static org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__.values;
+import static org.junit.Assert.assertEquals;
+
+public class TraverserRecyclingStrategyTest {
+
+    private static final List<Function<GraphTraversalSource, Traversal<?, ?>>> TRAVERSALS = Arrays.asList(
+            g -> g.V().out(),
+            g -> g.V().out().out().id(),
+            g -> g.V().both().both().count(),
+            g -> g.V().both().both().groupCount().by(T.label),
+            g -> g.V().both().both().values("name").groupCount(),
+            g -> g.V().outE().inV().label(),
+            g -> g.V().both().has("name", P.neq("marko")).values("name"),
+            g -> g.V().properties("location").value(),
+            g -> g.V().out().is(P.neq(null)).where(out()).id(),
+            g -> g.V().not(out("created")).values("name"),
+            g -> g.V().repeat(out()).times(2).values("name"),
+            g -> g.V().repeat(both()).times(3).dedup().count(),
+            g -> g.V().local(out().limit(1)).id(),
+            g -> g.V().out().limit(3).id(),
+            g -> g.V().both().order().by("name").values("name"),
+            g -> g.V().group().by(T.label).by(out().count()),
+            g -> g.V().group().by(T.label).by(both().both().values("name").fold()),
+            g -> g.V().project("a", "b").by(both().count()).by(out().values("name").fold()),
+            g -> g.V().choose(out().count().is(P.gt(1L)), values("name"), count()),
+            g -> g.V().union(out(), both().both()).barrier().id(),
+            g -> g.V().coalesce(out("knows"), out("created")).values("name"),
+            g -> g.withSack(1L).V().both().both().sack());
+
+    @Test
+    public void shouldReturnSameResultsAsTraversalWithoutRecycling() {
+        for (final TinkerGraph graph : Arrays.asList(TinkerFactory.createModern(), TinkerFactory.createTheCrew())) {
+            for (final Function<GraphTraversalSource, Traversal<?, ?>> traversal : TRAVERSALS) {
+                final List<String> expected = results(traversal.apply(graph.traversal()));
+                assertEquals(expected, results(traversal.apply(graph.traversal().withStrategies(TraverserRecyclingStrategy.instance()))));
+                assertEquals(expected, results(traversal.apply(graph.traversal().withStrategies(TraverserRecyclingStrategy.instance(), new BatchStrategy(2)))));
+                assertEquals(expected, iterated(traversal.apply(graph.traversal().withStrategies(TraverserRecyclingStrategy.instance()))));
+            }
+        }
+    }
+
+    @Test
+    public void shouldRecycleTraversersOfTraversal() {
+        final Traversal.Admin<?, ?> traversal = TinkerFactory.createModern().traversal().withStrategies(TraverserRecyclingStrategy.instance()).
+                V().out().out().count().asAdmin();
+        traversal.applyStrategies();
+        assertEquals(RecyclableTraverserGeneratorFactory.instance(), ((DefaultTraversal<?, ?>) traversal).getTraverserGeneratorFactory());
+    }
+
+    @Test
+    public void shouldNotRecycleTraversersOfTraversalWithLambda() {
+        final Traversal.Admin<?, ?> traversal = TinkerFactory.createModern().traversal().withStrategies(TraverserRecyclingStrategy.instance()).
+                V().out().filter(t -> t.get().property("name").isPresent()).count().asAdmin();
+        traversal.applyStrategies();
+        assertEquals(DefaultTraverserGeneratorFactory.instance(), ((DefaultTraversal<?, ?>) traversal).getTraverserGeneratorFactory());
+    }
+
+    @Test
+    public void shouldNotRecycleTraversersOfTraversalWithGroupSideEffect() {
+        final Traversal.Admin<?, ?> traversal = TinkerFactory.createModern().traversal().withStrategies(TraverserRecyclingStrategy.instance()).
+                V().group("x").by(T.label).by(out().count()).out().count().asAdmin();
+        traversal.applyStrategies();
+        assertEquals(DefaultTraverserGeneratorFactory.instance(), ((DefaultTraversal<?, ?>) traversal).getTraverserGeneratorFactory());
+    }
+
+    private static List<String> results(final Traversal<?, ?> traversal) {
+        return traversal.toStream().map(String::valueOf).sorted().collect(Collectors.toList());
+    }
+
+    private static List<String> iterated(final Traversal<?, ?> traversal) {
+        return traversal.toList().stream().map(String::valueOf).sorted().collect(Collectors.toList());
+    }
+}
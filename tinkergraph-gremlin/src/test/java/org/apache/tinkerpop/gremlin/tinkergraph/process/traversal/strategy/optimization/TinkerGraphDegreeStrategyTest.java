@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map.TinkerDegreeCountStep;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__.bothE;
+import static org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__.in;
+import static org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__.outE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TinkerGraphDegreeStrategyTest {
+
+    private static final List<Function<GraphTraversalSource, Traversal<?, ?>>> TRAVERSALS = Arrays.asList(
+            g -> g.V(1).outE("knows").count(),
+            g -> g.V().out().count(),
+            g -> g.V().both("knows", "created").count(),
+            g -> g.V().inE().count(),
+            g -> g.V().both().both().outE().count(),
+            g -> g.V().local(outE().count()),
+            g -> g.V().local(bothE("created").count()),
+            g -> g.V().where(outE().count().is(P.gt(1))).values("name"),
+            g -> g.V().where(in().count().is(P.lte(1))).values("name"),
+            g -> g.V().order().by(bothE().count()).by("name").values("name"),
+            g -> g.V().outE().limit(2).count(),
+            g -> g.V(100).bothE("self").count());
+
+    @Test
+    public void shouldReplaceCountsOfEdgesAndAdjacentVertices() {
+        final GraphTraversalSource g = createGraph().traversal();
+        for (final Function<GraphTraversalSource, Traversal<?, ?>> traversal : TRAVERSALS) {
+            final Traversal.Admin<?, ?> optimized = traversal.apply(g).asAdmin();
+            optimized.applyStrategies();
+            assertTrue(optimized.toString(), TraversalHelper.anyStepRecursively(s -> s instanceof TinkerDegreeCountStep, optimized));
+        }
+    }
+
+    @Test
+    public void shouldNotReplaceCountsOfFilteredEdges() {
+        final Traversal.Admin<?, ?> traversal = createGraph().traversal().V().outE().has("weight", P.gt(0.5)).count().asAdmin();
+        traversal.applyStrategies();
+        assertFalse(TraversalHelper.hasStepOfClass(TinkerDegreeCountStep.class, traversal));
+        assertTrue(TraversalHelper.hasStepOfClass(VertexStep.class, traversal));
+    }
+
+    @Test
+    public void shouldCountAsIteratingTheEdgesWould() {
+        final TinkerGraph graph = createGraph();
+        final GraphTraversalSource g = graph.traversal();
+        final GraphTraversalSource unoptimized = g.withoutStrategies(TinkerGraphDegreeStrategy.class);
+        for (final Function<GraphTraversalSource, Traversal<?, ?>> traversal : TRAVERSALS) {
+            assertEquals(traversal.apply(unoptimized).toList(), traversal.apply(g).toList());
+        }
+    }
+
+    @Test
+    public void shouldCapCountAtLimit() {
+        final GraphTraversalSource g = createGraph().traversal();
+        assertEquals(2L, g.V().outE().limit(2).count().next().longValue());
+        assertEquals(0L, g.V().outE().limit(0).count().next().longValue());
+        assertEquals(8L, g.V().outE().range(0, -1).count().next().longValue());
+    }
+
+    /**
+     * The modern graph with a vertex that has self-loops, which are counted twice in both directions.
+     */
+    private static TinkerGraph createGraph() {
+        final TinkerGraph graph = TinkerFactory.createModern();
+        final Vertex v = graph.addVertex(T.id, 100, "name", "loop");
+        v.addEdge("self", v);
+        v.addEdge("self", v);
+        return graph;
+    }
+}
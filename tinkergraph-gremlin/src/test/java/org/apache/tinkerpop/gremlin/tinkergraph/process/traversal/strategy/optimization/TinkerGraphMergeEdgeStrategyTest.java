@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization;
+
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.apache.tinkerpop.gremlin.process.traversal.Merge;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.MergeEdgeStep;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map.TinkerMergeEdgeStep;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__.select;
+import static org.apache.tinkerpop.gremlin.util.tools.CollectionFactory.asMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TinkerGraphMergeEdgeStrategyTest {
+
+    private static final List<Function<GraphTraversalSource, Traversal<?, ?>>> MERGES = Arrays.asList(
+            g -> g.mergeE(asMap(T.label, "knows", Direction.OUT, 0L, Direction.IN, 5L)),
+            g -> g.mergeE(asMap(T.label, "knows", Direction.OUT, 0L, Direction.IN, 1000L)),
+            g -> g.mergeE(asMap(T.label, "created", Direction.OUT, 0L, Direction.IN, 5L)),
+            g -> g.mergeE(asMap(Direction.OUT, 0L, Direction.IN, 7L)),
+            g -> g.mergeE(asMap(T.label, "knows", Direction.OUT, 0, Direction.IN, 9)),
+            g -> g.mergeE(asMap(T.label, "knows", Direction.OUT, 0L, Direction.IN, 11L, "weight", 11)),
+            g -> g.mergeE(asMap(T.label, "knows", Direction.OUT, 0L, Direction.IN, 12L, "weight", 0)),
+            g -> g.mergeE(asMap(T.label, "knows", Direction.OUT, 3L, Direction.IN, 0L)),
+            g -> g.mergeE(asMap(T.label, "knows", Direction.OUT, 0L)),
+            g -> g.mergeE(asMap(T.label, "knows", Direction.OUT, 0L, Direction.IN, 13L)).
+                    option(Merge.onMatch, asMap("weight", -1)).
+                    option(Merge.onCreate, asMap("weight", -2)),
+            g -> g.V(0L).as("a").V(14L).as("b").
+                    mergeE(asMap(T.label, "knows", Direction.OUT, Merge.outV, Direction.IN, Merge.inV)).
+                    option(Merge.outV, select("a")).option(Merge.inV, select("b")));
+
+    @Test
+    public void shouldReplaceMergeEdgeStepWithEndpointIndex() {
+        final Traversal.Admin<?, ?> traversal = MERGES.get(0).apply(createGraph(true).traversal()).asAdmin();
+        traversal.applyStrategies();
+        assertTrue(TraversalHelper.hasStepOfClass(TinkerMergeEdgeStep.class, traversal));
+        assertFalse(TraversalHelper.hasStepOfClass(MergeEdgeStep.class, traversal));
+    }
+
+    @Test
+    public void shouldNotReplaceMergeEdgeStepWithoutEndpointIndex() {
+        final Traversal.Admin<?, ?> traversal = MERGES.get(0).apply(createGraph(false).traversal()).asAdmin();
+        traversal.applyStrategies();
+        assertFalse(TraversalHelper.hasStepOfClass(TinkerMergeEdgeStep.class, traversal));
+        assertTrue(TraversalHelper.hasStepOfClass(MergeEdgeStep.class, traversal));
+    }
+
+    @Test
+    public void shouldMergeAsSearchingAdjacencyWould() {
+        final TinkerGraph indexed = createGraph(true);
+        final TinkerGraph unindexed = createGraph(false);
+        for (final Function<GraphTraversalSource, Traversal<?, ?>> merge : MERGES) {
+            assertEquals(ids(merge.apply(unindexed.traversal()).toList()), ids(merge.apply(indexed.traversal()).toList()));
+            assertEquals(edges(unindexed), edges(indexed));
+        }
+    }
+
+    @Test
+    public void shouldMaintainEndpointIndexAsEdgesAreRemoved() {
+        final TinkerGraph graph = createGraph(true);
+        final Map<Object, Object> merge = asMap(T.label, "knows", Direction.OUT, 0L, Direction.IN, 5L);
+        final Object id = graph.traversal().mergeE(merge).id().next();
+        graph.traversal().E(id).drop().iterate();
+        final Object created = graph.traversal().mergeE(merge).id().next();
+        assertFalse(id.equals(created));
+        assertEquals(created, graph.traversal().mergeE(merge).id().next());
+
+        // a second edge between the same vertices is matched along with the first until it is removed
+        final Object second = graph.traversal().V(0L).addE("knows").to(__.V(5L)).id().next();
+        assertEquals(2, graph.traversal().mergeE(merge).toList().size());
+        graph.traversal().E(second).drop().iterate();
+        assertEquals(created, graph.traversal().mergeE(merge).id().next());
+        assertEquals(1, graph.traversal().mergeE(merge).toList().size());
+    }
+
+    private static List<Object> ids(final List<?> edges) {
+        return edges.stream().map(e -> ((Edge) e).id()).sorted().collect(Collectors.toList());
+    }
+
+    private static List<String> edges(final TinkerGraph graph) {
+        return graph.traversal().E().order().by(T.id).toStream().
+                map(e -> e.outVertex().id() + "-" + e.label() + "->" + e.inVertex().id() + e.property("weight")).
+                collect(Collectors.toList());
+    }
+
+    /**
+     * A hub vertex with an edge to each of the other vertices, some of which are joined by more than one edge.
+     */
+    private static TinkerGraph createGraph(final boolean endpointIndex) {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_ENDPOINT_INDEX, endpointIndex);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_VERTEX_ID_MANAGER, TinkerGraph.DefaultIdManager.LONG.name());
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_EDGE_ID_MANAGER, TinkerGraph.DefaultIdManager.LONG.name());
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        final Vertex hub = graph.addVertex(T.id, 0L);
+        for (long i = 1; i <= 2000; i++) {
+            final Vertex v = graph.addVertex(T.id, i);
+            hub.addEdge("knows", v, "weight", (int) (i % 20));
+            if (i % 5 == 0) hub.addEdge("created", v);
+            if (i % 7 == 0) hub.addEdge("knows", v, "weight", 0);
+        }
+        return graph;
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TinkerAdjacencyTest {
+
+    @Test
+    public void shouldKeepOrderAcrossPromotion() {
+        final TinkerGraph graph = TinkerGraph.open();
+        final Vertex v = graph.addVertex(T.id, 0L);
+        final List<Object> expected = new ArrayList<>();
+        for (long i = 1; i <= TinkerAdjacency.PROMOTION_THRESHOLD * 2; i++) {
+            v.addEdge("knows", graph.addVertex(T.id, i), T.id, i);
+            expected.add(i);
+
+            assertEquals(expected, edgeIds(v, Direction.OUT));
+        }
+    }
+
+    @Test
+    public void shouldGroupByLabelInOrderOfLabels() {
+        final TinkerGraph graph = TinkerGraph.open();
+        final Vertex v = graph.addVertex(T.id, 0L);
+        final Vertex other = graph.addVertex(T.id, 100L);
+        v.addEdge("knows", other, T.id, 1L);
+        v.addEdge("created", other, T.id, 2L);
+        v.addEdge("knows", other, T.id, 3L);
+        v.addEdge("likes", other, T.id, 4L);
+
+        assertEquals(Arrays.asList(1L, 3L, 2L, 4L), edgeIds(v, Direction.OUT));
+        assertEquals(Arrays.asList(4L, 1L, 3L), edgeIds(v, Direction.OUT, "likes", "knows"));
+        assertEquals(Arrays.asList(1L, 3L, 2L, 4L), edgeIds(other, Direction.IN));
+        assertEquals(Arrays.asList(100L, 100L), IteratorUtils.list(IteratorUtils.map(v.vertices(Direction.OUT, "knows"), Vertex::id)));
+
+        graph.edges(1L).next().remove();
+        graph.edges(2L).next().remove();
+        assertEquals(Arrays.asList(3L, 4L), edgeIds(v, Direction.OUT));
+        assertEquals(Arrays.asList(3L, 4L), edgeIds(other, Direction.IN));
+    }
+
+    @Test
+    public void shouldRemoveFromPromotedGroups() {
+        final TinkerGraph graph = TinkerGraph.open();
+        final Vertex v = graph.addVertex(T.id, 0L);
+        final int edges = TinkerAdjacency.PROMOTION_THRESHOLD * 2 + 2;
+        for (long i = 1; i <= edges; i++) {
+            v.addEdge(i % 2 == 0 ? "even" : "odd", graph.addVertex(T.id, i), T.id, i);
+        }
+
+        // both labels pass the threshold so removal happens on promoted groups
+        final List<Object> expected = edgeIds(v, Direction.OUT);
+        for (long i = 1; i <= edges; i += 3) {
+            graph.edges(i).next().remove();
+            expected.remove(Long.valueOf(i));
+            assertEquals(expected, edgeIds(v, Direction.OUT));
+        }
+
+        v.edges(Direction.OUT).forEachRemaining(Edge::remove);
+        assertTrue(((TinkerVertex) v).outEdges.isEmpty());
+        assertEquals(0, IteratorUtils.count(v.edges(Direction.BOTH)));
+    }
+
+    @Test
+    public void shouldCountDegreesWithoutIterating() {
+        final TinkerGraph graph = TinkerGraph.open();
+        final TinkerVertex v = (TinkerVertex) graph.addVertex(T.id, 0L);
+        final Vertex other = graph.addVertex(T.id, 100L);
+        for (long i = 1; i <= TinkerAdjacency.PROMOTION_THRESHOLD + 5; i++) {
+            v.addEdge("knows", other, T.id, i);
+        }
+        v.addEdge("created", other, T.id, 1000L);
+        other.addEdge("likes", v, T.id, 1001L);
+        v.addEdge("self", v, T.id, 1002L);
+
+        for (final Direction direction : Direction.values()) {
+            for (final String[] labels : Arrays.asList(new String[0], new String[]{"knows"}, new String[]{"self", "likes"},
+                    new String[]{"knows", "knows"}, new String[]{"missing"})) {
+                assertEquals(IteratorUtils.count(v.edges(direction, labels)), TinkerHelper.getDegree(v, direction, labels));
+            }
+        }
+        assertEquals(TinkerAdjacency.PROMOTION_THRESHOLD + 7, TinkerHelper.getDegree(v, Direction.OUT));
+        assertEquals(2, TinkerHelper.getDegree(v, Direction.BOTH, "self"));
+
+        graph.edges(1L).next().remove();
+        assertEquals(TinkerAdjacency.PROMOTION_THRESHOLD + 4, TinkerHelper.getDegree(v, Direction.OUT, "knows"));
+    }
+
+    @Test
+    public void shouldHoldEdgeOnceBeforeAndAfterPromotion() {
+        final TinkerGraph graph = TinkerGraph.open();
+        final Vertex v = graph.addVertex(T.id, 0L);
+        final Vertex other = graph.addVertex(T.id, 100L);
+        final TinkerAdjacency adjacency = new TinkerAdjacency();
+        final List<Edge> edges = new ArrayList<>();
+        for (long i = 1; i <= TinkerAdjacency.PROMOTION_THRESHOLD + 1; i++) {
+            final Edge edge = v.addEdge("knows", other, T.id, i);
+            edges.add(edge);
+            adjacency.add("knows", edge);
+            adjacency.add("knows", edge);
+            adjacency.add("knows", edges.get(0));
+
+            // the edges are all held once whether the group is still an array or has been promoted to a set
+            assertEquals(i, adjacency.count(new String[0]));
+            final List<Edge> held = new ArrayList<>();
+            adjacency.forEach(new String[0], held::add);
+            assertEquals(edges, held);
+        }
+    }
+
+    private static List<Object> edgeIds(final Vertex v, final Direction direction, final String... labels) {
+        return IteratorUtils.list(IteratorUtils.map(v.edges(direction, labels), Edge::id));
+    }
+}
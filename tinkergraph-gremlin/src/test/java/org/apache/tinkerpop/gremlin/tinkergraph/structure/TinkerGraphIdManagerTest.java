@@ -25,6 +25,7 @@ import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.experimental.runners.Enclosed;
@@ -35,6 +36,7 @@ import java.util.Arrays;
 import java.util.UUID;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 
 /**
  * @author Stephen Mallette (http://stephen.genoprime.com)
@@ -45,6 +47,7 @@ public class TinkerGraphIdManagerTest {
     @RunWith(Parameterized.class)
     public static class NumberIdManagerTest {
         private static final Configuration longIdManagerConfig = new BaseConfiguration();
+        private static final Configuration longIdManagerPrimitiveStorageConfig = new BaseConfiguration();
         private static final Configuration integerIdManagerConfig = new BaseConfiguration();
 
         @Parameterized.Parameters(name = "{0}")
@@ -77,6 +80,11 @@ public class TinkerGraphIdManagerTest {
             longIdManagerConfig.addProperty(TinkerGraph.GREMLIN_TINKERGRAPH_VERTEX_ID_MANAGER, TinkerGraph.DefaultIdManager.LONG.name());
             longIdManagerConfig.addProperty(TinkerGraph.GREMLIN_TINKERGRAPH_VERTEX_PROPERTY_ID_MANAGER, TinkerGraph.DefaultIdManager.LONG.name());
 
+            longIdManagerPrimitiveStorageConfig.addProperty(TinkerGraph.GREMLIN_TINKERGRAPH_EDGE_ID_MANAGER, TinkerGraph.DefaultIdManager.LONG.name());
+            longIdManagerPrimitiveStorageConfig.addProperty(TinkerGraph.GREMLIN_TINKERGRAPH_VERTEX_ID_MANAGER, TinkerGraph.DefaultIdManager.LONG.name());
+            longIdManagerPrimitiveStorageConfig.addProperty(TinkerGraph.GREMLIN_TINKERGRAPH_VERTEX_PROPERTY_ID_MANAGER, TinkerGraph.DefaultIdManager.LONG.name());
+            longIdManagerPrimitiveStorageConfig.addProperty(TinkerGraph.GREMLIN_TINKERGRAPH_PRIMITIVE_ID_STORAGE, true);
+
             integerIdManagerConfig.addProperty(TinkerGraph.GREMLIN_TINKERGRAPH_EDGE_ID_MANAGER, TinkerGraph.DefaultIdManager.INTEGER.name());
             integerIdManagerConfig.addProperty(TinkerGraph.GREMLIN_TINKERGRAPH_VERTEX_ID_MANAGER, TinkerGraph.DefaultIdManager.INTEGER.name());
             integerIdManagerConfig.addProperty(TinkerGraph.GREMLIN_TINKERGRAPH_VERTEX_PROPERTY_ID_MANAGER, TinkerGraph.DefaultIdManager.INTEGER.name());
@@ -94,6 +102,27 @@ public class TinkerGraphIdManagerTest {
             assertEquals(300l, vp.id());
         }
 
+        @Test
+        public void shouldUseLongIdManagerWithPrimitiveIdStorageToCoerceTypes() {
+            final Graph graph = TinkerGraph.open(longIdManagerPrimitiveStorageConfig);
+            final Vertex v = graph.addVertex(T.id, vertexIdValue);
+            final VertexProperty vp = v.property(VertexProperty.Cardinality.single, "test", "value", T.id, vertexPropertyIdValue);
+            final Edge e = v.addEdge("self", v, T.id, edgeIdValue);
+
+            assertEquals(100l, v.id());
+            assertEquals(200l, e.id());
+            assertEquals(300l, vp.id());
+
+            assertEquals(v, graph.vertices(vertexIdValue).next());
+            assertEquals(e, graph.edges(edgeIdValue).next());
+            assertEquals(1, IteratorUtils.count(graph.vertices()));
+            assertEquals(1, IteratorUtils.count(graph.edges()));
+
+            v.remove();
+            assertFalse(graph.vertices(vertexIdValue).hasNext());
+            assertFalse(graph.edges(edgeIdValue).hasNext());
+        }
+
         @Test
         public void shouldUseIntegerIdManagerToCoerceTypes() {
             final Graph graph = TinkerGraph.open(integerIdManagerConfig);
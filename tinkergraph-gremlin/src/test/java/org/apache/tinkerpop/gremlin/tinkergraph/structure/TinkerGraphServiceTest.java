@@ -25,10 +25,14 @@ import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserSet;
 import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
 import org.apache.tinkerpop.gremlin.tinkergraph.services.TinkerDegreeCentralityFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.services.TinkerGeoSearchFactory;
 import org.apache.tinkerpop.gremlin.tinkergraph.services.TinkerServiceRegistry;
 import org.apache.tinkerpop.gremlin.tinkergraph.services.TinkerTextSearchFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.services.TinkerVectorSearchFactory;
 import org.apache.tinkerpop.gremlin.util.function.TriFunction;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 import org.apache.tinkerpop.shaded.jackson.databind.ObjectMapper;
@@ -37,6 +41,7 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
@@ -56,7 +61,11 @@ import static org.apache.tinkerpop.gremlin.structure.service.Service.Type;
 import static org.apache.tinkerpop.gremlin.tinkergraph.services.TinkerServiceRegistry.LambdaServiceFactory;
 import static org.apache.tinkerpop.gremlin.util.tools.CollectionFactory.asMap;
 import static org.junit.Assert.assertArrayEquals;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 
 /**
@@ -164,6 +173,376 @@ public class TinkerGraphServiceTest {
 
     }
 
+    /**
+     * Demonstrate / test the full text search service against a text index.
+     */
+    @Test
+    public void g_call_search_text_index() {
+        final TinkerGraph graph = TinkerGraph.open();
+        graph.getServiceRegistry().registerService(new TinkerTextSearchFactory(graph));
+        final GraphTraversalSource g = graph.traversal();
+
+        graph.createIndex("description", Vertex.class, TinkerGraph.IndexType.TEXT);
+        final Vertex v1 = graph.addVertex("description", "the quick brown fox");
+        graph.addVertex("description", "the lazy brown dog");
+        graph.addVertex("description", "Quick, quick, QUICK!");
+        final Vertex v4 = graph.addVertex("description", "a fox and a dog");
+
+        /*
+         * Matches are ordered by score, where shorter values mentioning the term more often score higher.
+         */
+        assertEquals(Arrays.asList("the quick brown fox", "a fox and a dog"),
+                g.call("tinker.search").with("query", "fox").with("key", "description").value().toList());
+
+        assertEquals(Arrays.asList("the quick brown fox"),
+                g.call("tinker.search", asMap("query", "+brown -dog", "key", "description")).value().toList());
+
+        assertEquals(Arrays.asList("Quick, quick, QUICK!"),
+                g.call("tinker.search").with("query", "qui*").with("key", "description").with("k", 1).value().toList());
+
+        /*
+         * The index follows changes to the indexed values.
+         */
+        v1.property("description", "slow red fox");
+        v4.remove();
+        assertEquals(Arrays.asList("Quick, quick, QUICK!"),
+                g.call("tinker.search").with("query", "quick").with("key", "description").with("type", "Vertex").value().toList());
+        assertEquals(Arrays.asList("the lazy brown dog"),
+                g.call("tinker.search").with("query", "dog").with("key", "description").value().toList());
+
+        try {
+            g.call("tinker.search").with("query", "fox").with("key", "name").iterate();
+            fail("Should not be able to query a key without a text index");
+        } catch (IllegalStateException ex) {
+            assertEquals("There is no text index for the key: name", ex.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldRescoreTextIndexWhenOneOfEqualValuesIsRemoved() {
+        final TinkerGraph graph = TinkerGraph.open();
+        graph.createIndex("description", Vertex.class, TinkerGraph.IndexType.TEXT);
+        final Vertex v1 = graph.addVertex(T.id, 1, "description", "quick fox", "description", "lazy fox");
+        final VertexProperty<Object> duplicate = v1.property(VertexProperty.Cardinality.list, "description", "lazy fox");
+        graph.addVertex(T.id, 2, "description", "quick fox lazy fox");
+
+        // once the duplicate is gone both vertices have the same terms so they score alike
+        duplicate.remove();
+        List<Map.Entry<TinkerVertex, Double>> ranked = graph.vertexIndex.searchText("description", TinkerTextIndex.Query.parse("lazy"), 0);
+        assertEquals(2, ranked.size());
+        assertEquals(ranked.get(0).getValue(), ranked.get(1).getValue(), 0.0d);
+
+        // the terms of the value that is left stay indexed
+        v1.properties("description").forEachRemaining(p -> {
+            if (p.value().equals("lazy fox")) p.remove();
+        });
+        ranked = graph.vertexIndex.searchText("description", TinkerTextIndex.Query.parse("lazy"), 0);
+        assertEquals(Collections.singletonList(2), ranked.stream().map(e -> e.getKey().id()).collect(Collectors.toList()));
+        ranked = graph.vertexIndex.searchText("description", TinkerTextIndex.Query.parse("+quick +fox"), 0);
+        assertEquals(2, ranked.size());
+    }
+
+    /**
+     * Demonstrate / test the nearest neighbour search service against a vector index.
+     */
+    @Test
+    public void g_call_knn() {
+        final TinkerGraph graph = TinkerGraph.open();
+        graph.getServiceRegistry().registerService(new TinkerVectorSearchFactory(graph));
+        final GraphTraversalSource g = graph.traversal();
+
+        graph.createVectorIndex("embedding", Vertex.class, TinkerGraph.VectorDistance.EUCLIDEAN);
+        final List<Vertex> vertices = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            vertices.add(graph.addVertex("name", "v" + i, "embedding", new float[] {i, 0f}));
+        }
+
+        /*
+         * Start a traversal from the nearest vertices to a vector.
+         */
+        assertEquals(Arrays.asList("v2", "v3", "v1"),
+                g.call("tinker.knn", asMap("key", "embedding", "vector", Arrays.asList(2.1, 0.0), "k", 3))
+                        .select("element").values("name").toList());
+        assertEquals(0.1, (double) g.call("tinker.knn").with("key", "embedding").with("vector", new double[] {2.1, 0.0}).with("k", 1)
+                        .select("distance").next(), 0.0001);
+
+        /*
+         * Find the nearest vertices to each incoming vertex by its own vector.
+         */
+        assertEquals(Arrays.asList("v1", "v2"),
+                g.V(vertices.get(0).id()).call("tinker.knn").with("key", "embedding").with("k", 2)
+                        .select("element").values("name").toList());
+
+        /*
+         * The index follows changes to the indexed values.
+         */
+        vertices.get(2).property("embedding", new float[] {100f, 0f});
+        vertices.get(3).remove();
+        assertEquals(Arrays.asList("v1", "v4", "v0"),
+                g.call("tinker.knn").with("key", "embedding").with("vector", Arrays.asList(2.1, 0.0)).with("k", 3)
+                        .select("element").values("name").toList());
+    }
+
+    @Test
+    public void shouldFindMostOfTheNearestNeighboursWithVectorIndex() {
+        final TinkerGraph graph = TinkerGraph.open();
+        graph.createVectorIndex("embedding", Vertex.class, TinkerGraph.VectorDistance.COSINE);
+
+        final Random random = new Random(123456789L);
+        final List<float[]> vectors = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            final float[] vector = new float[16];
+            for (int j = 0; j < vector.length; j++) {
+                vector[j] = (float) random.nextGaussian();
+            }
+            vectors.add(vector);
+            graph.addVertex(T.id, i, "embedding", vector);
+        }
+
+        int found = 0;
+        final int queries = 50;
+        final int k = 10;
+        for (int q = 0; q < queries; q++) {
+            final float[] query = vectors.get(random.nextInt(vectors.size()));
+            final List<Object> exact = IntStream.range(0, vectors.size()).boxed()
+                    .sorted(Comparator.comparingDouble(i -> cosineDistance(query, vectors.get(i))))
+                    .limit(k).collect(Collectors.toList());
+            final List<Map.Entry<Vertex, Double>> approximate = TinkerHelper.searchVectorIndex(graph, "embedding", query, k, 64, Vertex.class);
+
+            assertEquals(k, approximate.size());
+            found += approximate.stream().filter(e -> exact.contains(e.getKey().id())).count();
+        }
+
+        assertThat((double) found / (queries * k), greaterThan(0.9));
+    }
+
+    @Test
+    public void shouldNotFindRemovedElementsWithVectorIndex() {
+        final TinkerGraph graph = TinkerGraph.open();
+        graph.createVectorIndex("embedding", Vertex.class, TinkerGraph.VectorDistance.EUCLIDEAN);
+
+        final Random random = new Random(987654321L);
+        final List<float[]> vectors = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            final float[] vector = new float[16];
+            for (int j = 0; j < vector.length; j++) {
+                vector[j] = (float) random.nextGaussian();
+            }
+            vectors.add(vector);
+            graph.addVertex(T.id, i, "embedding", vector);
+        }
+
+        // removing three quarters of the vertices leaves more tombstones than indexed vertices along the way
+        final List<Integer> remaining = new ArrayList<>();
+        for (int i = 0; i < vectors.size(); i++) {
+            if (i % 4 == 0)
+                remaining.add(i);
+            else
+                graph.vertices(i).next().remove();
+        }
+
+        int found = 0;
+        final int queries = 50;
+        final int k = 10;
+        for (int q = 0; q < queries; q++) {
+            final float[] query = vectors.get(random.nextInt(vectors.size()));
+            final List<Object> exact = remaining.stream()
+                    .sorted(Comparator.comparingDouble(i -> euclideanDistance(query, vectors.get(i))))
+                    .limit(k).collect(Collectors.toList());
+            final List<Map.Entry<Vertex, Double>> approximate = TinkerHelper.searchVectorIndex(graph, "embedding", query, k, 64, Vertex.class);
+
+            assertEquals(k, approximate.size());
+            approximate.forEach(e -> assertEquals(0, (int) e.getKey().id() % 4));
+            found += approximate.stream().filter(e -> exact.contains(e.getKey().id())).count();
+        }
+
+        assertThat((double) found / (queries * k), greaterThan(0.9));
+
+        remaining.forEach(i -> graph.vertices(i).next().remove());
+        assertEquals(0, TinkerHelper.searchVectorIndex(graph, "embedding", vectors.get(0), k, 64, Vertex.class).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRequireDistanceToCreateVectorIndex() {
+        TinkerGraph.open().createIndex("embedding", Vertex.class, TinkerGraph.IndexType.VECTOR);
+    }
+
+    @Test
+    public void shouldNotWriteVectorOfOtherDimensionToVectorIndex() {
+        final TinkerGraph graph = TinkerGraph.open();
+        graph.createVectorIndex("embedding", Vertex.class, TinkerGraph.VectorDistance.EUCLIDEAN);
+        final Vertex v = graph.addVertex(T.id, 1, "embedding", new float[]{1f, 2f, 3f});
+
+        try {
+            graph.addVertex(T.id, 2, "embedding", new float[]{1f, 2f});
+            fail("Should not be able to add a vector of another dimension to the index");
+        } catch (IllegalArgumentException ex) {
+            assertEquals("The vector has 2 dimensions but the index for embedding has 3", ex.getMessage());
+        }
+
+        try {
+            v.property("embedding", Arrays.asList(1, 2, 3, 4));
+            fail("Should not be able to set a vector of another dimension on an indexed key");
+        } catch (IllegalArgumentException ex) {
+            assertEquals("The vector has 4 dimensions but the index for embedding has 3", ex.getMessage());
+        }
+
+        assertArrayEquals(new float[]{1f, 2f, 3f}, v.value("embedding"), 0f);
+        assertArrayEquals(new float[]{1f, 2f, 3f}, TinkerHelper.getIndexedVector(graph, "embedding", v), 0f);
+
+        // values that are not vectors are not indexed rather than rejected
+        v.property("embedding", "unknown");
+        assertEquals(0, TinkerHelper.searchVectorIndex(graph, "embedding", new float[]{1f, 2f, 3f}, 10, 64, Vertex.class).size());
+    }
+
+    @Test
+    public void shouldNotCreateVectorIndexOverVectorsOfDifferentDimensions() {
+        final TinkerGraph graph = TinkerGraph.open();
+        graph.addVertex(T.id, 1, "embedding", new float[]{1f, 2f, 3f});
+        graph.addVertex(T.id, 2, "embedding", new float[]{1f, 2f});
+
+        try {
+            graph.createVectorIndex("embedding", Vertex.class, TinkerGraph.VectorDistance.EUCLIDEAN);
+            fail("Should not be able to index vectors of different dimensions");
+        } catch (IllegalArgumentException ex) {
+            assertThat(ex.getMessage().startsWith("The vector has"), is(true));
+        }
+
+        assertThat(graph.getIndexedKeys(Vertex.class, TinkerGraph.IndexType.VECTOR).contains("embedding"), is(false));
+    }
+
+    private static double euclideanDistance(final float[] a, final float[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += (a[i] - b[i]) * (a[i] - b[i]);
+        }
+        return Math.sqrt(sum);
+    }
+
+    private static double cosineDistance(final float[] a, final float[] b) {
+        double dot = 0, normA = 0, normB = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        return 1 - dot / (Math.sqrt(normA) * Math.sqrt(normB));
+    }
+
+    /**
+     * Demonstrate / test the search service against a geospatial index.
+     */
+    @Test
+    public void g_call_geo() {
+        final TinkerGraph graph = TinkerGraph.open();
+        graph.getServiceRegistry().registerService(new TinkerGeoSearchFactory(graph));
+        final GraphTraversalSource g = graph.traversal();
+
+        graph.createGeoIndex("lat", "lon", Vertex.class);
+        final Vertex london = graph.addVertex("name", "london", "lat", 51.5072, "lon", -0.1276);
+        graph.addVertex("name", "paris", "lat", 48.8566, "lon", 2.3522);
+        graph.addVertex("name", "brussels", "lat", 50.8503, "lon", 4.3517);
+        graph.addVertex("name", "new york", "lat", 40.7128, "lon", -74.0060);
+        graph.addVertex("name", "fiji", "lat", -17.7134, "lon", 178.0650);
+        graph.addVertex("name", "samoa", "lat", -13.7590, "lon", -172.1046);
+        graph.addVertex("name", "nowhere", "lat", "unknown", "lon", 0.0);
+
+        /*
+         * Start a traversal from the vertices within a bounding box, which may cross the antimeridian.
+         */
+        assertEquals(Arrays.asList("brussels", "london", "paris"),
+                g.call("tinker.geo", asMap("latitudeKey", "lat", "longitudeKey", "lon", "box", Arrays.asList(45, -5, 55, 10)))
+                        .values("name").order().toList());
+        assertEquals(Arrays.asList("fiji", "samoa"),
+                g.call("tinker.geo").with("latitudeKey", "lat").with("longitudeKey", "lon").with("box", Arrays.asList(-20, 170, -10, -170))
+                        .values("name").order().toList());
+
+        /*
+         * Start a traversal from the vertices within a radius of a position or nearest to it, ordered from the nearest.
+         */
+        assertEquals(Arrays.asList("paris", "brussels", "london"),
+                g.call("tinker.geo").with("latitudeKey", "lat").with("longitudeKey", "lon")
+                        .with("center", Arrays.asList(48.8, 2.3)).with("radius", 400).values("name").toList());
+        assertEquals(Arrays.asList("fiji", "samoa"),
+                g.call("tinker.geo").with("latitudeKey", "lat").with("longitudeKey", "lon")
+                        .with("center", Arrays.asList(-15, 179.9)).with("k", 2).values("name").toList());
+
+        /*
+         * Find the nearest vertices to each incoming vertex by its own position.
+         */
+        assertEquals(Arrays.asList("brussels", "paris"),
+                g.V(london.id()).call("tinker.geo").with("latitudeKey", "lat").with("longitudeKey", "lon").with("k", 2)
+                        .values("name").toList());
+
+        /*
+         * The index follows changes to the indexed values.
+         */
+        london.property("lat", 40.7);
+        london.property("lon", -74.0);
+        g.V().has("name", "brussels").drop().iterate();
+        assertEquals(Collections.singletonList("paris"),
+                g.call("tinker.geo", asMap("latitudeKey", "lat", "longitudeKey", "lon", "box", Arrays.asList(45, -5, 55, 10)))
+                        .values("name").toList());
+        assertEquals(Arrays.asList("london", "new york"),
+                g.call("tinker.geo").with("latitudeKey", "lat").with("longitudeKey", "lon")
+                        .with("center", Arrays.asList(40.7, -74.0)).with("radius", 10).values("name").toList());
+    }
+
+    @Test
+    public void shouldFindSameElementsAsScanWithGeoIndex() {
+        final TinkerGraph graph = TinkerGraph.open();
+        graph.createGeoIndex("lat", "lon", Vertex.class);
+
+        final Random random = new Random(123456789L);
+        final List<double[]> positions = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            // most positions are clustered around a few cities so that cells range from empty to crowded
+            final double[] position = i % 5 == 0 ?
+                    new double[] {random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180} :
+                    new double[] {Math.max(-90, Math.min(90, (i % 3) * 30 + random.nextGaussian())),
+                            Math.max(-180, Math.min(180, (i % 4) * 50 - 90 + random.nextGaussian()))};
+            positions.add(position);
+            graph.addVertex(T.id, i, "lat", position[0], "lon", position[1]);
+        }
+
+        for (int q = 0; q < 50; q++) {
+            final double south = random.nextDouble() * 160 - 90;
+            final double north = south + random.nextDouble() * 20;
+            final double west = random.nextDouble() * 360 - 180;
+            final double east = random.nextDouble() < 0.2 ? west - 350 : Math.min(180, west + random.nextDouble() * 40);
+            final List<Object> exactWithin = IntStream.range(0, positions.size()).boxed()
+                    .filter(i -> positions.get(i)[0] >= south && positions.get(i)[0] <= north &&
+                            (west <= east ? positions.get(i)[1] >= west && positions.get(i)[1] <= east :
+                                    positions.get(i)[1] >= west || positions.get(i)[1] <= east))
+                    .collect(Collectors.toList());
+            assertEquals(exactWithin, TinkerHelper.searchGeoIndexWithin(graph, "lat", "lon", Vertex.class, south, west, north, east)
+                    .stream().map(v -> (Integer) v.id()).sorted().collect(Collectors.toList()));
+
+            final double[] center = positions.get(random.nextInt(positions.size()));
+            final double radius = random.nextDouble() * 2000;
+            final List<Object> exactRadius = IntStream.range(0, positions.size()).boxed()
+                    .filter(i -> distance(center, positions.get(i)) <= radius)
+                    .sorted(Comparator.comparingDouble(i -> distance(center, positions.get(i))))
+                    .collect(Collectors.toList());
+            assertEquals(exactRadius, TinkerHelper.searchGeoIndexNearest(graph, "lat", "lon", Vertex.class, center[0], center[1], radius, Integer.MAX_VALUE)
+                    .stream().map(e -> e.getKey().id()).collect(Collectors.toList()));
+
+            final List<Object> exactNearest = IntStream.range(0, positions.size()).boxed()
+                    .sorted(Comparator.comparingDouble(i -> distance(center, positions.get(i))))
+                    .limit(10).collect(Collectors.toList());
+            assertEquals(exactNearest, TinkerHelper.searchGeoIndexNearest(graph, "lat", "lon", Vertex.class, center[0], center[1], Double.POSITIVE_INFINITY, 10)
+                    .stream().map(e -> e.getKey().id()).collect(Collectors.toList()));
+        }
+    }
+
+    private static double distance(final double[] a, final double[] b) {
+        final double dLatitude = Math.toRadians(b[0] - a[0]);
+        final double dLongitude = Math.toRadians(b[1] - a[1]);
+        final double h = Math.pow(Math.sin(dLatitude / 2), 2) +
+                Math.cos(Math.toRadians(a[0])) * Math.cos(Math.toRadians(b[0])) * Math.pow(Math.sin(dLongitude / 2), 2);
+        return 2 * 6371.0088 * Math.asin(Math.min(1.0, Math.sqrt(h)));
+    }
+
     @Test
     public void g_V_call_degree_centrality() {
         assertArrayEquals(new String[] {
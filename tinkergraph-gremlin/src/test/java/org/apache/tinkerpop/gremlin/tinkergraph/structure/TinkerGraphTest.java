@@ -24,8 +24,10 @@ import org.apache.tinkerpop.gremlin.GraphHelper;
 import org.apache.tinkerpop.gremlin.TestHelper;
 import org.apache.tinkerpop.gremlin.process.computer.Computer;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.TextP;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.process.traversal.lambda.AbstractLambdaTraversal;
@@ -38,6 +40,7 @@ import org.apache.tinkerpop.gremlin.process.traversal.strategy.verification.Veri
 import org.apache.tinkerpop.gremlin.process.traversal.util.Metrics;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalMetrics;
+import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.T;
@@ -56,7 +59,9 @@ import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoClassResolverV1d0;
 import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoMapper;
 import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoVersion;
 import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoWriter;
+import org.apache.tinkerpop.gremlin.structure.util.GraphStatistics;
 import org.apache.tinkerpop.gremlin.structure.util.empty.EmptyGraph;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map.TinkerCountGlobalStep;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 import org.apache.tinkerpop.shaded.jackson.databind.ObjectMapper;
 import org.apache.tinkerpop.shaded.kryo.ClassResolver;
@@ -74,27 +79,35 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 
 import static org.apache.tinkerpop.gremlin.process.traversal.AnonymousTraversalSource.traversal;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.core.StringContains.containsString;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.junit.Assume.assumeThat;
@@ -226,6 +239,65 @@ public class TinkerGraphTest {
         }, 35)).has("name", "stephen").count().next());
     }
 
+    @Test
+    public void shouldRemoveAVertexWithMultiPropertiesFromIndices() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("name", Vertex.class);
+        g.createIndex("age", Vertex.class, TinkerGraph.IndexType.RANGE);
+
+        final Vertex v = g.addVertex("name", "marko", "age", 29);
+        v.property(VertexProperty.Cardinality.list, "name", "marko-a");
+        v.property(VertexProperty.Cardinality.list, "age", 30);
+        g.addVertex("name", "marko", "age", 29);
+
+        assertEquals(new Long(2), g.traversal().V().has("name", "marko").count().next());
+        assertEquals(new Long(1), g.traversal().V().has("name", "marko-a").count().next());
+        assertEquals(new Long(2), g.traversal().V().has("age", P.gte(29)).count().next());
+
+        v.remove();
+        assertEquals(new Long(1), g.traversal().V().has("name", "marko").count().next());
+        assertEquals(new Long(0), g.traversal().V().has("name", "marko-a").count().next());
+        assertEquals(new Long(1), g.traversal().V().has("age", P.gte(29)).count().next());
+        assertEquals(new Long(0), g.traversal().V().has("age", P.gt(29)).count().next());
+    }
+
+    @Test
+    public void shouldReadIndexLazilyForLimitedTraversal() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("status", Vertex.class);
+        for (int ix = 0; ix < 1000; ix++) {
+            g.addVertex("status", "active", "name", "v" + ix);
+        }
+
+        // only the vertices the limit() pulls through should be tested by the remaining has()
+        final AtomicInteger tested = new AtomicInteger(0);
+        assertEquals(10, g.traversal().V().has("status", "active").has("name", P.test((t, u) -> {
+            tested.incrementAndGet();
+            return true;
+        }, "")).limit(10).toList().size());
+        assertThat(tested.get(), lessThan(100));
+    }
+
+    @Test
+    public void shouldMutateElementsReadFromIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("status", Vertex.class);
+        g.createIndex("rank", Vertex.class, TinkerGraph.IndexType.RANGE);
+        for (int ix = 0; ix < 100; ix++) {
+            g.addVertex("status", "active", "rank", ix);
+        }
+
+        g.traversal().V().has("status", "active").property("status", "active").iterate();
+        assertEquals(new Long(100), g.traversal().V().has("status", "active").count().next());
+
+        g.traversal().V().has("rank", P.gte(50)).property("rank", __.values("rank").math("_ + 1")).iterate();
+        assertEquals(new Long(50), g.traversal().V().has("rank", P.gt(50)).count().next());
+        assertEquals(new Long(0), g.traversal().V().has("rank", P.gt(100)).count().next());
+
+        g.traversal().V().has("status", "active").drop().iterate();
+        assertEquals(0, IteratorUtils.count(g.vertices()));
+    }
+
     @Test
     public void shouldUpdateVertexIndicesInExistingGraph() {
         final TinkerGraph g = TinkerGraph.open();
@@ -328,6 +400,560 @@ public class TinkerGraphTest {
         }, 0.5)).has("oid", "1").count().next());
     }
 
+    @Test
+    public void shouldManageRangeIndices() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("name", Vertex.class);
+        g.createIndex("age", Vertex.class, TinkerGraph.IndexType.RANGE);
+        g.createIndex("weight", Edge.class, TinkerGraph.IndexType.RANGE);
+
+        assertEquals(new HashSet<>(Arrays.asList("name", "age")), g.getIndexedKeys(Vertex.class));
+        assertEquals(Collections.singleton("name"), g.getIndexedKeys(Vertex.class, TinkerGraph.IndexType.HASH));
+        assertEquals(Collections.singleton("age"), g.getIndexedKeys(Vertex.class, TinkerGraph.IndexType.RANGE));
+        assertEquals(Collections.singleton("weight"), g.getIndexedKeys(Edge.class, TinkerGraph.IndexType.RANGE));
+        assertEquals(0, g.getIndexedKeys(Edge.class, TinkerGraph.IndexType.HASH).size());
+
+        g.dropIndex("age", Vertex.class);
+        g.dropIndex("weight", Edge.class);
+        assertEquals(Collections.singleton("name"), g.getIndexedKeys(Vertex.class));
+        assertEquals(0, g.getIndexedKeys(Vertex.class, TinkerGraph.IndexType.RANGE).size());
+        assertEquals(0, g.getIndexedKeys(Edge.class).size());
+    }
+
+    @Test
+    public void shouldUseVertexRangeIndexForRangePredicates() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("age", Vertex.class, TinkerGraph.IndexType.RANGE);
+
+        g.addVertex("name", "marko", "age", 29);
+        g.addVertex("name", "vadas", "age", 27);
+        g.addVertex("name", "josh", "age", 32L);
+        g.addVertex("name", "peter", "age", 35.0d);
+        g.addVertex("name", "stephen", "age", "thirty");
+        g.addVertex("name", "daniel");
+
+        assertRangeIndexUsed(g, Arrays.asList("josh", "peter"), P.gt(29));
+        assertRangeIndexUsed(g, Arrays.asList("marko", "josh", "peter"), P.gte(29));
+        assertRangeIndexUsed(g, Collections.singletonList("vadas"), P.lt(29));
+        assertRangeIndexUsed(g, Arrays.asList("vadas", "marko"), P.lte(29));
+        assertRangeIndexUsed(g, Arrays.asList("marko", "josh"), P.between(29, 35));
+        assertRangeIndexUsed(g, Collections.singletonList("josh"), P.inside(29, 35));
+        assertRangeIndexUsed(g, Arrays.asList("vadas", "peter"), P.outside(29, 32));
+        assertRangeIndexUsed(g, Arrays.asList("vadas", "peter"), P.within(27, 35));
+        assertRangeIndexUsed(g, Collections.singletonList("josh"), P.eq(32));
+        assertRangeIndexUsed(g, Collections.singletonList("stephen"), P.eq("thirty"));
+        assertRangeIndexUsed(g, Collections.emptyList(), P.gt(100));
+    }
+
+    @Test
+    public void shouldUseVertexRangeIndexForStartingWith() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.addVertex("name", "marko", "age", 29);
+        g.addVertex("name", "mark", "age", 27);
+        g.addVertex("name", "markus", "age", 32);
+        g.addVertex("name", "mar", "age", 35);
+        g.addVertex("name", "josh", "age", 30);
+        g.addVertex("name", 100, "age", 31);
+
+        g.createIndex("name", Vertex.class, TinkerGraph.IndexType.RANGE);
+
+        // startingWith() is answered by the range index on name, so the ages of the other vertices never reach the
+        // predicate on age that follows it.
+        assertEquals(new Long(3), g.traversal().V().has("age", P.test((t, u) -> {
+            assertTrue(t.equals(29) || t.equals(27) || t.equals(32));
+            return true;
+        }, 0)).has("name", TextP.startingWith("mark")).count().next());
+        assertEquals(new Long(1), g.traversal().V().has("name", TextP.startingWith("marku")).count().next());
+        assertEquals(new Long(0), g.traversal().V().has("name", TextP.startingWith("q")).count().next());
+        assertEquals(new Long(5), g.traversal().V().has("name", TextP.startingWith("")).count().next());
+    }
+
+    @Test
+    public void shouldUpdateVertexRangeIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("age", Vertex.class, TinkerGraph.IndexType.RANGE);
+
+        final Vertex marko = g.addVertex("name", "marko", "age", 29);
+        final Vertex vadas = g.addVertex("name", "vadas", "age", 27);
+        g.addVertex("name", "josh", "age", 32);
+
+        assertRangeIndexUsed(g, Collections.singletonList("josh"), P.gt(30));
+
+        marko.property("age", 31);
+        assertRangeIndexUsed(g, Arrays.asList("marko", "josh"), P.gt(30));
+        assertRangeIndexUsed(g, Collections.singletonList("vadas"), P.lt(30));
+
+        marko.property("age").remove();
+        assertRangeIndexUsed(g, Collections.singletonList("josh"), P.gt(30));
+
+        vadas.remove();
+        assertRangeIndexUsed(g, Collections.emptyList(), P.lt(30));
+    }
+
+    @Test
+    public void shouldUseEdgeRangeIndexForRangePredicates() {
+        final TinkerGraph g = TinkerGraph.open();
+        final Vertex v = g.addVertex();
+        v.addEdge("friend", v, "oid", "1", "weight", 0.5f);
+        v.addEdge("friend", v, "oid", "2", "weight", 0.6f);
+        final Edge e = v.addEdge("friend", v, "oid", "3", "weight", 1.0f);
+
+        g.createIndex("weight", Edge.class, TinkerGraph.IndexType.RANGE);
+
+        // gt() on weight is answered by the range index, so only the heavier edges, oid 2 and 3, reach the predicate
+        // on oid.
+        assertEquals(new Long(2), g.traversal().E().has("oid", P.test((t, u) -> {
+            assertTrue(t.equals("2") || t.equals("3"));
+            return true;
+        }, "")).has("weight", P.gt(0.5)).count().next());
+
+        e.remove();
+        assertEquals(new Long(1), g.traversal().E().has("weight", P.gt(0.5)).count().next());
+        assertEquals(new Long(2), g.traversal().E().has("weight", P.between(0.5f, 1.0f)).count().next());
+    }
+
+    @Test
+    public void shouldManageCompositeIndices() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createCompositeIndex(Arrays.asList("tenantId", "externalId"), Vertex.class);
+        g.createCompositeIndex(Arrays.asList("tenantId", "externalId"), "person", Vertex.class);
+        g.createCompositeIndex(Arrays.asList("tenantId", "oid"), Edge.class);
+
+        assertEquals(Collections.singleton(Arrays.asList("tenantId", "externalId")), g.getCompositeIndexedKeys(Vertex.class, null));
+        assertEquals(Collections.singleton(Arrays.asList("tenantId", "externalId")), g.getCompositeIndexedKeys(Vertex.class, "person"));
+        assertEquals(0, g.getCompositeIndexedKeys(Vertex.class, "software").size());
+        assertEquals(Collections.singleton(Arrays.asList("tenantId", "oid")), g.getCompositeIndexedKeys(Edge.class, null));
+        assertEquals(0, g.getIndexedKeys(Vertex.class).size());
+
+        g.dropCompositeIndex(Arrays.asList("tenantId", "externalId"), Vertex.class);
+        g.dropCompositeIndex(Arrays.asList("tenantId", "oid"), Edge.class);
+        assertEquals(0, g.getCompositeIndexedKeys(Vertex.class, null).size());
+        assertEquals(1, g.getCompositeIndexedKeys(Vertex.class, "person").size());
+        assertEquals(0, g.getCompositeIndexedKeys(Edge.class, null).size());
+
+        g.dropCompositeIndex(Arrays.asList("better-not-error", "index-key-does-not-exist"), Vertex.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotCreateCompositeIndexWithNoKeys() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createCompositeIndex(Collections.emptyList(), Vertex.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotCreateCompositeIndexWithDuplicateKeys() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createCompositeIndex(Arrays.asList("tenantId", "tenantId"), Vertex.class);
+    }
+
+    @Test
+    public void shouldUseVertexCompositeIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createCompositeIndex(Arrays.asList("tenantId", "externalId"), Vertex.class);
+
+        g.addVertex("tenantId", "a", "externalId", 1, "name", "marko");
+        g.addVertex("tenantId", "a", "externalId", 2, "name", "vadas");
+        g.addVertex("tenantId", "b", "externalId", 1, "name", "josh");
+        final Vertex v = g.addVertex("tenantId", "b", "externalId", 2, "name", "peter");
+        g.addVertex("tenantId", "b", "name", "stephen");
+
+        // externalId and tenantId are looked up together in the composite index, so josh is the only vertex whose
+        // name is tested, although peter shares the tenant and marko the external id.
+        assertEquals(new Long(1), g.traversal().V().has("name", P.test((t, u) -> {
+            assertEquals("josh", t);
+            return true;
+        }, "")).has("externalId", 1).has("tenantId", "b").count().next());
+        assertEquals(new Long(0), g.traversal().V().has("tenantId", "c").has("externalId", 1).count().next());
+        assertEquals(new Long(3), g.traversal().V().has("tenantId", "b").count().next());
+
+        v.property("externalId", 1);
+        assertEquals(new Long(2), g.traversal().V().has("tenantId", "b").has("externalId", 1).count().next());
+        assertEquals(new Long(0), g.traversal().V().has("tenantId", "b").has("externalId", 2).count().next());
+
+        v.property("externalId").remove();
+        assertEquals(new Long(1), g.traversal().V().has("tenantId", "b").has("externalId", 1).count().next());
+
+        v.property("externalId", 2);
+        v.remove();
+        assertEquals(new Long(0), g.traversal().V().has("tenantId", "b").has("externalId", 2).count().next());
+    }
+
+    @Test
+    public void shouldUseLabelScopedVertexCompositeIndexInExistingGraph() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.addVertex(T.label, "person", "tenantId", "a", "externalId", 1, "name", "marko");
+        g.addVertex(T.label, "person", "tenantId", "a", "externalId", 2, "name", "vadas");
+        g.addVertex(T.label, "software", "tenantId", "a", "externalId", 1, "name", "lop");
+
+        g.createCompositeIndex(Arrays.asList("tenantId", "externalId"), "person", Vertex.class);
+
+        // the index is scoped to person, so it is only used because the traversal filters on that label as well, and
+        // then marko is the only vertex whose name is tested.
+        assertEquals(new Long(1), g.traversal().V().hasLabel("person").has("name", P.test((t, u) -> {
+            assertEquals("marko", t);
+            return true;
+        }, "")).has("tenantId", "a").has("externalId", 1).count().next());
+
+        // without the label the index cannot be used
+        assertEquals(new Long(2), g.traversal().V().has("tenantId", "a").has("externalId", 1).count().next());
+        assertEquals(new Long(1), g.traversal().V().hasLabel("software").has("tenantId", "a").has("externalId", 1).count().next());
+
+        // mergeV() searches with the label and keys and therefore uses the index
+        g.traversal().mergeV(new HashMap<Object, Object>() {{
+            put(T.label, "person");
+            put("tenantId", "a");
+            put("externalId", 1);
+        }}).property("name", "marko-a").iterate();
+        assertEquals(3, IteratorUtils.count(g.vertices()));
+        assertEquals("marko-a", g.traversal().V().hasLabel("person").has("tenantId", "a").has("externalId", 1).values("name").next());
+    }
+
+    @Test
+    public void shouldUseVertexCompositeIndexWithMultiProperties() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createCompositeIndex(Arrays.asList("tenantId", "alias"), Vertex.class);
+
+        final Vertex v = g.addVertex("tenantId", "a");
+        v.property(VertexProperty.Cardinality.list, "alias", "marko");
+        v.property(VertexProperty.Cardinality.list, "alias", "marko-a");
+
+        assertEquals(new Long(1), g.traversal().V().has("tenantId", "a").has("alias", "marko").count().next());
+        assertEquals(new Long(1), g.traversal().V().has("tenantId", "a").has("alias", "marko-a").count().next());
+
+        v.properties("alias").forEachRemaining(p -> {
+            if (p.value().equals("marko")) p.remove();
+        });
+        assertEquals(new Long(0), g.traversal().V().has("tenantId", "a").has("alias", "marko").count().next());
+        assertEquals(new Long(1), g.traversal().V().has("tenantId", "a").has("alias", "marko-a").count().next());
+    }
+
+    @Test
+    public void shouldUseEdgeCompositeIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createCompositeIndex(Arrays.asList("oid", "weight"), "friend", Edge.class);
+
+        final Vertex v = g.addVertex();
+        v.addEdge("friend", v, "oid", "1", "weight", 0.5f, "name", "a");
+        final Edge e = v.addEdge("friend", v, "oid", "1", "weight", 0.6f, "name", "b");
+        v.addEdge("knows", v, "oid", "1", "weight", 0.5f, "name", "c");
+
+        // oid and weight are looked up together in the index scoped to friend, so edge "a" is the only edge whose name
+        // is tested, although "b" shares its oid and the knows edge "c" its oid and weight.
+        assertEquals(new Long(1), g.traversal().E().hasLabel("friend").has("name", P.test((t, u) -> {
+            assertEquals("a", t);
+            return true;
+        }, "")).has("oid", "1").has("weight", 0.5f).count().next());
+
+        e.property("weight", 0.5f);
+        assertEquals(new Long(2), g.traversal().E().hasLabel("friend").has("oid", "1").has("weight", 0.5f).count().next());
+
+        e.remove();
+        assertEquals(new Long(1), g.traversal().E().hasLabel("friend").has("oid", "1").has("weight", 0.5f).count().next());
+    }
+
+    @Test
+    public void shouldUseVertexLabelIndex() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_LABEL_INDEX, true);
+        final TinkerGraph g = TinkerGraph.open(conf);
+
+        g.addVertex(T.label, "person", "name", "marko");
+        final Vertex vadas = g.addVertex(T.label, "person", "name", "vadas");
+        g.addVertex(T.label, "software", "name", "lop");
+        g.addVertex(T.label, "animal", "name", "mittens");
+
+        // hasLabel() is answered by the label index, so the software and animal vertices never reach the predicate
+        // on name.
+        assertEquals(new Long(2), g.traversal().V().hasLabel("person").has("name", P.test((t, u) -> {
+            assertTrue(t.equals("marko") || t.equals("vadas"));
+            return true;
+        }, "")).count().next());
+        assertEquals(new Long(3), g.traversal().V().hasLabel("person", "software").has("name", P.test((t, u) -> {
+            assertTrue(!t.equals("mittens"));
+            return true;
+        }, "")).count().next());
+
+        assertEquals(new Long(2), g.traversal().V().hasLabel("person").count().next());
+        assertEquals(new Long(3), g.traversal().V().hasLabel("person", "software", "other").count().next());
+        assertEquals(new Long(0), g.traversal().V().hasLabel("other").count().next());
+
+        vadas.remove();
+        assertEquals(new Long(1), g.traversal().V().hasLabel("person").count().next());
+        assertEquals(Collections.singletonList("marko"), g.traversal().V().hasLabel("person").values("name").toList());
+
+        g.clear();
+        assertEquals(new Long(0), g.traversal().V().hasLabel("person").count().next());
+    }
+
+    @Test
+    public void shouldUseEdgeLabelIndex() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_LABEL_INDEX, true);
+        final TinkerGraph g = TinkerGraph.open(conf);
+
+        final Vertex v = g.addVertex();
+        v.addEdge("knows", v, "weight", 0.5f);
+        final Edge e = v.addEdge("knows", v, "weight", 0.6f);
+        v.addEdge("created", v, "weight", 1.0f);
+
+        // hasLabel() is answered by the label index, so the created edge never reaches the predicate on weight.
+        assertEquals(new Long(2), g.traversal().E().hasLabel("knows").has("weight", P.test((t, u) -> {
+            assertTrue(t.equals(0.5f) || t.equals(0.6f));
+            return true;
+        }, 0.0f)).count().next());
+        assertEquals(new Long(2), g.traversal().E().hasLabel("knows").count().next());
+
+        e.remove();
+        assertEquals(new Long(1), g.traversal().E().hasLabel("knows").count().next());
+
+        v.remove();
+        assertEquals(new Long(0), g.traversal().E().hasLabel("knows", "created").count().next());
+    }
+
+    @Test
+    public void shouldCountWithLabelIndexOnlyWhenFilteringByLabel() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_LABEL_INDEX, true);
+        final TinkerGraph g = TinkerGraph.open(conf);
+        g.addVertex(T.label, "person", "name", "marko");
+        g.addVertex(T.label, "person", "name", "vadas");
+
+        final Traversal.Admin<?, ?> labelCount = g.traversal().V().hasLabel("person").count().asAdmin();
+        labelCount.applyStrategies();
+        assertEquals(1, labelCount.getSteps().size());
+        assertTrue(labelCount.getEndStep() instanceof TinkerCountGlobalStep);
+
+        final Traversal.Admin<?, ?> filteredCount = g.traversal().V().hasLabel("person").has("name", "marko").count().asAdmin();
+        filteredCount.applyStrategies();
+        assertEquals(2, filteredCount.getSteps().size());
+        assertEquals(1L, filteredCount.next());
+
+        // without the label index the count is not rewritten
+        final Traversal.Admin<?, ?> unindexedCount = TinkerGraph.open().traversal().V().hasLabel("person").count().asAdmin();
+        unindexedCount.applyStrategies();
+        assertEquals(2, unindexedCount.getSteps().size());
+    }
+
+    @Test
+    public void shouldScanInParallelInOrderOfSequentialScan() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_PARALLEL_SCAN, 4);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_PARALLEL_SCAN_THRESHOLD, 100);
+        final TinkerGraph parallel = TinkerGraph.open(conf);
+        final TinkerGraph sequential = TinkerGraph.open();
+        final Random random = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            final double score = random.nextDouble();
+            final String label = i % 3 == 0 ? "person" : "software";
+            final Vertex pv = parallel.addVertex(T.id, (long) i, T.label, label, "score", score, "name", "v" + i);
+            final Vertex sv = sequential.addVertex(T.id, (long) i, T.label, label, "score", score, "name", "v" + i);
+            if (i > 0) {
+                pv.addEdge("next", parallel.vertices((long) i - 1).next(), "score", score);
+                sv.addEdge("next", sequential.vertices((long) i - 1).next(), "score", score);
+            }
+        }
+
+        final Set<String> threads = Collections.synchronizedSet(new HashSet<>());
+        final List<Object> names = parallel.traversal().V().has("score", P.gt(0.9)).has("name", P.test((t, u) -> {
+            threads.add(Thread.currentThread().getName());
+            return true;
+        }, "")).values("name").toList();
+        assertEquals(sequential.traversal().V().has("score", P.gt(0.9)).values("name").toList(), names);
+        // the elements are all tested by the workers of the pool
+        assertThat(threads.isEmpty(), is(false));
+        assertThat(threads.contains(Thread.currentThread().getName()), is(false));
+
+        assertEquals(sequential.traversal().V().hasLabel("person").has("score", P.lt(0.1)).id().toList(),
+                parallel.traversal().V().hasLabel("person").has("score", P.lt(0.1)).id().toList());
+        assertEquals(sequential.traversal().E().has("score", P.between(0.2, 0.3)).id().toList(),
+                parallel.traversal().E().has("score", P.between(0.2, 0.3)).id().toList());
+        assertEquals(sequential.traversal().V().has("score", P.gt(0.5)).limit(10).id().toList(),
+                parallel.traversal().V().has("score", P.gt(0.5)).limit(10).id().toList());
+    }
+
+    @Test
+    public void shouldShutDownParallelScanPoolWhenGraphIsClosed() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_PARALLEL_SCAN, 2);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_PARALLEL_SCAN_THRESHOLD, 0);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(graph);
+        assertEquals(4L, (long) graph.traversal().V().has("age").count().next());
+
+        graph.close();
+        assertThat(graph.scanPool.isShutdown(), is(true));
+        assertNull(TinkerHelper.getParallelScanPool(graph));
+
+        // scans of a closed graph are no longer partitioned
+        assertEquals(4L, (long) graph.traversal().V().has("age").count().next());
+        graph.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotAllowNegativeParallelScan() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_PARALLEL_SCAN, -1);
+        TinkerGraph.open(conf);
+    }
+
+    @Test
+    public void shouldBuildIndexInBackgroundWhileMutating() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_BACKGROUND_INDEX, true);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        for (int i = 0; i < 20000; i++) {
+            graph.addVertex(T.id, (long) i, "group", i % 50, "score", (double) i);
+        }
+
+        graph.createIndex("group", Vertex.class);
+        graph.createIndex("score", Vertex.class, TinkerGraph.IndexType.RANGE);
+        graph.getIndexProgress(Vertex.class).values().forEach(progress ->
+                assertThat(progress >= 0.0 && progress <= 1.0, is(true)));
+
+        // move vertices to other groups, remove some and add others while the indices may still be building
+        final Random random = new Random(42);
+        for (int i = 0; i < 3000; i++) {
+            final Iterator<Vertex> vertices = graph.vertices((long) random.nextInt(20000));
+            if (!vertices.hasNext()) continue;
+            final Vertex v = vertices.next();
+            if (i % 3 == 0) {
+                v.property("group", 50 + i % 5);
+                v.property("score", -1.0 - i);
+            } else if (i % 3 == 1) {
+                v.remove();
+            } else {
+                graph.addVertex(T.id, 20000L + i, "group", 60, "score", 1000000.0 + i);
+            }
+        }
+
+        graph.awaitIndex("group", Vertex.class);
+        graph.awaitIndex("score", Vertex.class);
+        assertThat(graph.getIndexProgress(Vertex.class).isEmpty(), is(true));
+        assertThat(graph.getIndexedKeys(Vertex.class, TinkerGraph.IndexType.HASH).contains("group"), is(true));
+        assertThat(graph.getIndexedKeys(Vertex.class, TinkerGraph.IndexType.RANGE).contains("score"), is(true));
+
+        final Map<Object, Long> groups = new HashMap<>();
+        graph.vertices().forEachRemaining(v -> groups.merge(v.value("group"), 1L, Long::sum));
+        for (int group = 0; group <= 60; group++) {
+            assertEquals(groups.getOrDefault(group, 0L).longValue(),
+                    IteratorUtils.count(TinkerHelper.queryVertexIndex(graph, "group", group)));
+        }
+        final long negative = IteratorUtils.count(IteratorUtils.filter(graph.vertices(), v -> v.<Double>value("score") < 0.0));
+        assertEquals(negative, graph.traversal().V().has("score", P.lt(0.0)).count().next().longValue());
+        final long added = IteratorUtils.count(IteratorUtils.filter(graph.vertices(), v -> v.<Double>value("score") >= 1000000.0));
+        assertEquals(added, graph.traversal().V().has("score", P.gte(1000000.0)).count().next().longValue());
+    }
+
+    @Test
+    public void shouldDropIndexBeingBuiltInBackground() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_BACKGROUND_INDEX, true);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        for (int i = 0; i < 20000; i++) {
+            graph.addVertex(T.id, (long) i, "group", i % 50);
+        }
+
+        graph.createIndex("group", Vertex.class);
+        graph.dropIndex("group", Vertex.class);
+        assertThat(graph.getIndexProgress(Vertex.class).isEmpty(), is(true));
+        assertThat(graph.getIndexedKeys(Vertex.class).isEmpty(), is(true));
+        assertEquals(0, IteratorUtils.count(TinkerHelper.queryVertexIndex(graph, "group", 0)));
+
+        graph.createIndex("group", Vertex.class);
+        graph.awaitIndex("group", Vertex.class);
+        assertEquals(400, IteratorUtils.count(TinkerHelper.queryVertexIndex(graph, "group", 0)));
+    }
+
+    @Test
+    public void shouldUseMostSelectiveIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("country", Vertex.class);
+        g.createIndex("email", Vertex.class);
+        g.createIndex("age", Vertex.class, TinkerGraph.IndexType.RANGE);
+        for (int i = 0; i < 200; i++) {
+            g.addVertex("name", "v" + i, "country", i < 190 ? "us" : "fr", "email", "v" + i + "@example.com", "age", i);
+        }
+
+        // the country is the first equality but the email bucket is the smaller
+        assertEquals(Collections.singleton("v5"), testedNames(g, t -> t.has("country", "us").has("email", "v5@example.com")));
+        // the range of ages is narrower than the bucket of the country
+        assertEquals(new HashSet<>(Arrays.asList("v10", "v11")), testedNames(g, t -> t.has("country", "us").has("age", P.between(10, 12))));
+        // the bucket of the country is narrower than the range of ages
+        assertEquals(10, testedNames(g, t -> t.has("country", "fr").has("age", P.gt(5))).size());
+    }
+
+    @Test
+    public void shouldIntersectIndexedBuckets() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("a", Vertex.class);
+        g.createIndex("b", Vertex.class);
+        for (int i = 0; i < 1000; i++) {
+            g.addVertex("name", "v" + i, "a", i % 2, "b", i % 3);
+        }
+
+        // only the elements in both buckets are tested
+        final Set<String> names = testedNames(g, t -> t.has("a", 0).has("b", 0));
+        assertEquals(167, names.size());
+        assertEquals(g.traversal().V().has("a", 0).has("b", 0).values("name").toSet(), names);
+        assertEquals(0, testedNames(g, t -> t.has("a", 0).has("b", 5)).size());
+    }
+
+    @Test
+    public void shouldProvideStatistics() {
+        final TinkerGraph g = TinkerFactory.createModern();
+        g.createIndex("name", Vertex.class);
+        g.createIndex("age", Vertex.class, TinkerGraph.IndexType.RANGE);
+        final GraphStatistics statistics = g.getStatistics();
+
+        assertEquals(6, statistics.count(Vertex.class));
+        assertEquals(6, statistics.count(Edge.class));
+        assertEquals(4, statistics.countLabel(Vertex.class, "person"));
+        assertEquals(2, statistics.countLabel(Edge.class, "knows"));
+        assertEquals(0, statistics.countLabel(Vertex.class, "knows"));
+        assertEquals(2, statistics.countDistinct(Vertex.class, T.label.getAccessor()));
+        assertEquals(1, statistics.countValue(Vertex.class, "name", "marko"));
+        assertEquals(6, statistics.countDistinct(Vertex.class, "name"));
+        assertEquals(1, statistics.countValue(Vertex.class, "age", 29));
+        assertEquals(4, statistics.countDistinct(Vertex.class, "age"));
+        assertEquals(GraphStatistics.UNKNOWN, statistics.countValue(Vertex.class, "lang", "java"));
+        assertEquals(GraphStatistics.UNKNOWN, statistics.countDistinct(Edge.class, "weight"));
+        assertEquals(1.0 / 6, statistics.selectivity(Vertex.class, "name", "marko"), 0.0001);
+        assertEquals(1.0, statistics.selectivity(Vertex.class, "lang", "java"), 0.0001);
+
+        g.vertices(1).next().remove();
+        assertEquals(3, statistics.countLabel(Vertex.class, "person"));
+        assertEquals(0, statistics.countLabel(Edge.class, "knows"));
+        assertEquals(0, statistics.countValue(Vertex.class, "name", "marko"));
+
+        g.clear();
+        assertEquals(0, statistics.countLabel(Vertex.class, "person"));
+        assertEquals(GraphStatistics.EMPTY.countLabel(Vertex.class, "person"), EmptyGraph.instance().getStatistics().countLabel(Vertex.class, "person"));
+    }
+
+    /**
+     * Gets the names of the vertices that are tested by the filter after those that the indices return.
+     */
+    private static Set<String> testedNames(final TinkerGraph g, final UnaryOperator<GraphTraversal<Vertex, Vertex>> filter) {
+        final Set<String> tested = new HashSet<>();
+        filter.apply(g.traversal().V().has("name", P.test((t, u) -> {
+            tested.add((String) t);
+            return true;
+        }, ""))).iterate();
+        return tested;
+    }
+
+    /**
+     * Asserts that the traversal over the "age" range index only ever tests the "name" of matching vertices.
+     */
+    private static void assertRangeIndexUsed(final TinkerGraph g, final List<String> expected, final P<?> predicate) {
+        final List<Object> names = g.traversal().V().has("name", P.test((t, u) -> {
+            assertTrue(expected.contains(t));
+            return true;
+        }, "")).has("age", predicate).values("name").toList();
+        assertEquals(new HashSet<>(expected), new HashSet<>(names));
+        assertEquals(expected.size(), names.size());
+    }
+
     @Test
     public void shouldSerializeTinkerGraphToGryo() throws Exception {
         final TinkerGraph graph = TinkerFactory.createModern();
@@ -514,6 +1140,149 @@ public class TinkerGraphTest {
         reloadedGraph.close();
     }
 
+    @Test
+    public void shouldPersistToSnapshot() {
+        final String graphLocation = TestHelper.makeTestDataFile(TinkerGraphTest.class, "shouldPersistToSnapshot.bin");
+        final File f = new File(graphLocation);
+        if (f.exists() && f.isFile()) f.delete();
+
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, "snapshot");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, graphLocation);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(graph);
+        graph.close();
+
+        final TinkerGraph reloadedGraph = TinkerGraph.open(conf);
+        IoTest.assertModernGraph(reloadedGraph, true, false);
+        reloadedGraph.close();
+    }
+
+    @Test
+    public void shouldPersistToSnapshotAndHandleMultiProperties() {
+        final String graphLocation = TestHelper.makeTestDataFile(TinkerGraphTest.class, "shouldPersistToSnapshotMulti.bin");
+        final File f = new File(graphLocation);
+        if (f.exists() && f.isFile()) f.delete();
+
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, "snapshot");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, graphLocation);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateTheCrew(graph);
+        graph.close();
+
+        final TinkerGraph reloadedGraph = TinkerGraph.open(conf);
+        IoTest.assertCrewGraph(reloadedGraph, false);
+        reloadedGraph.close();
+    }
+
+    @Test
+    public void shouldReadSnapshotWrittenInManyChunks() throws Exception {
+        final File f = new File(TestHelper.makeTestDataFile(TinkerGraphTest.class, "shouldReadSnapshotWrittenInManyChunks.bin"));
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_VERTEX_ID_MANAGER, TinkerGraph.DefaultIdManager.LONG.name());
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_EDGE_ID_MANAGER, TinkerGraph.DefaultIdManager.LONG.name());
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_PRIMITIVE_ID_STORAGE, true);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_LABEL_INDEX, true);
+
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        final GraphTraversalSource g = graph.traversal();
+        for (int i = 0; i < 1000; i++) {
+            g.addV(i % 2 == 0 ? "even" : "odd").property("number", i).iterate();
+        }
+        final List<Vertex> targets = g.V().hasLabel("even").limit(3).toList();
+        g.V().toList().forEach(v -> targets.forEach(t -> v.addEdge("next", t, "weight", 0.5d)));
+        TinkerSnapshot.write(graph, f, 256);
+
+        final TinkerGraph reloadedGraph = TinkerGraph.open(conf);
+        TinkerSnapshot.read(reloadedGraph, f);
+        final GraphTraversalSource r = reloadedGraph.traversal();
+        assertEquals(1000L, (long) r.V().count().next());
+        assertEquals(3000L, (long) r.E().count().next());
+        assertEquals(500L, (long) r.V().hasLabel("odd").count().next());
+        assertEquals(g.V().has("number", 999).id().next(), r.V().has("number", 999).id().next());
+        assertEquals(1000L, (long) r.V(targets.get(0).id()).in("next").count().next());
+        assertEquals(3L, (long) r.V().has("number", 999).out("next").count().next());
+        assertEquals(1500d, r.E().values("weight").sum().next().doubleValue(), 0.0001d);
+    }
+
+    @Test
+    public void shouldBulkLoadGryoPartitions() throws Exception {
+        final TinkerGraph source = TinkerFactory.createModern();
+        final List<File> partitions = writePartitions(source, source.io(IoCore.gryo()).writer().create(), "kryo");
+
+        final TinkerGraph graph = TinkerGraph.open();
+        graph.createIndex("name", Vertex.class);
+        graph.createIndex("weight", Edge.class);
+        graph.bulkLoader().workers(2).load(partitions);
+
+        IoTest.assertModernGraph(graph, true, false);
+        assertEquals(1L, IteratorUtils.count(graph.vertexIndex.get("name", "marko")));
+        assertEquals(2L, IteratorUtils.count(graph.edgeIndex.get("weight", 0.4d)));
+    }
+
+    @Test
+    public void shouldBulkLoadGraphSONPartitions() throws Exception {
+        final TinkerGraph source = TinkerFactory.createTheCrew();
+        final List<File> partitions = writePartitions(source, source.io(IoCore.graphson()).writer().create(), "json");
+
+        final TinkerGraph graph = TinkerGraph.open();
+        graph.bulkLoader().reader(() -> graph.io(IoCore.graphson()).reader().create()).load(partitions);
+
+        IoTest.assertCrewGraph(graph, false);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotBulkLoadEdgeToMissingVertex() throws Exception {
+        final TinkerGraph source = TinkerFactory.createModern();
+        final List<File> partitions = writePartitions(source, source.io(IoCore.gryo()).writer().create(), "kryo");
+        TinkerGraph.open().bulkLoader().load(partitions.subList(0, 1));
+    }
+
+    @Test
+    public void shouldNotBulkLoadDuplicateVerticesConcurrentlyWithPrimitiveIdStorage() throws Exception {
+        final TinkerGraph source = TinkerFactory.createModern();
+        final File partition = new File(TestHelper.makeTestDataFile(TinkerGraphTest.class, "duplicate-partition.kryo"));
+        try (FileOutputStream out = new FileOutputStream(partition)) {
+            source.io(IoCore.gryo()).writer().create().writeVertices(out, source.vertices(), Direction.BOTH);
+        }
+        final List<File> partitions = Collections.nCopies(8, partition);
+
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_VERTEX_ID_MANAGER, TinkerGraph.DefaultIdManager.LONG.name());
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_EDGE_ID_MANAGER, TinkerGraph.DefaultIdManager.LONG.name());
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_PRIMITIVE_ID_STORAGE, true);
+
+        // every partition holds the same vertices so all but one of the workers adding a vertex must fail
+        for (int i = 0; i < 50; i++) {
+            final TinkerGraph graph = TinkerGraph.open(conf);
+            assertThat(graph.vertices, instanceOf(TinkerLongElementMap.class));
+            try {
+                graph.bulkLoader().workers(8).load(partitions);
+                fail("The partitions hold vertices with the same ids and should not have loaded");
+            } catch (IllegalArgumentException ex) {
+                assertThat(ex.getMessage(), containsString("already exists"));
+            }
+        }
+    }
+
+    private static List<File> writePartitions(final TinkerGraph graph, final GraphWriter writer, final String extension) throws Exception {
+        final List<Vertex> vertices = graph.traversal().V().order().by(T.id).toList();
+        final List<File> partitions = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            final File partition = new File(TestHelper.makeTestDataFile(TinkerGraphTest.class, "partition-" + i + "." + extension));
+            final List<Vertex> partitionVertices = new ArrayList<>();
+            for (int j = i; j < vertices.size(); j = j + 3) {
+                partitionVertices.add(vertices.get(j));
+            }
+            try (FileOutputStream out = new FileOutputStream(partition)) {
+                writer.writeVertices(out, partitionVertices.iterator(), Direction.BOTH);
+            }
+            partitions.add(partition);
+        }
+        return partitions;
+    }
+
     @Test
     public void shouldPersistWithRelativePath() {
         final String graphLocation = TestHelper.convertToRelative(TinkerGraphTest.class,
@@ -534,6 +1303,205 @@ public class TinkerGraphTest {
         reloadedGraph.close();
     }
 
+    @Test
+    public void shouldReplayWriteAheadLogWhenNotClosed() {
+        final Configuration conf = writeAheadLogConfiguration("shouldReplayWriteAheadLog.kryo");
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(graph);
+        final GraphTraversalSource g = graph.traversal();
+        g.V().has("name", "peter").drop().iterate();
+        g.E().has("weight", 0.4d).property("weight", 0.5d).iterate();
+        g.V().has("name", "josh").properties("name").property("since", 2010).iterate();
+        g.V().has("name", "vadas").properties("age").drop().iterate();
+        g.V().has("name", "marko").addE("knows").to(__.V().has("name", "ripple")).property("weight", 0.1d).iterate();
+
+        // the graph is not closed so its changes are only in the log
+        final TinkerGraph reloadedGraph = TinkerGraph.open(conf);
+        final GraphTraversalSource r = reloadedGraph.traversal();
+        assertEquals(5L, (long) r.V().count().next());
+        assertEquals(6L, (long) r.E().count().next());
+        assertEquals(0L, (long) r.V().has("name", "peter").count().next());
+        assertEquals(0L, (long) r.E().has("weight", 0.4d).count().next());
+        assertEquals(3L, (long) r.E().has("weight", 0.5d).count().next());
+        assertEquals(2010, r.V().has("name", "josh").properties("name").values("since").next());
+        assertEquals(0L, (long) r.V().has("name", "vadas").values("age").count().next());
+        assertEquals("ripple", r.V().has("name", "marko").outE("knows").has("weight", 0.1d).inV().values("name").next());
+        reloadedGraph.close();
+    }
+
+    @Test
+    public void shouldReplayWriteAheadLogRecordLargerThanItsBuffer() {
+        final Configuration conf = writeAheadLogConfiguration("shouldReplayWriteAheadLogRecordLargerThanItsBuffer.kryo");
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        final String bio = String.join("", Collections.nCopies(1000, "marko"));
+        graph.addVertex(T.id, 1, "name", "marko", "bio", bio);
+
+        final TinkerGraph reloadedGraph = TinkerGraph.open(conf);
+        assertEquals(bio, reloadedGraph.traversal().V(1).values("bio").next());
+        reloadedGraph.close();
+    }
+
+    @Test
+    public void shouldDiscardIncompleteWriteAheadLogRecord() throws Exception {
+        final Configuration conf = writeAheadLogConfiguration("shouldDiscardIncompleteWriteAheadLogRecord.kryo");
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(graph);
+
+        // simulate a record that was only partly written when the process ended
+        try (FileOutputStream out = new FileOutputStream(conf.getString(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION) + ".wal", true)) {
+            out.write(new byte[]{0, 0, 0, 100, 1, 2, 3});
+        }
+
+        final TinkerGraph reloadedGraph = TinkerGraph.open(conf);
+        IoTest.assertModernGraph(reloadedGraph, true, false);
+        reloadedGraph.addVertex(T.id, 100, "name", "stephen");
+
+        final TinkerGraph reloadedAgainGraph = TinkerGraph.open(conf);
+        assertEquals(7L, (long) reloadedAgainGraph.traversal().V().count().next());
+        assertEquals("stephen", reloadedAgainGraph.traversal().V(100).values("name").next());
+        reloadedAgainGraph.close();
+    }
+
+    @Test
+    public void shouldCompactWriteAheadLog() throws Exception {
+        final Configuration conf = writeAheadLogConfiguration("shouldCompactWriteAheadLog.kryo");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_WAL_COMPACTION_SIZE, 1L);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(graph);
+
+        // the first record seals the log which is then compacted into the snapshot in the background
+        final String graphLocation = conf.getString(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION);
+        final File sealed = new File(graphLocation + ".wal.sealed");
+        final long timeout = System.currentTimeMillis() + 30000;
+        while (sealed.exists() && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10);
+        }
+        assertThat(sealed.exists(), is(false));
+        assertThat(new File(graphLocation).exists(), is(true));
+
+        final TinkerGraph reloadedGraph = TinkerGraph.open(conf);
+        IoTest.assertModernGraph(reloadedGraph, true, false);
+        reloadedGraph.close();
+        assertEquals(0L, new File(graphLocation + ".wal").length());
+    }
+
+    @Test
+    public void shouldNotChangeGraphWhenWriteAheadLogCannotBeAppendedTo() {
+        final Configuration conf = writeAheadLogConfiguration("shouldNotChangeGraphWhenWriteAheadLogCannotBeAppendedTo.kryo");
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        graph.createIndex("name", Edge.class);
+        final Vertex marko = graph.addVertex(T.id, 1L, "name", "marko");
+        final Vertex vadas = graph.addVertex(T.id, 2L, "name", "vadas");
+        final Edge knows = marko.addEdge("knows", vadas, T.id, 7L, "weight", 0.5d);
+
+        // every mutation is logged before it is made so one that cannot be logged is not made
+        graph.wal.close();
+        final List<Runnable> mutations = Arrays.asList(
+                () -> graph.addVertex(T.id, 3L),
+                () -> marko.addEdge("knows", vadas, T.id, 8L, "name", "friend"),
+                () -> marko.property("age", 29),
+                () -> knows.property("weight", 1.0d),
+                marko::remove,
+                knows::remove,
+                () -> vadas.property("name").remove(),
+                graph::clear);
+        for (Runnable mutation : mutations) {
+            try {
+                mutation.run();
+                fail("The mutation should not be made if it cannot be logged");
+            } catch (UncheckedIOException ex) {
+                // expected
+            }
+        }
+
+        final GraphTraversalSource g = graph.traversal();
+        assertEquals(Arrays.asList(1L, 2L), g.V().id().toList());
+        assertEquals(Collections.singletonList(7L), g.E().id().toList());
+        assertEquals(0L, (long) g.E().has("name", "friend").count().next());
+        assertEquals(Arrays.asList("marko", "vadas"), g.V().values("name").toList());
+        assertEquals(0L, (long) g.V(1L).values("age").count().next());
+        assertEquals(0.5d, g.E(7L).values("weight").next());
+    }
+
+    @Test
+    public void shouldRetryCompactionOfWriteAheadLogThatFailed() throws Exception {
+        final Configuration conf = writeAheadLogConfiguration("shouldRetryCompactionOfWriteAheadLogThatFailed.kryo");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_WAL_COMPACTION_SIZE, 1L);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+
+        // a snapshot that cannot be read fails the compaction that the first record starts
+        final String graphLocation = conf.getString(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION);
+        final File snapshot = new File(graphLocation);
+        try (FileOutputStream out = new FileOutputStream(snapshot)) {
+            out.write(new byte[]{1, 2, 3});
+        }
+        graph.addVertex(T.id, 1L, "name", "marko");
+        assertNotNull(graph.wal.awaitCompaction());
+        final File sealed = new File(graphLocation + ".wal.sealed");
+        assertThat(sealed.exists(), is(true));
+
+        // the next record past the compaction size adds the log to the sealed log and compacts both
+        assertThat(snapshot.delete(), is(true));
+        graph.addVertex(T.id, 2L, "name", "vadas");
+        assertNull(graph.wal.awaitCompaction());
+        assertThat(sealed.exists(), is(false));
+
+        final TinkerGraph reloadedGraph = TinkerGraph.open(conf);
+        assertEquals(Arrays.asList("marko", "vadas"), reloadedGraph.traversal().V(1L, 2L).values("name").toList());
+        reloadedGraph.close();
+    }
+
+    @Test
+    public void shouldNotPersistGraphThatCompactsWriteAheadLog() {
+        final Configuration conf = writeAheadLogConfiguration("shouldNotPersistGraphThatCompactsWriteAheadLog.kryo");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_WAL_COMPACTION_SIZE, 1L);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_VERTEX_ID_MANAGER, TinkerGraph.DefaultIdManager.LONG.name());
+
+        final Configuration scratch = TinkerWriteAheadLog.scratchConfiguration(conf);
+        assertEquals(TinkerGraph.DefaultIdManager.LONG.name(), scratch.getString(TinkerGraph.GREMLIN_TINKERGRAPH_VERTEX_ID_MANAGER));
+        for (String key : Arrays.asList(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT,
+                TinkerGraph.GREMLIN_TINKERGRAPH_WAL, TinkerGraph.GREMLIN_TINKERGRAPH_WAL_SYNC,
+                TinkerGraph.GREMLIN_TINKERGRAPH_WAL_COMPACTION_SIZE)) {
+            assertThat(scratch.containsKey(key), is(false));
+        }
+        assertThat(conf.containsKey(TinkerGraph.GREMLIN_TINKERGRAPH_WAL), is(true));
+    }
+
+    @Test
+    public void shouldCloseWriteAheadLogWhenGraphIsClosed() {
+        final Configuration conf = writeAheadLogConfiguration("shouldCloseWriteAheadLog.kryo");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_WAL_SYNC, "interval");
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(graph);
+        final TinkerWriteAheadLog wal = graph.wal;
+        assertThat(wal.isClosed(), is(false));
+
+        graph.close();
+        assertThat(wal.isClosed(), is(true));
+        assertNull(graph.wal);
+
+        // closing again only persists the graph
+        graph.close();
+        final TinkerGraph reloadedGraph = TinkerGraph.open(conf);
+        IoTest.assertModernGraph(reloadedGraph, true, false);
+        reloadedGraph.close();
+    }
+
+    private static Configuration writeAheadLogConfiguration(final String fileName) {
+        final String graphLocation = TestHelper.makeTestDataFile(TinkerGraphTest.class, fileName);
+        for (String suffix : Arrays.asList("", ".wal", ".wal.sealed")) {
+            final File f = new File(graphLocation + suffix);
+            if (f.exists() && f.isFile()) f.delete();
+        }
+
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, "gryo");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, graphLocation);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_WAL, true);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_WAL_SYNC, "always");
+        return conf;
+    }
+
     @Test
     public void shouldPersistToAnyGraphFormat() {
         final String graphLocation = TestHelper.makeTestDataFile(TinkerGraphTest.class, "shouldPersistToAnyGraphFormat.dat");
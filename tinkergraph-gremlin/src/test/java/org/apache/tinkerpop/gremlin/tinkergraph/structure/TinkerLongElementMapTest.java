@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TinkerLongElementMapTest {
+
+    @Test
+    public void shouldPutGetAndRemoveAcrossResizes() {
+        final TinkerGraph graph = TinkerGraph.open();
+        final TinkerLongElementMap<Vertex> map = new TinkerLongElementMap<>(2);
+        for (long i = 0; i < 10000; i++) {
+            assertNull(map.put(i, graph.addVertex(T.id, i)));
+        }
+        assertEquals(10000, map.size());
+
+        for (long i = 0; i < 10000; i++) {
+            assertEquals(i, map.get(i).id());
+            assertEquals(i, map.get(Long.valueOf(i)).id());
+        }
+
+        for (long i = 0; i < 10000; i += 2) {
+            assertEquals(i, map.remove(i).id());
+        }
+        assertEquals(5000, map.size());
+
+        for (long i = 0; i < 10000; i++) {
+            assertEquals(i % 2 != 0, map.containsKey(i));
+        }
+    }
+
+    @Test
+    public void shouldPutIfAbsentAtomically() throws Exception {
+        final TinkerGraph graph = TinkerGraph.open();
+        final int threadCount = 8;
+        final Vertex[] vertices = new Vertex[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            vertices[i] = graph.addVertex();
+        }
+
+        for (int round = 0; round < 20; round++) {
+            final TinkerLongElementMap<Vertex> map = new TinkerLongElementMap<>(2);
+            final AtomicInteger added = new AtomicInteger();
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Thread> threads = new ArrayList<>();
+            for (int i = 0; i < threadCount; i++) {
+                final Vertex vertex = vertices[i];
+                final Thread thread = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException ex) {
+                        throw new RuntimeException(ex);
+                    }
+                    for (long id = 0; id < 2000; id++) {
+                        if (null == (id % 2 == 0 ? map.putIfAbsent(Long.valueOf(id), vertex) : map.computeIfAbsent(Long.valueOf(id), k -> vertex)))
+                            added.incrementAndGet();
+                    }
+                });
+                thread.start();
+                threads.add(thread);
+            }
+            start.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            // each id is added by exactly one thread, computeIfAbsent returning the added value rather than null
+            assertEquals(2000, map.size());
+            assertEquals(1000, added.get());
+        }
+    }
+
+    @Test
+    public void shouldComputeIfAbsent() {
+        final TinkerGraph graph = TinkerGraph.open();
+        final TinkerLongElementMap<Vertex> map = new TinkerLongElementMap<>(2);
+        final Vertex v1 = graph.addVertex();
+        final Vertex v2 = graph.addVertex();
+        assertSame(v1, map.computeIfAbsent(1L, k -> v1));
+        assertSame(v1, map.computeIfAbsent(1L, k -> v2));
+        assertNull(map.computeIfAbsent(2L, k -> null));
+        assertFalse(map.containsKey(2L));
+        assertSame(v1, map.putIfAbsent(1L, v2));
+        assertNull(map.putIfAbsent(2L, v2));
+        assertSame(v2, map.get(2L));
+    }
+
+    @Test
+    public void shouldReuseRemovedSlots() {
+        final TinkerGraph graph = TinkerGraph.open();
+        final TinkerLongElementMap<Vertex> map = new TinkerLongElementMap<>(1);
+        final Vertex v = graph.addVertex(T.id, 1L);
+        for (int i = 0; i < 100000; i++) {
+            map.put(1L, v);
+            map.remove(1L);
+        }
+        assertTrue(map.isEmpty());
+        assertNull(map.get(1L));
+    }
+
+    @Test
+    public void shouldReplaceExistingValue() {
+        final TinkerGraph graph = TinkerGraph.open();
+        final TinkerLongElementMap<Vertex> map = new TinkerLongElementMap<>();
+        final Vertex v1 = graph.addVertex(T.id, 1L);
+        final Vertex v2 = graph.addVertex(T.id, 2L);
+        assertNull(map.put(1L, v1));
+        assertSame(v1, map.put(1L, v2));
+        assertSame(v2, map.get(1L));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void shouldNotFindNonLongKeys() {
+        final TinkerGraph graph = TinkerGraph.open();
+        final TinkerLongElementMap<Vertex> map = new TinkerLongElementMap<>();
+        map.put(1L, graph.addVertex(T.id, 1L));
+        assertNull(map.get((Object) 1));
+        assertNull(map.get("1"));
+        assertFalse(map.containsKey((Object) 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotPutNonLongKeys() {
+        final TinkerGraph graph = TinkerGraph.open();
+        final TinkerLongElementMap<Vertex> map = new TinkerLongElementMap<>();
+        map.put((Object) 1, graph.addVertex(T.id, 1));
+    }
+
+    @Test
+    public void shouldIterateAndRemoveValues() {
+        final TinkerGraph graph = TinkerGraph.open();
+        final TinkerLongElementMap<Vertex> map = new TinkerLongElementMap<>(4);
+        for (long i = 0; i < 1000; i++) {
+            map.put(i, graph.addVertex(T.id, i));
+        }
+
+        final Set<Object> ids = new HashSet<>();
+        final Iterator<Vertex> itty = map.values().iterator();
+        while (itty.hasNext()) {
+            final Vertex v = itty.next();
+            assertTrue(ids.add(v.id()));
+            if ((long) v.id() < 500) itty.remove();
+        }
+        assertEquals(1000, ids.size());
+        assertEquals(500, map.size());
+        map.keySet().forEach(id -> assertTrue((long) id >= 500));
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.values().iterator().hasNext());
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TinkerPropertyMapTest {
+
+    @Test
+    public void shouldBehaveAsMapInInsertionOrder() {
+        final TinkerPropertyMap<Object> map = new TinkerPropertyMap<>(TinkerShape.root());
+        final Map<String, Object> expected = new LinkedHashMap<>();
+        for (int i = 0; i < 20; i++) {
+            assertNull(map.put("k" + i, i));
+            expected.put("k" + i, i);
+            assertEquals(expected, map);
+            assertEquals(expected.keySet().toString(), map.keySet().toString());
+        }
+
+        assertEquals(5, map.put("k5", 50));
+        expected.put("k5", 50);
+        assertEquals(expected, map);
+
+        assertEquals(50, map.remove("k5"));
+        assertNull(map.remove("k5"));
+        expected.remove("k5");
+        assertEquals(expected, map);
+        assertEquals(expected.keySet().toString(), map.keySet().toString());
+        assertFalse(map.containsKey("k5"));
+        assertTrue(map.containsKey(new String("k6")));
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get("k6"));
+    }
+
+    @Test
+    public void shouldRemoveAndSetThroughIterator() {
+        final TinkerPropertyMap<Object> map = new TinkerPropertyMap<>(TinkerShape.root());
+        map.put("a", 1);
+        map.put("b", 2);
+        map.put("c", 3);
+
+        final Iterator<Map.Entry<String, Object>> itty = map.entrySet().iterator();
+        while (itty.hasNext()) {
+            final Map.Entry<String, Object> entry = itty.next();
+            if (entry.getKey().equals("b"))
+                itty.remove();
+            else
+                entry.setValue((int) entry.getValue() * 10);
+        }
+
+        assertEquals(2, map.size());
+        assertEquals(10, map.get("a"));
+        assertEquals(30, map.get("c"));
+        assertEquals(Arrays.asList("a", "c"), Arrays.asList(map.keySet().toArray()));
+    }
+
+    @Test
+    public void shouldRemoveThroughIteratorWhenShapesRunOut() {
+        final TinkerShape root = TinkerShape.root();
+        final TinkerPropertyMap<Object> map = new TinkerPropertyMap<>(root);
+        map.put("a", 1);
+        map.put("b", 2);
+        map.put("c", 3);
+
+        // use up the shapes so that removing a key moves the entries of the map to a HashMap mid-iteration
+        for (int i = 0; null != root.with("x" + i); i++) ;
+
+        final List<String> seen = new ArrayList<>();
+        final Iterator<Map.Entry<String, Object>> itty = map.entrySet().iterator();
+        while (itty.hasNext()) {
+            final Map.Entry<String, Object> entry = itty.next();
+            seen.add(entry.getKey());
+            if (entry.getKey().equals("a"))
+                itty.remove();
+            else
+                entry.setValue((int) entry.getValue() * 10);
+        }
+
+        assertEquals(Arrays.asList("a", "b", "c"), seen);
+        assertEquals(2, map.size());
+        assertFalse(map.containsKey("a"));
+        assertEquals(20, map.get("b"));
+        assertEquals(30, map.get("c"));
+    }
+
+    @Test
+    public void shouldShareShapesAndInternStrings() {
+        final TinkerGraph graph = TinkerGraph.open();
+        final Vertex v1 = graph.addVertex(new String("person"));
+        final Vertex v2 = graph.addVertex(new String("person"));
+        v1.property(new String("name"), "marko");
+        v2.property(new String("name"), "vadas");
+
+        assertSame(v1.label(), v2.label());
+        assertSame(v1.property("name").key(), v2.property("name").key());
+
+        final TinkerShape root = TinkerShape.root();
+        assertSame(root.with("name").with("age"), root.with(new String("name")).with(new String("age")));
+        assertSame(root.with("name"), root.with("name").with("age").without(1));
+        assertEquals(1, root.with("name").with("age").without(0).size());
+    }
+
+    @Test
+    public void shouldFallBackToEntriesWhenShapesRunOut() {
+        final TinkerShape root = TinkerShape.root();
+        final TinkerPropertyMap<Object> map = new TinkerPropertyMap<>(root);
+        final Map<String, Object> expected = new LinkedHashMap<>();
+        for (int i = 0; i < TinkerShape.MAX_KEYS + 10; i++) {
+            map.put("k" + i, i);
+            expected.put("k" + i, i);
+        }
+        assertEquals(expected, map);
+
+        map.remove("k0");
+        expected.remove("k0");
+        assertEquals(expected, map);
+    }
+}
@@ -0,0 +1,340 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.util.TransactionException;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TinkerTransactionGraphTest {
+
+    private final TinkerTransactionGraph graph = TinkerTransactionGraph.open();
+    private final GraphTraversalSource g = graph.traversal();
+
+    // a second thread to run a transaction concurrently with the one of the test thread
+    private final ExecutorService other = Executors.newSingleThreadExecutor();
+
+    @After
+    public void shutdown() {
+        other.shutdownNow();
+    }
+
+    @Test
+    public void shouldNotSeeChangesBeforeCommit() throws Exception {
+        graph.addVertex(T.id, 1L, "name", "marko");
+        assertEquals(0L, (long) inOther(() -> g.V().count().next()));
+        assertEquals(1L, (long) g.V().count().next());
+
+        graph.tx().commit();
+        assertEquals(1L, (long) inOther(() -> g.V().count().next()));
+    }
+
+    @Test
+    public void shouldGenerateIdsThatAreNotTaken() {
+        graph.addVertex(T.id, 0L);
+        graph.tx().commit();
+        final Vertex v = graph.addVertex(T.id, 1L);
+        assertEquals(2L, graph.addVertex().id());
+        assertEquals(3L, v.addEdge("knows", v).id());
+    }
+
+    @Test
+    public void shouldFindElementsByOtherIdRepresentations() {
+        final Vertex v = graph.addVertex();
+        final Object uuid = UUID.randomUUID();
+        graph.addVertex(T.id, uuid);
+        graph.tx().commit();
+
+        assertEquals(v, graph.vertices(0).next());
+        assertEquals(v, graph.vertices(0.0d).next());
+        assertEquals(v, graph.vertices("0").next());
+        assertEquals(uuid, graph.vertices(uuid.toString()).next().id());
+        assertFalse(graph.vertices("marko").hasNext());
+    }
+
+    @Test
+    public void shouldReadSnapshotAsOfOpen() throws Exception {
+        graph.addVertex(T.id, 1L, "name", "marko");
+        graph.tx().commit();
+
+        assertEquals(1L, (long) inOtherHoldingTransaction(() -> g.V().count().next()));
+        graph.addVertex(T.id, 2L, "name", "vadas");
+        g.V(1L).property("name", "okram").iterate();
+        graph.tx().commit();
+
+        assertEquals(1L, (long) inOtherHoldingTransaction(() -> g.V().count().next()));
+        assertEquals("marko", inOther(() -> g.V(1L).values("name").next()));
+
+        assertEquals(2L, (long) inOther(() -> g.V().count().next()));
+        assertEquals("okram", inOther(() -> g.V(1L).values("name").next()));
+    }
+
+    @Test
+    public void shouldRollback() {
+        graph.addVertex(T.id, 1L, "name", "marko");
+        graph.tx().commit();
+
+        g.V(1L).property("name", "okram").iterate();
+        g.addV().property(T.id, 2L).iterate();
+        g.V(1L).addE("knows").to(vertex(2L)).iterate();
+        assertEquals(1L, (long) g.E().count().next());
+        graph.tx().rollback();
+
+        assertEquals("marko", g.V(1L).values("name").next());
+        assertEquals(1L, (long) g.V().count().next());
+        assertEquals(0L, (long) g.E().count().next());
+    }
+
+    @Test
+    public void shouldFailCommitWhenElementChangedByOtherTransaction() throws Exception {
+        graph.addVertex(T.id, 1L, "name", "marko");
+        graph.tx().commit();
+
+        g.V(1L).property("name", "okram").iterate();
+        inOther(() -> {
+            g.V(1L).property("name", "mr. rodriguez").iterate();
+            graph.tx().commit();
+            return null;
+        });
+
+        try {
+            graph.tx().commit();
+            fail("Commit should fail as the vertex was changed since the transaction opened");
+        } catch (TransactionException ex) {
+            assertFalse(graph.tx().isOpen());
+        }
+        assertEquals("mr. rodriguez", g.V(1L).values("name").next());
+    }
+
+    @Test
+    public void shouldNotConflictWhenChangingDifferentElements() throws Exception {
+        graph.addVertex(T.id, 1L);
+        graph.addVertex(T.id, 2L);
+        graph.tx().commit();
+
+        g.V(1L).property("name", "marko").iterate();
+        inOther(() -> {
+            g.V(2L).property("name", "vadas").iterate();
+            graph.tx().commit();
+            return null;
+        });
+        graph.tx().commit();
+
+        assertEquals(new HashSet<>(Arrays.asList("marko", "vadas")), g.V().values("name").toSet());
+    }
+
+    @Test
+    public void shouldFailCommitWhenAddingEdgeToRemovedVertex() throws Exception {
+        graph.addVertex(T.id, 1L);
+        graph.addVertex(T.id, 2L);
+        graph.tx().commit();
+
+        g.V(1L).addE("knows").to(vertex(2L)).iterate();
+        inOther(() -> {
+            g.V(2L).drop().iterate();
+            graph.tx().commit();
+            return null;
+        });
+
+        try {
+            graph.tx().commit();
+            fail("Commit should fail as the edge refers to a vertex removed since the transaction opened");
+        } catch (TransactionException ignored) {
+        }
+        assertEquals(0L, (long) g.E().count().next());
+    }
+
+    @Test
+    public void shouldFailCommitWhenRemovingVertexWithEdgeAddedByOtherTransaction() throws Exception {
+        graph.addVertex(T.id, 1L);
+        graph.addVertex(T.id, 2L);
+        graph.tx().commit();
+
+        g.V(2L).drop().iterate();
+        inOther(() -> {
+            g.V(1L).addE("knows").to(vertex(2L)).iterate();
+            graph.tx().commit();
+            return null;
+        });
+
+        try {
+            graph.tx().commit();
+            fail("Commit should fail as an edge was added to the vertex since the transaction opened");
+        } catch (TransactionException ignored) {
+        }
+        assertEquals(1L, (long) g.V(2L).inE("knows").count().next());
+    }
+
+    @Test
+    public void shouldRemoveVertexWithEdges() {
+        final Vertex v1 = graph.addVertex(T.id, 1L);
+        final Vertex v2 = graph.addVertex(T.id, 2L);
+        v1.addEdge("knows", v2, T.id, 10L, "weight", 0.5d);
+        v2.addEdge("knows", v1, T.id, 11L);
+        graph.tx().commit();
+
+        assertEquals(0.5d, g.E(10L).values("weight").next());
+        assertEquals(2L, (long) g.V(1L).bothE().count().next());
+        g.V(2L).drop().iterate();
+        assertEquals(0L, (long) g.V(1L).bothE().count().next());
+        graph.tx().commit();
+
+        assertEquals(1L, (long) g.V().count().next());
+        assertEquals(0L, (long) g.E().count().next());
+        graph.tx().commit();
+
+        // nothing is open so the removed elements and the older versions are discarded
+        assertNull(graph.vertices.get(2L));
+        assertNull(graph.edges.get(10L));
+        assertTrue(graph.vertices.get(1L).outEdges.get("knows").isEmpty());
+    }
+
+    @Test
+    public void shouldReuseIdentifiersRemovedInSameTransaction() {
+        final Vertex v1 = graph.addVertex(T.id, 1L, T.label, "person");
+        v1.addEdge("knows", graph.addVertex(T.id, 2L), T.id, 10L);
+        graph.tx().commit();
+
+        g.V(1L).drop().iterate();
+        final Vertex readded = graph.addVertex(T.id, 1L, T.label, "software");
+        readded.addEdge("created", graph.vertices(2L).next(), T.id, 10L);
+        graph.tx().commit();
+
+        assertEquals("software", g.V(1L).label().next());
+        assertEquals("created", g.E(10L).label().next());
+        assertEquals(1L, (long) g.V(1L).outE().count().next());
+    }
+
+    @Test
+    public void shouldDiscardVersionsOnlyOnceNoTransactionReadsThem() throws Exception {
+        graph.addVertex(T.id, 1L, "name", "marko");
+        graph.tx().commit();
+
+        assertEquals("marko", inOtherHoldingTransaction(() -> g.V(1L).values("name").next()));
+        for (int i = 0; i < 10; i++) {
+            g.V(1L).property("name", "marko" + i).iterate();
+            graph.tx().commit();
+        }
+        assertEquals("marko", inOther(() -> g.V(1L).values("name").next()));
+        g.V(1L).property("name", "okram").iterate();
+        graph.tx().commit();
+
+        final TinkerElementContainer.Vertex container = graph.vertices.get(1L);
+        assertTrue(container.prune(container.lastCommitted()));
+        assertNull(container.stateAt(container.lastCommitted() - 1));
+    }
+
+    @Test
+    public void shouldSupportMultiAndMetaProperties() {
+        final Vertex v = graph.addVertex(T.id, 1L);
+        v.property(VertexProperty.Cardinality.list, "location", "santa fe", "startTime", 2005);
+        v.property(VertexProperty.Cardinality.list, "location", "seattle", "startTime", 2001);
+        graph.tx().commit();
+
+        assertEquals(2L, (long) g.V(1L).properties("location").count().next());
+        g.V(1L).properties("location").hasValue("seattle").property("endTime", 2004).iterate();
+        graph.tx().commit();
+
+        assertEquals(2004, g.V(1L).properties("location").hasValue("seattle").values("endTime").next());
+        g.V(1L).properties("location").hasValue("santa fe").drop().iterate();
+        graph.tx().commit();
+
+        assertEquals("seattle", g.V(1L).values("location").next());
+        assertEquals(1L, (long) g.V(1L).properties("location").count().next());
+    }
+
+    @Test
+    public void shouldNotBlockReadersWhileWriting() throws Exception {
+        graph.addVertex(T.id, 0L);
+        graph.tx().commit();
+
+        final AtomicBoolean done = new AtomicBoolean(false);
+        final Future<Integer> reads = other.submit(() -> {
+            int snapshots = 0;
+            do {
+                // every commit adds a vertex and an edge to it so each snapshot has one more vertex than edges
+                final long vertices = g.V().count().next();
+                final long edges = g.E().count().next();
+                graph.tx().commit();
+                if (vertices != edges + 1)
+                    throw new IllegalStateException(String.format("Inconsistent snapshot of %s vertices and %s edges", vertices, edges));
+                snapshots++;
+            } while (!done.get());
+            return snapshots;
+        });
+
+        for (long i = 1; i <= 500; i++) {
+            final Vertex previous = graph.vertices(i - 1).next();
+            previous.addEdge("next", graph.addVertex(T.id, i));
+            graph.tx().commit();
+        }
+        done.set(true);
+
+        assertTrue(reads.get(30, TimeUnit.SECONDS) > 0);
+        assertEquals(501L, (long) g.V().count().next());
+        assertEquals(500L, (long) g.V(0L).repeat(__.out()).emit().count().next());
+    }
+
+    private Vertex vertex(final Object id) {
+        return graph.vertices(id).next();
+    }
+
+    /**
+     * Runs the callable in the other thread and then closes the transaction it opened, so that each call reads the
+     * graph as of the latest commit.
+     */
+    private <T> T inOther(final Callable<T> callable) throws Exception {
+        return other.submit(() -> {
+            try {
+                return callable.call();
+            } finally {
+                if (graph.tx().isOpen()) graph.tx().rollback();
+            }
+        }).get(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Runs the callable in the other thread and leaves the transaction it opened open, so that later calls read the
+     * same snapshot until a call to {@link #inOther(Callable)} closes it.
+     */
+    private <T> T inOtherHoldingTransaction(final Callable<T> callable) throws Exception {
+        return other.submit(callable).get(30, TimeUnit.SECONDS);
+    }
+}